@@ -15,11 +15,13 @@
  */
 package com.esri.geoportal.harvester.api.base;
 
+import com.esri.geoportal.commons.http.CrawlThrottler;
 import com.esri.geoportal.commons.robots.BotsConfig;
 import com.esri.geoportal.commons.robots.BotsConfigImpl;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import static com.esri.geoportal.harvester.api.base.BotsConstants.*;
 
 /**
@@ -39,6 +41,8 @@ public final class BotsBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
   @Override
   public void override(Map<String, String> params) {
     consume(params,P_BOTS_AGENT);
+    consume(params,P_BOTS_BURST);
+    consume(params,P_BOTS_CONCURRENCY);
   }
 
   /**
@@ -48,7 +52,9 @@ public final class BotsBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
    */
   public BotsConfig getBotsConfig() {
     return new BotsConfigImpl(
-            StringUtils.defaultIfBlank(get(P_BOTS_AGENT), BotsConfig.DEFAULT.getUserAgent())
+            StringUtils.defaultIfBlank(get(P_BOTS_AGENT), BotsConfig.DEFAULT.getUserAgent()),
+            Math.max(1, NumberUtils.toInt(get(P_BOTS_BURST), CrawlThrottler.DEFAULT_BURST)),
+            Math.max(0, NumberUtils.toInt(get(P_BOTS_CONCURRENCY), CrawlThrottler.DEFAULT_CONCURRENCY))
     );
   }
 
@@ -59,6 +65,8 @@ public final class BotsBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
    */
   public void setBotsConfig(BotsConfig botsConfig) {
     set(P_BOTS_AGENT, botsConfig.getUserAgent());
+    set(P_BOTS_BURST, Integer.toString(botsConfig.getBurst()));
+    set(P_BOTS_CONCURRENCY, Integer.toString(botsConfig.getConcurrency()));
   }
   
   @Override
@@ -20,4 +20,6 @@ package com.esri.geoportal.harvester.api.base;
  */
 public final class BotsConstants {
   public static final String P_BOTS_AGENT = "bots-config-agent";
+  public static final String P_BOTS_BURST = "bots-config-burst";
+  public static final String P_BOTS_CONCURRENCY = "bots-config-concurrency";
 }
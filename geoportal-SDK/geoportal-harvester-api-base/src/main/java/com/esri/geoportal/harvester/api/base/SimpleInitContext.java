@@ -18,6 +18,7 @@ package com.esri.geoportal.harvester.api.base;
 import com.esri.geoportal.harvester.api.Broker;
 import com.esri.geoportal.harvester.api.ProcessInstance.Listener;
 import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.ex.DataException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -64,5 +65,10 @@ public class SimpleInitContext implements Broker.InitContext {
   public void preventCleanup() {
     preventCleanup = true;
   }
+
+  @Override
+  public void reportError(DataException ex) {
+    listeners.forEach(l -> l.onError(ex));
+  }
   
 }
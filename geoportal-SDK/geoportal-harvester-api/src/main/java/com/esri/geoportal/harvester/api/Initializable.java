@@ -17,6 +17,7 @@ package com.esri.geoportal.harvester.api;
 
 import com.esri.geoportal.harvester.api.ProcessInstance.Listener;
 import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.ex.DataException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import java.util.Map;
 
@@ -69,5 +70,12 @@ public interface Initializable {
      * Makes cleanup disabled.
      */
     void preventCleanup();
+    
+    /**
+     * Reports error which can not be thrown by the failing call, for example
+     * when publishing of the buffered data fails during termination.
+     * @param ex error
+     */
+    void reportError(DataException ex);
   }
 }
@@ -75,6 +75,9 @@ import com.esri.geoportal.harvester.oai.pmh.OaiConnector;
 import com.esri.geoportal.harvester.sink.SinkConnector;
 import com.esri.geoportal.harvester.jdbc.JdbcConnector;
 import com.esri.geoportal.harvester.dcat.DcatConnector;
+import com.esri.geoportal.harvester.archive.ArchiveInputConnector;
+import com.esri.geoportal.harvester.archive.ArchiveOutputConnector;
+import com.esri.geoportal.harvester.jdbcpub.JdbcPublisherConnector;
 import java.io.IOException;
 import java.net.URL;
 import javax.xml.transform.TransformerConfigurationException;
@@ -273,6 +276,7 @@ public class Bootstrap {
       inboundConnectorRegistry.put(OaiConnector.TYPE, new OaiConnector());
       inboundConnectorRegistry.put(JdbcConnector.TYPE, new JdbcConnector(true));
       inboundConnectorRegistry.put(DcatConnector.TYPE, new DcatConnector(metaBuilder));
+      inboundConnectorRegistry.put(ArchiveInputConnector.TYPE, new ArchiveInputConnector());
     }
     
     return inboundConnectorRegistry;
@@ -292,6 +296,8 @@ public class Bootstrap {
       outboundConnectorRegistry.put(AgpOutputConnector.TYPE, new AgpOutputConnector(metaAnalyzer, geometryServiceUrl));
       outboundConnectorRegistry.put(ConsoleConnector.TYPE, new ConsoleConnector());
       outboundConnectorRegistry.put(FolderConnector.TYPE, new FolderConnector());
+      outboundConnectorRegistry.put(ArchiveOutputConnector.TYPE, new ArchiveOutputConnector());
+      outboundConnectorRegistry.put(JdbcPublisherConnector.TYPE, new JdbcPublisherConnector());
       outboundConnectorRegistry.put(com.esri.geoportal.harvester.gpt.GptConnector.TYPE, new com.esri.geoportal.harvester.gpt.GptConnector(geometryServiceUrl));
     }
     
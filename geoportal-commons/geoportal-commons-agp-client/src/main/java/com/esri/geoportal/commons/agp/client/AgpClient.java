@@ -24,6 +24,7 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.InetAddress;
 import java.net.MalformedURLException;
@@ -31,14 +32,17 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
@@ -47,6 +51,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestWrapper;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.client.utils.URIUtils;
 import org.apache.http.entity.ContentType;
@@ -65,11 +70,15 @@ public class AgpClient implements Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(AgpClient.class);
   private static final String QUERY_EXTRAS = "-type:\"Layer\" -type: \"Map Document\" -type:\"Map Package\" -type:\"Basemap Package\" -type:\"Mobile Basemap Package\" -type:\"Mobile Map Package\" -type:\"ArcPad Package\" -type:\"Project Package\" -type:\"Project Template\" -type:\"Desktop Style\" -type:\"Pro Map\" -type:\"Layout\" -type:\"Explorer Map\" -type:\"Globe Document\" -type:\"Scene Document\" -type:\"Published Map\" -type:\"Map Template\" -type:\"Windows Mobile Package\" -type:\"Layer Package\" -type:\"Explorer Layer\" -type:\"Geoprocessing Package\" -type:\"Desktop Application Template\" -type:\"Code Sample\" -type:\"Geoprocessing Package\" -type:\"Geoprocessing Sample\" -type:\"Locator Package\" -type:\"Workflow Manager Package\" -type:\"Windows Mobile Package\" -type:\"Explorer Add In\" -type:\"Desktop Add In\" -type:\"File Geodatabase\" -type:\"Feature Collection Template\" -type:\"Code Attachment\" -type:\"Featured Items\" -type:\"Symbol Set\" -type:\"Color Set\" -type:\"Windows Viewer Add In\" -type:\"Windows Viewer Configuration\"";
   private static final Integer DEFAULT_MAX_REDIRECTS = 5;
+  private static final int MAX_BACKOFF_ATTEMPTS = 5;
+  private static final long INITIAL_BACKOFF = 1000L;
+  private static final long MAX_BACKOFF = 60000L;
   
   private final URL rootUrl;
   private final SimpleCredentials credentials;
   private final CloseableHttpClient httpClient;
   private final Integer maxRedirects;
+  private volatile long throttledUntil;
   
   /**
    * Creates instance of the client.
@@ -90,9 +99,26 @@ public class AgpClient implements Closeable {
 
   @Override
   public void close() throws IOException {
+    TokenManager.getInstance().release(this);
     httpClient.close();
   }
 
+  /**
+   * Gets root URL.
+   * @return root URL
+   */
+  public URL getRootUrl() {
+    return rootUrl;
+  }
+
+  /**
+   * Gets credentials.
+   * @return credentials
+   */
+  public SimpleCredentials getCredentials() {
+    return credentials;
+  }
+
   /**
    * Adds item.
    * @param owner user name
@@ -397,8 +423,8 @@ public class AgpClient implements Closeable {
   /**
    * Searches for items.
    * @param query query
-   * @param num max number of items
-   * @param start start item
+   * @param num max number of items (0 for server default)
+   * @param start start item (0 for the first item)
    * @param token token (optional)
    * @return query response
    * @throws URISyntaxException if invalid URL
@@ -409,6 +435,12 @@ public class AgpClient implements Closeable {
     
     builder.setParameter("f", "json");
     builder.setParameter("q", String.format("%s %s", query, QUERY_EXTRAS));
+    if (num>0) {
+      builder.setParameter("num", Long.toString(num));
+    }
+    if (start>0) {
+      builder.setParameter("start", Long.toString(start));
+    }
     if (token!=null) {
       builder.setParameter("token", token);
     }
@@ -439,7 +471,32 @@ public class AgpClient implements Closeable {
     
     req.setEntity(createEntity(params));
 
-    return execute(req,TokenResponse.class);
+    // generating another token has no side effects, thus safe to repeat
+    return execute(req,TokenResponse.class,true);
+  }
+  
+  /**
+   * Gets token.
+   * <p>
+   * Token is obtained from the shared {@link TokenManager}, thus it is 
+   * generated only if there is no valid cached token for the same portal and
+   * credentials.
+   *
+   * @return token or <code>null</code> if no credentials
+   * @throws URISyntaxException if invalid URL
+   * @throws IOException if accessing token fails
+   */
+  public String getToken() throws URISyntaxException, IOException {
+    return TokenManager.getInstance().getToken(this);
+  }
+
+  /**
+   * Invalidates token rejected by the server.
+   *
+   * @param token token
+   */
+  public void invalidateToken(String token) {
+    TokenManager.getInstance().invalidate(this, token);
   }
   
   private Map<String, String> makeStdParams(String title, String description, ItemType itemType, URL thumbnailUrl, Double [] extent, String [] typeKeywords, String [] tags, String token) {
@@ -556,7 +613,11 @@ public class AgpClient implements Closeable {
   }
   
   private <T> T execute(HttpUriRequest req, Class<T> clazz) throws IOException {
-    String responseContent = execute(req, 0);
+    return execute(req, clazz, isIdempotent(req));
+  }
+  
+  private <T> T execute(HttpUriRequest req, Class<T> clazz, boolean idempotent) throws IOException {
+    String responseContent = execute(req, 0, 0, idempotent);
     ObjectMapper mapper = new ObjectMapper();
     mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
@@ -564,13 +625,45 @@ public class AgpClient implements Closeable {
   }
   
   private String execute(HttpUriRequest req, Integer redirectDepth) throws IOException {
+    return execute(req, redirectDepth, 0, isIdempotent(req));
+  }
+  
+  /**
+   * Checks if request can be safely repeated.
+   * @param req request
+   * @return <code>true</code> for requests only reading data
+   */
+  private static boolean isIdempotent(HttpUriRequest req) {
+    return "GET".equalsIgnoreCase(req.getMethod()) || "HEAD".equalsIgnoreCase(req.getMethod());
+  }
+  
+  /**
+   * Executes request.
+   * <p>
+   * Idempotent requests throttled by the portal (429 or 503) are repeated 
+   * after the delay suggested by the server or after exponential backoff; 
+   * other requests (adding, updating, sharing items) fail since the portal 
+   * might have already processed them. While throttled, all requests made 
+   * through this client are suspended.
+   */
+  private String execute(HttpUriRequest req, Integer redirectDepth, int attempt, boolean idempotent) throws IOException {
     // Determine if we've reached the limit of redirection attempts
     if (redirectDepth > this.maxRedirects) {
       throw new HttpResponseException(HttpStatus.SC_GONE, "Too many redirects, aborting");
     }
+    
+    awaitThrottling(req.getURI());
 
     try (CloseableHttpResponse httpResponse = httpClient.execute(req); InputStream contentStream = httpResponse.getEntity().getContent();) {
-      if (httpResponse.getStatusLine().getStatusCode()>=400) {
+      int statusCode = httpResponse.getStatusLine().getStatusCode();
+      if ((statusCode==429 || statusCode==503) && attempt < MAX_BACKOFF_ATTEMPTS) {
+        long delay = getRetryAfter(httpResponse, attempt);
+        throttledUntil = Math.max(throttledUntil, System.currentTimeMillis() + delay);
+        if (!idempotent) {
+          throw new HttpResponseException(statusCode, httpResponse.getStatusLine().getReasonPhrase());
+        }
+        LOG.debug(String.format("Request throttled with status %d; repeating in %d milliseconds: %s", statusCode, delay, req.getURI()));
+      } else if (statusCode>=400) {
         throw new HttpResponseException(httpResponse.getStatusLine().getStatusCode(), httpResponse.getStatusLine().getReasonPhrase());
       } else if (httpResponse.getStatusLine().getStatusCode() >= 300) {
         // See if we can redirect the command
@@ -596,15 +689,46 @@ public class AgpClient implements Closeable {
             
             newReq.setURI(redirUrl);
 
-            return execute(newReq, ++redirectDepth);
+            return execute(newReq, ++redirectDepth, attempt, idempotent);
           } catch (IOException | URISyntaxException e) {
             LOG.debug("Error executing request", e);
             throw new HttpResponseException(httpResponse.getStatusLine().getStatusCode(), httpResponse.getStatusLine().getReasonPhrase());
           }
         }
+        return IOUtils.toString(contentStream, "UTF-8");
+      } else {
+        return IOUtils.toString(contentStream, "UTF-8");
+      }
+    }
+    
+    return execute(req, redirectDepth, attempt + 1, idempotent);
+  }
+  
+  private void awaitThrottling(URI uri) throws IOException {
+    long delay = throttledUntil - System.currentTimeMillis();
+    if (delay > 0) {
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(String.format("Interrupted while waiting to execute request: %s", uri));
+      }
+    }
+  }
+  
+  private long getRetryAfter(HttpResponse response, int attempt) {
+    Header retryAfterHeader = response.getFirstHeader("Retry-After");
+    if (retryAfterHeader != null) {
+      Date retryAfter = DateUtils.parseDate(retryAfterHeader.getValue());
+      if (retryAfter != null) {
+        return Math.min(MAX_BACKOFF, Math.max(0, retryAfter.getTime() - System.currentTimeMillis()));
+      }
+      long seconds = NumberUtils.toLong(StringUtils.trimToEmpty(retryAfterHeader.getValue()), -1);
+      if (seconds >= 0) {
+        return Math.min(MAX_BACKOFF, 1000L * seconds);
       }
-      return IOUtils.toString(contentStream, "UTF-8");
     }
+    return Math.min(MAX_BACKOFF, INITIAL_BACKOFF << attempt);
   }
 
   private URL adjustUrl(URL rootUrl) {
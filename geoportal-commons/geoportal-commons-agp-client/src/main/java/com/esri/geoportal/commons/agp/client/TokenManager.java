@@ -0,0 +1,286 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.agp.client;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Token manager.
+ * <p>
+ * Caches tokens per portal and credentials together with their expiration
+ * time and refreshes them in the background shortly before they expire, so
+ * brokers can ask for a token before every request without hitting
+ * <code>generateToken</code> each time. A single instance is shared by all
+ * clients within the JVM; clients with equal credentials share the same token.
+ * An entry is dropped once every client using it has been released.
+ */
+public final class TokenManager {
+  private static final Logger LOG = LoggerFactory.getLogger(TokenManager.class);
+  
+  /** token expiration requested from the portal (minutes) */
+  public static final int TOKEN_MINUTES = 60;
+  /** how long before expiration the token is refreshed in the background */
+  private static final long REFRESH_MARGIN = TimeUnit.MINUTES.toMillis(5);
+  /** minimal remaining validity of the token handed out to the caller */
+  private static final long MIN_VALIDITY = TimeUnit.MINUTES.toMillis(1);
+  
+  private static final TokenManager INSTANCE = new TokenManager();
+  
+  private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final ScheduledThreadPoolExecutor scheduler;
+
+  /**
+   * Gets shared instance of the token manager.
+   * @return token manager
+   */
+  public static TokenManager getInstance() {
+    return INSTANCE;
+  }
+  
+  private TokenManager() {
+    scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+      Thread thread = new Thread(r, "agp-token-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setRemoveOnCancelPolicy(true);
+  }
+  
+  /**
+   * Gets token for the client credentials.
+   * <p>
+   * Returns cached token if still valid, otherwise generates a new one.
+   * @param client client
+   * @return token or <code>null</code> if client has no credentials
+   * @throws URISyntaxException if invalid URL
+   * @throws IOException if generating token fails
+   */
+  public String getToken(AgpClient client) throws URISyntaxException, IOException {
+    SimpleCredentials credentials = client.getCredentials();
+    if (credentials==null || credentials.isEmpty()) {
+      return null;
+    }
+    Key key = new Key(client.getRootUrl().toExternalForm(), credentials);
+    while (true) {
+      Entry entry = entries.computeIfAbsent(key, Entry::new);
+      // entry might have been discarded by a concurrent release; pick up a fresh one then
+      if (entry.attach(client)) {
+        return entry.getToken(client);
+      }
+    }
+  }
+  
+  /**
+   * Invalidates token rejected by the server.
+   * <p>
+   * Next call to {@link #getToken(AgpClient)} will generate a new token 
+   * unless another thread has already done so.
+   * @param client client
+   * @param token token to invalidate
+   */
+  public void invalidate(AgpClient client, String token) {
+    SimpleCredentials credentials = client.getCredentials();
+    if (token==null || credentials==null || credentials.isEmpty()) {
+      return;
+    }
+    Entry entry = entries.get(new Key(client.getRootUrl().toExternalForm(), credentials));
+    if (entry!=null) {
+      entry.invalidate(token);
+    }
+  }
+  
+  /**
+   * Releases client.
+   * <p>
+   * Background refresh is no longer performed through a released client. 
+   * Cached token is discarded once no other client uses it.
+   * @param client client
+   */
+  public void release(AgpClient client) {
+    entries.values().forEach(entry -> {
+      if (entry.release(client)) {
+        entries.remove(entry.key, entry);
+      }
+    });
+  }
+  
+  /**
+   * Cache key.
+   */
+  private static final class Key {
+    private final String rootUrl;
+    private final SimpleCredentials credentials;
+
+    public Key(String rootUrl, SimpleCredentials credentials) {
+      this.rootUrl = rootUrl;
+      this.credentials = credentials;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(rootUrl, credentials);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return Objects.equals(this.rootUrl, other.rootUrl) && Objects.equals(this.credentials, other.credentials);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s@%s", credentials.getUserName(), rootUrl);
+    }
+  }
+  
+  /**
+   * Cache entry.
+   */
+  private final class Entry {
+    private final Key key;
+    private final Set<AgpClient> clients = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean discarded;
+    private volatile String token;
+    private volatile long expires;
+    private AgpClient source;
+    private ScheduledFuture<?> refresh;
+
+    public Entry(Key key) {
+      this.key = key;
+    }
+    
+    public synchronized boolean attach(AgpClient client) {
+      if (discarded) {
+        return false;
+      }
+      clients.add(client);
+      return true;
+    }
+    
+    public String getToken(AgpClient client) throws URISyntaxException, IOException {
+      String current = token;
+      if (current!=null && System.currentTimeMillis() < expires - MIN_VALIDITY) {
+        synchronized (this) {
+          if (source==null) {
+            source = client;
+            schedule();
+          }
+        }
+        return current;
+      }
+      synchronized (this) {
+        if (token!=null && System.currentTimeMillis() < expires - MIN_VALIDITY) {
+          return token;
+        }
+        source = client;
+        if (!generate(client)) {
+          cancel();
+          token = null;
+          expires = 0;
+        }
+        return token;
+      }
+    }
+    
+    public synchronized void invalidate(String rejected) {
+      if (rejected.equals(token)) {
+        token = null;
+        expires = 0;
+        cancel();
+      }
+    }
+    
+    public synchronized boolean release(AgpClient client) {
+      if (!clients.remove(client)) {
+        return false;
+      }
+      if (clients.isEmpty()) {
+        discarded = true;
+        source = null;
+        cancel();
+        return true;
+      }
+      if (source==client) {
+        // keep refreshing through any client still in use
+        source = clients.iterator().next();
+      }
+      return false;
+    }
+    
+    private boolean generate(AgpClient client) throws URISyntaxException, IOException {
+      long requested = System.currentTimeMillis();
+      TokenResponse response = client.generateToken(TOKEN_MINUTES);
+      if (response==null || response.token==null) {
+        return false;
+      }
+      cancel();
+      token = response.token;
+      expires = response.expires > requested? response.expires: requested + TimeUnit.MINUTES.toMillis(TOKEN_MINUTES);
+      LOG.debug(String.format("Generated token for %s valid until %tc", key, expires));
+      schedule();
+      return true;
+    }
+    
+    private void schedule() {
+      long remaining = expires - System.currentTimeMillis();
+      if (refresh==null && token!=null && source!=null && remaining > MIN_VALIDITY) {
+        long delay = remaining > 2 * REFRESH_MARGIN? remaining - REFRESH_MARGIN: remaining / 2;
+        refresh = scheduler.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+      }
+    }
+    
+    private void cancel() {
+      if (refresh!=null) {
+        refresh.cancel(false);
+        refresh = null;
+      }
+    }
+    
+    private synchronized void refresh() {
+      refresh = null;
+      if (source==null) {
+        return;
+      }
+      // on failure current token is kept; it will be generated on demand once it expires
+      try {
+        if (!generate(source)) {
+          LOG.debug(String.format("Unable to refresh token for %s", key));
+        }
+      } catch (URISyntaxException|IOException ex) {
+        LOG.debug(String.format("Error refreshing token for %s", key), ex);
+      }
+    }
+  }
+}
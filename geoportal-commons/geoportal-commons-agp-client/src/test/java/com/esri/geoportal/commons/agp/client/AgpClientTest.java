@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.agp.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ArcGIS Portal client test.
+ */
+public class AgpClientTest {
+  private HttpServer server;
+  private AgpClient client;
+  private final AtomicInteger searches = new AtomicInteger();
+  private final AtomicInteger shares = new AtomicInteger();
+  
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    // first search is throttled, all the following succeed
+    server.createContext("/sharing/rest/search", exchange -> {
+      respond(exchange, searches.incrementAndGet() == 1? 429: 200, "{\"total\": 0, \"results\": []}");
+    });
+    // sharing is always throttled
+    server.createContext("/sharing/rest/content/users/", exchange -> {
+      shares.incrementAndGet();
+      respond(exchange, 429, "{}");
+    });
+    server.start();
+    
+    URL url = new URL(String.format("http://localhost:%d/", server.getAddress().getPort()));
+    client = new AgpClient(HttpClients.createDefault(), url, null);
+  }
+  
+  @After
+  public void tearDown() throws Exception {
+    client.close();
+    server.stop(0);
+  }
+  
+  @Test
+  public void testThrottledReadRepeated() throws Exception {
+    QueryResponse response = client.search("title:test", 10, 0, null);
+    assertNotNull("No response", response);
+    assertEquals("Invalid number of search requests", 2, searches.get());
+  }
+  
+  @Test
+  public void testThrottledWriteNotRepeated() throws Exception {
+    try {
+      client.share("user", null, "item", true, false, null, "token");
+      fail("Throttled share request succeeded");
+    } catch (HttpResponseException ex) {
+      assertEquals("Invalid status code", 429, ex.getStatusCode());
+    }
+    assertEquals("Invalid number of share requests", 1, shares.get());
+  }
+  
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    if (status == 429) {
+      exchange.getResponseHeaders().add("Retry-After", "0");
+    }
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.agp.client;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Token manager test.
+ */
+public class TokenManagerTest {
+  private final AtomicInteger generated = new AtomicInteger();
+  private URL rootUrl;
+  
+  @Before
+  public void setUp() throws Exception {
+    // manager is a singleton; unique portal keeps tests apart
+    rootUrl = new URL(String.format("http://%s.example.com/", UUID.randomUUID()));
+  }
+
+  @Test
+  public void testEqualCredentialsShareToken() throws Exception {
+    TokenManager manager = TokenManager.getInstance();
+    try (AgpClient first = new TestClient(new SimpleCredentials("user", "pwd"));
+         AgpClient second = new TestClient(new SimpleCredentials("user", "pwd"))) {
+      String token = manager.getToken(first);
+      assertNotNull("Invalid token", token);
+      assertEquals("Invalid shared token", token, manager.getToken(second));
+      assertEquals("Invalid number of generated tokens", 1, generated.get());
+    }
+  }
+
+  @Test
+  public void testDifferentCredentialsDoNotShareToken() throws Exception {
+    TokenManager manager = TokenManager.getInstance();
+    try (AgpClient first = new TestClient(new SimpleCredentials("user", "pwd"));
+         AgpClient second = new TestClient(new SimpleCredentials("other", "pwd"))) {
+      assertNotEquals("Invalid shared token", manager.getToken(first), manager.getToken(second));
+      assertEquals("Invalid number of generated tokens", 2, generated.get());
+    }
+  }
+
+  @Test
+  public void testReleaseDropsUnusedToken() throws Exception {
+    TokenManager manager = TokenManager.getInstance();
+    AgpClient first = new TestClient(new SimpleCredentials("user", "pwd"));
+    AgpClient second = new TestClient(new SimpleCredentials("user", "pwd"));
+    String token = manager.getToken(first);
+    manager.getToken(second);
+    
+    // token is still in use by the second client
+    first.close();
+    assertEquals("Invalid token after partial release", token, manager.getToken(second));
+    assertEquals("Invalid number of generated tokens", 1, generated.get());
+    
+    // nobody uses the token anymore
+    second.close();
+    try (AgpClient third = new TestClient(new SimpleCredentials("user", "pwd"))) {
+      assertNotEquals("Invalid token after release", token, manager.getToken(third));
+      assertEquals("Invalid number of generated tokens", 2, generated.get());
+    }
+  }
+  
+  /**
+   * Client generating tokens locally.
+   */
+  private class TestClient extends AgpClient {
+    public TestClient(SimpleCredentials credentials) {
+      super(HttpClients.createDefault(), rootUrl, credentials);
+    }
+
+    @Override
+    public TokenResponse generateToken(int minutes) throws URISyntaxException, IOException {
+      TokenResponse response = new TokenResponse();
+      response.token = "token-" + generated.incrementAndGet();
+      response.expires = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(minutes);
+      return response;
+    }
+  }
+}
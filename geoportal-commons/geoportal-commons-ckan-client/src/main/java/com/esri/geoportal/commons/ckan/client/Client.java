@@ -26,6 +26,7 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Date;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.HttpResponseException;
@@ -83,7 +84,23 @@ public class Client implements Closeable {
    * @throws URISyntaxException if invalid URL
    */
   public Response listPackages(long rows, long start) throws IOException, URISyntaxException {
-    URI uri = createListPackagesUri(rows, start);
+    return listPackages(rows, start, null);
+  }
+  
+  /**
+   * Lists packages modified since the given date.
+   * <p>
+   * Packages are sorted by modification date so the consecutive pages are
+   * stable even if requested concurrently.
+   * @param rows number of rows to fetch.
+   * @param start start record (0-based)
+   * @param since modification date or <code>null</code> for all packages
+   * @return response
+   * @throws IOException if reading response fails
+   * @throws URISyntaxException if invalid URL
+   */
+  public Response listPackages(long rows, long start, Date since) throws IOException, URISyntaxException {
+    URI uri = createListPackagesUri(rows, start, since);
     HttpGet get = new HttpGet(uri);
     if (apiKey!=null) {
       get.addHeader("X-CKAN-API-Key", apiKey);
@@ -137,11 +154,15 @@ public class Client implements Closeable {
     return execute(get, Pkg.class);
   }
   
-  private URI createListPackagesUri(long rows, long start) throws IOException, URISyntaxException {
-    return new URIBuilder(url.toURI().resolve(PACKAGE_SEARCH_URL))
+  private URI createListPackagesUri(long rows, long start, Date since) throws IOException, URISyntaxException {
+    URIBuilder builder = new URIBuilder(url.toURI().resolve(PACKAGE_SEARCH_URL))
             .addParameter("rows", Long.toString(rows))
             .addParameter("start", Long.toString(start))
-            .build();      
+            .addParameter("sort", "metadata_modified asc, id asc");
+    if (since!=null) {
+      builder.addParameter("fq", String.format("metadata_modified:[%s TO *]", since.toInstant()));
+    }
+    return builder.build();      
   }
   
   private URI createListPackagesUri() throws IOException, URISyntaxException {
@@ -46,6 +46,32 @@ public interface IClient {
     return findRecords(start, max, from, to);
   }
   
+  /**
+   * Checks if client is able to deliver full metadata within GetRecords response.
+   * @return <code>true</code> if full records are supported
+   */
+  default boolean supportsFullRecords() {
+    return false;
+  }
+  
+  /**
+   * Finds all records together with full metadata.
+   * <p>
+   * Records which could not be delivered in full have no metadata; use 
+   * {@link #readMetadata(java.lang.String)} to read it.
+   * @param start start record
+   * @param max number of records to return
+   * @param from optional from date
+   * @param to optional to date
+   * @param searchText search text
+   * @return records
+   * @throws Exception if finding records fails
+   * @see IRecord#getMetadata() 
+   */
+  default IRecords findFullRecords(int start, int max, Date from, Date to, String searchText) throws Exception {
+    return findRecords(start, max, from, to, searchText);
+  }
+  
   /**
    * Reads metadata.
    * @param id id of the record
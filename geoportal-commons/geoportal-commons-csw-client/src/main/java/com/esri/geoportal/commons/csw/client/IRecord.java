@@ -33,4 +33,12 @@ public interface IRecord {
    * @return last modified date
    */
   Date getLastModifiedDate();
+  
+  /**
+   * Gets full metadata of the record if delivered together with the record.
+   * @return metadata or <code>null</code> if metadata has to be read separately
+   */
+  default String getMetadata() {
+    return null;
+  }
 }
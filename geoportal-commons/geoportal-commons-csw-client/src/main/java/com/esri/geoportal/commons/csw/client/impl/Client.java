@@ -32,7 +32,9 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
 import java.net.URL;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -53,6 +55,7 @@ import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -86,6 +89,12 @@ import org.xml.sax.SAXException;
 public class Client implements IClient {
 
   private final Logger LOG = LoggerFactory.getLogger(Client.class);
+  private static final XPathFactory XPATH_FACTORY = XPathFactory.newInstance();
+  private static final String ISO_OUTPUT_SCHEMA = "http://www.isotc211.org/2005/gmd";
+  private static final Pattern ISO_OUTPUT_SCHEMA_PATTERN = Pattern.compile("outputSchema=" + Pattern.quote(ISO_OUTPUT_SCHEMA), Pattern.CASE_INSENSITIVE);
+  private static final Pattern ELEMENT_SET_NAME_PATTERN = Pattern.compile("(<(?:[\\w\\-]+:)?ElementSetName[^>]*>)[^<]*(</(?:[\\w\\-]+:)?ElementSetName>)");
+  private static final Pattern OUTPUT_SCHEMA_PATTERN = Pattern.compile("(outputSchema\\s*=\\s*)(\"[^\"]*\"|'[^']*')");
+  private static final Pattern GET_RECORDS_PATTERN = Pattern.compile("(<(?:[\\w\\-]+:)?GetRecords)(\\s|/?>)");
   private final CloseableHttpClient httpClient;
   private final URL baseUrl;
   private final IProfile profile;
@@ -127,6 +136,48 @@ public class Client implements IClient {
     crt.setSearchText(StringUtils.trimToNull(searchText));
     String requestBody = createGetRecordsRequest(crt);
     
+    return executeGetRecords(requestBody, this::readRecordsFromStream);
+  }
+
+  @Override
+  public boolean supportsFullRecords() {
+    try {
+      String kvp = profile.getKvp()!=null? URLDecoder.decode(profile.getKvp(), "UTF-8"): "";
+      return ISO_OUTPUT_SCHEMA_PATTERN.matcher(kvp).find();
+    } catch (UnsupportedEncodingException ex) {
+      return false;
+    }
+  }
+
+  @Override
+  public IRecords findFullRecords(int start, int max, Date from, Date to, String searchText) throws Exception {
+    if (!supportsFullRecords()) {
+      return findRecords(start, max, from, to, searchText);
+    }
+    
+    LOG.debug(String.format("Executing findFullRecords(start=%d,max=%d)", start, max));
+    
+    loadCapabilities();
+
+    Criteria crt = new Criteria();
+    crt.setStartPosition(start);
+    crt.setMaxRecords(max);
+    crt.setFromDate(from);
+    crt.setToDate(to);
+    crt.setSearchText(StringUtils.trimToNull(searchText));
+    String requestBody = createFullRecordsRequest(createGetRecordsRequest(crt));
+    
+    return executeGetRecords(requestBody, this::readFullRecordsFromStream);
+  }
+  
+  /**
+   * Executes GetRecords request.
+   * @param requestBody request body
+   * @param reader response reader
+   * @return records
+   * @throws Exception if executing request fails
+   */
+  private IRecords executeGetRecords(String requestBody, RecordsReader reader) throws Exception {
     HttpPost post = createRecordsPostRequest(capabilites.get_getRecordsPostURL(), requestBody);
 
     HttpClientContext context = cred!=null && !cred.isEmpty()? createHttpClientContext(baseUrl, cred): null;
@@ -140,10 +191,10 @@ public class Client implements IClient {
           if (httpResponse2.getStatusLine().getStatusCode()>=400) {
             throw new HttpResponseException(httpResponse2.getStatusLine().getStatusCode(), httpResponse2.getStatusLine().getReasonPhrase());
           }
-          return readRecordsFromStream(responseInputStream2);
+          return reader.read(responseInputStream2);
         }
       } else {
-        return readRecordsFromStream(responseInputStream);
+        return reader.read(responseInputStream);
       }
     }
   }
@@ -295,7 +346,7 @@ public class Client implements IClient {
   }
 
   /**
-   * Reads record from the stream
+   * Reads record from the stream using profile's response XSLT.
    *
    * @param contentStream content stream
    * @return list of records
@@ -313,38 +364,22 @@ public class Client implements IClient {
     Templates template = TemplatesManager.getInstance().getTemplate(profile.getResponsexslt());
     Transformer transformer = template.newTransformer();
 
-    // perform transformation
-    StringWriter writer = new StringWriter();
-    transformer.transform(new StreamSource(contentStream), new StreamResult(writer));
-    
-    LOG.trace(String.format("Received records:\n%s", writer.toString()));
-
-    try (ByteArrayInputStream transformedContentStream = new ByteArrayInputStream(writer.toString().getBytes("UTF-8"))) {
-
-      // create internal request DOM
-      DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-      builderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-      builderFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-      builderFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-      builderFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-      builderFactory.setXIncludeAware(false);
-      builderFactory.setExpandEntityReferences(false);
-      DocumentBuilder builder = builderFactory.newDocumentBuilder();
-      Document resultDom = builder.parse(new InputSource(transformedContentStream));
-
-      // create xpath
-      XPathFactory xPathfactory = XPathFactory.newInstance();
-      XPath xpath = xPathfactory.newXPath();
-
-      NodeList recordNodeList = (NodeList) xpath.evaluate("/Records/Record", resultDom, XPathConstants.NODESET);
-      for (int i = 0; i < recordNodeList.getLength(); i++) {
-        Node recordNode = recordNodeList.item(i);
-        String id = (String) xpath.evaluate("ID", recordNode, XPathConstants.STRING);
-        String strModifiedDate = (String) xpath.evaluate("ModifiedDate", recordNode, XPathConstants.STRING);
-        Date modifedDate = parseIsoDate(strModifiedDate);
-        IRecord record = new Record(id, modifedDate);
-        records.add(record);
-      }
+    // perform transformation straight into the DOM
+    DOMResult result = new DOMResult();
+    transformer.transform(new StreamSource(contentStream), result);
+    Node resultDom = result.getNode();
+
+    // create xpath
+    XPath xpath = XPATH_FACTORY.newXPath();
+
+    NodeList recordNodeList = (NodeList) xpath.evaluate("/Records/Record", resultDom, XPathConstants.NODESET);
+    for (int i = 0; i < recordNodeList.getLength(); i++) {
+      Node recordNode = recordNodeList.item(i);
+      String id = (String) xpath.evaluate("ID", recordNode, XPathConstants.STRING);
+      String strModifiedDate = (String) xpath.evaluate("ModifiedDate", recordNode, XPathConstants.STRING);
+      Date modifedDate = parseIsoDate(strModifiedDate);
+      IRecord record = new Record(id, modifedDate);
+      records.add(record);
     }
 
     return records;
@@ -446,7 +481,7 @@ public class Client implements IClient {
    * @param strDate ISO date as string
    * @return date object or <code>null</code> if unable to parse date
    */
-  private static Date parseIsoDate(String strDate) {
+  static Date parseIsoDate(String strDate) {
     try {
       return Date.from(ZonedDateTime.from(DateTimeFormatter.ISO_DATE_TIME.parse(strDate)).toInstant());
     } catch (Exception ex) {
@@ -473,12 +508,45 @@ public class Client implements IClient {
   }
   
   private IRecords readRecordsFromStream(InputStream inputStream) throws Exception {
-    String response = IOUtils.toString(inputStream, "UTF-8");
-    try (ByteArrayInputStream contentInputStream = new ByteArrayInputStream(response.getBytes("UTF-8"));) {
-      Records records = new Records();
-      records.addAll(readRecords(contentInputStream));
-      return records;
+    if (RecordsStreamReader.supports(profile)) {
+      return new RecordsStreamReader(false).read(inputStream);
     }
+    Records records = new Records();
+    records.addAll(readRecords(inputStream));
+    return records;
+  }
+  
+  /**
+   * Turns GetRecords request generated by the profile into the request for 
+   * the full ISO records.
+   * @param requestBody GetRecords request body
+   * @return modified request body
+   */
+  private String createFullRecordsRequest(String requestBody) {
+    requestBody = ELEMENT_SET_NAME_PATTERN.matcher(requestBody).replaceAll("$1full$2");
+    Matcher outputSchemaMatcher = OUTPUT_SCHEMA_PATTERN.matcher(requestBody);
+    if (outputSchemaMatcher.find()) {
+      return outputSchemaMatcher.replaceFirst("$1\"" + ISO_OUTPUT_SCHEMA + "\"");
+    }
+    return GET_RECORDS_PATTERN.matcher(requestBody).replaceFirst("$1 outputSchema=\"" + ISO_OUTPUT_SCHEMA + "\"$2");
+  }
+  
+  /**
+   * Reads full records from the stream.
+   * @param inputStream input stream
+   * @return records
+   * @throws Exception if reading records fails
+   */
+  private IRecords readFullRecordsFromStream(InputStream inputStream) throws Exception {
+    return new RecordsStreamReader(true).read(inputStream);
+  }
+  
+  /**
+   * Records reader.
+   */
+  @FunctionalInterface
+  private interface RecordsReader {
+    IRecords read(InputStream inputStream) throws Exception;
   }
   
   @Override
@@ -24,6 +24,7 @@ import java.util.Date;
 public class Record implements IRecord {
   private final String id;
   private final Date lastModifiedDate;
+  private final String metadata;
 
   /**
    * Creates instance of the record.
@@ -31,8 +32,19 @@ public class Record implements IRecord {
    * @param lastModifiedDate last modifed date
    */
   public Record(String id, Date lastModifiedDate) {
+    this(id, lastModifiedDate, null);
+  }
+
+  /**
+   * Creates instance of the record.
+   * @param id record id
+   * @param lastModifiedDate last modifed date
+   * @param metadata full metadata or <code>null</code>
+   */
+  public Record(String id, Date lastModifiedDate, String metadata) {
     this.id = id;
     this.lastModifiedDate = lastModifiedDate;
+    this.metadata = metadata;
   }
 
   /**
@@ -52,6 +64,11 @@ public class Record implements IRecord {
   public Date getLastModifiedDate() {
     return lastModifiedDate;
   }
+
+  @Override
+  public String getMetadata() {
+    return metadata;
+  }
   
   @Override
   public String toString() {
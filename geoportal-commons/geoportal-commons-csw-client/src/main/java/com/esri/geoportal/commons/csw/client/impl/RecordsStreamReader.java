@@ -0,0 +1,371 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.csw.client.impl;
+
+import com.esri.geoportal.commons.csw.client.IProfile;
+import com.esri.geoportal.commons.csw.client.IRecords;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streaming reader of the GetRecords response.
+ * <p>
+ * Reads record ids, modification dates and optionally full record bodies
+ * with StAX as the response arrives, without building a document tree. It 
+ * understands Dublin Core records (<i>csw:Record</i>, <i>csw:BriefRecord</i>,
+ * <i>csw:SummaryRecord</i>) and ISO records (<i>gmd:MD_Metadata</i>,
+ * <i>gmi:MI_Metadata</i>); responses of any other profile are read through 
+ * the profile's response XSLT.
+ */
+/*package*/ class RecordsStreamReader {
+  private static final Logger LOG = LoggerFactory.getLogger(RecordsStreamReader.class);
+  
+  private static final String NS_DC = "http://purl.org/dc/elements/1.1/";
+  private static final String NS_DCT = "http://purl.org/dc/terms/";
+  private static final String SCHEME_DOC_ID = "urn:x-esri:specification:ServiceType:ArcIMS:Metadata:DocID";
+  
+  /** response XSLT's of the profiles with the responses understood by the reader */
+  private static final Set<String> STREAMING_RESPONSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+          "CSW_2.0.2_OGCCORE_ESRI_GPT_GetRecords_Response.xslt",
+          "CSW_2.0.2_OGCCORE_ESRI_9.3_GetRecords_Response.xslt",
+          "CSW_2.0.2_OGCCORE_DataGov_GetRecords_Response.xslt",
+          "CSW_2.0.2_OGCCORE_SRU_GetRecords_Response.xslt",
+          "CSW_2.0.2_OGCISOAP_ESRI_GPT10_GetRecords_Response.xslt",
+          "CSW_2.0.2_APISO_GICAT_GetRecords_Response.xslt",
+          "CSW_2.0.2_APISO_pycsw_GetRecords_Response.xslt",
+          "CSW_2.0.2_APISO_scibase_GetRecords_Response.xslt"
+  )));
+  
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+  
+  private final boolean withMetadata;
+
+  /**
+   * Creates instance of the reader.
+   * @param withMetadata <code>true</code> to capture full record bodies
+   */
+  public RecordsStreamReader(boolean withMetadata) {
+    this.withMetadata = withMetadata;
+  }
+  
+  /**
+   * Checks if responses of the profile can be read by the streaming reader.
+   * @param profile profile
+   * @return <code>true</code> if responses can be streamed
+   */
+  public static boolean supports(IProfile profile) {
+    String responseXslt = StringUtils.trimToEmpty(profile.getResponsexslt());
+    return STREAMING_RESPONSES.contains(responseXslt.substring(responseXslt.lastIndexOf('/') + 1));
+  }
+  
+  /**
+   * Reads records.
+   * @param inputStream response stream
+   * @return records
+   * @throws XMLStreamException if reading response fails
+   */
+  public IRecords read(InputStream inputStream) throws XMLStreamException {
+    Records records = new Records();
+    XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+    try {
+      Deque<Map<String,String>> namespaces = new ArrayDeque<>();
+      int resultsDepth = -1;
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            if (namespaces.isEmpty() && "ExceptionReport".equals(reader.getLocalName())) {
+              LOG.warn(String.format("CSW exception: %s", readExceptionText(reader)));
+              return records;
+            }
+            if (resultsDepth >= 0 && namespaces.size() == resultsDepth + 1) {
+              RecordBuilder builder = readRecord(reader, namespaces);
+              if (builder.getId() != null) {
+                records.add(new Record(builder.getId(), Client.parseIsoDate(builder.getModified()), builder.getMetadata()));
+              } else {
+                LOG.debug(String.format("Skipping record without identifier: %s", reader.getLocalName()));
+              }
+              break;
+            }
+            namespaces.push(readNamespaces(reader));
+            if ("SearchResults".equals(reader.getLocalName())) {
+              resultsDepth = namespaces.size() - 1;
+            }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            namespaces.pop();
+            if (namespaces.size() == resultsDepth) {
+              return records;
+            }
+            break;
+        }
+      }
+      return records;
+    } finally {
+      reader.close();
+    }
+  }
+  
+  /**
+   * Reads a single record. Upon return the reader is positioned at the end 
+   * of the record element.
+   * @param reader reader positioned at the start of the record element
+   * @param namespaces namespaces declared by the ancestors
+   * @return record builder
+   * @throws XMLStreamException if reading record fails
+   */
+  private RecordBuilder readRecord(XMLStreamReader reader, Deque<Map<String,String>> namespaces) throws XMLStreamException {
+    RecordBuilder builder = new RecordBuilder();
+    StringWriter buffer = withMetadata? new StringWriter(): null;
+    XMLStreamWriter writer = withMetadata? OUTPUT_FACTORY.createXMLStreamWriter(buffer): null;
+    
+    if (writer != null) {
+      writer.writeStartDocument("UTF-8", "1.0");
+      copyStartElement(reader, writer);
+      // declare all the namespaces inherited from the response on the record itself
+      Map<String,String> inherited = new LinkedHashMap<>();
+      namespaces.descendingIterator().forEachRemaining(inherited::putAll);
+      inherited.putAll(readNamespaces(reader));
+      for (int i = 0; i < reader.getNamespaceCount(); i++) {
+        inherited.remove(StringUtils.defaultString(reader.getNamespacePrefix(i)));
+      }
+      for (Map.Entry<String,String> ns: inherited.entrySet()) {
+        writeNamespace(writer, ns.getKey(), ns.getValue());
+      }
+    }
+    
+    List<String> path = new ArrayList<>();
+    while (reader.hasNext()) {
+      int event = reader.next();
+      switch (event) {
+        case XMLStreamConstants.START_ELEMENT:
+          path.add(reader.getLocalName());
+          builder.start(path, reader);
+          if (writer != null) {
+            copyStartElement(reader, writer);
+          }
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          if (writer != null) {
+            writer.writeEndElement();
+          }
+          if (path.isEmpty()) {
+            if (writer != null) {
+              writer.writeEndDocument();
+              writer.close();
+              builder.setMetadata(buffer.toString());
+            }
+            return builder;
+          }
+          builder.end(path);
+          path.remove(path.size() - 1);
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.SPACE:
+          builder.text(reader.getText());
+          if (writer != null) {
+            writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+          }
+          break;
+        case XMLStreamConstants.CDATA:
+          builder.text(reader.getText());
+          if (writer != null) {
+            writer.writeCData(reader.getText());
+          }
+          break;
+        case XMLStreamConstants.COMMENT:
+          if (writer != null) {
+            writer.writeComment(reader.getText());
+          }
+          break;
+        case XMLStreamConstants.PROCESSING_INSTRUCTION:
+          if (writer != null) {
+            writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+          }
+          break;
+      }
+    }
+    throw new XMLStreamException("Unexpected end of the response.");
+  }
+  
+  /**
+   * Copies start element together with its namespaces and attributes.
+   * @param reader reader
+   * @param writer writer
+   * @throws XMLStreamException if writing fails
+   */
+  private static void copyStartElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+    writer.writeStartElement(StringUtils.defaultString(reader.getPrefix()), reader.getLocalName(), StringUtils.defaultString(reader.getNamespaceURI()));
+    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+      writeNamespace(writer, StringUtils.defaultString(reader.getNamespacePrefix(i)), StringUtils.defaultString(reader.getNamespaceURI(i)));
+    }
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      String attrNs = reader.getAttributeNamespace(i);
+      if (attrNs == null || attrNs.isEmpty()) {
+        writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+      } else {
+        writer.writeAttribute(StringUtils.defaultString(reader.getAttributePrefix(i)), attrNs, reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+      }
+    }
+  }
+  
+  private static void writeNamespace(XMLStreamWriter writer, String prefix, String uri) throws XMLStreamException {
+    if (prefix.isEmpty()) {
+      writer.writeDefaultNamespace(uri);
+    } else {
+      writer.writeNamespace(prefix, uri);
+    }
+  }
+  
+  private static Map<String,String> readNamespaces(XMLStreamReader reader) {
+    Map<String,String> declared = new LinkedHashMap<>();
+    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+      declared.put(StringUtils.defaultString(reader.getNamespacePrefix(i)), StringUtils.defaultString(reader.getNamespaceURI(i)));
+    }
+    return declared;
+  }
+  
+  private static String readExceptionText(XMLStreamReader reader) throws XMLStreamException {
+    StringBuilder text = new StringBuilder();
+    int depth = 1;
+    boolean inText = false;
+    while (depth > 0 && reader.hasNext()) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          inText = "ExceptionText".equals(reader.getLocalName());
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          inText = false;
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+          if (inText) {
+            text.append(reader.getText());
+          }
+          break;
+      }
+    }
+    return text.toString().trim();
+  }
+  
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    return factory;
+  }
+  
+  /**
+   * Collects record properties while the record is being read.
+   */
+  private static class RecordBuilder {
+    private StringBuilder current;
+    private String identifier;
+    private String docId;
+    private String fileIdentifier;
+    private String modified;
+    private String dateStamp;
+    private String metadata;
+    private boolean docIdScheme;
+    
+    public void start(List<String> path, XMLStreamReader reader) {
+      if (path.size() == 1 && "identifier".equals(path.get(0)) && NS_DC.equals(reader.getNamespaceURI())) {
+        docIdScheme = SCHEME_DOC_ID.equals(reader.getAttributeValue(null, "scheme"));
+        current = new StringBuilder();
+      } else if (path.size() == 1 && "modified".equals(path.get(0)) && NS_DCT.equals(reader.getNamespaceURI())) {
+        current = new StringBuilder();
+      } else if (path.size() == 2 && "fileIdentifier".equals(path.get(0)) && "CharacterString".equals(path.get(1))) {
+        current = new StringBuilder();
+      } else if (path.size() == 2 && "dateStamp".equals(path.get(0)) && ("Date".equals(path.get(1)) || "DateTime".equals(path.get(1)))) {
+        current = new StringBuilder();
+      }
+    }
+    
+    public void text(String text) {
+      if (current != null) {
+        current.append(text);
+      }
+    }
+    
+    public void end(List<String> path) {
+      if (current == null) {
+        return;
+      }
+      String value = StringUtils.trimToNull(StringUtils.normalizeSpace(current.toString()));
+      current = null;
+      if (value == null) {
+        return;
+      }
+      switch (path.get(0)) {
+        case "identifier":
+          if (docIdScheme && docId == null) {
+            docId = value;
+          } else if (identifier == null) {
+            identifier = value;
+          }
+          break;
+        case "modified":
+          modified = modified == null? value: modified;
+          break;
+        case "fileIdentifier":
+          fileIdentifier = fileIdentifier == null? value: fileIdentifier;
+          break;
+        case "dateStamp":
+          dateStamp = dateStamp == null? value: dateStamp;
+          break;
+      }
+    }
+
+    public String getId() {
+      return docId != null? docId: identifier != null? identifier: fileIdentifier;
+    }
+
+    public String getModified() {
+      return StringUtils.defaultString(modified != null? modified: dateStamp);
+    }
+
+    public String getMetadata() {
+      return metadata;
+    }
+
+    public void setMetadata(String metadata) {
+      this.metadata = metadata;
+    }
+  }
+}
@@ -33,6 +33,7 @@ import org.mockserver.junit.MockServerRule;
 import org.mockserver.model.Header;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
+import static org.mockserver.model.StringBody.subString;
 
 /**
  * CSW client test.
@@ -73,6 +74,20 @@ public class ClientTest {
                     )
                     .withBody(readAndClose(getClass().getResourceAsStream("/GetCapabilitiesResponse.xml")))
             );
+    client.when(
+                    request()
+                    .withMethod("POST")
+                    .withPath("/csw")
+                    .withBody(subString("http://www.isotc211.org/2005/gmd"))
+            )
+            .respond(
+                    response()
+                    .withStatusCode(200)
+                    .withHeaders(
+                      new Header("Content-Type", "application/xml; charset=utf-8")
+                    )
+                    .withBody(readAndClose(getClass().getResourceAsStream("/GetRecordsIsoResponse.xml")))
+            );
     client.when(
                     request()
                     .withMethod("POST")
@@ -118,6 +133,28 @@ public class ClientTest {
     assertNotNull("No records", records);
   }
   
+  @Test
+  public void testFindFullRecords() throws Exception {
+    Profiles profiles = new ProfilesLoader().load();
+    IProfile isoProfile = profiles.getProfileById("urn:ogc:CSW:2.0.2:HTTP:APISO:PYCSW");
+    assertNotNull("No ISO profile", isoProfile);
+    
+    Bots bots = BotsUtils.readBots("http://localhost:5000/robots.txt");
+    BotsHttpClient httpClient = new BotsHttpClient(bots);
+    
+    Client cswClient = new Client(httpClient, new URL("http://localhost:5000/csw"), isoProfile, null);
+    assertTrue("Full records not supported", cswClient.supportsFullRecords());
+    
+    IRecords records = cswClient.findFullRecords(1, 10, null, null, null);
+    
+    assertEquals("Invalid number of records", 2, records.size());
+    assertEquals("Invalid record id", "c8b6e5a2-6f6c-4b39-8d4e-1b3c1f0c0001", records.get(0).getId());
+    assertNotNull("No modification date", records.get(0).getLastModifiedDate());
+    assertNotNull("No metadata", records.get(1).getMetadata());
+    assertTrue("Invalid metadata", records.get(1).getMetadata().contains("Second"));
+    assertTrue("Missing namespace declaration", records.get(1).getMetadata().contains("xmlns:gco"));
+  }
+  
   @Test
   public void testReadMetadata() throws Exception {
     Profiles profiles = new ProfilesLoader().load();
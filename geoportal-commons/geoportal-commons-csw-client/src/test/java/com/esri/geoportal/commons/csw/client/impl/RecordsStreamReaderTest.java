@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.csw.client.impl;
+
+import com.esri.geoportal.commons.csw.client.IRecords;
+import java.io.InputStream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Records stream reader test.
+ */
+public class RecordsStreamReaderTest {
+  
+  @Test
+  public void testReadDublinCoreRecords() throws Exception {
+    try (InputStream input = getClass().getResourceAsStream("/GetRecordsResponse.xml")) {
+      IRecords records = new RecordsStreamReader(false).read(input);
+      
+      assertEquals("Invalid number of records", 10, records.size());
+      assertEquals("Invalid record id", "{093CBDB1-9D7A-4602-9937-2EC89359E633}", records.get(0).getId());
+      assertNotNull("No modification date", records.get(0).getLastModifiedDate());
+      assertNull("Unexpected metadata", records.get(0).getMetadata());
+    }
+  }
+  
+  @Test
+  public void testReadIsoRecords() throws Exception {
+    try (InputStream input = getClass().getResourceAsStream("/GetRecordsIsoResponse.xml")) {
+      IRecords records = new RecordsStreamReader(true).read(input);
+      
+      assertEquals("Invalid number of records", 2, records.size());
+      assertEquals("Invalid record id", "c8b6e5a2-6f6c-4b39-8d4e-1b3c1f0c0002", records.get(1).getId());
+      assertTrue("Invalid metadata", records.get(1).getMetadata().contains("<gco:CharacterString>Second</gco:CharacterString>"));
+      assertTrue("Missing namespace declaration", records.get(1).getMetadata().contains("xmlns:gco=\"http://www.isotc211.org/2005/gco\""));
+    }
+  }
+}
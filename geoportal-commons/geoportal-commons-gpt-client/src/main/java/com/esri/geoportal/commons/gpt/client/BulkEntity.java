@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.gpt.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Elasticsearch bulk entity.
+ * <p>
+ * Writes new line delimited pairs of the action and the document directly to
+ * the output stream. Documents with known id are sent as <i>update</i> with
+ * <i>doc_as_upsert</i>, thus fields maintained by the server (owner, access,
+ * approval status) survive harvesting; documents without id are indexed as
+ * new ones.
+ */
+/*package*/ class BulkEntity extends AbstractHttpEntity {
+  private final JsonFactory factory;
+  private final List<String> ids = new ArrayList<>();
+  private final List<PublishEntity> documents = new ArrayList<>();
+
+  /**
+   * Creates instance of the entity.
+   * @param factory JSON factory
+   */
+  public BulkEntity(JsonFactory factory) {
+    this.factory = factory;
+    setContentType(ContentType.create("application/x-ndjson", "UTF-8").toString());
+  }
+
+  /**
+   * Adds document to index.
+   * @param id id of the document to update or create, or <code>null</code> to create a new document
+   * @param document document
+   */
+  public void add(String id, PublishEntity document) {
+    ids.add(id);
+    documents.add(document);
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public long getContentLength() {
+    return -1;
+  }
+
+  @Override
+  public InputStream getContent() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writeTo(output);
+    return new ByteArrayInputStream(output.toByteArray());
+  }
+
+  @Override
+  public void writeTo(OutputStream output) throws IOException {
+    try (JsonGenerator gen = factory.createGenerator(output)) {
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      gen.setRootValueSeparator(null);
+      for (int i = 0; i < documents.size(); i++) {
+        String id = ids.get(i);
+        gen.writeStartObject();
+        if (id != null) {
+          gen.writeObjectFieldStart("update");
+          gen.writeStringField("_id", id);
+        } else {
+          gen.writeObjectFieldStart("index");
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        if (id != null) {
+          gen.writeStartObject();
+          gen.writeFieldName("doc");
+          documents.get(i).writeDocument(gen);
+          gen.writeBooleanField("doc_as_upsert", true);
+          gen.writeEndObject();
+        } else {
+          documents.get(i).writeDocument(gen);
+        }
+        gen.writeRaw('\n');
+      }
+    }
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+}
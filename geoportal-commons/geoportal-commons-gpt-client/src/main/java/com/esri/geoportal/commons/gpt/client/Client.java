@@ -28,9 +28,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -38,14 +37,20 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -78,6 +83,7 @@ public class Client implements Closeable {
   private static final String DEFAULT_INDEX = "metadata";
   private static final String REST_ITEM_URL = "rest/metadata/item";
   private static final String ELASTIC_SEARCH_URL = "elastic/{metadata}/item/_search";
+  private static final String ELASTIC_BULK_URL = "elastic/{metadata}/item/_bulk";
   private static final String ELASTIC_SCROLL_URL = "elastic/_search/scroll";
   private static final String TOKEN_URL = "oauth/token";
 
@@ -86,7 +92,7 @@ public class Client implements Closeable {
   private final SimpleCredentials cred;
   private final String index;
 
-  private TokenInfo tokenInfo;
+  private volatile TokenInfo tokenInfo;
 
   private final ObjectMapper mapper = new ObjectMapper();
 
@@ -134,139 +140,77 @@ public class Client implements Closeable {
    */
   public PublishResponse publish(PublishRequest data, Map<String, Object> attributes, String id, String xml, String json, boolean forceAdd) throws IOException, URISyntaxException {
 
-    ObjectNode jsonRequest = mapper.convertValue(data, ObjectNode.class);
-    if (xml != null) {
-      jsonRequest.put("xml", xml);
-    }
-    if (json != null) {
-      try {
-        ObjectNode jsonValue = mapper.readValue(json, ObjectNode.class);
-        jsonRequest.set("_json", jsonValue);
-        if (jsonValue.isObject()) {
-          Iterator<Map.Entry<String, JsonNode>> fldIter = jsonValue.fields();
-          while (fldIter.hasNext()) {
-            Map.Entry<String, JsonNode> fld = fldIter.next();
-
-            if (fld.getKey().equals("fullExtent")) {
-              JsonNode fullExtent = fld.getValue();
-
-              Double xmin = fullExtent.path("xmin").asDouble();
-              Double ymin = fullExtent.path("ymin").asDouble();
-              Double xmax = fullExtent.path("xmax").asDouble();
-              Double ymax = fullExtent.path("ymax").asDouble();
-
-              ObjectNode envelope_geo = mapper.createObjectNode();
-              envelope_geo.put("type", "envelope");
-              ArrayNode coordinates = mapper.createArrayNode();
-              ArrayNode southWest = coordinates.addArray();
-              southWest.add(xmin);
-              southWest.add(ymin);
-              ArrayNode northEast = coordinates.addArray();
-              northEast.add(xmax);
-              northEast.add(ymax);
-              envelope_geo.set("coordinates", coordinates);
-
-              jsonRequest.set("envelope_geo", envelope_geo);
-
-              double lon = (xmin + xmax) / 2.0;
-              double lat = (ymin + ymax) / 2.0;
-
-              ObjectNode envelope_cen_pt = mapper.createObjectNode();
-              envelope_cen_pt.put("lon", lon);
-              envelope_cen_pt.put("lat", lat);
-
-              jsonRequest.set("envelope_cen_pt", envelope_cen_pt);
-            }
+    PublishEntity entity = new PublishEntity(mapper, data, attributes, xml, json);
 
-            switch (fld.getValue().getNodeType()) {
-              case STRING:
-                String s_format = "%s_txt";
-                switch (fld.getKey()) {
-                  case "allowedUploadFileTypes":
-                  case "capabilities":
-                  case "configuredState":
-                  case "clusterName":
-                  case "executionType":
-                  case "geometryType":
-                  case "htmlPopupType":
-                  case "isolationLevel":
-                  case "loadBalancing":
-                  case "supportedQueryFormats":
-                  case "tags":
-                  case "type":
-                  case "typeName":
-                  case "units":
-                    s_format = "%s_s";
-                    break;
-                  case "title":
-                  case "description":
-                  case "fileid":
-                    s_format = "%s";
-                    break;
-                }
-                jsonRequest.put(String.format(s_format, fld.getKey()), fld.getValue().asText());
-                break;
-              case NUMBER:
-                jsonRequest.put(String.format("%s_d", fld.getKey()), fld.getValue().asDouble());
-                break;
-              case BOOLEAN:
-                jsonRequest.put(String.format("%s_b", fld.getKey()), fld.getValue().asBoolean());
-                break;
-              case ARRAY:
-                jsonRequest.set(String.format("%s", fld.getKey()), fld.getValue());
-                break;
-              case OBJECT:
-                jsonRequest.set(String.format("%s_obj", fld.getKey()), fld.getValue());
-                break;
-            }
-          }
-        }
-      } catch (Exception ex) {
-        LOG.debug(String.format("Invalid json received.", json), ex);
-      }
-    }
+    List<String> ids = !forceAdd ? queryIds("src_uri_s", data.src_uri_s, 1) : Collections.emptyList();
 
-    for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-      if (entry.getValue() == null) {
-        jsonRequest.putNull(entry.getKey());
+    URI pubUri = id != null ? createItemUri(id) : !ids.isEmpty() ? createItemUri(ids.get(0)) : createItemsUri();
+    try {
+      return publish(pubUri, entity, data.sys_owner_s);
+    } catch (HttpResponseException ex) {
+      if (ex.getStatusCode() == 401) {
+        clearToken();
+        pubUri = id != null ? createItemUri(id) : !ids.isEmpty() ? createItemUri(ids.get(0)) : createItemsUri();
+        return publish(pubUri, entity, data.sys_owner_s);
       } else {
-        if (entry.getValue() instanceof String) {
-          jsonRequest.put(entry.getKey(), (String) entry.getValue());
-        } else if (entry.getValue() instanceof Double) {
-          jsonRequest.put(entry.getKey(), (Double) entry.getValue());
-        } else if (entry.getValue() instanceof BigDecimal) {
-          jsonRequest.put(entry.getKey(), ((BigDecimal) entry.getValue()).doubleValue());
-        } else if (entry.getValue() instanceof Float) {
-          jsonRequest.put(entry.getKey(), (Float) entry.getValue());
-        } else if (entry.getValue() instanceof Long) {
-          jsonRequest.put(entry.getKey(), (Long) entry.getValue());
-        } else if (entry.getValue() instanceof BigInteger) {
-          jsonRequest.put(entry.getKey(), ((BigInteger) entry.getValue()).longValue());
-        } else if (entry.getValue() instanceof Integer) {
-          jsonRequest.put(entry.getKey(), (Integer) entry.getValue());
-        } else if (entry.getValue() instanceof Boolean) {
-          jsonRequest.put(entry.getKey(), (Boolean) entry.getValue());
-        }
+        throw ex;
       }
     }
+  }
 
-    String strRequest = mapper.writeValueAsString(jsonRequest);
-    StringEntity entity = new StringEntity(strRequest, "UTF-8");
+  /**
+   * Publishes many documents at once.
+   * <p>
+   * Existing documents are resolved by their source URI with a single terms
+   * query, and all the documents are sent as one Elasticsearch <i>_bulk</i>
+   * request through the Geoportal <i>elastic</i> proxy. Documents are indexed
+   * as built by the client, thus without server side metadata evaluation 
+   * performed by the Geoportal REST item end point. Existing documents are 
+   * updated rather than replaced, so fields not sent by the client are kept.
+   *
+   * @param items items to publish
+   * @param forceAdd <code>true</code> to force add.
+   * @return list of responses, one for each item in the same order as items
+   * @throws IOException if reading response fails
+   * @throws URISyntaxException if URL has invalid syntax
+   */
+  public List<PublishResponse> publish(List<PublishItem> items, boolean forceAdd) throws IOException, URISyntaxException {
+    if (items.isEmpty()) {
+      return Collections.emptyList();
+    }
 
-    List<String> ids = !forceAdd ? queryIds("src_uri_s", data.src_uri_s, 1) : Collections.emptyList();
+    Map<String, String> ids = !forceAdd
+            ? queryIdsByUri(items.stream().filter(item -> item.getId() == null).map(item -> item.getData().src_uri_s).collect(Collectors.toSet()))
+            : Collections.emptyMap();
 
-    URI pubUri = id != null ? createItemUri(id) : !ids.isEmpty() ? createItemUri(ids.get(0)) : createItemsUri();
+    BulkEntity entity = new BulkEntity(mapper.getFactory());
+    for (PublishItem item : items) {
+      String id = item.getId() != null ? item.getId() : item.getData().src_uri_s != null ? ids.get(item.getData().src_uri_s) : null;
+      entity.add(id, new PublishEntity(mapper, item.getData(), item.getAttributes(), item.getXml(), item.getJson()));
+    }
+
+    JsonNode root;
     try {
-      return publish(pubUri, entity, data.sys_owner_s);
+      root = bulk(createElasticBulkUri(), entity);
     } catch (HttpResponseException ex) {
       if (ex.getStatusCode() == 401) {
         clearToken();
-        pubUri = id != null ? createItemUri(id) : !ids.isEmpty() ? createItemUri(ids.get(0)) : createItemsUri();
-        return publish(pubUri, entity, data.sys_owner_s);
+        root = bulk(createElasticBulkUri(), entity);
       } else {
         throw ex;
       }
     }
+
+    JsonNode results = root != null ? root.path("items") : null;
+    if (results == null || !results.isArray()) {
+      throw new IOException(String.format("Invalid bulk response: %s", root != null ? root.path("error") : null));
+    }
+
+    List<PublishResponse> responses = new ArrayList<>();
+    for (int i = 0; i < items.size(); i++) {
+      responses.add(readBulkItem(results.path(i)));
+    }
+    return responses;
   }
 
   /**
@@ -359,6 +303,53 @@ public class Client implements Closeable {
     return queryIds(null, null, BATCH_SIZE);
   }
 
+  /**
+   * Reads a page of items together with their content.
+   * <p>
+   * Items are read directly from the index with the scroll API in the index
+   * order, thus a single request gives references and content of the whole 
+   * page. Content not stored within the indexed document is returned as 
+   * <code>null</code>.
+   *
+   * @param searchContext search context; a new context for the first page,
+   * then the same context for each following page
+   * @param size page size
+   * @return page of items or empty list if no more items
+   * @throws IOException if reading response fails
+   * @throws URISyntaxException if URL has invalid syntax
+   */
+  public List<EntryContent> readContent(SearchContext searchContext, int size) throws IOException, URISyntaxException {
+    HttpEntity entity = createContentEntity(size, searchContext);
+    QueryResponse response;
+    try {
+      response = query(createQueryUri(searchContext), entity);
+    } catch (HttpResponseException ex) {
+      if (ex.getStatusCode() == 401) {
+        clearToken();
+        response = query(createQueryUri(searchContext), entity);
+      } else {
+        throw ex;
+      }
+    }
+    if (response != null && response.status != null && response.status >= 400) {
+      throw new HttpResponseException(response.status, String.format("Error reading items from: %s", url));
+    }
+    if (response != null && response._scroll_id != null) {
+      searchContext._scroll_id = response._scroll_id;
+    }
+
+    List<EntryContent> entries = new ArrayList<>();
+    if (response != null && response.hasHits()) {
+      for (Hit hit : response.hits.hits) {
+        EntryRef ref = new EntryRef(hit._id, readUri(hit._source, url.toURI().resolve(REST_ITEM_URL + "/" + hit._id)), readLastUpdated(hit._source, new Date()));
+        String xml = hit._source != null ? hit._source.xml : null;
+        String json = hit._source != null && hit._source._json != null ? mapper.writeValueAsString(hit._source._json) : null;
+        entries.add(new EntryContent(ref, xml, json));
+      }
+    }
+    return entries;
+  }
+
   @Override
   public void close() throws IOException {
     if (httpClient instanceof Closeable) {
@@ -401,7 +392,73 @@ public class Client implements Closeable {
     }
   }
 
-  private PublishResponse publish(URI uri, StringEntity entity, String owner) throws IOException, URISyntaxException {
+  /**
+   * Deletes many records.
+   * <p>
+   * Records are deleted through the Geoportal REST API, so the server is
+   * able to remove everything stored along with each record, but requests 
+   * are executed concurrently by a bounded number of threads. Failure to
+   * delete a single record doesn't stop deleting remaining records.
+   *
+   * @param ids ids of the records to delete
+   * @param threads maximum number of concurrent requests
+   * @param progress callback receiving response for each record; it might be
+   * called from different threads but never concurrently
+   * @return number of records deleted
+   * @throws IOException if deleting has been interrupted
+   */
+  public long delete(Collection<String> ids, int threads, Consumer<PublishResponse> progress) throws IOException {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, ids.size())), r -> {
+      Thread thread = new Thread(r, String.format("gpt-delete-%s", url.getHost()));
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      CompletionService<PublishResponse> completionService = new ExecutorCompletionService<>(executor);
+      for (String id : ids) {
+        completionService.submit(() -> {
+          try {
+            PublishResponse response = delete(id);
+            if (response != null && response.getId() == null) {
+              response.setId(id);
+            }
+            return response;
+          } catch (IOException | URISyntaxException ex) {
+            PublishResponse response = new PublishResponse();
+            response.setId(id);
+            PublishResponse.Error error = new PublishResponse.Error();
+            error.setMessage(ex.getMessage());
+            response.setError(error);
+            return response;
+          }
+        });
+      }
+
+      long deleted = 0;
+      for (int i = 0; i < ids.size(); i++) {
+        PublishResponse response = completionService.take().get();
+        if (response != null && response.getError() == null) {
+          deleted++;
+        }
+        if (progress != null) {
+          progress.accept(response);
+        }
+      }
+      return deleted;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while deleting records.");
+    } catch (ExecutionException ex) {
+      throw new IOException("Error deleting records.", ex.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private PublishResponse publish(URI uri, HttpEntity entity, String owner) throws IOException, URISyntaxException {
     HttpPut put = new HttpPut(uri);
     put.setConfig(DEFAULT_REQUEST_CONFIG);
     put.setEntity(entity);
@@ -416,6 +473,44 @@ public class Client implements Closeable {
     return response;
   }
 
+  private JsonNode bulk(URI uri, HttpEntity entity) throws IOException, URISyntaxException {
+    HttpPost post = new HttpPost(uri);
+    post.setConfig(DEFAULT_REQUEST_CONFIG);
+    post.setEntity(entity);
+    post.setHeader("Content-Type", "application/x-ndjson; charset=UTF-8");
+    post.setHeader("User-Agent", HttpConstants.getUserAgent());
+
+    return execute(post, JsonNode.class);
+  }
+
+  /**
+   * Reads single item of the bulk response.
+   * @param item item as reported by Elasticsearch, keyed by the action
+   * @return publish response
+   */
+  /*package*/ static PublishResponse readBulkItem(JsonNode item) {
+    JsonNode result = item.has("update") ? item.get("update") : item.path("index");
+    PublishResponse response = new PublishResponse();
+    response.setId(result.hasNonNull("_id") ? result.get("_id").asText() : null);
+    if (result.has("error")) {
+      PublishResponse.Error error = new PublishResponse.Error();
+      JsonNode errorNode = result.get("error");
+      error.setMessage(errorNode.has("reason") ? errorNode.get("reason").asText() : errorNode.isTextual() ? errorNode.asText() : errorNode.toString());
+      response.setError(error);
+    } else if (result.isMissingNode()) {
+      PublishResponse.Error error = new PublishResponse.Error();
+      error.setMessage("No response received");
+      response.setError(error);
+    } else if (result.has("result")) {
+      // unchanged document is reported by update as 'noop'
+      response.setStatus("created".equals(result.get("result").asText()) ? "created" : "updated");
+    } else {
+      // older Elasticsearch versions report only 'created' flag
+      response.setStatus(result.path("created").asBoolean() ? "created" : "updated");
+    }
+    return response;
+  }
+
   private EntryRef readItem(URI uri) throws URISyntaxException, IOException {
     HttpGet get = new HttpGet(uri);
     get.setConfig(DEFAULT_REQUEST_CONFIG);
@@ -515,6 +610,41 @@ public class Client implements Closeable {
     return b.build();
   }
 
+  /**
+   * Query ids of the documents by their source URI.
+   *
+   * @param uris collection of source URI's
+   * @return map of source URI to document id
+   * @throws IOException if reading response fails
+   * @throws URISyntaxException if URL has invalid syntax
+   */
+  private Map<String, String> queryIdsByUri(Collection<String> uris) throws IOException, URISyntaxException {
+    Map<String, String> ids = new HashMap<>();
+    List<String> values = uris.stream().filter(uri -> uri != null).collect(Collectors.toList());
+
+    for (int start = 0; start < values.size() && !Thread.currentThread().isInterrupted(); start += BATCH_SIZE) {
+      List<String> batch = values.subList(start, Math.min(values.size(), start + BATCH_SIZE));
+
+      ObjectNode root = mapper.createObjectNode();
+      root.put("size", batch.size());
+      root.set("_source", mapper.createArrayNode().add("src_uri_s"));
+      ArrayNode terms = root.putObject("query").putObject("terms").putArray("src_uri_s");
+      batch.forEach(terms::add);
+
+      URIBuilder builder = new URIBuilder(url.toURI().resolve(createElasticSearchUrl()));
+      HttpEntity entity = new StringEntity(mapper.writeValueAsString(root), ContentType.APPLICATION_JSON);
+
+      QueryResponse response = query(builder, entity);
+      if (response != null && response.hasHits()) {
+        response.hits.hits.stream()
+                .filter(hit -> hit._source != null && hit._source.src_uri_s != null)
+                .forEach(hit -> ids.putIfAbsent(hit._source.src_uri_s, hit._id));
+      }
+    }
+
+    return ids;
+  }
+
   /**
    * Query ids.
    *
@@ -655,6 +785,14 @@ public class Client implements Closeable {
     return ELASTIC_SEARCH_URL.replaceAll("\\{metadata\\}", index);
   }
 
+  private URI createElasticBulkUri() throws URISyntaxException, IOException {
+    URIBuilder b = new URIBuilder(url.toURI().resolve(ELASTIC_BULK_URL.replaceAll("\\{metadata\\}", index)));
+    if (cred != null && !cred.isEmpty()) {
+      b.addParameter("access_token", getAccessToken());
+    }
+    return b.build();
+  }
+
   private HttpEntity createQueryEntity(String term, String value, long size, SearchContext searchContext) {
     ObjectMapper mapper = new ObjectMapper();
     ObjectNode node = mapper.createObjectNode();
@@ -677,6 +815,20 @@ public class Client implements Closeable {
     return new StringEntity(node.toString(), ContentType.APPLICATION_JSON);
   }
 
+  private HttpEntity createContentEntity(int size, SearchContext searchContext) throws IOException {
+    ObjectNode node = mapper.createObjectNode();
+    if (searchContext._scroll_id == null) {
+      node.put("size", size);
+      node.set("_source", mapper.createArrayNode().add("src_uri_s").add("src_lastupdate_dt").add("xml").add("_json"));
+      node.set("sort", mapper.createArrayNode().add("_doc"));
+    } else {
+      node.put("scroll", "1m");
+      node.put("scroll_id", searchContext._scroll_id);
+    }
+
+    return new StringEntity(mapper.writeValueAsString(node), ContentType.APPLICATION_JSON);
+  }
+
   private URI createQueryUri(SearchContext searchContext) throws IOException, URISyntaxException {
     URIBuilder builder;
 
@@ -719,19 +871,20 @@ public class Client implements Closeable {
     }
   }
 
-  private String getAccessToken() throws URISyntaxException, IOException {
+  private synchronized String getAccessToken() throws URISyntaxException, IOException {
     LocalDateTime now = LocalDateTime.now();
-    if (tokenInfo == null || tokenInfo.validTill.minusSeconds(60).isBefore(now)) {
+    TokenInfo ti = tokenInfo;
+    if (ti == null || ti.validTill.minusSeconds(60).isBefore(now)) {
       Token token = generateToken();
       if (token.access_token == null) {
         throw new IOException("Error obtaining access token");
       }
-      TokenInfo ti = new TokenInfo();
+      ti = new TokenInfo();
       ti.token = token;
       ti.validTill = now.plusSeconds(token.expires_in);
       tokenInfo = ti;
     }
-    return tokenInfo.token.access_token;
+    return ti.token.access_token;
   }
 
   private Token generateToken() throws URISyntaxException, UnsupportedEncodingException, IOException {
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.gpt.client;
+
+/**
+ * Entry content.
+ */
+public final class EntryContent {
+  private final EntryRef ref;
+  private final String xml;
+  private final String json;
+
+  /**
+   * Creates instance of the content.
+   * @param ref entry reference
+   * @param xml xml or <code>null</code> if not available
+   * @param json json or <code>null</code> if not available
+   */
+  public EntryContent(EntryRef ref, String xml, String json) {
+    this.ref = ref;
+    this.xml = xml;
+    this.json = json;
+  }
+
+  /**
+   * Gets entry reference.
+   * @return entry reference
+   */
+  public EntryRef getRef() {
+    return ref;
+  }
+
+  /**
+   * Gets xml.
+   * @return xml or <code>null</code> if not available
+   */
+  public String getXml() {
+    return xml;
+  }
+
+  /**
+   * Gets json.
+   * @return json or <code>null</code> if not available
+   */
+  public String getJson() {
+    return json;
+  }
+  
+  @Override
+  public String toString() {
+    return ref != null ? ref.toString() : "";
+  }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.gpt.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publish entity.
+ * <p>
+ * Writes document directly to the output stream each time entity is being
+ * sent. Record JSON is streamed rather than parsed into a tree. Fields are
+ * written in the reverse order of precedence and each field is written only 
+ * once, thus attributes override fields derived from the record JSON, which
+ * override xml and the publish request data. Among the fields derived from the
+ * record JSON the last one wins, just like when putting them into a tree.
+ */
+/*package*/ class PublishEntity extends AbstractHttpEntity {
+  private static final Logger LOG = LoggerFactory.getLogger(PublishEntity.class);
+  private static final String DEFAULT_STRING_SUFFIX = "_txt";
+  private static final Map<String, String> STRING_SUFFIXES = createStringSuffixes();
+
+  private final ObjectMapper mapper;
+  private final JsonFactory factory;
+  private final ObjectNode data;
+  private final Map<String, Object> attributes;
+  private final String xml;
+  private final String json;
+  private final Layout layout;
+
+  /**
+   * Creates instance of the entity.
+   * @param mapper object mapper
+   * @param data data to publish
+   * @param attributes extra attributes
+   * @param xml xml or <code>null</code>
+   * @param json json or <code>null</code>
+   */
+  public PublishEntity(ObjectMapper mapper, PublishRequest data, Map<String, Object> attributes, String xml, String json) {
+    this.mapper = mapper;
+    this.factory = mapper.getFactory();
+    this.data = data != null ? mapper.convertValue(data, ObjectNode.class) : null;
+    this.attributes = attributes;
+    this.xml = xml;
+    this.json = json;
+    this.layout = json != null ? Layout.scan(factory, json) : null;
+    setContentType(ContentType.APPLICATION_JSON.toString());
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public long getContentLength() {
+    return -1;
+  }
+
+  @Override
+  public InputStream getContent() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writeTo(output);
+    return new ByteArrayInputStream(output.toByteArray());
+  }
+
+  @Override
+  public void writeTo(OutputStream output) throws IOException {
+    try (JsonGenerator gen = factory.createGenerator(output)) {
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      writeDocument(gen);
+    }
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  /**
+   * Writes document.
+   * @param gen JSON generator
+   * @throws IOException if writing document fails
+   */
+  public void writeDocument(JsonGenerator gen) throws IOException {
+    Set<String> written = new HashSet<>();
+    gen.writeStartObject();
+
+    if (attributes != null) {
+      for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+        writeAttribute(gen, written, entry.getKey(), entry.getValue());
+      }
+    }
+
+    if (layout != null) {
+      try (JsonParser parser = factory.createParser(json)) {
+        parser.nextToken();
+        for (int index = 0; parser.nextToken() == JsonToken.FIELD_NAME; index++) {
+          String name = parser.getCurrentName();
+          parser.nextToken();
+          if (!layout.isLive(index)) {
+            parser.skipChildren();
+          } else if (name.equals("fullExtent")) {
+            JsonNode fullExtent = parser.readValueAsTree();
+            writeEnvelope(gen, written, index, fullExtent);
+            try (JsonParser extentParser = fullExtent.traverse()) {
+              extentParser.nextToken();
+              writeDerived(gen, written, index, name, extentParser);
+            }
+          } else {
+            writeDerived(gen, written, index, name, parser);
+          }
+        }
+      }
+      if (written.add("_json")) {
+        gen.writeFieldName("_json");
+        writeJson(gen);
+      }
+    }
+
+    if (xml != null && written.add("xml")) {
+      gen.writeStringField("xml", xml);
+    }
+
+    if (data != null) {
+      Iterator<Map.Entry<String, JsonNode>> fields = data.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (written.add(field.getKey())) {
+          gen.writeFieldName(field.getKey());
+          mapper.writeTree(gen, field.getValue());
+        }
+      }
+    }
+
+    gen.writeEndObject();
+  }
+
+  private void writeJson(JsonGenerator gen) throws IOException {
+    // duplicated top level fields are dropped keeping the last value
+    try (JsonParser parser = factory.createParser(json)) {
+      parser.nextToken();
+      gen.writeStartObject();
+      for (int index = 0; parser.nextToken() == JsonToken.FIELD_NAME; index++) {
+        String name = parser.getCurrentName();
+        parser.nextToken();
+        if (layout.isLive(index)) {
+          gen.writeFieldName(name);
+          gen.copyCurrentStructure(parser);
+        } else {
+          parser.skipChildren();
+        }
+      }
+      gen.writeEndObject();
+    }
+  }
+
+  private void writeAttribute(JsonGenerator gen, Set<String> written, String name, Object value) throws IOException {
+    if (value == null) {
+      if (written.add(name)) {
+        gen.writeNullField(name);
+      }
+    } else if (value instanceof String) {
+      if (written.add(name)) {
+        gen.writeStringField(name, (String) value);
+      }
+    } else if (value instanceof Double || value instanceof BigDecimal) {
+      if (written.add(name)) {
+        gen.writeNumberField(name, ((Number) value).doubleValue());
+      }
+    } else if (value instanceof Float) {
+      if (written.add(name)) {
+        gen.writeNumberField(name, (Float) value);
+      }
+    } else if (value instanceof Long || value instanceof BigInteger) {
+      if (written.add(name)) {
+        gen.writeNumberField(name, ((Number) value).longValue());
+      }
+    } else if (value instanceof Integer) {
+      if (written.add(name)) {
+        gen.writeNumberField(name, (Integer) value);
+      }
+    } else if (value instanceof Boolean) {
+      if (written.add(name)) {
+        gen.writeBooleanField(name, (Boolean) value);
+      }
+    }
+  }
+
+  private void writeDerived(JsonGenerator gen, Set<String> written, int index, String name, JsonParser parser) throws IOException {
+    String fieldName = derivedName(name, parser.currentToken());
+    if (fieldName == null || !layout.isOwner(fieldName, index) || !written.add(fieldName)) {
+      parser.skipChildren();
+      return;
+    }
+    switch (parser.currentToken()) {
+      case VALUE_STRING:
+        gen.writeStringField(fieldName, parser.getText());
+        break;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        gen.writeNumberField(fieldName, parser.getValueAsDouble());
+        break;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        gen.writeBooleanField(fieldName, parser.getBooleanValue());
+        break;
+      default:
+        gen.writeFieldName(fieldName);
+        gen.copyCurrentStructure(parser);
+        break;
+    }
+  }
+
+  private void writeEnvelope(JsonGenerator gen, Set<String> written, int index, JsonNode fullExtent) throws IOException {
+    double xmin = fullExtent.path("xmin").asDouble();
+    double ymin = fullExtent.path("ymin").asDouble();
+    double xmax = fullExtent.path("xmax").asDouble();
+    double ymax = fullExtent.path("ymax").asDouble();
+
+    if (layout.isOwner("envelope_geo", index) && written.add("envelope_geo")) {
+      gen.writeObjectFieldStart("envelope_geo");
+      gen.writeStringField("type", "envelope");
+      gen.writeArrayFieldStart("coordinates");
+      gen.writeStartArray();
+      gen.writeNumber(xmin);
+      gen.writeNumber(ymin);
+      gen.writeEndArray();
+      gen.writeStartArray();
+      gen.writeNumber(xmax);
+      gen.writeNumber(ymax);
+      gen.writeEndArray();
+      gen.writeEndArray();
+      gen.writeEndObject();
+    }
+
+    if (layout.isOwner("envelope_cen_pt", index) && written.add("envelope_cen_pt")) {
+      gen.writeObjectFieldStart("envelope_cen_pt");
+      gen.writeNumberField("lon", (xmin + xmax) / 2.0);
+      gen.writeNumberField("lat", (ymin + ymax) / 2.0);
+      gen.writeEndObject();
+    }
+  }
+
+  /**
+   * Gets name of the field derived from the top level field of the record JSON.
+   * @param name field name
+   * @param token field value token
+   * @return derived field name or <code>null</code> if value is not indexed
+   */
+  private static String derivedName(String name, JsonToken token) {
+    switch (token) {
+      case VALUE_STRING:
+        return name + STRING_SUFFIXES.getOrDefault(name, DEFAULT_STRING_SUFFIX);
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return name + "_d";
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return name + "_b";
+      case START_ARRAY:
+        return name;
+      case START_OBJECT:
+        return name + "_obj";
+      default:
+        return null;
+    }
+  }
+
+  private static Map<String, String> createStringSuffixes() {
+    Map<String, String> suffixes = new HashMap<>();
+    for (String name : new String[]{
+      "allowedUploadFileTypes", "capabilities", "configuredState", "clusterName",
+      "executionType", "geometryType", "htmlPopupType", "isolationLevel",
+      "loadBalancing", "supportedQueryFormats", "tags", "type", "typeName", "units"
+    }) {
+      suffixes.put(name, "_s");
+    }
+    for (String name : new String[]{"title", "description", "fileid"}) {
+      suffixes.put(name, "");
+    }
+    return Collections.unmodifiableMap(suffixes);
+  }
+
+  /**
+   * Layout of the record JSON.
+   * <p>
+   * Tells which top level fields survive duplicated names and which of them
+   * writes each derived field, so the streamed document keeps the last value
+   * in both cases.
+   */
+  private static final class Layout {
+    private final BitSet live = new BitSet();
+    private final Map<String, Integer> owners = new HashMap<>();
+
+    /**
+     * Scans record JSON.
+     * @param factory JSON factory
+     * @param json record JSON
+     * @return layout or <code>null</code> if not a valid JSON object
+     */
+    public static Layout scan(JsonFactory factory, String json) {
+      Map<String, Integer> last = new HashMap<>();
+      List<List<String>> derived = new ArrayList<>();
+      try (JsonParser parser = factory.createParser(json)) {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          return null;
+        }
+        for (int index = 0; parser.nextToken() == JsonToken.FIELD_NAME; index++) {
+          String name = parser.getCurrentName();
+          JsonToken token = parser.nextToken();
+          last.put(name, index);
+          List<String> names = new ArrayList<>();
+          if (name.equals("fullExtent")) {
+            names.add("envelope_geo");
+            names.add("envelope_cen_pt");
+          }
+          String fieldName = derivedName(name, token);
+          if (fieldName != null) {
+            names.add(fieldName);
+          }
+          derived.add(names);
+          parser.skipChildren();
+        }
+      } catch (IOException ex) {
+        LOG.debug(String.format("Invalid json received."), ex);
+        return null;
+      }
+      
+      Layout layout = new Layout();
+      last.values().forEach(layout.live::set);
+      for (int index = layout.live.nextSetBit(0); index >= 0; index = layout.live.nextSetBit(index + 1)) {
+        for (String name : derived.get(index)) {
+          layout.owners.put(name, index);
+        }
+      }
+      return layout;
+    }
+
+    public boolean isLive(int index) {
+      return live.get(index);
+    }
+
+    public boolean isOwner(String name, int index) {
+      Integer owner = owners.get(name);
+      return owner != null && owner == index;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.gpt.client;
+
+import java.util.Map;
+
+/**
+ * Single item of the bulk publish request.
+ */
+public final class PublishItem {
+  private final PublishRequest data;
+  private final Map<String, Object> attributes;
+  private final String id;
+  private final String xml;
+  private final String json;
+
+  /**
+   * Creates instance of the item.
+   * @param data data to publish
+   * @param attributes extra attributes
+   * @param id custom id or <code>null</code>
+   * @param xml xml or <code>null</code>
+   * @param json json or <code>null</code>
+   */
+  public PublishItem(PublishRequest data, Map<String, Object> attributes, String id, String xml, String json) {
+    this.data = data;
+    this.attributes = attributes;
+    this.id = id;
+    this.xml = xml;
+    this.json = json;
+  }
+
+  /**
+   * Gets data to publish.
+   * @return data to publish
+   */
+  public PublishRequest getData() {
+    return data;
+  }
+
+  /**
+   * Gets extra attributes.
+   * @return extra attributes
+   */
+  public Map<String, Object> getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * Gets custom id.
+   * @return custom id or <code>null</code>
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets xml.
+   * @return xml or <code>null</code>
+   */
+  public String getXml() {
+    return xml;
+  }
+
+  /**
+   * Gets json.
+   * @return json or <code>null</code>
+   */
+  public String getJson() {
+    return json;
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("id: %s, uri: %s", id, data!=null? data.src_uri_s: null);
+  }
+}
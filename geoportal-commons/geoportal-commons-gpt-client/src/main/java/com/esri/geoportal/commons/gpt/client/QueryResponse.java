@@ -60,6 +60,8 @@ import java.util.List;
   public static final class Source {
     public String src_uri_s;
     public String src_lastupdate_dt;
+    public String xml;
+    public JsonNode _json;
   }
   
   public static final class HitsDeserializer extends JsonDeserializer<Hits> {
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.gpt.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Bulk entity test.
+ */
+public class BulkEntityTest {
+  
+  @Test
+  public void testActions() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    
+    BulkEntity entity = new BulkEntity(mapper.getFactory());
+    entity.add("a", new PublishEntity(mapper, request("http://host/a"), null, "<a/>", null));
+    entity.add(null, new PublishEntity(mapper, request("http://host/b"), null, "<b/>", null));
+    
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    entity.writeTo(output);
+    String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    
+    assertEquals("Invalid number of lines", 4, lines.length);
+    assertEquals("Invalid update action", "{\"update\":{\"_id\":\"a\"}}", lines[0]);
+    JsonNode update = mapper.readTree(lines[1]);
+    assertEquals("Invalid updated document", "http://host/a", update.path("doc").path("src_uri_s").asText());
+    assertEquals("Invalid updated xml", "<a/>", update.path("doc").path("xml").asText());
+    assertTrue("Update without upsert", update.path("doc_as_upsert").asBoolean());
+    assertEquals("Invalid index action", "{\"index\":{}}", lines[2]);
+    JsonNode index = mapper.readTree(lines[3]);
+    assertEquals("Invalid indexed document", "http://host/b", index.path("src_uri_s").asText());
+    assertFalse("Indexed document wrapped", index.has("doc"));
+    assertEquals("Entity not repeatable", output.toString("UTF-8"), new String(entity.getContent().readAllBytes(), StandardCharsets.UTF_8));
+  }
+  
+  private PublishRequest request(String uri) {
+    PublishRequest data = new PublishRequest();
+    data.src_uri_s = uri;
+    return data;
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.gpt.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Geoportal client test.
+ */
+public class ClientTest {
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<String> requests = new ArrayList<>();
+  private final List<JsonNode> bodies = new ArrayList<>();
+  private final List<String> bulkLines = new ArrayList<>();
+  private HttpServer server;
+  private Client client;
+  
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    // first page is returned by the search, following pages by the scroll
+    server.createContext("/geoportal/elastic/metadata/item/_search", exchange -> {
+      JsonNode body = record(exchange);
+      if (body.path("sort").toString().contains("_id")) {
+        respond(exchange, 400, "{\"status\": 400}");
+      } else {
+        respond(exchange, 200, page("scroll-1", "a", "b"));
+      }
+    });
+    server.createContext("/geoportal/elastic/_search/scroll", exchange -> {
+      JsonNode body = record(exchange);
+      switch (body.path("scroll_id").asText()) {
+        case "scroll-1":
+          respond(exchange, 200, page("scroll-2", "c"));
+          break;
+        case "scroll-2":
+          respond(exchange, 200, page("scroll-2"));
+          break;
+        default:
+          respond(exchange, 404, "{\"status\": 404}");
+      }
+    });
+    server.createContext("/geoportal/elastic/metadata/item/_bulk", exchange -> {
+      synchronized (this) {
+        requests.add(exchange.getRequestURI().toString());
+        bulkLines.addAll(IOUtils.readLines(exchange.getRequestBody(), StandardCharsets.UTF_8));
+      }
+      respond(exchange, 200, "{\"errors\": true, \"items\": ["
+              + "{\"update\": {\"_id\": \"a\", \"result\": \"updated\"}},"
+              + "{\"index\": {\"_id\": \"new\", \"result\": \"created\"}},"
+              + "{\"index\": {\"_id\": \"bad\", \"error\": {\"type\": \"mapper_parsing_exception\", \"reason\": \"failed to parse\"}}}"
+              + "]}");
+    });
+    server.start();
+    
+    URL url = new URL(String.format("http://localhost:%d/geoportal/", server.getAddress().getPort()));
+    client = new Client(HttpClients.createDefault(), url, null, null);
+  }
+  
+  @After
+  public void tearDown() throws Exception {
+    client.close();
+    server.stop(0);
+  }
+
+  @Test
+  public void testReadContent() throws Exception {
+    Client.SearchContext searchContext = new Client.SearchContext();
+    List<String> ids = new ArrayList<>();
+    List<EntryContent> entries;
+    while (!(entries = client.readContent(searchContext, 2)).isEmpty()) {
+      entries.forEach(entry -> ids.add(entry.getRef().getId()));
+    }
+    
+    assertEquals("Invalid ids", List.of("a", "b", "c"), ids);
+    assertEquals("Invalid xml", "<xml id=\"a\"/>", client.readContent(new Client.SearchContext(), 2).get(0).getXml());
+    assertTrue("Invalid first request", requests.get(0).startsWith("/geoportal/elastic/metadata/item/_search?scroll=1m"));
+    assertEquals("Invalid sort", "[\"_doc\"]", bodies.get(0).path("sort").toString());
+    assertEquals("Invalid page size", 2, bodies.get(0).path("size").asInt());
+    assertTrue("Invalid second request", requests.get(1).startsWith("/geoportal/elastic/_search/scroll?scroll_id=scroll-1"));
+    assertEquals("Invalid scroll id", "scroll-2", bodies.get(2).path("scroll_id").asText());
+  }
+
+  @Test
+  public void testReadContentError() throws Exception {
+    server.removeContext("/geoportal/elastic/metadata/item/_search");
+    server.createContext("/geoportal/elastic/metadata/item/_search", exchange -> respond(exchange, 400, "{\"status\": 400}"));
+    try {
+      client.readContent(new Client.SearchContext(), 2);
+      fail("Error not reported");
+    } catch (HttpResponseException ex) {
+      assertEquals("Invalid status", 400, ex.getStatusCode());
+    }
+  }
+  
+  @Test
+  public void testPublishBulk() throws Exception {
+    List<PublishItem> items = List.of(item("http://host/a"), item("http://host/x"), item("http://host/y"));
+    List<PublishResponse> responses = client.publish(items, false);
+    
+    assertEquals("Invalid ids query", 3, bodies.get(0).path("query").path("terms").path("src_uri_s").size());
+    assertEquals("Invalid number of lines", 6, bulkLines.size());
+    assertEquals("Existing record not updated", "{\"update\":{\"_id\":\"a\"}}", bulkLines.get(0));
+    assertTrue("Existing record not upserted", mapper.readTree(bulkLines.get(1)).path("doc_as_upsert").asBoolean());
+    assertEquals("New record not indexed", "{\"index\":{}}", bulkLines.get(2));
+    assertEquals("Invalid document", "http://host/x", mapper.readTree(bulkLines.get(3)).path("src_uri_s").asText());
+    
+    assertEquals("Invalid number of responses", 3, responses.size());
+    assertEquals("Invalid updated id", "a", responses.get(0).getId());
+    assertEquals("Invalid updated status", "updated", responses.get(0).getStatus());
+    assertEquals("Invalid created status", "created", responses.get(1).getStatus());
+    assertEquals("Invalid rejected id", "bad", responses.get(2).getId());
+    assertEquals("Invalid rejected error", "failed to parse", responses.get(2).getError().getMessage());
+  }
+
+  @Test
+  public void testReadBulkItem() throws Exception {
+    assertEquals("Invalid noop status", "updated", Client.readBulkItem(mapper.readTree("{\"update\": {\"_id\": \"a\", \"result\": \"noop\"}}")).getStatus());
+    assertEquals("Invalid legacy status", "created", Client.readBulkItem(mapper.readTree("{\"index\": {\"_id\": \"a\", \"created\": true}}")).getStatus());
+    assertEquals("Invalid textual error", "failed", Client.readBulkItem(mapper.readTree("{\"index\": {\"error\": \"failed\"}}")).getError().getMessage());
+    assertNotNull("Missing item not reported", Client.readBulkItem(mapper.missingNode()).getError());
+  }
+  
+  private PublishItem item(String uri) {
+    PublishRequest data = new PublishRequest();
+    data.src_uri_s = uri;
+    return new PublishItem(data, null, null, "<xml/>", null);
+  }
+  
+  private synchronized JsonNode record(HttpExchange exchange) throws IOException {
+    JsonNode body = mapper.readTree(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+    requests.add(exchange.getRequestURI().toString());
+    bodies.add(body);
+    return body;
+  }
+  
+  private String page(String scrollId, String... ids) {
+    StringBuilder hits = new StringBuilder();
+    for (String id : ids) {
+      if (hits.length() > 0) {
+        hits.append(",");
+      }
+      hits.append(String.format("{\"_id\": \"%s\", \"_source\": {\"src_uri_s\": \"http://host/%s\", \"xml\": \"<xml id=\\\"%s\\\"/>\"}}", id, id, id));
+    }
+    return String.format("{\"_scroll_id\": \"%s\", \"hits\": {\"total\": 3, \"hits\": [%s]}}", scrollId, hits);
+  }
+  
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.gpt.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Publish entity test.
+ */
+public class PublishEntityTest {
+  private ObjectMapper mapper;
+  private PublishRequest data;
+  private Map<String, Object> attributes;
+  
+  @Before
+  public void setUp() {
+    // configured the same way as the client
+    mapper = new ObjectMapper();
+    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    
+    data = new PublishRequest();
+    data.src_source_type_s = "CSW";
+    data.src_uri_s = "http://host/record/1";
+    data.src_lastupdate_dt = "2020-01-01T00:00:00Z";
+    
+    attributes = new LinkedHashMap<>();
+  }
+
+  @Test
+  public void testDocument() throws Exception {
+    attributes.put("title", "attribute title");
+    attributes.put("score", new BigDecimal("1.5"));
+    attributes.put("count", 3L);
+    attributes.put("flag", true);
+    attributes.put("empty", null);
+    String json = "{\"title\": \"json title\", \"type\": \"Map Service\", \"name\": \"map\", \"scale\": 10, "
+            + "\"cached\": false, \"tags\": [\"a\", \"b\"], \"info\": {\"x\": 1}, \"nothing\": null, "
+            + "\"fullExtent\": {\"xmin\": -10, \"ymin\": -5, \"xmax\": 10, \"ymax\": 5}}";
+    assertDocument("<xml/>", json);
+  }
+
+  @Test
+  public void testDataOverriddenByDerivedFields() throws Exception {
+    assertDocument(null, "{\"src_uri\": \"ignored\", \"src_uri_s\": [\"derived\"], \"xml\": [\"derived\"]}");
+  }
+
+  @Test
+  public void testCollidingDerivedFieldsKeepLast() throws Exception {
+    assertDocument(null, "{\"name\": \"text\", \"name_txt\": [\"array\"]}");
+    assertDocument(null, "{\"name_txt\": [\"array\"], \"name\": \"text\"}");
+    assertDocument(null, "{\"envelope_geo\": [1, 2], \"fullExtent\": {\"xmin\": 1, \"ymin\": 2, \"xmax\": 3, \"ymax\": 4}}");
+    assertDocument(null, "{\"fullExtent\": {\"xmin\": 1, \"ymin\": 2, \"xmax\": 3, \"ymax\": 4}, \"envelope_geo\": [1, 2]}");
+  }
+
+  @Test
+  public void testDuplicatedFieldsKeepLast() throws Exception {
+    assertDocument(null, "{\"name\": \"text\", \"scale\": 1, \"name\": 2}");
+  }
+
+  @Test
+  public void testInvalidJson() throws Exception {
+    assertDocument("<xml/>", "{\"name\": ");
+    assertDocument("<xml/>", "[1, 2]");
+  }
+
+  @Test
+  public void testRepeatable() throws Exception {
+    PublishEntity entity = new PublishEntity(mapper, data, attributes, null, "{\"name\": \"text\"}");
+    assertEquals("Invalid repeated content", write(entity), write(entity));
+  }
+  
+  private void assertDocument(String xml, String json) throws IOException {
+    PublishEntity entity = new PublishEntity(mapper, data, attributes, xml, json);
+    // compared as sent over the wire
+    JsonNode expected = mapper.readTree(mapper.writeValueAsString(createDocument(data, attributes, xml, json)));
+    assertEquals("Invalid document for " + json, expected, mapper.readTree(write(entity)));
+  }
+  
+  private static String write(PublishEntity entity) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    entity.writeTo(output);
+    return output.toString("UTF-8");
+  }
+
+  /**
+   * Creates document the way client did before streaming it.
+   */
+  private ObjectNode createDocument(PublishRequest data, Map<String, Object> attributes, String xml, String json) {
+    ObjectNode jsonRequest = mapper.convertValue(data, ObjectNode.class);
+    if (xml != null) {
+      jsonRequest.put("xml", xml);
+    }
+    if (json != null) {
+      try {
+        ObjectNode jsonValue = mapper.readValue(json, ObjectNode.class);
+        jsonRequest.set("_json", jsonValue);
+        Iterator<Map.Entry<String, JsonNode>> fldIter = jsonValue.fields();
+        while (fldIter.hasNext()) {
+          Map.Entry<String, JsonNode> fld = fldIter.next();
+          if (fld.getKey().equals("fullExtent")) {
+            JsonNode fullExtent = fld.getValue();
+            double xmin = fullExtent.path("xmin").asDouble();
+            double ymin = fullExtent.path("ymin").asDouble();
+            double xmax = fullExtent.path("xmax").asDouble();
+            double ymax = fullExtent.path("ymax").asDouble();
+            ObjectNode envelope_geo = jsonRequest.putObject("envelope_geo");
+            envelope_geo.put("type", "envelope");
+            ArrayNode coordinates = envelope_geo.putArray("coordinates");
+            coordinates.addArray().add(xmin).add(ymin);
+            coordinates.addArray().add(xmax).add(ymax);
+            ObjectNode envelope_cen_pt = jsonRequest.putObject("envelope_cen_pt");
+            envelope_cen_pt.put("lon", (xmin + xmax) / 2.0);
+            envelope_cen_pt.put("lat", (ymin + ymax) / 2.0);
+          }
+          switch (fld.getValue().getNodeType()) {
+            case STRING:
+              jsonRequest.put(fld.getKey() + suffix(fld.getKey()), fld.getValue().asText());
+              break;
+            case NUMBER:
+              jsonRequest.put(fld.getKey() + "_d", fld.getValue().asDouble());
+              break;
+            case BOOLEAN:
+              jsonRequest.put(fld.getKey() + "_b", fld.getValue().asBoolean());
+              break;
+            case ARRAY:
+              jsonRequest.set(fld.getKey(), fld.getValue());
+              break;
+            case OBJECT:
+              jsonRequest.set(fld.getKey() + "_obj", fld.getValue());
+              break;
+          }
+        }
+      } catch (Exception ex) {
+        // invalid json is not indexed
+      }
+    }
+    for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+      if (entry.getValue() == null) {
+        jsonRequest.putNull(entry.getKey());
+      } else if (entry.getValue() instanceof String) {
+        jsonRequest.put(entry.getKey(), (String) entry.getValue());
+      } else if (entry.getValue() instanceof BigDecimal) {
+        jsonRequest.put(entry.getKey(), ((BigDecimal) entry.getValue()).doubleValue());
+      } else if (entry.getValue() instanceof Long) {
+        jsonRequest.put(entry.getKey(), (Long) entry.getValue());
+      } else if (entry.getValue() instanceof Boolean) {
+        jsonRequest.put(entry.getKey(), (Boolean) entry.getValue());
+      }
+    }
+    return jsonRequest;
+  }
+  
+  private static String suffix(String name) {
+    Map<String, String> suffixes = new HashMap<>();
+    for (String s : new String[]{"type", "tags"}) {
+      suffixes.put(s, "_s");
+    }
+    for (String s : new String[]{"title", "description", "fileid"}) {
+      suffixes.put(s, "");
+    }
+    return suffixes.getOrDefault(name, "_txt");
+  }
+}
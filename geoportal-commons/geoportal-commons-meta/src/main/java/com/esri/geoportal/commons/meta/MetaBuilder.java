@@ -28,4 +28,14 @@ public interface MetaBuilder {
    * @throws MetaException if metadata creation failed
    */
   Document create(MapAttribute wellKnowsAttributes) throws MetaException;
+  
+  /**
+   * Creates builder instance to be used exclusively by a single thread.
+   * <p>
+   * Builders safe to be shared between threads may return themselves.
+   * @return builder instance
+   */
+  default MetaBuilder newInstance() {
+    return this;
+  }
 }
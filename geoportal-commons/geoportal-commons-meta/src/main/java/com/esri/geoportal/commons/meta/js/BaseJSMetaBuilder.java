@@ -21,6 +21,7 @@ import com.esri.geoportal.commons.meta.MetaException;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import javax.script.Invocable;
+import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import javax.xml.parsers.ParserConfigurationException;
@@ -35,13 +36,34 @@ public class BaseJSMetaBuilder implements MetaBuilder {
   private static final ScriptEngines engines = new ScriptEngines();
 
   private final String javascriptPath;
+  private final boolean exclusive;
+  private ScriptEngine engine;
   
   /**
    * Creates instance of the builder.
    * @param javascriptPath javascript file path
    */
   public BaseJSMetaBuilder(String javascriptPath) {
+    this(javascriptPath, false);
+  }
+  
+  /**
+   * Creates instance of the builder.
+   * @param javascriptPath javascript file path
+   * @param exclusive <code>true</code> to use own script engine instead of the shared one
+   */
+  private BaseJSMetaBuilder(String javascriptPath, boolean exclusive) {
     this.javascriptPath = javascriptPath;
+    this.exclusive = exclusive;
+  }
+
+  /**
+   * Creates builder instance with its own script engine.
+   * @return builder instance
+   */
+  @Override
+  public MetaBuilder newInstance() {
+    return new BaseJSMetaBuilder(javascriptPath, true);
   }
 
   @Override
@@ -58,10 +80,20 @@ public class BaseJSMetaBuilder implements MetaBuilder {
     try {
       SimpleBindings bindings = new SimpleBindings();
       bindings.put("attributes", wellKnowsAttributes);
-      Invocable invocable = (Invocable)engines.getCachedEngine(javascriptPath);
+      Invocable invocable = (Invocable)getEngine();
       return invocable.invokeFunction("create", wellKnowsAttributes);
     } catch (ScriptException|NoSuchMethodException|IOException|URISyntaxException ex) {
       throw new MetaException("Error executing script.", ex);
     }
   }
+  
+  private ScriptEngine getEngine() throws ScriptException, IOException, URISyntaxException {
+    if (!exclusive) {
+      return engines.getCachedEngine(javascriptPath);
+    }
+    if (engine == null) {
+      engine = engines.createEngine(javascriptPath);
+    }
+    return engine;
+  }
 }
@@ -53,18 +53,39 @@ public class ScriptEngines {
     synchronized(engines) {
       ScriptEngine engine = engines.get(javascriptFile);
       if (engine == null) {
-        try (
-          InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(javascriptFile);
-          Reader reader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
-                ) {
-            ScriptEngineManager engineManager = new ScriptEngineManager();
-            engine = engineManager.getEngineByName("nashorn");
-            engine.eval(reader);
-            engines.put(javascriptFile,engine);
-        }
+        engine = createEngine(javascriptFile);
+        engines.put(javascriptFile,engine);
       }
       return engine;
     }
   }
   
+  /**
+   * Creates a new, not cached script engine.
+   * @param javascriptFile the path to a JavaScript file
+   * @return the engine
+   * @throws IOException if reading script fails
+   * @throws ScriptException if invalid script
+   */
+  public ScriptEngine createEngine(String javascriptFile) 
+      throws IOException, ScriptException {
+    try (
+      InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(javascriptFile);
+      Reader reader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
+            ) {
+        ScriptEngine engine = createEngine();
+        engine.eval(reader);
+        return engine;
+    }
+  }
+  
+  /**
+   * Creates a new, not cached and empty JavaScript engine.
+   * @return the engine or <code>null</code> if no JavaScript engine available
+   */
+  public ScriptEngine createEngine() {
+    ScriptEngineManager engineManager = new ScriptEngineManager();
+    return engineManager.getEngineByName("nashorn");
+  }
+  
 }
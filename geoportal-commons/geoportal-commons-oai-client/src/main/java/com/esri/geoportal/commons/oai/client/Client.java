@@ -15,42 +15,29 @@
  */
 package com.esri.geoportal.commons.oai.client;
 
-import com.esri.geoportal.commons.utils.XmlUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import org.apache.http.HttpResponse;
-import org.apache.http.HttpStatus;
 import org.apache.http.client.utils.DateUtils;
 
 /**
@@ -60,6 +47,9 @@ public class Client implements Closeable {
 
   private static final SimpleDateFormat DF = new SimpleDateFormat("yyyy-MM-dd");
   private static final Logger LOG = LoggerFactory.getLogger(Client.class);
+  private static final ResponseReader READER = new ResponseReader();
+  /** maximum number of attempts to execute request rejected with 429 or 503 */
+  private static final int MAX_ATTEMPTS = 5;
 
   private final CloseableHttpClient httpClient;
   private final URL url;
@@ -96,68 +86,9 @@ public class Client implements Closeable {
    * @return list of the ids with the resumption token to continue
    * @throws IOException if error reading response
    * @throws URISyntaxException if invalid URI
-   * @throws ParserConfigurationException if error parsing response
-   * @throws SAXException if error parsing response
-   * @throws XPathExpressionException if error parsing response
    */
-  public ListIdsResponse listIds(String resumptionToken, Date since) throws IOException, URISyntaxException, ParserConfigurationException, SAXException, XPathExpressionException {
-    HttpGet request = new HttpGet(listIdsUri(resumptionToken, since));
-    try (CloseableHttpResponse httpResponse = httpClient.execute(request); InputStream contentStream = httpResponse.getEntity().getContent();) {
-      String reasonMessage = httpResponse.getStatusLine().getReasonPhrase();
-      String responseContent = IOUtils.toString(contentStream, "UTF-8");
-      LOG.trace(String.format("RESPONSE: %s, %s", responseContent, reasonMessage));
-      
-      if (httpResponse.getStatusLine().getStatusCode()==429 || httpResponse.getStatusLine().getStatusCode()==503) {
-        Date retryAfter = getRetryAfter(httpResponse);
-        if (retryAfter!=null) {
-          long delay = retryAfter.getTime()-System.currentTimeMillis();
-          if (delay>0) {
-            LOG.debug(String.format("Harvestiong suspended for %d milliseconds.", delay));
-            try {
-              Thread.sleep(delay);
-            } catch (InterruptedException ex) {
-              // ignore
-            }
-          }
-          return listIds(resumptionToken, since);
-        }
-      }
-
-      if (httpResponse.getStatusLine().getStatusCode() >= 400) {
-        throw new HttpResponseException(httpResponse.getStatusLine().getStatusCode(), httpResponse.getStatusLine().getReasonPhrase());
-      }
-
-      Document responseDoc = parseDocument(responseContent);
-
-      XPath xPath = XPathFactory.newInstance().newXPath();
-
-      String errorCode = StringUtils.stripToNull((String) xPath.evaluate("/OAI-PMH/error/@code", responseDoc, XPathConstants.STRING));
-      if (errorCode != null) {
-        throw new HttpResponseException(HttpStatus.SC_BAD_REQUEST, String.format("Invalid OAI-PMH response with code: %s", errorCode));
-      }
-
-      Node listIdentifiersNode = (Node) xPath.evaluate("/OAI-PMH/ListIdentifiers", responseDoc, XPathConstants.NODE);
-
-      ListIdsResponse response = new ListIdsResponse();
-      if (listIdentifiersNode != null) {
-        NodeList headerNodes = (NodeList) xPath.evaluate("header[not(@status=\"deleted\")]", listIdentifiersNode, XPathConstants.NODESET);
-        if (headerNodes != null) {
-          ArrayList<Header> headers = new ArrayList<>();
-          for (int i = 0; i < headerNodes.getLength(); i++) {
-            Header header = new Header();
-            header.identifier = (String) xPath.evaluate("identifier", headerNodes.item(i), XPathConstants.STRING);
-            header.datestamp = (String) xPath.evaluate("datestamp", headerNodes.item(i), XPathConstants.STRING);
-            headers.add(header);
-          }
-          response.headers = headers.toArray(new Header[headers.size()]);
-        }
-        response.resumptionToken = StringUtils.trimToNull((String) xPath.evaluate("resumptionToken", listIdentifiersNode, XPathConstants.STRING));
-      } else {
-        response.resumptionToken = null;
-      }
-      return response;
-
-    }
+  public ListIdsResponse listIds(String resumptionToken, Date since) throws IOException, URISyntaxException {
+    return execute(listIdsUri(resumptionToken, since), READER::readListIds);
   }
 
   /**
@@ -167,62 +98,89 @@ public class Client implements Closeable {
    * @return record
    * @throws IOException if error reading record
    * @throws URISyntaxException if invalid URI
-   * @throws ParserConfigurationException if error parsing response
-   * @throws SAXException if error parsing response
-   * @throws XPathExpressionException if error parsing response
-   * @throws TransformerException if error parsing response
    */
-  public String readRecord(String id) throws IOException, URISyntaxException, ParserConfigurationException, SAXException, XPathExpressionException, TransformerException {
-    HttpGet request = new HttpGet(recordUri(id));
-    try (CloseableHttpResponse httpResponse = httpClient.execute(request); InputStream contentStream = httpResponse.getEntity().getContent();) {
-      String reasonMessage = httpResponse.getStatusLine().getReasonPhrase();
-      String responseContent = IOUtils.toString(contentStream, "UTF-8");
-      LOG.trace(String.format("RESPONSE: %s, %s", responseContent, reasonMessage));
-      
-      if (httpResponse.getStatusLine().getStatusCode()==429 || httpResponse.getStatusLine().getStatusCode()==503) {
-        Date retryAfter = getRetryAfter(httpResponse);
-        if (retryAfter!=null) {
-          long delay = retryAfter.getTime()-System.currentTimeMillis();
-          if (delay>0) {
-            LOG.debug(String.format("Harvestiong suspended for %d milliseconds.", delay));
-            try {
-              Thread.sleep(delay);
-            } catch (InterruptedException ex) {
-              // ignore
-            }
-          }
-          return readRecord(id);
-        }
-      }
+  public String readRecord(String id) throws IOException, URISyntaxException {
+    return execute(recordUri(id), READER::readGetRecord);
+  }
 
-      if (httpResponse.getStatusLine().getStatusCode() >= 400) {
-        throw new HttpResponseException(httpResponse.getStatusLine().getStatusCode(), httpResponse.getStatusLine().getReasonPhrase());
-      }
+  /**
+   * Lists records together with metadata.
+   *
+   * @param resumptionToken resumption token or <code>null</code>
+   * @param since since date or <code>null</code>
+   * @return list of the records with the resumption token to continue
+   * @throws IOException if error reading response
+   * @throws URISyntaxException if invalid URI
+   */
+  public ListRecordsResponse listRecords(String resumptionToken, Date since) throws IOException, URISyntaxException {
+    return execute(listUri("ListRecords", resumptionToken, since), READER::readListRecords);
+  }
 
-      Document responseDoc = parseDocument(responseContent);
-      XPath xPath = XPathFactory.newInstance().newXPath();
+  /**
+   * Executes request and reads response.
+   * <p>
+   * Response is parsed directly from the stream unless trace logging is 
+   * enabled. Requests rejected with 429 or 503 are repeated after the delay
+   * suggested by the server, up to {@link #MAX_ATTEMPTS} times. Rejected 
+   * response is closed before waiting so neither the pooled connection nor
+   * the crawl permit is held while suspended.
+   *
+   * @param uri request URI
+   * @param handler response handler
+   * @return response
+   * @throws IOException if error reading response
+   */
+  private <T> T execute(URI uri, ResponseHandler<T> handler) throws IOException {
+    for (int attempt = 1; ; attempt++) {
+      long delay;
+      HttpGet request = new HttpGet(uri);
+      try (CloseableHttpResponse httpResponse = httpClient.execute(request); InputStream contentStream = httpResponse.getEntity().getContent();) {
+        int statusCode = httpResponse.getStatusLine().getStatusCode();
+        Date retryAfter = (statusCode==429 || statusCode==503) && attempt < MAX_ATTEMPTS? getRetryAfter(httpResponse): null;
+
+        if (retryAfter==null) {
+          if (statusCode >= 400) {
+            throw new HttpResponseException(statusCode, httpResponse.getStatusLine().getReasonPhrase());
+          }
 
-      String errorCode = StringUtils.stripToNull((String) xPath.evaluate("/OAI-PMH/error/@code", responseDoc, XPathConstants.STRING));
-      if (errorCode != null) {
-        throw new HttpResponseException(HttpStatus.SC_BAD_REQUEST, String.format("Invalid OAI-PMH response with code: %s", errorCode));
-      }
+          InputStream inputStream = contentStream;
+          if (LOG.isTraceEnabled()) {
+            byte[] responseContent = IOUtils.toByteArray(contentStream);
+            LOG.trace(String.format("RESPONSE: %s, %s", new String(responseContent, StandardCharsets.UTF_8), httpResponse.getStatusLine().getReasonPhrase()));
+            inputStream = new ByteArrayInputStream(responseContent);
+          }
 
-      Node metadataNode = (Node) xPath.evaluate("/OAI-PMH/GetRecord/record/metadata/*[1]", responseDoc, XPathConstants.NODE);
+          try {
+            return handler.handle(inputStream);
+          } catch (XMLStreamException ex) {
+            throw new IOException(String.format("Error parsing response from: %s", uri), ex);
+          }
+        }
 
-      if (metadataNode == null) {
-        throw new IOException("Error reading metadata");
+        // drain the short error body so the connection goes back to the pool
+        EntityUtils.consumeQuietly(httpResponse.getEntity());
+        delay = retryAfter.getTime()-System.currentTimeMillis();
       }
 
-      Document metadataDocument = emptyDocument();
-      metadataDocument.appendChild(metadataDocument.importNode(metadataNode, true));
-
-      return XmlUtils.toString(metadataDocument);
+      if (delay>0) {
+        LOG.debug(String.format("Harvesting suspended for %d milliseconds.", delay));
+        try {
+          Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException(String.format("Interrupted while waiting to repeat request: %s", uri));
+        }
+      }
     }
   }
 
   private URI listIdsUri(String resumptionToken, Date since) throws URISyntaxException {
+    return listUri("ListIdentifiers", resumptionToken, since);
+  }
+
+  private URI listUri(String verb, String resumptionToken, Date since) throws URISyntaxException {
     URIBuilder builder = new URIBuilder(url.toURI());
-    builder.addParameter("verb", "ListIdentifiers");
+    builder.addParameter("verb", verb);
 
     if (resumptionToken == null || resumptionToken.isEmpty()) {
       builder.addParameter("metadataPrefix", prefix);
@@ -247,20 +205,6 @@ public class Client implements Closeable {
     return builder.build();
   }
 
-  private Document parseDocument(String document) throws ParserConfigurationException, SAXException, IOException {
-    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-    DocumentBuilder builder = factory.newDocumentBuilder();
-    InputSource is = new InputSource(new StringReader(document));
-    return builder.parse(is);
-  }
-
-  private Document emptyDocument() throws ParserConfigurationException {
-    DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-    DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-    Document metadataDocument = docBuilder.newDocument();
-    return metadataDocument;
-  }
-
   private Date getRetryAfter(HttpResponse response) {
     org.apache.http.Header retryAfterHeader = response.getFirstHeader("Retry-After");
     if (retryAfterHeader != null) {
@@ -275,4 +219,13 @@ public class Client implements Closeable {
     }
     return null;
   }
+
+  /**
+   * Response handler.
+   * @param <T> type of the response
+   */
+  @FunctionalInterface
+  private interface ResponseHandler<T> {
+    T handle(InputStream inputStream) throws IOException, XMLStreamException;
+  }
 }
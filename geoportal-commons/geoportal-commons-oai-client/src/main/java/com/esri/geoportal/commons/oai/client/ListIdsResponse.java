@@ -18,7 +18,11 @@ package com.esri.geoportal.commons.oai.client;
 /**
  * List ids response.
  */
-public class ListIdsResponse {
+public class ListIdsResponse extends ListResponse {
   public Header [] headers = new Header[0];
-  public String resumptionToken;
+
+  @Override
+  public Header[] getHeaders() {
+    return headers;
+  }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.oai.client;
+
+import java.util.Date;
+
+/**
+ * Resumable list response.
+ */
+public abstract class ListResponse {
+  public String resumptionToken;
+  public Date expirationDate;
+  
+  /**
+   * Gets headers of the listed items.
+   * @return array of headers
+   */
+  public abstract Header [] getHeaders();
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.oai.client;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Page prefetcher.
+ * <p>
+ * Fetches page N+1 with the resumption token of page N on a background 
+ * thread while page N is being processed by the consumer. Fetched pages wait
+ * in a bounded buffer. If the buffer is full and the resumption token of the
+ * last fetched page is about to expire, the successor page is fetched anyway
+ * so the harvest doesn't fail on an expired token; at most one such page is
+ * held outside of the buffer.
+ * @param <T> type of the page
+ */
+public class PagePrefetcher<T extends ListResponse> implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(PagePrefetcher.class);
+  private static final long EXPIRATION_MARGIN = 30000L;
+  private static final long POLL_INTERVAL = 1000L;
+  
+  private final Fetcher<T> fetcher;
+  private final BlockingQueue<Item<T>> queue;
+  private Thread thread;
+  private volatile boolean closed;
+  private boolean done;
+
+  /**
+   * Creates instance of the prefetcher.
+   * @param fetcher page fetcher
+   * @param capacity number of the pages to buffer
+   */
+  public PagePrefetcher(Fetcher<T> fetcher, int capacity) {
+    this.fetcher = fetcher;
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+  }
+  
+  /**
+   * Gets next page.
+   * @return next page or <code>null</code> if no more pages
+   * @throws Exception if error fetching page
+   */
+  public synchronized T next() throws Exception {
+    if (done) {
+      return null;
+    }
+    if (closed) {
+      throw new IllegalStateException("Prefetcher closed.");
+    }
+    if (thread == null) {
+      thread = new Thread(this::run, "oai-prefetch");
+      thread.setDaemon(true);
+      thread.start();
+    }
+    Item<T> item = queue.take();
+    if (item.error != null) {
+      done = true;
+      throw item.error;
+    }
+    if (item.page == null) {
+      done = true;
+    }
+    return item.page;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    if (thread != null) {
+      thread.interrupt();
+    }
+    queue.clear();
+  }
+  
+  private void run() {
+    Deque<T> held = new ArrayDeque<>();
+    String resumptionToken = null;
+    boolean last = false;
+    try {
+      while (!closed) {
+        if (held.isEmpty()) {
+          if (last) {
+            queue.put(new Item<>(null, null));
+            break;
+          }
+          T page = fetcher.fetch(resumptionToken);
+          held.add(page);
+          resumptionToken = page.resumptionToken;
+          last = resumptionToken == null || resumptionToken.isEmpty();
+          continue;
+        }
+        if (queue.offer(new Item<>(held.peekFirst(), null), POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+          held.removeFirst();
+          continue;
+        }
+        if (!last && held.size() < 2 && expiresSoon(held.peekLast())) {
+          LOG.debug(String.format("Resumption token expires at %s; fetching next page ahead of time.", held.peekLast().expirationDate));
+          T page = fetcher.fetch(resumptionToken);
+          held.add(page);
+          resumptionToken = page.resumptionToken;
+          last = resumptionToken == null || resumptionToken.isEmpty();
+        }
+      }
+    } catch (InterruptedException ex) {
+      // closed
+    } catch (Exception ex) {
+      // pages fetched so far are still delivered before the error
+      try {
+        for (T page: held) {
+          queue.put(new Item<>(page, null));
+        }
+        queue.put(new Item<>(null, ex));
+      } catch (InterruptedException iex) {
+        // closed
+      }
+    }
+  }
+  
+  private boolean expiresSoon(T page) {
+    return page.expirationDate != null && page.expirationDate.getTime() - System.currentTimeMillis() < EXPIRATION_MARGIN;
+  }
+  
+  /**
+   * Page fetcher.
+   * @param <T> type of the page
+   */
+  @FunctionalInterface
+  public interface Fetcher<T extends ListResponse> {
+    /**
+     * Fetches page.
+     * @param resumptionToken resumption token or <code>null</code> for the first page
+     * @return page
+     * @throws Exception if error fetching page
+     */
+    T fetch(String resumptionToken) throws Exception;
+  }
+  
+  /**
+   * Queue item.
+   */
+  private static final class Item<T> {
+    private final T page;
+    private final Exception error;
+
+    public Item(T page, Exception error) {
+      this.page = page;
+      this.error = error;
+    }
+  }
+}
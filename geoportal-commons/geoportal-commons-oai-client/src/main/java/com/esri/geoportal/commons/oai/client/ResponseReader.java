@@ -0,0 +1,380 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.oai.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+
+/**
+ * Streaming reader of the OAI-PMH responses.
+ * <p>
+ * Reads responses with StAX as they arrive; only headers and the metadata 
+ * of the individual records are kept in memory.
+ */
+/*package*/ class ResponseReader {
+  private static final String ERR_NO_RECORDS_MATCH = "noRecordsMatch";
+  
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+  
+  /**
+   * Reads <i>ListIdentifiers</i> response.
+   * @param inputStream response stream
+   * @return list ids response
+   * @throws IOException if error reading response
+   * @throws XMLStreamException if error parsing response
+   */
+  public ListIdsResponse readListIds(InputStream inputStream) throws IOException, XMLStreamException {
+    ListIdsResponse response = new ListIdsResponse();
+    List<Header> headers = new ArrayList<>();
+    read(inputStream, "ListIdentifiers", (reader, namespaces) -> {
+      switch (reader.getLocalName()) {
+        case "header":
+          Header header = readHeader(reader, new Header());
+          if (header != null) {
+            headers.add(header);
+          }
+          break;
+        case "resumptionToken":
+          readResumptionToken(reader, response);
+          break;
+        default:
+          skip(reader);
+      }
+    });
+    response.headers = headers.toArray(new Header[headers.size()]);
+    return response;
+  }
+  
+  /**
+   * Reads <i>ListRecords</i> response.
+   * @param inputStream response stream
+   * @return list records response
+   * @throws IOException if error reading response
+   * @throws XMLStreamException if error parsing response
+   */
+  public ListRecordsResponse readListRecords(InputStream inputStream) throws IOException, XMLStreamException {
+    ListRecordsResponse response = new ListRecordsResponse();
+    List<Record> records = new ArrayList<>();
+    read(inputStream, "ListRecords", (reader, namespaces) -> {
+      switch (reader.getLocalName()) {
+        case "record":
+          Record record = readRecord(reader, namespaces);
+          if (record != null && record.metadata != null) {
+            records.add(record);
+          }
+          break;
+        case "resumptionToken":
+          readResumptionToken(reader, response);
+          break;
+        default:
+          skip(reader);
+      }
+    });
+    response.records = records.toArray(new Record[records.size()]);
+    return response;
+  }
+  
+  /**
+   * Reads <i>GetRecord</i> response.
+   * @param inputStream response stream
+   * @return record metadata
+   * @throws IOException if error reading response
+   * @throws XMLStreamException if error parsing response
+   */
+  public String readGetRecord(InputStream inputStream) throws IOException, XMLStreamException {
+    List<Record> records = new ArrayList<>();
+    read(inputStream, "GetRecord", (reader, namespaces) -> {
+      if ("record".equals(reader.getLocalName())) {
+        Record record = readRecord(reader, namespaces);
+        if (record != null) {
+          records.add(record);
+        }
+      } else {
+        skip(reader);
+      }
+    });
+    if (records.isEmpty() || records.get(0).metadata == null) {
+      throw new IOException("Error reading metadata");
+    }
+    return records.get(0).metadata;
+  }
+  
+  /**
+   * Reads response.
+   * @param inputStream response stream
+   * @param verb expected verb element
+   * @param handler handler of the verb element children
+   * @throws IOException if error reading response
+   * @throws XMLStreamException if error parsing response
+   */
+  private void read(InputStream inputStream, String verb, ChildHandler handler) throws IOException, XMLStreamException {
+    XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+    try {
+      Deque<Map<String,String>> namespaces = new ArrayDeque<>();
+      reader.nextTag();
+      namespaces.push(readNamespaces(reader));
+      while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+        if ("error".equals(reader.getLocalName())) {
+          String errorCode = StringUtils.stripToNull(reader.getAttributeValue(null, "code"));
+          reader.getElementText();
+          if (!ERR_NO_RECORDS_MATCH.equals(errorCode)) {
+            throw new HttpResponseException(HttpStatus.SC_BAD_REQUEST, String.format("Invalid OAI-PMH response with code: %s", errorCode));
+          }
+        } else if (verb.equals(reader.getLocalName())) {
+          namespaces.push(readNamespaces(reader));
+          while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            handler.handle(reader, namespaces);
+          }
+          namespaces.pop();
+        } else {
+          skip(reader);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+  
+  /**
+   * Reads header.
+   * @param reader reader positioned at the header start
+   * @param header header to fill
+   * @return header or <code>null</code> if header of the deleted record
+   * @throws XMLStreamException if error parsing response
+   */
+  private <H extends Header> H readHeader(XMLStreamReader reader, H header) throws XMLStreamException {
+    boolean deleted = "deleted".equals(reader.getAttributeValue(null, "status"));
+    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      switch (reader.getLocalName()) {
+        case "identifier":
+          header.identifier = StringUtils.trimToEmpty(reader.getElementText());
+          break;
+        case "datestamp":
+          header.datestamp = StringUtils.trimToEmpty(reader.getElementText());
+          break;
+        default:
+          skip(reader);
+      }
+    }
+    return deleted? null: header;
+  }
+  
+  /**
+   * Reads record.
+   * @param reader reader positioned at the record start
+   * @param namespaces namespaces declared by the ancestors
+   * @return record or <code>null</code> if deleted record
+   * @throws XMLStreamException if error parsing response
+   */
+  private Record readRecord(XMLStreamReader reader, Deque<Map<String,String>> namespaces) throws XMLStreamException {
+    Record record = new Record();
+    boolean deleted = false;
+    namespaces.push(readNamespaces(reader));
+    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      switch (reader.getLocalName()) {
+        case "header":
+          deleted = readHeader(reader, record) == null;
+          break;
+        case "metadata":
+          namespaces.push(readNamespaces(reader));
+          while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (record.metadata == null) {
+              record.metadata = copyElement(reader, namespaces);
+            } else {
+              skip(reader);
+            }
+          }
+          namespaces.pop();
+          break;
+        default:
+          skip(reader);
+      }
+    }
+    namespaces.pop();
+    return deleted? null: record;
+  }
+  
+  /**
+   * Reads resumption token.
+   * @param reader reader positioned at the resumption token start
+   * @param response response to fill
+   * @throws XMLStreamException if error parsing response
+   */
+  private void readResumptionToken(XMLStreamReader reader, ListResponse response) throws XMLStreamException {
+    response.expirationDate = parseIsoDate(reader.getAttributeValue(null, "expirationDate"));
+    response.resumptionToken = StringUtils.trimToNull(reader.getElementText());
+  }
+  
+  /**
+   * Copies element into a standalone document.
+   * @param reader reader positioned at the element start
+   * @param namespaces namespaces declared by the ancestors
+   * @return document
+   * @throws XMLStreamException if error parsing response
+   */
+  private String copyElement(XMLStreamReader reader, Deque<Map<String,String>> namespaces) throws XMLStreamException {
+    StringWriter buffer = new StringWriter();
+    XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(buffer);
+    writer.writeStartDocument("UTF-8", "1.0");
+    copyStartElement(reader, writer);
+    
+    // declare all the namespaces inherited from the response on the element itself
+    Map<String,String> inherited = new LinkedHashMap<>();
+    namespaces.descendingIterator().forEachRemaining(inherited::putAll);
+    readNamespaces(reader).keySet().forEach(inherited::remove);
+    for (Map.Entry<String,String> ns: inherited.entrySet()) {
+      writeNamespace(writer, ns.getKey(), ns.getValue());
+    }
+    
+    int depth = 1;
+    while (depth > 0) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          copyStartElement(reader, writer);
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          writer.writeEndElement();
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.SPACE:
+          writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+          break;
+        case XMLStreamConstants.CDATA:
+          writer.writeCData(reader.getText());
+          break;
+        case XMLStreamConstants.COMMENT:
+          writer.writeComment(reader.getText());
+          break;
+        case XMLStreamConstants.PROCESSING_INSTRUCTION:
+          writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+          break;
+        case XMLStreamConstants.END_DOCUMENT:
+          throw new XMLStreamException("Unexpected end of the response.");
+      }
+    }
+    writer.writeEndDocument();
+    writer.close();
+    return buffer.toString();
+  }
+  
+  private static void copyStartElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+    writer.writeStartElement(StringUtils.defaultString(reader.getPrefix()), reader.getLocalName(), StringUtils.defaultString(reader.getNamespaceURI()));
+    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+      writeNamespace(writer, StringUtils.defaultString(reader.getNamespacePrefix(i)), StringUtils.defaultString(reader.getNamespaceURI(i)));
+    }
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      String attrNs = reader.getAttributeNamespace(i);
+      if (attrNs == null || attrNs.isEmpty()) {
+        writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+      } else {
+        writer.writeAttribute(StringUtils.defaultString(reader.getAttributePrefix(i)), attrNs, reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+      }
+    }
+  }
+  
+  private static void writeNamespace(XMLStreamWriter writer, String prefix, String uri) throws XMLStreamException {
+    if (prefix.isEmpty()) {
+      writer.writeDefaultNamespace(uri);
+    } else {
+      writer.writeNamespace(prefix, uri);
+    }
+  }
+  
+  private static Map<String,String> readNamespaces(XMLStreamReader reader) {
+    Map<String,String> declared = new LinkedHashMap<>();
+    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+      declared.put(StringUtils.defaultString(reader.getNamespacePrefix(i)), StringUtils.defaultString(reader.getNamespaceURI(i)));
+    }
+    return declared;
+  }
+  
+  /**
+   * Skips current element together with its content.
+   * @param reader reader positioned at the element start
+   * @throws XMLStreamException if error parsing response
+   */
+  private static void skip(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          break;
+        case XMLStreamConstants.END_DOCUMENT:
+          throw new XMLStreamException("Unexpected end of the response.");
+      }
+    }
+  }
+  
+  private static Date parseIsoDate(String strDate) {
+    if (strDate == null) {
+      return null;
+    }
+    try {
+      return Date.from(ZonedDateTime.from(DateTimeFormatter.ISO_DATE_TIME.parse(strDate.trim())).toInstant());
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+  
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+  
+  /**
+   * Handler of the verb element children.
+   */
+  @FunctionalInterface
+  private interface ChildHandler {
+    /**
+     * Handles child element; upon return the reader has to be positioned at
+     * the end of the element.
+     * @param reader reader positioned at the child start
+     * @param namespaces namespaces declared by the ancestors
+     * @throws XMLStreamException if error parsing response
+     */
+    void handle(XMLStreamReader reader, Deque<Map<String,String>> namespaces) throws XMLStreamException;
+  }
+}
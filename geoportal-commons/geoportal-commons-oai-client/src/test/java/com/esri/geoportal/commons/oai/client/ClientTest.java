@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.oai.client;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Client test.
+ */
+public class ClientTest {
+  private static final String LIST_IDS = "<OAI-PMH xmlns=\"http://www.openarchives.org/OAI/2.0/\"><responseDate>2020-01-01T00:00:00Z</responseDate>"
+          + "<ListIdentifiers><header><identifier>id-1</identifier></header></ListIdentifiers></OAI-PMH>";
+  
+  private final AtomicInteger requests = new AtomicInteger();
+  private volatile int rejected;
+  private HttpServer server;
+  private Client client;
+  
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/oai", exchange -> {
+      boolean reject = requests.incrementAndGet() <= rejected;
+      byte[] body = (reject? "Busy": LIST_IDS).getBytes(StandardCharsets.UTF_8);
+      if (reject) {
+        exchange.getResponseHeaders().add("Retry-After", "0");
+      }
+      exchange.sendResponseHeaders(reject? 503: 200, body.length);
+      try (OutputStream output = exchange.getResponseBody()) {
+        output.write(body);
+      }
+    });
+    server.start();
+    
+    // single pooled connection; a response kept open while waiting would block the retry
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(1);
+    connectionManager.setDefaultMaxPerRoute(1);
+    RequestConfig requestConfig = RequestConfig.custom().setConnectionRequestTimeout(2000).build();
+    client = new Client(
+            HttpClientBuilder.create().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).build(), 
+            new URL(String.format("http://localhost:%d/oai", server.getAddress().getPort())), "oai_dc", null);
+  }
+  
+  @After
+  public void tearDown() throws Exception {
+    client.close();
+    server.stop(0);
+  }
+  
+  @Test
+  public void testRepeatThrottledRequest() throws Exception {
+    rejected = 2;
+    ListIdsResponse response = client.listIds(null, null);
+    
+    assertEquals("Invalid identifier", "id-1", response.getHeaders()[0].identifier);
+    assertEquals("Invalid number of requests", 3, requests.get());
+  }
+  
+  @Test
+  public void testLimitAttempts() throws Exception {
+    rejected = Integer.MAX_VALUE;
+    try {
+      client.listIds(null, null);
+      fail("Throttled request repeated endlessly");
+    } catch (HttpResponseException ex) {
+      assertEquals("Invalid status", 503, ex.getStatusCode());
+    }
+    assertEquals("Invalid number of requests", 5, requests.get());
+  }
+}
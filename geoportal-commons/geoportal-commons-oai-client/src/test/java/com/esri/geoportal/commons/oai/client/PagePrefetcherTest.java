@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.oai.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Page prefetcher test.
+ */
+public class PagePrefetcherTest {
+  
+  @Test
+  public void testPagesInOrder() throws Exception {
+    List<String> tokens = new ArrayList<>();
+    try (PagePrefetcher<ListIdsResponse> prefetcher = new PagePrefetcher<>(token -> {
+      tokens.add(token);
+      int n = token == null? 1: Integer.parseInt(token) + 1;
+      return page(n, n < 3? Integer.toString(n): null, null);
+    }, 2)) {
+      for (int i=1; i<=3; i++) {
+        assertEquals("Invalid page", "id-" + i, prefetcher.next().getHeaders()[0].identifier);
+      }
+      assertNull("Page after the last page", prefetcher.next());
+      assertNull("Page after the end", prefetcher.next());
+    }
+    assertEquals("Invalid resumption tokens", java.util.Arrays.asList(null, "1", "2"), tokens);
+  }
+  
+  @Test
+  public void testErrorAfterBufferedPages() throws Exception {
+    try (PagePrefetcher<ListIdsResponse> prefetcher = new PagePrefetcher<>(token -> {
+      if (token == null) {
+        return page(1, "1", null);
+      }
+      if ("1".equals(token)) {
+        return page(2, "2", null);
+      }
+      throw new IOException("Server failed");
+    }, 4)) {
+      assertEquals("Invalid first page", "id-1", prefetcher.next().getHeaders()[0].identifier);
+      assertEquals("Invalid second page", "id-2", prefetcher.next().getHeaders()[0].identifier);
+      try {
+        prefetcher.next();
+        fail("Error not delivered");
+      } catch (IOException ex) {
+        assertEquals("Invalid error", "Server failed", ex.getMessage());
+      }
+      assertNull("Page after error", prefetcher.next());
+    }
+  }
+  
+  @Test
+  public void testExpiringTokenFetchedAhead() throws Exception {
+    assertTrue("Page with expiring token not fetched ahead", fetchesAhead(new Date(), 10));
+  }
+  
+  @Test
+  public void testValidTokenNotFetchedAhead() throws Exception {
+    assertFalse("Page fetched ahead although buffer is full", fetchesAhead(new Date(System.currentTimeMillis() + 3600000L), 3));
+  }
+  
+  /**
+   * Checks if the page is fetched ahead while the consumer is idle. With the 
+   * buffer of one page the consumer takes page 1, page 2 waits in the buffer
+   * and page 3 is held by the prefetcher, thus page 4 is fetched only if the 
+   * resumption token of page 3 is about to expire.
+   */
+  private boolean fetchesAhead(Date expirationDate, int waitSeconds) throws Exception {
+    CountDownLatch fourthFetch = new CountDownLatch(1);
+    try (PagePrefetcher<ListIdsResponse> prefetcher = new PagePrefetcher<>(token -> {
+      int n = token == null? 1: Integer.parseInt(token) + 1;
+      if (n == 4) {
+        fourthFetch.countDown();
+      }
+      return page(n, n < 5? Integer.toString(n): null, expirationDate);
+    }, 1)) {
+      assertEquals("Invalid first page", "id-1", prefetcher.next().getHeaders()[0].identifier);
+      boolean fetchedAhead = fourthFetch.await(waitSeconds, TimeUnit.SECONDS);
+      for (int i=2; i<=5; i++) {
+        assertEquals("Invalid page", "id-" + i, prefetcher.next().getHeaders()[0].identifier);
+      }
+      assertNull("Page after the last page", prefetcher.next());
+      return fetchedAhead;
+    }
+  }
+  
+  private static ListIdsResponse page(int n, String resumptionToken, Date expirationDate) {
+    ListIdsResponse page = new ListIdsResponse();
+    Header header = new Header();
+    header.identifier = "id-" + n;
+    page.headers = new Header[] { header };
+    page.resumptionToken = resumptionToken;
+    page.expirationDate = expirationDate;
+    return page;
+  }
+}
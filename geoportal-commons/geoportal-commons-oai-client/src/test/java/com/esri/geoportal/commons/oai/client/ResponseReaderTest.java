@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.oai.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.http.client.HttpResponseException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Response reader test.
+ */
+public class ResponseReaderTest {
+  private static final String OAI_START = "<OAI-PMH xmlns=\"http://www.openarchives.org/OAI/2.0/\"><responseDate>2020-01-01T00:00:00Z</responseDate>";
+  private static final String OAI_END = "</OAI-PMH>";
+  
+  private final ResponseReader reader = new ResponseReader();
+  
+  @Test
+  public void testListIds() throws Exception {
+    ListIdsResponse response = reader.readListIds(stream(OAI_START
+            + "<request verb=\"ListIdentifiers\">http://localhost/oai</request>"
+            + "<ListIdentifiers>"
+            + "<header><identifier>id-1</identifier><datestamp>2020-01-01</datestamp></header>"
+            + "<header status=\"deleted\"><identifier>id-2</identifier></header>"
+            + "<header><identifier> id-3 </identifier></header>"
+            + "<resumptionToken expirationDate=\"2030-01-01T00:00:00Z\">token-1</resumptionToken>"
+            + "</ListIdentifiers>" + OAI_END));
+    
+    assertEquals("Invalid number of headers", 2, response.getHeaders().length);
+    assertEquals("Invalid identifier", "id-1", response.getHeaders()[0].identifier);
+    assertEquals("Invalid datestamp", "2020-01-01", response.getHeaders()[0].datestamp);
+    assertEquals("Identifier not trimmed", "id-3", response.getHeaders()[1].identifier);
+    assertEquals("Invalid resumption token", "token-1", response.resumptionToken);
+    assertNotNull("Expiration date not read", response.expirationDate);
+  }
+  
+  @Test
+  public void testListRecords() throws Exception {
+    ListRecordsResponse response = reader.readListRecords(stream(OAI_START
+            + "<ListRecords xmlns:dc=\"http://purl.org/dc/elements/1.1/\">"
+            + "<record><header><identifier>id-1</identifier></header>"
+            + "<metadata><dc:title>Title &amp; more</dc:title></metadata></record>"
+            + "<record><header status=\"deleted\"><identifier>id-2</identifier></header></record>"
+            + "<resumptionToken/>"
+            + "</ListRecords>" + OAI_END));
+    
+    assertEquals("Invalid number of records", 1, response.getHeaders().length);
+    Record record = response.records[0];
+    assertEquals("Invalid identifier", "id-1", record.identifier);
+    assertTrue("Namespace declared by ancestor not copied", record.metadata.contains("http://purl.org/dc/elements/1.1/"));
+    assertTrue("Invalid metadata", record.metadata.contains("Title &amp; more"));
+    assertNull("Empty resumption token not treated as the last page", response.resumptionToken);
+  }
+  
+  @Test
+  public void testGetRecord() throws Exception {
+    String metadata = reader.readGetRecord(stream(OAI_START
+            + "<GetRecord><record><header><identifier>id-1</identifier></header>"
+            + "<metadata><rec xmlns=\"urn:test\"><title>Title</title></rec></metadata></record></GetRecord>" + OAI_END));
+    
+    assertTrue("Invalid metadata", metadata.contains("<title>Title</title>"));
+    assertTrue("Default namespace not copied", metadata.contains("urn:test"));
+  }
+  
+  @Test
+  public void testNoRecordsMatch() throws Exception {
+    ListIdsResponse response = reader.readListIds(stream(OAI_START
+            + "<error code=\"noRecordsMatch\">No records</error>" + OAI_END));
+    
+    assertEquals("Invalid number of headers", 0, response.getHeaders().length);
+    assertNull("Invalid resumption token", response.resumptionToken);
+  }
+  
+  @Test
+  public void testError() throws Exception {
+    try {
+      reader.readListIds(stream(OAI_START + "<error code=\"badResumptionToken\">Expired</error>" + OAI_END));
+      fail("Error response accepted");
+    } catch (HttpResponseException ex) {
+      assertTrue("Error code not reported", ex.getMessage().contains("badResumptionToken"));
+    }
+  }
+  
+  private static InputStream stream(String xml) {
+    return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -17,9 +17,12 @@ package com.esri.geoportal.commons.http;
 
 import com.esri.geoportal.commons.robots.Access;
 import com.esri.geoportal.commons.robots.Bots;
+import com.esri.geoportal.commons.robots.BotsConfig;
 import static com.esri.geoportal.commons.robots.BotsUtils.requestAccess;
 import java.io.Closeable;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -42,20 +45,44 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Bots http client.
+ * <p>
+ * Requests are throttled per server; crawl delay is taken from robots.txt if
+ * available, burst and concurrency from the bots config of the task.
  */
 public class BotsHttpClient extends CloseableHttpClient {
   private static final Logger LOG = LoggerFactory.getLogger(BotsHttpClient.class);
   private final CloseableHttpClient client;
   private final Bots bots;
+  private final CrawlThrottler throttler;
+  private boolean ownThrottler;
 
-  public BotsHttpClient(CloseableHttpClient client, Bots bots) {
+  public BotsHttpClient(CloseableHttpClient client, Bots bots, CrawlThrottler throttler) {
     this.client = client;
     this.bots = bots;
+    this.throttler = throttler;
+  }
+
+  /**
+   * Creates instance of the client throttled with the limits of the bots config.
+   * <p>
+   * Default limits are enforced by the throttler shared within the JVM, thus 
+   * across tasks requesting the same server. Any other limits are enforced by
+   * a throttler of this client only, closed together with the client.
+   * @param client client
+   * @param bots bots or <code>null</code> if robots.txt not available or ignored
+   * @param botsConfig bots config
+   */
+  public BotsHttpClient(CloseableHttpClient client, Bots bots, BotsConfig botsConfig) {
+    this(client, bots, createThrottler(botsConfig));
+    this.ownThrottler = throttler != CrawlThrottler.getInstance();
+  }
+
+  public BotsHttpClient(CloseableHttpClient client, Bots bots) {
+    this(client, bots, CrawlThrottler.getInstance());
   }
 
   public BotsHttpClient(Bots bots) {
-    this.client = HttpClientBuilder.create().useSystemProperties().build();
-    this.bots = bots;
+    this(HttpClientBuilder.create().useSystemProperties().build(), bots);
   }
 
   @Override
@@ -75,75 +102,101 @@ public class BotsHttpClient extends CloseableHttpClient {
 
   @Override
   public CloseableHttpResponse execute(HttpUriRequest request) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap);
+    return executeThrottled(HttpRequestWrapper.wrap(request), w -> client.execute(w));
   }
 
   @Override
   public CloseableHttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap, context);
+    return executeThrottled(HttpRequestWrapper.wrap(request), w -> client.execute(w, context));
   }
 
   @Override
   public CloseableHttpResponse execute(HttpHost target, HttpRequest request) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request, target);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap);
+    return executeThrottled(HttpRequestWrapper.wrap(request, target), w -> client.execute(w));
   }
 
   @Override
   public CloseableHttpResponse execute(HttpHost target, HttpRequest request, HttpContext context) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request, target);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap, context);
+    return executeThrottled(HttpRequestWrapper.wrap(request, target), w -> client.execute(w, context));
   }
 
   @Override
   public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap, responseHandler);
+    return executeHandled(HttpRequestWrapper.wrap(request), w -> client.execute(w, responseHandler));
   }
 
   @Override
   public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap, responseHandler, context);
+    return executeHandled(HttpRequestWrapper.wrap(request), w -> client.execute(w, responseHandler, context));
   }
 
   @Override
   public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request,target);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap, responseHandler);
+    return executeHandled(HttpRequestWrapper.wrap(request,target), w -> client.execute(w, responseHandler));
   }
 
   @Override
   public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context) throws IOException, ClientProtocolException {
-    HttpRequestWrapper wrap = HttpRequestWrapper.wrap(request,target);
-    adviseRobotsTxt(wrap.getURI());
-    wrap.setURI(applyPHP(wrap.getURI()));
-    return client.execute(wrap, responseHandler, context);
+    return executeHandled(HttpRequestWrapper.wrap(request,target), w -> client.execute(w, responseHandler, context));
   }
 
   @Override
   public void close() throws IOException {
+    if (ownThrottler) {
+      throttler.close();
+    }
     if (client instanceof Closeable) {
       ((Closeable)client).close();
     }
   }
   
+  private static CrawlThrottler createThrottler(BotsConfig botsConfig) {
+    if (botsConfig == null || (botsConfig.getBurst() == CrawlThrottler.DEFAULT_BURST && botsConfig.getConcurrency() == CrawlThrottler.DEFAULT_CONCURRENCY)) {
+      return CrawlThrottler.getInstance();
+    }
+    return new CrawlThrottler(botsConfig.getBurst(), botsConfig.getConcurrency());
+  }
+  
+  private CloseableHttpResponse executeThrottled(HttpRequestWrapper wrap, Call<CloseableHttpResponse> call) throws IOException {
+    CrawlThrottler.Permit permit = adviseRobotsTxt(wrap.getURI());
+    try {
+      wrap.setURI(applyPHP(wrap.getURI()));
+      CloseableHttpResponse response = call.execute(wrap);
+      return permit!=null? releaseOnClose(response, permit): response;
+    } catch (IOException|RuntimeException ex) {
+      if (permit!=null) {
+        permit.release();
+      }
+      throw ex;
+    }
+  }
+
+  private <T> T executeHandled(HttpRequestWrapper wrap, Call<T> call) throws IOException {
+    CrawlThrottler.Permit permit = adviseRobotsTxt(wrap.getURI());
+    try {
+      wrap.setURI(applyPHP(wrap.getURI()));
+      return call.execute(wrap);
+    } finally {
+      if (permit!=null) {
+        permit.release();
+      }
+    }
+  }
+  
+  private CloseableHttpResponse releaseOnClose(CloseableHttpResponse response, CrawlThrottler.Permit permit) {
+    return (CloseableHttpResponse)Proxy.newProxyInstance(CloseableHttpResponse.class.getClassLoader(), new Class<?>[]{CloseableHttpResponse.class}, (proxy, method, args) -> {
+      try {
+        return method.invoke(response, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      } finally {
+        if (method.getName().equals("close") && method.getParameterCount()==0) {
+          permit.release();
+        }
+      }
+    });
+  }
+  
   private Long resolveThrottleDelay() {
     return bots!=null && bots.getCrawlDelay()!=null? 1000L*bots.getCrawlDelay(): null;
   }
@@ -156,7 +209,7 @@ public class BotsHttpClient extends CloseableHttpClient {
     return String.format("%s://%s%s", u.getScheme(), u.getHost(), u.getPort() >= 0 ? ":" + u.getPort() : "");
   }
 
-  private void adviseRobotsTxt(URI u) throws IOException {
+  private CrawlThrottler.Permit adviseRobotsTxt(URI u) throws IOException {
     if (bots != null) {
       String url = getRelativePath(u);
       LOG.debug(String.format("Evaluating access to %s using robots.txt", u));
@@ -166,8 +219,8 @@ public class BotsHttpClient extends CloseableHttpClient {
         throw new HttpResponseException(403, String.format("Access to %s disallowed by robots.txt", url));
       }
       LOG.debug(String.format("Access to %s allowed by robots.txt", u));
-      CrawlLocker.getInstance().enterServer(getProtocolHostPort(u), resolveThrottleDelay());
     }
+    return throttler.enterServer(getProtocolHostPort(u), resolveThrottleDelay());
   }
   
   private URI applyPHP(URI uri) throws ClientProtocolException  {
@@ -235,6 +288,15 @@ public class BotsHttpClient extends CloseableHttpClient {
     return null;
   }
   
+  /**
+   * Request call.
+   * @param <T> type of the result
+   */
+  @FunctionalInterface
+  private interface Call<T> {
+    T execute(HttpRequestWrapper wrap) throws IOException;
+  }
+  
   /**
    * Protocol-host-port
    */
@@ -0,0 +1,348 @@
+/* See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Esri Inc. licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Crawl throttler.
+ * <p>
+ * Keeps a token bucket per server. A bucket holds up to <i>burst</i> tokens
+ * and gets one token back every crawl delay. Each request takes a token and,
+ * if concurrency is limited, a slot released once the request is done. Waiting
+ * requests are served in order of arrival by a single timer thread shared by
+ * all servers. Throttler shared by all the tasks uses default limits; tasks 
+ * with own limits use throttler of their own.
+ */
+public class CrawlThrottler implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(CrawlThrottler.class);
+  
+  /** default burst */
+  public static final int DEFAULT_BURST = 1;
+  /** default concurrency (unlimited) */
+  public static final int DEFAULT_CONCURRENCY = 0;
+  
+  private static final CrawlThrottler INSTANCE = new CrawlThrottler(DEFAULT_BURST, DEFAULT_CONCURRENCY);
+  
+  private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler;
+  private final LongSupplier clock;
+  private final int burst;
+  private final int concurrency;
+
+  /**
+   * Gets shared instance.
+   * @return instance (never <code>null</code>)
+   */
+  public static CrawlThrottler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Creates instance of the throttler.
+   * @param burst number of requests allowed to a server without delay
+   * @param concurrency number of concurrent requests allowed to a server 
+   * (<code>0</code> for no limit)
+   */
+  public CrawlThrottler(int burst, int concurrency) {
+    this(burst, concurrency, System::nanoTime);
+  }
+
+  /**
+   * Creates instance of the throttler.
+   * @param burst number of requests allowed to a server without delay
+   * @param concurrency number of concurrent requests allowed to a server 
+   * (<code>0</code> for no limit)
+   * @param clock source of time in nanoseconds
+   */
+  /*package*/ CrawlThrottler(int burst, int concurrency, LongSupplier clock) {
+    this.burst = Math.max(1, burst);
+    this.concurrency = Math.max(0, concurrency);
+    this.clock = clock;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "crawl-throttler");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    buckets.values().forEach(Bucket::cancel);
+  }
+  
+  /**
+   * Enters server with crawl delay.
+   * <p>
+   * Blocks until the server may be requested. The permit has to be released
+   * once the request is done.
+   * @param protocolHostPort server protocol/host/port
+   * @param throttleDelay throttle delay in milliseconds (<code>null</code> for no delay)
+   * @return permit
+   * @throws IOException if interrupted while waiting or throttler closed
+   */
+  public Permit enterServer(String protocolHostPort, Long throttleDelay) throws IOException {
+    long start = System.nanoTime();
+    CompletableFuture<Permit> request = request(protocolHostPort, throttleDelay);
+    try {
+      Permit permit = request.get();
+      long waitTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      permit.bucket.record(waitTime, permit.queued);
+      if (permit.queued) {
+        LOG.debug(String.format("Server %s entered after %d milliseconds", protocolHostPort, waitTime));
+      }
+      return permit;
+    } catch (InterruptedException ex) {
+      if (!request.cancel(false)) {
+        request.join().release();
+      }
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(String.format("Interrupted while waiting to enter server: %s", protocolHostPort));
+    } catch (CancellationException|ExecutionException ex) {
+      throw new IOException(String.format("Unable to enter server: %s", protocolHostPort), ex);
+    }
+  }
+  
+  /**
+   * Requests permit to enter server.
+   * @param protocolHostPort server protocol/host/port
+   * @param throttleDelay throttle delay in milliseconds (<code>null</code> for no delay)
+   * @return permit to be completed once the server may be requested
+   */
+  /*package*/ CompletableFuture<Permit> request(String protocolHostPort, Long throttleDelay) {
+    Bucket bucket = buckets.computeIfAbsent(protocolHostPort, Bucket::new);
+    return bucket.request(throttleDelay!=null? Math.max(0, throttleDelay): 0);
+  }
+  
+  /**
+   * Gets metrics of the server.
+   * @param protocolHostPort server protocol/host/port
+   * @return metrics
+   */
+  public Metrics getMetrics(String protocolHostPort) {
+    Bucket bucket = buckets.get(protocolHostPort);
+    return bucket!=null? bucket.metrics(): new Metrics(0, 0, 0, 0);
+  }
+  
+  /**
+   * Gets metrics of all the servers.
+   * @return metrics
+   */
+  public Metrics getMetrics() {
+    long requests = 0, delayed = 0, totalWaitTime = 0, maxWaitTime = 0;
+    for (Bucket bucket: buckets.values()) {
+      Metrics metrics = bucket.metrics();
+      requests += metrics.getRequests();
+      delayed += metrics.getDelayed();
+      totalWaitTime += metrics.getTotalWaitTime();
+      maxWaitTime = Math.max(maxWaitTime, metrics.getMaxWaitTime());
+    }
+    return new Metrics(requests, delayed, totalWaitTime, maxWaitTime);
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("CrawlThrottler :: burst: %d, concurrency: %d, %s", burst, concurrency, getMetrics());
+  }
+  
+  /**
+   * Permit to request server.
+   */
+  public static final class Permit {
+    private final Bucket bucket;
+    private final boolean queued;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(Bucket bucket, boolean queued) {
+      this.bucket = bucket;
+      this.queued = queued;
+    }
+    
+    /**
+     * Releases permit. Subsequent calls have no effect.
+     */
+    public void release() {
+      if (released.compareAndSet(false, true)) {
+        bucket.release();
+      }
+    }
+  }
+  
+  /**
+   * Throttling metrics.
+   */
+  public static final class Metrics {
+    private final long requests;
+    private final long delayed;
+    private final long totalWaitTime;
+    private final long maxWaitTime;
+
+    private Metrics(long requests, long delayed, long totalWaitTime, long maxWaitTime) {
+      this.requests = requests;
+      this.delayed = delayed;
+      this.totalWaitTime = totalWaitTime;
+      this.maxWaitTime = maxWaitTime;
+    }
+
+    /**
+     * Gets number of requests.
+     * @return number of requests
+     */
+    public long getRequests() {
+      return requests;
+    }
+
+    /**
+     * Gets number of requests which had to wait.
+     * @return number of delayed requests
+     */
+    public long getDelayed() {
+      return delayed;
+    }
+
+    /**
+     * Gets total wait time.
+     * @return total wait time in milliseconds
+     */
+    public long getTotalWaitTime() {
+      return totalWaitTime;
+    }
+
+    /**
+     * Gets max wait time.
+     * @return max wait time in milliseconds
+     */
+    public long getMaxWaitTime() {
+      return maxWaitTime;
+    }
+    
+    @Override
+    public String toString() {
+      return String.format("requests: %d, delayed: %d, total wait: %d ms, max wait: %d ms", requests, delayed, totalWaitTime, maxWaitTime);
+    }
+  }
+  
+  /**
+   * Server token bucket.
+   */
+  private final class Bucket {
+    private final String protocolHostPort;
+    private final ArrayDeque<CompletableFuture<Permit>> waiting = new ArrayDeque<>();
+    private long delay;
+    private int tokens;
+    private long refilled = clock.getAsLong();
+    private int active;
+    private ScheduledFuture<?> tick;
+    
+    private long requests;
+    private long delayed;
+    private long totalWaitTime;
+    private long maxWaitTime;
+
+    public Bucket(String protocolHostPort) {
+      this.protocolHostPort = protocolHostPort;
+      this.tokens = burst;
+    }
+    
+    public synchronized CompletableFuture<Permit> request(long delay) {
+      this.delay = TimeUnit.MILLISECONDS.toNanos(delay);
+      CompletableFuture<Permit> request = new CompletableFuture<>();
+      waiting.add(request);
+      dispatch(request);
+      return request;
+    }
+    
+    public synchronized void release() {
+      active--;
+      dispatch(null);
+    }
+    
+    public synchronized void cancel() {
+      waiting.forEach(request -> request.cancel(false));
+      waiting.clear();
+    }
+    
+    public synchronized void record(long waitTime, boolean queued) {
+      requests++;
+      if (queued) {
+        delayed++;
+        totalWaitTime += waitTime;
+        maxWaitTime = Math.max(maxWaitTime, waitTime);
+      }
+    }
+    
+    public synchronized Metrics metrics() {
+      return new Metrics(requests, delayed, totalWaitTime, maxWaitTime);
+    }
+    
+    private synchronized void onTick() {
+      tick = null;
+      dispatch(null);
+    }
+    
+    /**
+     * Dispatches waiting requests.
+     * @param arriving request just arrived or <code>null</code>; any other
+     * request dispatched had to be queued
+     */
+    private void dispatch(CompletableFuture<Permit> arriving) {
+      refill();
+      while (!waiting.isEmpty() && (concurrency==0 || active<concurrency) && (delay==0 || tokens>0)) {
+        CompletableFuture<Permit> request = waiting.poll();
+        if (request.complete(new Permit(this, request!=arriving))) {
+          active++;
+          if (delay>0) {
+            tokens--;
+          }
+        }
+      }
+      if (!waiting.isEmpty() && delay>0 && tokens==0 && tick==null && !scheduler.isShutdown()) {
+        long wait = Math.max(0, refilled + delay - clock.getAsLong());
+        LOG.trace(String.format("Server %s throttled for %d milliseconds", protocolHostPort, TimeUnit.NANOSECONDS.toMillis(wait)));
+        tick = scheduler.schedule(this::onTick, wait, TimeUnit.NANOSECONDS);
+      }
+    }
+    
+    private void refill() {
+      long now = clock.getAsLong();
+      if (delay==0 || tokens>=burst) {
+        tokens = burst;
+        refilled = now;
+      } else {
+        long count = (now - refilled) / delay;
+        if (count>0) {
+          tokens = (int)Math.min(burst, tokens + count);
+          refilled = tokens>=burst? now: refilled + count*delay;
+        }
+      }
+    }
+  }
+}
@@ -16,6 +16,7 @@ package com.esri.geoportal.commons.robots;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -40,6 +41,14 @@ import java.util.List;
     accessList.addAll(ref.accessList);
   }
   
+  /**
+   * Gets accesses.
+   * @return list of accesses
+   */
+  public List<AccessImpl> getAccess() {
+    return Collections.unmodifiableList(accessList);
+  }
+  
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
@@ -16,6 +16,7 @@
 package com.esri.geoportal.commons.robots;
 
 import com.esri.geoportal.commons.constants.HttpConstants;
+import com.esri.geoportal.commons.http.CrawlThrottler;
 
 /**
  * Bots config.
@@ -27,8 +28,20 @@ public interface BotsConfig {
    */
   String getUserAgent();
   
+  /**
+   * Gets number of requests allowed to the server without delay.
+   * @return burst
+   */
+  int getBurst();
+  
+  /**
+   * Gets number of concurrent requests allowed to the server.
+   * @return concurrency (<code>0</code> for no limit)
+   */
+  int getConcurrency();
+  
   /**
    * Default bots configuration.
    */
-  BotsConfig DEFAULT = new BotsConfigImpl(HttpConstants.getUserAgent());
+  BotsConfig DEFAULT = new BotsConfigImpl(HttpConstants.getUserAgent(), CrawlThrottler.DEFAULT_BURST, CrawlThrottler.DEFAULT_CONCURRENCY);
 }
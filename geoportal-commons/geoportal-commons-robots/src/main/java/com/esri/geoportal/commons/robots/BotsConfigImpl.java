@@ -15,24 +15,44 @@
  */
 package com.esri.geoportal.commons.robots;
 
+import com.esri.geoportal.commons.http.CrawlThrottler;
+
 /**
  * Bots config implementation.
  */
 public class BotsConfigImpl implements BotsConfig{
   private final String userAgent;
+  private final int burst;
+  private final int concurrency;
 
-  public BotsConfigImpl(String userAgent) {
+  public BotsConfigImpl(String userAgent, int burst, int concurrency) {
     this.userAgent = userAgent;
+    this.burst = burst;
+    this.concurrency = concurrency;
+  }
+
+  public BotsConfigImpl(String userAgent) {
+    this(userAgent, CrawlThrottler.DEFAULT_BURST, CrawlThrottler.DEFAULT_CONCURRENCY);
   }
 
   @Override
   public String getUserAgent() {
     return userAgent;
   }
+
+  @Override
+  public int getBurst() {
+    return burst;
+  }
+
+  @Override
+  public int getConcurrency() {
+    return concurrency;
+  }
   
   @Override
   public String toString() {
-    return String.format("%s", userAgent);
+    return String.format("%s, burst: %d, concurrency: %d", userAgent, burst, concurrency);
   }
   
 }
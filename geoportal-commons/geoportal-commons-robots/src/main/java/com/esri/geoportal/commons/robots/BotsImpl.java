@@ -190,6 +190,27 @@ import org.slf4j.LoggerFactory;
     return selected;
   }
 
+  /**
+   * Lists accesses applicable to the user agent.
+   * <p>
+   * Accesses of the section matching the user agent come first followed by 
+   * the accesses of the default section.
+   * @return list of accesses
+   */
+  /*package*/ List<AccessImpl> listAccess() {
+    ArrayList<AccessImpl> access = new ArrayList<>();
+    if (userAgent != null) {
+      Section sec = findSectionByAgent(sections, userAgent);
+      if (sec != null) {
+        access.addAll(sec.getAccessList().getAccess());
+      }
+      if (defaultSection != null) {
+        access.addAll(defaultSection.getAccessList().getAccess());
+      }
+    }
+    return access;
+  }
+
   private Section findSectionByAgent(List<Section> sections, String userAgent) {
     for (Section sec : sections) {
       if (sec.matchUserAgent(userAgent)) {
@@ -199,7 +220,7 @@ import org.slf4j.LoggerFactory;
     return null;
   }
 
-  private String assureRelative(String path) {
+  /*package*/ static String assureRelative(String path) {
     try {
       URI uri = new URI(path);
       if (uri.isAbsolute()) {
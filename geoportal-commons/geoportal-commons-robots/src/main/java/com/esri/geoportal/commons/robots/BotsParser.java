@@ -140,7 +140,7 @@ public class BotsParser {
     Bots robots = null;
 
     try (BotsReader reader = new BotsReader(getUserAgent(), matchingStrategy, winningStrategy, robotsTxt);) {
-      robots = reader.readRobotsTxt();
+      robots = CompiledBots.compile(reader.readRobotsTxt());
     } catch (IOException ex) {
       LOG.warn("Unable to parse robots.txt", ex);
       return null;
@@ -127,6 +127,10 @@ public final class BotsUtils {
    * @return access (never <code>null</code>
    */
   public static Access requestAccess(Bots bots, String path) {
+    if (bots instanceof CompiledBots) {
+      Access winner = ((CompiledBots)bots).selectWinner(path);
+      return winner!=null? winner: Access.ALLOW;
+    }
     if (bots!=null) {
       List<Access> matching = bots.select(path, bots.getMatchingStrategy());
       Access winner = bots.getWinningStrategy().selectWinner(matching);
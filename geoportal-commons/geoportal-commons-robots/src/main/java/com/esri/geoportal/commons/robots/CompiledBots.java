@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.robots;
+
+import java.util.List;
+
+/**
+ * Compiled robots.
+ * <p>
+ * Wraps parsed robots with a prefix tree built once for the rules applicable 
+ * to the user agent, so access to a path can be resolved without evaluating 
+ * every rule. Custom matching or winning strategies fall back to the regular 
+ * selection.
+ */
+/*package*/class CompiledBots implements Bots {
+  private final BotsImpl bots;
+  private final PathTrie trie;
+
+  /**
+   * Creates instance of the compiled robots.
+   * @param bots parsed robots
+   */
+  public CompiledBots(BotsImpl bots) {
+    this.bots = bots;
+    this.trie = isCompilable(bots)? new PathTrie(bots.listAccess(), bots.getMatchingStrategy()==MatchingStrategy.SIMPLE_PATTERN_STRATEGY): null;
+  }
+  
+  /**
+   * Compiles robots.
+   * @param bots robots or <code>null</code>
+   * @return compiled robots or original robots if unable to compile
+   */
+  public static Bots compile(Bots bots) {
+    return bots instanceof BotsImpl? new CompiledBots((BotsImpl)bots): bots;
+  }
+
+  @Override
+  public Integer getCrawlDelay() {
+    return bots.getCrawlDelay();
+  }
+
+  @Override
+  public String getHost() {
+    return bots.getHost();
+  }
+
+  @Override
+  public List<String> getSitemaps() {
+    return bots.getSitemaps();
+  }
+
+  @Override
+  public MatchingStrategy getMatchingStrategy() {
+    return bots.getMatchingStrategy();
+  }
+
+  @Override
+  public WinningStrategy getWinningStrategy() {
+    return bots.getWinningStrategy();
+  }
+
+  @Override
+  public List<Access> select(String path, MatchingStrategy matchingStrategy) {
+    return bots.select(path, matchingStrategy);
+  }
+  
+  /**
+   * Selects winning access for the path.
+   * @param path path
+   * @return winning access or <code>null</code> if no access matches
+   */
+  public Access selectWinner(String path) {
+    if (trie==null) {
+      return getWinningStrategy().selectWinner(select(path, getMatchingStrategy()));
+    }
+    String relativePath = BotsImpl.assureRelative(path);
+    if (relativePath==null || "/robots.txt".equalsIgnoreCase(relativePath)) {
+      return null;
+    }
+    return trie.select(relativePath, getWinningStrategy()==WinningStrategy.LONGEST_PATH_STRATEGY);
+  }
+
+  @Override
+  public String toString() {
+    return bots.toString();
+  }
+  
+  private static boolean isCompilable(Bots bots) {
+    MatchingStrategy matchingStrategy = bots.getMatchingStrategy();
+    WinningStrategy winningStrategy = bots.getWinningStrategy();
+    return (matchingStrategy==MatchingStrategy.SIMPLE_PATTERN_STRATEGY || matchingStrategy==MatchingStrategy.PLAIN_STRING_STRATEGY)
+        && (winningStrategy==WinningStrategy.FIRST_MATCH_STRATEGY || winningStrategy==WinningStrategy.LONGEST_PATH_STRATEGY);
+  }
+}
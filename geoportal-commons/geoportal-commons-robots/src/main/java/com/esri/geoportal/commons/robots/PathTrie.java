@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.robots;
+
+import static com.esri.geoportal.commons.robots.BotsURLDecoder.decode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prefix tree of the access paths.
+ * <p>
+ * Each access path is stored under its literal prefix (up to the first (*)
+ * wildcard or the trailing ($) anchor); the remaining part of the pattern is
+ * precompiled into literal segments. Selecting a winner walks the tree once
+ * along the tested path, so the cost is proportional to the length of the path
+ * rather than to the number of rules.
+ */
+/*package*/class PathTrie {
+  private final Node root = new Node();
+  private final boolean wildcards;
+
+  /**
+   * Creates instance of the tree.
+   * @param accessList list of accesses in the order of precedence
+   * @param wildcards <code>true</code> to recognize (*) and ($) as wildcards
+   */
+  public PathTrie(List<AccessImpl> accessList, boolean wildcards) {
+    this.wildcards = wildcards;
+    for (int i=0; i<accessList.size(); i++) {
+      Rule rule = new Rule(i, accessList.get(i), wildcards);
+      Node node = root;
+      for (int c=0; c<rule.literal.length(); c++) {
+        node = node.assureChild(rule.literal.charAt(c));
+      }
+      node.rules = Arrays.copyOf(node.rules, node.rules.length+1);
+      node.rules[node.rules.length-1] = rule;
+    }
+  }
+
+  /**
+   * Selects a winner for the path.
+   * @param relativePath relative path to test
+   * @param longestPath <code>true</code> to select the longest matching path,
+   * <code>false</code> to select the first matching path
+   * @return winning access or <code>null</code> if no access matches
+   */
+  public Access select(String relativePath, boolean longestPath) {
+    if (relativePath==null) {
+      return null;
+    }
+    
+    String path = decodePath(relativePath);
+    boolean appended = path!=null && !path.endsWith("/");
+    int length = path!=null? path.length() + (appended? 1: 0): 0;
+    
+    Rule first = null;
+    Rule allow = null;
+    Rule disallow = null;
+    
+    Node node = root;
+    for (int depth=0; node!=null; depth++) {
+      for (Rule rule: node.rules) {
+        // an undecodable path fails every pattern but the empty one
+        if (path!=null? rule.matches(path, appended, depth): wildcards && rule.length==0) {
+          if (first==null || rule.index<first.index) {
+            first = rule;
+          }
+          if (rule.access.hasAccess()) {
+            allow = longer(rule, allow);
+          } else {
+            disallow = longer(rule, disallow);
+          }
+        }
+      }
+      if (depth>=length) {
+        break;
+      }
+      node = node.child(depth<path.length()? path.charAt(depth): '/');
+    }
+    
+    if (!longestPath) {
+      return first!=null? first.access: null;
+    }
+    if (allow!=null && allow.length>=(disallow!=null? disallow.length: 0)) {
+      return allow.access;
+    }
+    return disallow!=null? disallow.access: null;
+  }
+  
+  private static Rule longer(Rule rule, Rule longest) {
+    if (longest==null || rule.length>longest.length || (rule.length==longest.length && rule.index>longest.index)) {
+      return rule;
+    }
+    return longest;
+  }
+  
+  private static String decodePath(String path) {
+    if (path.indexOf('%')<0 && path.indexOf('+')<0) {
+      return path;
+    }
+    try {
+      return decode(path);
+    } catch (Exception ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Tree node.
+   */
+  private static class Node {
+    private char[] keys = new char[0];
+    private Node[] children = new Node[0];
+    private Rule[] rules = new Rule[0];
+    
+    public Node child(char c) {
+      int idx = Arrays.binarySearch(keys, c);
+      return idx>=0? children[idx]: null;
+    }
+    
+    public Node assureChild(char c) {
+      int idx = Arrays.binarySearch(keys, c);
+      if (idx>=0) {
+        return children[idx];
+      }
+      int ins = -idx-1;
+      char[] newKeys = new char[keys.length+1];
+      Node[] newChildren = new Node[children.length+1];
+      System.arraycopy(keys, 0, newKeys, 0, ins);
+      System.arraycopy(children, 0, newChildren, 0, ins);
+      System.arraycopy(keys, ins, newKeys, ins+1, keys.length-ins);
+      System.arraycopy(children, ins, newChildren, ins+1, children.length-ins);
+      newKeys[ins] = c;
+      newChildren[ins] = new Node();
+      keys = newKeys;
+      children = newChildren;
+      return newChildren[ins];
+    }
+  }
+  
+  /**
+   * Compiled access path.
+   */
+  private static class Rule {
+    private final int index;
+    private final AccessImpl access;
+    private final int length;
+    private final boolean slash;
+    private final boolean anchored;
+    private final String literal;
+    private final String[] segments;
+    
+    public Rule(int index, AccessImpl access, boolean wildcards) {
+      String pattern = access.getPath();
+      this.index = index;
+      this.access = access;
+      this.length = pattern.length();
+      this.slash = pattern.endsWith("/");
+      this.anchored = wildcards && pattern.endsWith("$");
+      
+      String body = anchored? pattern.substring(0, pattern.length()-1): pattern;
+      int star = wildcards? body.indexOf('*'): -1;
+      this.literal = star>=0? body.substring(0, star): body;
+      this.segments = star>=0? body.substring(star+1).split("\\*", -1): null;
+    }
+    
+    /**
+     * Checks if the rule matches the path knowing the literal prefix already matches.
+     * @param path decoded path
+     * @param appended <code>true</code> if the path is to be terminated with (/)
+     * @param from index of the first character after the literal prefix
+     * @return <code>true</code> if the rule matches
+     */
+    public boolean matches(String path, boolean appended, int from) {
+      boolean extended = slash && appended;
+      int length = path.length() + (extended? 1: 0);
+      if (from>length) {
+        return false;
+      }
+      if (segments==null) {
+        return !anchored || from==length || (from<length && from==terminatedEnd(path, length));
+      }
+      
+      // (*) does not span line terminators and ($) matches before a final line 
+      // terminator, just like the regular expressions of the matching strategy
+      String input = extended? path + "/": path;
+      int pos = from;
+      int last = segments.length-1;
+      for (int i=0; i<last; i++) {
+        int idx = input.indexOf(segments[i], pos);
+        if (idx<0 || hasLineTerminator(input, pos, idx)) {
+          return false;
+        }
+        pos = idx + segments[i].length();
+      }
+      if (anchored) {
+        return matchesEnd(input, pos, input.length()) || matchesEnd(input, pos, terminatedEnd(input, input.length()));
+      }
+      int idx = input.indexOf(segments[last], pos);
+      return idx>=0 && !hasLineTerminator(input, pos, idx);
+    }
+    
+    private boolean matchesEnd(String input, int pos, int end) {
+      int start = end - segments[segments.length-1].length();
+      return start>=pos && input.startsWith(segments[segments.length-1], start) && !hasLineTerminator(input, pos, start);
+    }
+  }
+  
+  private static boolean hasLineTerminator(String input, int from, int to) {
+    for (int i=from; i<to; i++) {
+      if (isLineTerminator(input.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+  
+  private static boolean isLineTerminator(char c) {
+    return c=='\n' || c=='\r' || c=='\u0085' || c=='\u2028' || c=='\u2029';
+  }
+  
+  private static int terminatedEnd(String input, int length) {
+    if (length>0 && length<=input.length() && isLineTerminator(input.charAt(length-1))) {
+      return length>1 && input.charAt(length-1)=='\n' && input.charAt(length-2)=='\r'? length-2: length-1;
+    }
+    return length;
+  }
+}
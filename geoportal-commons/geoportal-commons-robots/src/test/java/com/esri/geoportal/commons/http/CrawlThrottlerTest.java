@@ -0,0 +1,150 @@
+/* See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * Esri Inc. licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Crawl throttler test.
+ */
+public class CrawlThrottlerTest {
+  private static final String SERVER = "http://localhost";
+  /** delay long enough for the timer never to refill the bucket during the test */
+  private static final long DELAY = TimeUnit.HOURS.toMillis(1);
+  
+  private final AtomicLong clock = new AtomicLong();
+  private CrawlThrottler throttler;
+  
+  @Before
+  public void setUp() {
+    throttler = new CrawlThrottler(2, 0, clock::get);
+  }
+  
+  @After
+  public void tearDown() {
+    throttler.close();
+  }
+
+  @Test
+  public void testBurst() throws Exception {
+    assertTrue("First request delayed", throttler.request(SERVER, DELAY).isDone());
+    assertTrue("Second request delayed", throttler.request(SERVER, DELAY).isDone());
+    assertFalse("Request over burst not delayed", throttler.request(SERVER, DELAY).isDone());
+    assertTrue("Request to other server delayed", throttler.request("http://otherhost", DELAY).isDone());
+  }
+
+  @Test
+  public void testRefill() throws Exception {
+    throttler.request(SERVER, DELAY);
+    throttler.request(SERVER, DELAY);
+    CompletableFuture<CrawlThrottler.Permit> third = throttler.request(SERVER, DELAY);
+    
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(DELAY) - 1);
+    CompletableFuture<CrawlThrottler.Permit> fourth = throttler.request(SERVER, DELAY);
+    assertFalse("Request served before refill", third.isDone());
+    
+    clock.addAndGet(1);
+    CompletableFuture<CrawlThrottler.Permit> fifth = throttler.request(SERVER, DELAY);
+    assertTrue("Request not served after refill", third.isDone());
+    assertFalse("Request served out of order", fourth.isDone());
+    assertFalse("Request served out of order", fifth.isDone());
+    
+    // refill never exceeds burst
+    clock.addAndGet(10 * TimeUnit.MILLISECONDS.toNanos(DELAY));
+    CompletableFuture<CrawlThrottler.Permit> sixth = throttler.request(SERVER, DELAY);
+    assertTrue("Request not served after refill", fourth.isDone());
+    assertTrue("Request not served after refill", fifth.isDone());
+    assertFalse("Request over burst not delayed", sixth.isDone());
+  }
+
+  @Test
+  public void testConcurrency() throws Exception {
+    CrawlThrottler limited = new CrawlThrottler(1, 1, clock::get);
+    try {
+      CompletableFuture<CrawlThrottler.Permit> first = limited.request(SERVER, null);
+      CompletableFuture<CrawlThrottler.Permit> second = limited.request(SERVER, null);
+      assertTrue("First request delayed", first.isDone());
+      assertFalse("Second request not delayed", second.isDone());
+      
+      first.get().release();
+      assertTrue("Slot not passed to the waiting request", second.isDone());
+      
+      // subsequent release has no effect
+      first.get().release();
+      assertFalse("Slot released twice", limited.request(SERVER, null).isDone());
+    } finally {
+      limited.close();
+    }
+  }
+
+  @Test
+  public void testBurstWithConcurrency() throws Exception {
+    CrawlThrottler limited = new CrawlThrottler(3, 1, clock::get);
+    try {
+      CompletableFuture<CrawlThrottler.Permit> first = limited.request(SERVER, DELAY);
+      CompletableFuture<CrawlThrottler.Permit> second = limited.request(SERVER, DELAY);
+      assertTrue("First request delayed", first.isDone());
+      assertFalse("Request over concurrency not delayed", second.isDone());
+
+      first.get().release();
+      assertTrue("Request within burst delayed", second.isDone());
+      second.get().release();
+      CompletableFuture<CrawlThrottler.Permit> third = limited.request(SERVER, DELAY);
+      assertTrue("Request within burst delayed", third.isDone());
+      third.get().release();
+      assertFalse("Request over burst not delayed", limited.request(SERVER, DELAY).isDone());
+    } finally {
+      limited.close();
+    }
+  }
+
+  @Test
+  public void testDelayedMetrics() throws Exception {
+    CrawlThrottler limited = new CrawlThrottler(1, 1, clock::get);
+    try {
+      CrawlThrottler.Permit first = limited.enterServer(SERVER, null);
+      AtomicReference<CrawlThrottler.Permit> second = new AtomicReference<>();
+      Thread thread = new Thread(() -> {
+        try {
+          second.set(limited.enterServer(SERVER, null));
+        } catch (Exception ex) {
+          // reported by missing permit
+        }
+      });
+      thread.start();
+      while (thread.getState() != Thread.State.WAITING) {
+        Thread.sleep(1);
+      }
+      first.release();
+      thread.join();
+      assertNotNull("Waiting request not served", second.get());
+      second.get().release();
+      limited.enterServer(SERVER, null).release();
+      
+      CrawlThrottler.Metrics metrics = limited.getMetrics(SERVER);
+      assertEquals("Invalid number of requests", 3, metrics.getRequests());
+      assertEquals("Invalid number of delayed requests", 1, metrics.getDelayed());
+    } finally {
+      limited.close();
+    }
+  }
+}
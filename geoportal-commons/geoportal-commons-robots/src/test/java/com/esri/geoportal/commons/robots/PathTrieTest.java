@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.robots;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Path trie test.
+ */
+public class PathTrieTest {
+
+  @Test
+  public void testFirstMatch() {
+    PathTrie trie = new PathTrie(Arrays.asList(disallow("/tmp/"), allow("/tmp/public")), true);
+    
+    assertEquals("Invalid winner", "Disallow /tmp/", describe(trie.select("/tmp/public/a", false)));
+    assertEquals("Invalid winner", "none", describe(trie.select("/data", false)));
+  }
+
+  @Test
+  public void testLongestPath() {
+    PathTrie trie = new PathTrie(Arrays.asList(disallow("/tmp/"), allow("/tmp/public"), allow("/docs"), disallow("/docs")), true);
+    
+    assertEquals("Longer path not selected", "Allow /tmp/public", describe(trie.select("/tmp/public/a", true)));
+    assertEquals("Shorter path not selected", "Disallow /tmp/", describe(trie.select("/tmp/x", true)));
+    assertEquals("Allow not preferred on equal length", "Allow /docs", describe(trie.select("/docs/a", true)));
+  }
+
+  @Test
+  public void testWildcards() {
+    PathTrie trie = new PathTrie(Arrays.asList(disallow("/*.pdf$"), disallow("/private*/data")), true);
+    
+    assertEquals("Anchored pattern not matched", "Disallow /*.pdf$", describe(trie.select("/dir/file.pdf", true)));
+    assertEquals("Anchored pattern matched inside path", "none", describe(trie.select("/file.pdfx", true)));
+    assertEquals("Wildcard not matched", "Disallow /private*/data", describe(trie.select("/privateX/sub/data", true)));
+  }
+
+  @Test
+  public void testPlainStrings() {
+    PathTrie trie = new PathTrie(Arrays.asList(disallow("/*.pdf$")), false);
+    
+    assertEquals("Wildcard interpreted", "none", describe(trie.select("/file.pdf", true)));
+    assertEquals("Literal pattern not matched", "Disallow /*.pdf$", describe(trie.select("/*.pdf$", true)));
+  }
+
+  @Test
+  public void testEncodedPath() {
+    PathTrie trie = new PathTrie(Arrays.asList(disallow("/~user/")), true);
+    
+    assertEquals("Encoded path not decoded", "Disallow /~user/", describe(trie.select("/%7Euser/a", true)));
+    assertNull("Null path matched", trie.select(null, true));
+  }
+
+  @Test
+  public void testCompiledSelectionParity() throws IOException {
+    String robotsTxt = String.join("\n",
+            "User-agent: *",
+            "Disallow: /tmp/",
+            "Allow: /tmp/public",
+            "Disallow: /*.pdf$",
+            "Disallow: /private*/data",
+            "Allow: /private/",
+            "Disallow: /docs",
+            "Disallow: /%7Euser/",
+            "Disallow: /a%2Fb",
+            "Allow: /shop/*?page=",
+            "Disallow: /shop/",
+            "Disallow: /end$",
+            "Disallow: /*/archive/*$",
+            "",
+            "User-agent: parity",
+            "Allow: /tmp/agent",
+            "Disallow: /agent/",
+            "Disallow: /docs/");
+    String[] paths = {
+      "/", "/robots.txt", "/tmp", "/tmp/", "/tmp/x", "/tmp/public/a", "/tmp/agent/a",
+      "/file.pdf", "/file.pdf?x=1", "/dir/file.pdf", "/file.pdfx", "/file.PDF",
+      "/private/data", "/privateX/sub/data", "/private/", "/private", "/private/x",
+      "/docs", "/docs/", "/docsx", "/docs/a",
+      "/~user/a", "/%7Euser/a", "/%7euser/a", "/a/b", "/a%2Fb", "/a%2fb",
+      "/shop/item?page=2", "/shop/item", "/shop/",
+      "/end", "/end/", "/endx", "/x/archive/", "/x/archive/y", "/x/archive",
+      "/agent", "/agent/", "/agent/x", "http://localhost/tmp/x", "http://localhost/tmp/public/"
+    };
+    MatchingStrategy[] matchingStrategies = {MatchingStrategy.SIMPLE_PATTERN_STRATEGY, MatchingStrategy.PLAIN_STRING_STRATEGY};
+    WinningStrategy[] winningStrategies = {WinningStrategy.FIRST_MATCH_STRATEGY, WinningStrategy.LONGEST_PATH_STRATEGY};
+    BotsParser parser = BotsUtils.parser(new BotsConfigImpl("parity"), null);
+    
+    for (MatchingStrategy matchingStrategy: matchingStrategies) {
+      for (WinningStrategy winningStrategy: winningStrategies) {
+        Bots bots = parser.readRobotsTxt(matchingStrategy, winningStrategy, new ByteArrayInputStream(robotsTxt.getBytes(StandardCharsets.UTF_8)));
+        assertTrue("Robots not compiled", bots instanceof CompiledBots);
+        for (String path: paths) {
+          Access expected = winningStrategy.selectWinner(bots.select(path, matchingStrategy));
+          Access actual = ((CompiledBots)bots).selectWinner(path);
+          assertEquals(String.format("Invalid selection of %s with %s and %s", path, matchingStrategy.getClass().getSimpleName(), winningStrategy.getClass().getSimpleName()), describe(expected), describe(actual));
+        }
+      }
+    }
+  }
+  
+  private static AccessImpl allow(String path) {
+    return new AccessImpl(new AccessPath(path), true);
+  }
+  
+  private static AccessImpl disallow(String path) {
+    return new AccessImpl(new AccessPath(path), false);
+  }
+  
+  private static String describe(Access access) {
+    return access!=null? String.format("%s %s", access.hasAccess()? "Allow": "Disallow", access.getPath()): "none";
+  }
+}
@@ -65,6 +65,11 @@ public final class SimpleCredentials {
     return String.format("%s:%s", userName, password);
   }
 
+  @Override
+  public int hashCode() {
+    return Objects.hash(userName, password);
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj) {
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Task utils.
+ * <p>
+ * Supports read-ahead windows where tasks are optionally handed over to the 
+ * executor and the consumer takes them in order, running in place any task 
+ * which hasn't been picked up yet.
+ */
+public class TaskUtils {
+  
+  /**
+   * Creates task and hands it over to the executor if provided.
+   * @param <T> type of the result
+   * @param callable callable
+   * @param executor executor or <code>null</code> to run the task later in place
+   * @return task
+   */
+  public static <T> FutureTask<T> schedule(Callable<T> callable, Executor executor) {
+    FutureTask<T> task = new FutureTask<>(callable);
+    if (executor!=null) {
+      executor.execute(task);
+    }
+    return task;
+  }
+  
+  /**
+   * Gets result of the task. Runs the task in place unless already picked up 
+   * by the executor, otherwise waits for it to complete.
+   * @param <T> type of the result
+   * @param task task
+   * @return result
+   * @throws InterruptedException if waiting interrupted
+   * @throws ExecutionException if task failed
+   */
+  public static <T> T runAndGet(FutureTask<T> task) throws InterruptedException, ExecutionException {
+    task.run();
+    return task.get();
+  }
+}
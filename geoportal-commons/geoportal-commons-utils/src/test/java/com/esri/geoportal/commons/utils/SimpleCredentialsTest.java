@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Simple credentials test.
+ */
+public class SimpleCredentialsTest {
+
+  @Test
+  public void testEqualCredentials() {
+    SimpleCredentials first = new SimpleCredentials("user", "pwd");
+    SimpleCredentials second = new SimpleCredentials("user", "pwd");
+    assertEquals("Invalid equality", first, second);
+    assertEquals("Invalid hash code", first.hashCode(), second.hashCode());
+  }
+
+  @Test
+  public void testDifferentCredentials() {
+    SimpleCredentials credentials = new SimpleCredentials("user", "pwd");
+    assertNotEquals("Invalid equality", credentials, new SimpleCredentials("user", "other"));
+    assertNotEquals("Invalid equality", credentials, new SimpleCredentials("other", "pwd"));
+  }
+}
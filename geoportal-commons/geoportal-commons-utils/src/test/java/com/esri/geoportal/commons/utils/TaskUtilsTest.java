@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.utils;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Task utils test.
+ */
+public class TaskUtilsTest {
+  
+  @Test
+  public void testRunInPlace() throws Exception {
+    FutureTask<String> task = TaskUtils.schedule(() -> Thread.currentThread().getName(), null);
+    assertEquals("Task not run in place", Thread.currentThread().getName(), TaskUtils.runAndGet(task));
+  }
+  
+  @Test
+  public void testRunOnce() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      FutureTask<Integer> task = TaskUtils.schedule(() -> {
+        started.countDown();
+        release.await();
+        return runs.incrementAndGet();
+      }, executor);
+      started.await();
+      release.countDown();
+      assertEquals("Invalid result", Integer.valueOf(1), TaskUtils.runAndGet(task));
+      assertEquals("Task run more than once", 1, runs.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void testFailure() throws Exception {
+    FutureTask<String> task = TaskUtils.schedule(() -> { throw new IOException("failed"); }, null);
+    try {
+      TaskUtils.runAndGet(task);
+      fail("Failure not reported");
+    } catch (ExecutionException ex) {
+      assertTrue("Invalid cause", ex.getCause() instanceof IOException);
+    }
+  }
+}
@@ -48,19 +48,24 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.xml.parsers.DocumentBuilder;
@@ -86,6 +91,7 @@ import org.xml.sax.SAXException;
 
   private static final Logger LOG = LoggerFactory.getLogger(AgpOutputBroker.class);
   private final static DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+  private final static int SEARCH_PAGE_SIZE = 100;
 
   private final AgpOutputConnector connector;
   private final AgpOutputBrokerDefinitionAdaptor definition;
@@ -95,6 +101,8 @@ import org.xml.sax.SAXException;
   private AgpClient client;
   private String token;
   private final Set<String> existing = new HashSet<>();
+  private final Map<String, ItemEntry> index = new ConcurrentHashMap<>();
+  private volatile boolean indexed;
   private volatile boolean preventCleanup;
 
   /**
@@ -117,6 +125,16 @@ import org.xml.sax.SAXException;
     boolean deleteTempFile = false;
     
     try {
+      String src_uri_s = URLEncoder.encode(ref.getSourceUri().toASCIIString(), "UTF-8");
+      
+      // skip if item has been published from the same version of the source
+      if (indexed) {
+        ItemEntry indexedEntry = index.get(src_uri_s);
+        if (indexedEntry != null && isUnchanged(indexedEntry, ref.getLastModifiedDate())) {
+          existing.remove(indexedEntry.id);
+          return PublishingStatus.SKIPPED;
+        }
+      }
 
       byte[] content    = null;
 
@@ -148,7 +166,6 @@ import org.xml.sax.SAXException;
       String src_source_type_s = URLEncoder.encode(ref.getBrokerUri().getScheme(), "UTF-8");
       String src_source_uri_s = URLEncoder.encode(ref.getBrokerUri().toASCIIString(), "UTF-8");
       String src_source_name_s = URLEncoder.encode(ref.getBrokerName(), "UTF-8");
-      String src_uri_s = URLEncoder.encode(ref.getSourceUri().toASCIIString(), "UTF-8");
       String src_lastupdate_dt = ref.getLastModifiedDate() != null ? URLEncoder.encode(fromatDate(ref.getLastModifiedDate()), "UTF-8") : null;
 
       String[] typeKeywords = {
@@ -212,10 +229,8 @@ import org.xml.sax.SAXException;
 
       try {
 
-        // generate token
-        if (token == null) {
-          token = generateToken();
-        }
+        // get token
+        token = generateToken();
 
         // check if item exists
         ItemEntry itemEntry = searchForItem(src_uri_s);
@@ -239,6 +254,12 @@ import org.xml.sax.SAXException;
           }
 
           client.share(definition.getCredentials().getUserName(), definition.getFolderId(), response.id, true, true, null, token);
+          
+          ItemEntry addedEntry = new ItemEntry();
+          addedEntry.id = response.id;
+          addedEntry.owner = definition.getCredentials().getUserName();
+          addedEntry.typeKeywords = typeKeywords;
+          index.put(src_uri_s, addedEntry);
 
           return PublishingStatus.CREATED;
 
@@ -270,6 +291,9 @@ import org.xml.sax.SAXException;
           }
 
           existing.remove(itemEntry.id);
+          
+          itemEntry.typeKeywords = typeKeywords;
+          index.put(src_uri_s, itemEntry);
 
           return PublishingStatus.UPDATED;
         } else {
@@ -314,7 +338,22 @@ import org.xml.sax.SAXException;
     return itemType;
   }
 
+  /**
+   * Searches for item published from the source URI.
+   * <p>
+   * Index holds only items published from this data source, thus an item not
+   * found there is still searched for in the portal, since it might have been
+   * published by another broker for the same source URI.
+   * @param src_uri_s encoded source URI
+   * @return item or <code>null</code> if not published yet
+   */
   private ItemEntry searchForItem(String src_uri_s) throws URISyntaxException, IOException {
+    if (indexed) {
+      ItemEntry indexedEntry = index.get(src_uri_s);
+      if (indexedEntry != null) {
+        return indexedEntry;
+      }
+    }
 
     QueryResponse search = client.search(String.format("typekeywords:%s", String.format("src_uri_s=%s", src_uri_s)), 0, 0, token);
     ItemEntry itemEntry = search != null && search.results != null && search.results.length > 0 ? search.results[0] : null;
@@ -322,6 +361,63 @@ import org.xml.sax.SAXException;
     return itemEntry;
   }
 
+  /**
+   * Indexes items published from the data source.
+   * <p>
+   * Items are mapped by their source URI (<code>src_uri_s</code> type keyword)
+   * so items published from this data source are found without a search.
+   * @param brokerUri broker URI of the data source
+   */
+  private void indexItems(URI brokerUri) throws URISyntaxException, IOException {
+    String src_source_uri_s = URLEncoder.encode(brokerUri.toASCIIString(), "UTF-8");
+    String query = String.format("typekeywords:%s", String.format("src_source_uri_s=%s", src_source_uri_s));
+    QueryResponse search = client.search(query, SEARCH_PAGE_SIZE, 0, generateToken());
+    while (search != null && search.results != null && search.results.length > 0) {
+      for (ItemEntry item: search.results) {
+        String src_uri_s = readTypeKeyword(item, "src_uri_s");
+        if (src_uri_s != null) {
+          index.putIfAbsent(src_uri_s, item);
+        }
+        if (definition.getCleanup()) {
+          existing.add(item.id);
+        }
+      }
+      if (search.nextStart > 0) {
+        search = client.search(query, SEARCH_PAGE_SIZE, search.nextStart, generateToken());
+      } else {
+        break;
+      }
+    }
+    indexed = true;
+    LOG.debug(String.format("Indexed %d items published from: %s", index.size(), brokerUri));
+  }
+
+  private boolean isUnchanged(ItemEntry itemEntry, Date lastModifiedDate) {
+    if (lastModifiedDate == null) {
+      return false;
+    }
+    String src_lastupdate_dt = readTypeKeyword(itemEntry, "src_lastupdate_dt");
+    if (src_lastupdate_dt == null) {
+      return false;
+    }
+    try {
+      ZonedDateTime lastUpdate = ZonedDateTime.parse(URLDecoder.decode(src_lastupdate_dt, "UTF-8"), FORMATTER);
+      return lastUpdate.toInstant().toEpochMilli() == lastModifiedDate.getTime();
+    } catch (DateTimeParseException | UnsupportedEncodingException ex) {
+      return false;
+    }
+  }
+
+  private String readTypeKeyword(ItemEntry itemEntry, String name) {
+    String prefix = name + "=";
+    return itemEntry.typeKeywords != null
+            ? Arrays.stream(itemEntry.typeKeywords)
+                    .filter(kw -> kw != null && kw.startsWith(prefix))
+                    .map(kw -> kw.substring(prefix.length()))
+                    .findFirst().orElse(null)
+            : null;
+  }
+
   private Double[] extractEnvelope(String sBbox) {
     Double[] envelope = null;
     if (sBbox != null) {
@@ -403,16 +499,14 @@ import org.xml.sax.SAXException;
   }
 
   private ItemResponse addItem(String title, String description, URL url, URL thumbnailUrl, ItemType itemType, Double[] envelope, String[] typeKeywords, File fileToUpload) throws IOException, URISyntaxException {
-    if (token == null) {
-      token = generateToken();
-    }
+    token = generateToken();
     ItemResponse response = addItem(
             title,
             description,
             url, thumbnailUrl,
             itemType, envelope, typeKeywords, fileToUpload, token);
     if (response.error != null && response.error.code == 498) {
-      token = generateToken();
+      token = regenerateToken(token);
       response = addItem(
               title,
               description,
@@ -433,9 +527,7 @@ import org.xml.sax.SAXException;
   }
 
   private ItemResponse updateItem(String id, String owner, String folderId, String title, String description, URL url, URL thumbnailUrl, ItemType itemType, Double[] envelope, String[] typeKeywords, File fileToUpload) throws IOException, URISyntaxException {
-    if (token == null) {
-      token = generateToken();
-    }
+    token = generateToken();
     ItemResponse response = updateItem(
             id,
             owner,
@@ -445,7 +537,7 @@ import org.xml.sax.SAXException;
             url, thumbnailUrl,
             itemType, envelope, typeKeywords, fileToUpload, token);
     if (response.error != null && response.error.code == 498) {
-      token = generateToken();
+      token = regenerateToken(token);
       response = updateItem(
               id,
               owner,
@@ -470,12 +562,10 @@ import org.xml.sax.SAXException;
   }
 
   private DeleteResponse deleteItem(String id, String owner, String folderId) throws URISyntaxException, IOException {
-    if (token == null) {
-      token = generateToken();
-    }
+    token = generateToken();
     DeleteResponse response = deleteItem(id, owner, folderId, token);
     if (response.error != null && response.error.code == 498) {
-      token = generateToken();
+      token = regenerateToken(token);
       response = deleteItem(id, owner, folderId, token);
     }
     return response;
@@ -485,12 +575,13 @@ import org.xml.sax.SAXException;
     return client.delete(id, owner, folderId, token);
   }
 
-  private String generateToken(int minutes) throws URISyntaxException, IOException {
-    return client.generateToken(minutes).token;
+  private String generateToken() throws URISyntaxException, IOException {
+    return client.getToken();
   }
 
-  private String generateToken() throws URISyntaxException, IOException {
-    return client.generateToken(60).token;
+  private String regenerateToken(String rejected) throws URISyntaxException, IOException {
+    client.invalidateToken(rejected);
+    return client.getToken();
   }
 
   @Override
@@ -519,26 +610,22 @@ import org.xml.sax.SAXException;
           preventCleanup = true;
         }
       });
-      try {
-        String src_source_uri_s = URLEncoder.encode(context.getTask().getDataSource().getBrokerUri().toASCIIString(), "UTF-8");
-        QueryResponse search = client.search(String.format("typekeywords:%s", String.format("src_source_uri_s=%s", src_source_uri_s)), 0, 0, generateToken(1));
-        while (search != null && search.results != null && search.results.length > 0) {
-          existing.addAll(Arrays.asList(search.results).stream().map(i -> i.id).collect(Collectors.toList()));
-          if (search.nextStart > 0) {
-            search = client.search(String.format("typekeywords:%s", String.format("src_source_uri_s=%s", src_source_uri_s)), 0, search.nextStart, generateToken(1));
-          } else {
-            break;
-          }
-        }
-      } catch (URISyntaxException | IOException ex) {
+    }
+    try {
+      indexItems(context.getTask().getDataSource().getBrokerUri());
+    } catch (URISyntaxException | IOException ex) {
+      if (definition.getCleanup() && !preventCleanup) {
         throw new DataProcessorException(String.format("Error collecting ids of existing items."), ex);
       }
+      // items will be searched for one by one
+      LOG.warn(String.format("Error indexing existing items."), ex);
+      index.clear();
     }
 
     try {
       String folderId = StringUtils.trimToNull(definition.getFolderId());
       if (folderId != null) {
-        FolderEntry[] folders = this.client.listFolders(definition.getCredentials().getUserName(), generateToken(1));
+        FolderEntry[] folders = this.client.listFolders(definition.getCredentials().getUserName(), generateToken());
         FolderEntry selectedFodler = folders != null
                 ? Arrays.stream(folders).filter(folder -> folder.id != null && folder.id.equals(folderId)).findFirst().orElse(
                         Arrays.stream(folders).filter(folder -> folder.title != null && folder.title.equals(folderId)).findFirst().orElse(null)
@@ -561,9 +648,8 @@ import org.xml.sax.SAXException;
   public void terminate() {
     try {
       if (definition.getCleanup() && !preventCleanup) {
-        token = generateToken();
         for (String id : existing) {
-          ItemEntry item = client.readItem(id, token);
+          ItemEntry item = client.readItem(id, generateToken());
           deleteItem(item.id, item.owner, item.ownerFolder);
         }
       }
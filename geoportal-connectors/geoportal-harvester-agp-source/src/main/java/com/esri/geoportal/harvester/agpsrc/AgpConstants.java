@@ -25,4 +25,9 @@ package com.esri.geoportal.harvester.agpsrc;
   public static final String P_EMIT_XML_FMT= "agp-emit-xml-fmt";
   public static final String P_EMIT_JSON   = "agp-emit-json";
   public static final String P_MAX_REDIRECTS = "agp-max-redirects";
+  public static final String P_PREFETCH_COUNT = "agp-prefetch-count";
+  public static final String P_MAX_REQUESTS = "agp-max-requests";
+  
+  public static final int DEFAULT_PREFETCH_COUNT = 10;
+  public static final int DEFAULT_MAX_REQUESTS = 4;
 }
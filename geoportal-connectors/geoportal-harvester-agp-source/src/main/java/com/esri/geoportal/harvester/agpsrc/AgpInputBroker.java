@@ -27,6 +27,7 @@ import com.esri.geoportal.commons.meta.AttributeUtils;
 import com.esri.geoportal.commons.meta.MapAttribute;
 import com.esri.geoportal.commons.meta.MetaBuilder;
 import com.esri.geoportal.commons.meta.MetaException;
+import com.esri.geoportal.commons.utils.TaskUtils;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.Initializable.InitContext;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
@@ -46,11 +47,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -68,11 +73,14 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 /*package*/ class AgpInputBroker implements InputBroker {
 
   private static final Logger LOG = LoggerFactory.getLogger(AgpInputBroker.class);
+  private static final int MIN_CONNECTIONS = 5;
   
   private final AgpInputConnector connector;
   private final AgpInputBrokerDefinitionAdaptor definition;
   private final MetaBuilder metaBuilder;
+  private final ThreadLocal<MetaBuilder> workerBuilder;
   private AgpClient client;
+  private ExecutorService prefetchExecutor;
   private TaskDefinition td;
  
   private static final ObjectMapper mapper = new ObjectMapper();
@@ -93,6 +101,7 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
     this.connector = connector;
     this.definition = definition;
     this.metaBuilder = metaBuilder;
+    this.workerBuilder = ThreadLocal.withInitial(metaBuilder::newInstance);
   }
 
   @Override
@@ -115,14 +124,6 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
     return String.format("AGPSRC [%s]", definition.getHostUrl());
   }
 
-  private String generateToken(int minutes) throws URISyntaxException, IOException {
-    return client.generateToken(minutes).token;
-  }
-
-  private String generateToken() throws URISyntaxException, IOException {
-    return client.generateToken(60).token;
-  }
-
   @Override
   public EntityDefinition getEntityDefinition() {
     return definition.getEntityDefinition();
@@ -137,18 +138,28 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    CloseableHttpClient httpclient = HttpClientBuilder.create().useSystemProperties().build();
+    HttpClientBuilder builder = HttpClientBuilder.create().useSystemProperties();
+    if (definition.getMaxRequests()>1) {
+      builder.setMaxConnPerRoute(Math.max(MIN_CONNECTIONS, definition.getMaxRequests()));
+      builder.setMaxConnTotal(2 * Math.max(MIN_CONNECTIONS, definition.getMaxRequests()));
+      prefetchExecutor = Executors.newFixedThreadPool(definition.getMaxRequests(), r -> {
+        Thread thread = new Thread(r, String.format("agp-prefetch-%s", definition.getHostUrl().getHost()));
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    CloseableHttpClient httpclient = builder.build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      client = new AgpClient(httpclient, definition.getHostUrl(),definition.getCredentials(), definition.getMaxRedirects());
+      client = new AgpClient(new BotsHttpClient(httpclient, null, definition.getBotsConfig()), definition.getHostUrl(), definition.getCredentials(), definition.getMaxRedirects());
     } else {
       Bots bots = BotsUtils.readBots(definition.getBotsConfig(), httpclient, definition.getHostUrl());
-      client = new AgpClient(new BotsHttpClient(httpclient,bots), definition.getHostUrl(), definition.getCredentials(), definition.getMaxRedirects());
+      client = new AgpClient(new BotsHttpClient(httpclient, bots, definition.getBotsConfig()), definition.getHostUrl(), definition.getCredentials(), definition.getMaxRedirects());
     }
     
     try {
       String folderId = StringUtils.trimToNull(definition.getFolderId());
       if (folderId!=null) {
-        FolderEntry[] folders = this.client.listFolders(definition.getCredentials().getUserName(), generateToken(1));
+        FolderEntry[] folders = this.client.listFolders(definition.getCredentials().getUserName(), client.getToken());
         FolderEntry selectedFodler = Arrays.stream(folders).filter(folder->folder.id!=null && folder.id.equals(folderId)).findFirst().orElse(
                 Arrays.stream(folders).filter(folder->folder.title!=null && folder.title.equals(folderId)).findFirst().orElse(null)
         );
@@ -167,6 +178,9 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 
   @Override
   public void terminate() {
+    if (prefetchExecutor!=null) {
+      prefetchExecutor.shutdownNow();
+    }
     if (client!=null) {
       try {
         client.close();
@@ -179,7 +193,7 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
   @Override
   public DataContent readContent(String id) throws DataInputException {
     try {
-      ItemEntry itemEntry = client.readItem(id, client.generateToken(1).token);
+      ItemEntry itemEntry = client.readItem(id, client.getToken());
       SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), definition.getEntityDefinition().getLabel(), itemEntry.id, new Date(itemEntry.modified), URI.create(itemEntry.id), td.getSource().getRef(), td.getRef());
       ref.addContext(MimeType.APPLICATION_JSON, mapper.writeValueAsString(itemEntry).getBytes("UTF-8"));
       return ref;
@@ -188,7 +202,7 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
     }
   }
 
-  private DataReference createReference(ItemEntry itemEntry) throws URISyntaxException, IOException, MetaException, TransformerException {
+  private DataReference createReference(ItemEntry itemEntry, MetaBuilder metaBuilder) throws URISyntaxException, IOException, MetaException, TransformerException {
     Properties props = new Properties();
     if (itemEntry.id!=null) {
       props.put(WKAConstants.WKA_IDENTIFIER, itemEntry.id);
@@ -216,7 +230,7 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 
     if (definition.getEmitXml()) {
       String orgMeta = null;
-      if (Arrays.stream(itemEntry.typeKeywords).anyMatch((String a) -> a.equalsIgnoreCase("metadata")) && (orgMeta = client.readItemMetadata(itemEntry.id, AgpClient.MetadataFormat.DEFAULT, generateToken(1))) != null) {
+      if (Arrays.stream(itemEntry.typeKeywords).anyMatch((String a) -> a.equalsIgnoreCase("metadata")) && (orgMeta = client.readItemMetadata(itemEntry.id, AgpClient.MetadataFormat.DEFAULT, client.getToken())) != null) {
         // explicit metadata found
         ref.addContext(MimeType.APPLICATION_XML, orgMeta.getBytes("UTF-8"));
       } else {
@@ -234,14 +248,20 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
     return ref;
   }
   
+  /**
+   * AGP iterator.
+   * <p>
+   * Items are listed page by page. References, including item metadata, are
+   * created up to prefetch count items ahead of the consumer, with no more
+   * than maximum requests metadata reads running at the same time.
+   */
   private class AgpIterator implements InputBroker.Iterator {
     private final IteratorContext iteratorContext;
-    private final TransformerFactory tf = TransformerFactory.newInstance();
     private final long size = 10;
+    private final ArrayDeque<ItemEntry> page = new ArrayDeque<>();
+    private final ArrayDeque<FutureTask<DataReference>> window = new ArrayDeque<>();
     private long from = 1;
-    private java.util.Iterator<ItemEntry> iter;
-    private ItemEntry nextEntry;
-    private boolean done;
+    private boolean noMore;
 
     public AgpIterator(IteratorContext iteratorContext) {
       this.iteratorContext = iteratorContext;
@@ -249,51 +269,60 @@ import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 
     @Override
     public boolean hasNext() throws DataInputException {
-      if (done) {
-        return false;
-      }
-      if (iter==null) {
-        try {
-          List<ItemEntry> list = list();
-          if (list==null || list.isEmpty()) {
-            done = true;
-            return false;
+      try {
+        while (window.size() < definition.getPrefetchCount()) {
+          if (page.isEmpty()) {
+            if (noMore) {
+              break;
+            }
+            readPage();
+            continue;
           }
-          iter = list.iterator();
-        } catch (IOException|URISyntaxException ex) {
-          done = true;
-          throw new DataInputException(AgpInputBroker.this, String.format("Error reading content."), ex);
+          window.add(schedule(page.poll()));
         }
+        return !window.isEmpty();
+      } catch (IOException|URISyntaxException ex) {
+        noMore = true;
+        throw new DataInputException(AgpInputBroker.this, String.format("Error reading content."), ex);
       }
-      if (iter!=null && !iter.hasNext()) {
-        iter = null;
-        return hasNext();
-      }
-      
-      nextEntry = iter.next();
-      if (iteratorContext.getLastHarvestDate()!=null && nextEntry.modified<iteratorContext.getLastHarvestDate().getTime()) {
-        nextEntry = null;
-        return hasNext();
-      }
-      
-      return true;
     }
 
     @Override
     public DataReference next() throws DataInputException {
+      FutureTask<DataReference> task = window.poll();
+      if (task==null) {
+        throw new DataInputException(AgpInputBroker.this, String.format("Error reading content."));
+      }
       try {
-        if (nextEntry==null) {
-            throw new DataInputException(AgpInputBroker.this, String.format("Error reading content."));
-        }
-        return createReference(nextEntry);
-      } catch (MetaException|TransformerException|URISyntaxException|IOException ex) {
-        throw new DataInputException(AgpInputBroker.this, String.format("Error reading next data reference."), ex);
+        return TaskUtils.runAndGet(task);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new DataInputException(AgpInputBroker.this, String.format("Reading next data reference interrupted."), ex);
+      } catch (ExecutionException ex) {
+        throw new DataInputException(AgpInputBroker.this, String.format("Error reading next data reference."), ex.getCause());
       }
     }
     
+    private void readPage() throws URISyntaxException, IOException {
+      List<ItemEntry> list = list();
+      if (list==null || list.isEmpty()) {
+        noMore = true;
+        return;
+      }
+      Date lastHarvestDate = iteratorContext.getLastHarvestDate();
+      list.stream()
+              .filter(entry -> lastHarvestDate==null || entry.modified>=lastHarvestDate.getTime())
+              .forEach(page::add);
+    }
+    
+    private FutureTask<DataReference> schedule(ItemEntry itemEntry) {
+      // meta builders are not shared between threads
+      return TaskUtils.schedule(() -> createReference(itemEntry, prefetchExecutor!=null? workerBuilder.get(): metaBuilder), prefetchExecutor);
+    }
+    
     private List<ItemEntry> list() throws URISyntaxException, IOException {
       if (!definition.getCredentials().isEmpty()) {
-        ContentResponse content = client.listContent(definition.getCredentials().getUserName(), definition.getFolderId(), size, from, generateToken(1));
+        ContentResponse content = client.listContent(definition.getCredentials().getUserName(), definition.getFolderId(), size, from, client.getToken());
         from += size;
         return content!=null && content.items!=null && content.items.length>0? Arrays.asList(content.items): null;
       } else {
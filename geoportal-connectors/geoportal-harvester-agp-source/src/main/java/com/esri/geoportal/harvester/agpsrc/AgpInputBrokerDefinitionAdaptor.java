@@ -47,6 +47,8 @@ import org.apache.commons.lang3.math.NumberUtils;
   private boolean emitJson = false;
   private MetadataFormat metaFormat = MetadataFormat.DEFAULT;
   private Integer maxRedirects;
+  private int prefetchCount = DEFAULT_PREFETCH_COUNT;
+  private int maxRequests = DEFAULT_MAX_REQUESTS;
 
   /**
    * Creates instance of the adaptor.
@@ -72,6 +74,8 @@ import org.apache.commons.lang3.math.NumberUtils;
       emitJson = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_JSON)), false);
       metaFormat = MetadataFormat.parse(get(P_EMIT_XML_FMT), MetadataFormat.DEFAULT);
       maxRedirects = NumberUtils.toInt(get(P_MAX_REDIRECTS), DEFAULT_MAX_REDIRECTS);
+      prefetchCount = Math.max(1, NumberUtils.toInt(get(P_PREFETCH_COUNT), DEFAULT_PREFETCH_COUNT));
+      maxRequests = Math.max(1, NumberUtils.toInt(get(P_MAX_REQUESTS), DEFAULT_MAX_REQUESTS));
     }
   }
 
@@ -83,6 +87,8 @@ import org.apache.commons.lang3.math.NumberUtils;
     consume(params,P_EMIT_JSON);
     consume(params,P_EMIT_XML_FMT);
     consume(params, P_MAX_REDIRECTS);
+    consume(params, P_PREFETCH_COUNT);
+    consume(params, P_MAX_REQUESTS);
     credAdaptor.override(params);
     botsAdaptor.override(params);
   }
@@ -193,5 +199,39 @@ import org.apache.commons.lang3.math.NumberUtils;
   public void setMaxRedirects(Integer maxRedirects) {
     this.maxRedirects = maxRedirects;
   }
+
+  /**
+   * Gets prefetch count.
+   * @return number of items prepared ahead of the consumer
+   */
+  public int getPrefetchCount() {
+    return prefetchCount;
+  }
+
+  /**
+   * Sets prefetch count.
+   * @param prefetchCount number of items prepared ahead of the consumer
+   */
+  public void setPrefetchCount(int prefetchCount) {
+    this.prefetchCount = prefetchCount;
+    set(P_PREFETCH_COUNT, Integer.toString(prefetchCount));
+  }
+
+  /**
+   * Gets maximum number of concurrent requests.
+   * @return maximum number of concurrent metadata requests to the portal
+   */
+  public int getMaxRequests() {
+    return maxRequests;
+  }
+
+  /**
+   * Sets maximum number of concurrent requests.
+   * @param maxRequests maximum number of concurrent metadata requests to the portal
+   */
+  public void setMaxRequests(int maxRequests) {
+    this.maxRequests = maxRequests;
+    set(P_MAX_REQUESTS, Integer.toString(maxRequests));
+  }
   
 }
@@ -91,6 +91,13 @@ public class AgpInputConnector implements InputConnector<InputBroker> {
     args.add(new UITemplate.BooleanArgument(P_EMIT_JSON, bundle.getString("agpsrc.emit.json"),false, Boolean.FALSE));
 
     args.add(new UITemplate.IntegerArgument(P_MAX_REDIRECTS, bundle.getString("agpsrc.max.redirects"), false, 5));
+    args.add(new UITemplate.IntegerArgument(P_PREFETCH_COUNT, bundle.getString("agpsrc.prefetch.count"), false, DEFAULT_PREFETCH_COUNT));
+    args.add(new UITemplate.IntegerArgument(P_MAX_REQUESTS, bundle.getString("agpsrc.max.requests"), false, DEFAULT_MAX_REQUESTS) {
+      @Override
+      public String getHint() {
+        return bundle.getString("agpsrc.max.requests.hint");
+      }
+    });
 
     return new UITemplate(getType(), bundle.getString("agpsrc"), args);
   }
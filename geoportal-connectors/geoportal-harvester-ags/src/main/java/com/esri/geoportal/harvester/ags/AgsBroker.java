@@ -31,6 +31,7 @@ import com.esri.geoportal.commons.meta.MetaBuilder;
 import com.esri.geoportal.commons.meta.MetaException;
 import com.esri.geoportal.commons.meta.MapAttribute;
 import com.esri.geoportal.commons.meta.StringAttribute;
+import com.esri.geoportal.commons.utils.TaskUtils;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import com.esri.geoportal.commons.meta.util.WKAConstants;
@@ -45,9 +46,16 @@ import com.esri.geoportal.harvester.api.specs.InputConnector;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.transform.TransformerException;
@@ -71,12 +79,14 @@ import java.net.URL;
 
   private static final Logger LOG = LoggerFactory.getLogger(AgsBroker.class);
   private static final Pattern rootPattern = Pattern.compile("\\/[^\\/]*Server(\\/[0-9]+)?$");
+  private static final int MIN_CONNECTIONS = 5;
 
   private final AgsConnector connector;
   private final AgsBrokerDefinitionAdaptor definition;
   private final MetaBuilder metaBuilder;
   private final GeometryService gs;
   private AgsClient client;
+  private ExecutorService discoveryExecutor;
   private TaskDefinition td;
 
   /**
@@ -108,17 +118,30 @@ import java.net.URL;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    CloseableHttpClient httpclient = HttpClientBuilder.create().useSystemProperties().build();
+    HttpClientBuilder builder = HttpClientBuilder.create().useSystemProperties();
+    if (definition.getDiscoveryThreads()>1) {
+      builder.setMaxConnPerRoute(Math.max(MIN_CONNECTIONS, definition.getDiscoveryThreads()));
+      builder.setMaxConnTotal(2 * Math.max(MIN_CONNECTIONS, definition.getDiscoveryThreads()));
+      discoveryExecutor = Executors.newFixedThreadPool(definition.getDiscoveryThreads(), r -> {
+        Thread thread = new Thread(r, String.format("ags-discovery-%s", definition.getHostUrl().getHost()));
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    CloseableHttpClient httpclient = builder.build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      client = new AgsClient(httpclient, definition.getHostUrl());
+      client = new AgsClient(new BotsHttpClient(httpclient, null, definition.getBotsConfig()), definition.getHostUrl());
     } else {
       Bots bots = BotsUtils.readBots(definition.getBotsConfig(), httpclient, definition.getHostUrl());
-      client = new AgsClient(new BotsHttpClient(httpclient, bots), definition.getHostUrl());
+      client = new AgsClient(new BotsHttpClient(httpclient, bots, definition.getBotsConfig()), definition.getHostUrl());
     }
   }
 
   @Override
   public void terminate() {
+    if (discoveryExecutor!=null) {
+      discoveryExecutor.shutdownNow();
+    }
     if (client!=null) {
       try {
         client.close();
@@ -135,15 +158,10 @@ import java.net.URL;
 
   @Override
   public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
-    try {
-      if (iteratorContext.getLastHarvestDate() != null) {
-        LOG.info(String.format("Incremental harvest is not supported by Server for ArcGIS connector. Full harvest will be performed instead."));
-      }
-      List<ServerResponse> responses = listResponses(null);
-      return new AgsIterator(responses.iterator());
-    } catch (URISyntaxException | IOException ex) {
-      throw new DataInputException(this, String.format("Error listing server content."), ex);
+    if (iteratorContext.getLastHarvestDate() != null) {
+      LOG.info(String.format("Incremental harvest is not supported by Server for ArcGIS connector. Full harvest will be performed instead."));
     }
+    return new AgsIterator();
   }
 
   private ServerResponse layerInfoToServerResponse(LayerInfo layerInfo) {
@@ -157,36 +175,56 @@ import java.net.URL;
     return response;
   }
 
-  private List<ServerResponse> listResponses(String rootFolder) throws URISyntaxException, IOException {
-    ArrayList<ServerResponse> responses = new ArrayList<>();
-
-    ContentResponse content = client.listContent(rootFolder);
-    if (content.services != null) {
-      for (ServiceInfo si : content.services) {
-        ServerResponse response = client.readServiceInformation(rootFolder, si);
-        responses.add(response);
-        if (definition.getEnableLayers() && response.layers != null) {
-          for (LayerRef lRef : response.layers) {
-            if (lRef.subLayerIds == null || !lRef.subLayerIds.isEmpty()) {
-              LayerInfo layerInfo = client.readLayerInformation(rootFolder, si, lRef);
-              ServerResponse rsp = layerInfoToServerResponse(layerInfo);
-              responses.add(rsp);
-            }
-          }
+  /**
+   * Reads service information and schedules reading its layers.
+   * @param folder folder
+   * @param si service info
+   * @return service discovery
+   */
+  private ServiceDiscovery discoverService(String folder, ServiceInfo si) throws URISyntaxException, IOException {
+    ServerResponse response = client.readServiceInformation(folder, si);
+    ServiceDiscovery discovery = new ServiceDiscovery(response);
+    if (definition.getEnableLayers() && response.layers != null) {
+      for (LayerRef lRef : response.layers) {
+        if (lRef.subLayerIds == null || !lRef.subLayerIds.isEmpty()) {
+          discovery.layers.add(schedule(() -> layerInfoToServerResponse(client.readLayerInformation(folder, si, lRef))));
         }
       }
     }
-    if (content.folders != null) {
-      for (String f : content.folders) {
-        String subFolder = (rootFolder != null ? rootFolder + "/" : "") + f;
-        List<ServerResponse> subResponses = listResponses(subFolder);
-        responses.addAll(subResponses);
-      }
+    return discovery;
+  }
+  
+  private <T> FutureTask<T> schedule(Callable<T> callable) {
+    return TaskUtils.schedule(callable, discoveryExecutor);
+  }
+  
+  /**
+   * Gets result of the task.
+   * <p>
+   * Runs the task in place unless already picked up by the executor.
+   */
+  private <T> T get(FutureTask<T> task) throws DataInputException {
+    try {
+      return TaskUtils.runAndGet(task);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new DataInputException(AgsBroker.this, String.format("Listing server content interrupted."), ex);
+    } catch (ExecutionException ex) {
+      throw new DataInputException(AgsBroker.this, String.format("Error listing server content."), ex.getCause());
     }
-
-    return responses;
   }
+  
+  /**
+   * Service discovery.
+   */
+  private static class ServiceDiscovery {
+    private final ServerResponse service;
+    private final List<FutureTask<ServerResponse>> layers = new ArrayList<>();
 
+    public ServiceDiscovery(ServerResponse service) {
+      this.service = service;
+    }
+  }
 
   @Override
   public boolean hasAccess(SimpleCredentials creds) {
@@ -304,29 +342,91 @@ import java.net.URL;
 
   /**
    * ArcGIS content iterator.
+   * <p>
+   * Server content is discovered lazily while iterating: folders are listed
+   * when reached, and service and layer information for the services ahead
+   * of the consumer is read on the discovery pool. Services are delivered in
+   * the order of discovery, each followed by its layers.
    */
   private class AgsIterator implements InputBroker.Iterator {
-
-    private final java.util.Iterator<ServerResponse> iterator;
-
-    public AgsIterator(java.util.Iterator<ServerResponse> iterator) {
-      this.iterator = iterator;
-    }
+    private final ArrayDeque<String> folders = new ArrayDeque<>();
+    private final ArrayDeque<ServiceInfo> services = new ArrayDeque<>();
+    private final ArrayDeque<FutureTask<ServiceDiscovery>> window = new ArrayDeque<>();
+    private final ArrayDeque<FutureTask<ServerResponse>> ready = new ArrayDeque<>();
+    private String servicesFolder;
+    private boolean rootListed;
 
     @Override
     public boolean hasNext() throws DataInputException {
-      return iterator.hasNext();
+      while (ready.isEmpty()) {
+        fillWindow();
+        FutureTask<ServiceDiscovery> task = window.poll();
+        if (task == null) {
+          return false;
+        }
+        ServiceDiscovery discovery = get(task);
+        ready.add(completed(discovery.service));
+        ready.addAll(discovery.layers);
+      }
+      return true;
     }
 
     @Override
     public DataReference next() throws DataInputException {
+      FutureTask<ServerResponse> task = ready.poll();
+      if (task == null) {
+        throw new DataInputException(AgsBroker.this, String.format("No more services."));
+      }
+      ServerResponse serverResponse = get(task);
       try {
-        ServerResponse serverResponse = iterator.next();
         return createReference(serverResponse);
       } catch (TransformerException | TransformerFactoryConfigurationError | IOException | URISyntaxException | MetaException ex) {
         throw new DataInputException(AgsBroker.this, String.format("Error creating data reference for ArcGIS Server service"), ex);
       }
     }
+    
+    private void fillWindow() throws DataInputException {
+      try {
+        while (window.size() < 2 * definition.getDiscoveryThreads()) {
+          if (services.isEmpty()) {
+            if (!rootListed) {
+              rootListed = true;
+              listFolder(null);
+            } else if (!folders.isEmpty()) {
+              listFolder(folders.pop());
+            } else {
+              break;
+            }
+            continue;
+          }
+          String folder = servicesFolder;
+          ServiceInfo si = services.poll();
+          window.add(schedule(() -> discoverService(folder, si)));
+        }
+      } catch (URISyntaxException | IOException ex) {
+        throw new DataInputException(AgsBroker.this, String.format("Error listing server content."), ex);
+      }
+    }
+    
+    private void listFolder(String folder) throws URISyntaxException, IOException {
+      ContentResponse content = client.listContent(folder);
+      servicesFolder = folder;
+      if (content.services != null) {
+        services.addAll(Arrays.asList(content.services));
+      }
+      if (content.folders != null) {
+        // depth first, in the order listed by the server
+        for (int i = content.folders.length - 1; i >= 0; i--) {
+          folders.push((folder != null ? folder + "/" : "") + content.folders[i]);
+        }
+      }
+    }
+    
+    private FutureTask<ServerResponse> completed(ServerResponse response) {
+      FutureTask<ServerResponse> task = new FutureTask<>(() -> response);
+      task.run();
+      return task;
+    }
 
   }
 }
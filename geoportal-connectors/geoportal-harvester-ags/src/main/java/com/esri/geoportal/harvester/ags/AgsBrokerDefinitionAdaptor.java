@@ -28,6 +28,7 @@ import java.net.URL;
 import java.util.Map;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * Ags broker definition adaptor.
@@ -41,6 +42,7 @@ public class AgsBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
   private boolean enableLayers;
   private boolean emitXml = true;
   private boolean emitJson = false;
+  private int discoveryThreads = DEFAULT_DISCOVERY_THREADS;
 
   /**
    * Creates instance of the adaptor.
@@ -64,6 +66,7 @@ public class AgsBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
       enableLayers = BooleanUtils.toBoolean(get(P_ENABLE_LAYERS));
       emitXml = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_XML)), true);
       emitJson = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_JSON)), false);
+      discoveryThreads = Math.max(1, NumberUtils.toInt(get(P_DISCOVERY_THREADS), DEFAULT_DISCOVERY_THREADS));
     }
   }
 
@@ -73,6 +76,7 @@ public class AgsBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     consume(params,P_ENABLE_LAYERS);
     consume(params,P_EMIT_XML);
     consume(params,P_EMIT_JSON);
+    consume(params,P_DISCOVERY_THREADS);
     credAdaptor.override(params);
     botsAdaptor.override(params);
   }
@@ -160,5 +164,22 @@ public class AgsBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     this.emitJson = emitJson;
     set(P_EMIT_JSON, BooleanUtils.toStringTrueFalse(emitJson));
   }
+
+  /**
+   * Gets number of discovery threads.
+   * @return number of service and layer information requests running at the same time
+   */
+  public int getDiscoveryThreads() {
+    return discoveryThreads;
+  }
+
+  /**
+   * Sets number of discovery threads.
+   * @param discoveryThreads number of service and layer information requests running at the same time
+   */
+  public void setDiscoveryThreads(int discoveryThreads) {
+    this.discoveryThreads = discoveryThreads;
+    set(P_DISCOVERY_THREADS, Integer.toString(discoveryThreads));
+  }
   
 }
@@ -71,6 +71,12 @@ public class AgsConnector implements InputConnector<InputBroker> {
     args.add(new UITemplate.BooleanArgument(P_ENABLE_LAYERS, bundle.getString("ags.enableLayers")));
     args.add(new UITemplate.BooleanArgument(P_EMIT_XML, bundle.getString("ags.emit.xml"),false, Boolean.TRUE));
     args.add(new UITemplate.BooleanArgument(P_EMIT_JSON, bundle.getString("ags.emit.json"),false, Boolean.FALSE));
+    args.add(new UITemplate.IntegerArgument(P_DISCOVERY_THREADS, bundle.getString("ags.discovery.threads"), false, DEFAULT_DISCOVERY_THREADS) {
+      @Override
+      public String getHint() {
+        return bundle.getString("ags.discovery.threads.hint");
+      }
+    });
     return new UITemplate(getType(), bundle.getString("ags"), args);
   }
 
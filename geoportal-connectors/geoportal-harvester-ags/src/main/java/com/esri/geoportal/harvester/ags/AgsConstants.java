@@ -23,4 +23,7 @@ package com.esri.geoportal.harvester.ags;
   public static final String P_ENABLE_LAYERS = "ags-enable-layers";
   public static final String P_EMIT_XML      = "ags-emit-xml";
   public static final String P_EMIT_JSON     = "ags-emit-json";
+  public static final String P_DISCOVERY_THREADS = "ags-discovery-threads";
+  
+  public static final int DEFAULT_DISCOVERY_THREADS = 4;
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+/**
+ * Archive constants.
+ */
+/*package*/ final class ArchiveConstants {
+  public static final String P_ROOT_FOLDER    = "archive-root-folder";
+  public static final String P_FORMAT         = "archive-format";
+  public static final String P_MAX_SIZE       = "archive-max-size";
+  public static final String P_MAX_RECORDS    = "archive-max-records";
+  
+  public static final String INDEX_EXTENSION  = ".idx";
+  public static final String PART_EXTENSION   = ".part";
+}
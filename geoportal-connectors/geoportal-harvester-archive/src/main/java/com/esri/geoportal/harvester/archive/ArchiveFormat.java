@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+
+/**
+ * Archive format.
+ */
+/*package*/ enum ArchiveFormat {
+  /**
+   * ZIP archive.
+   */
+  ZIP(".zip") {
+    @Override
+    public OutputStream compress(OutputStream output) {
+      return output;
+    }
+
+    @Override
+    public ArchiveOutputStream createOutput(OutputStream output) {
+      return new ZipArchiveOutputStream(output);
+    }
+
+    @Override
+    public ArchiveEntry createEntry(String name, long size, Date modified) {
+      ZipArchiveEntry entry = new ZipArchiveEntry(name);
+      entry.setSize(size);
+      if (modified!=null) {
+        entry.setTime(modified.getTime());
+      }
+      return entry;
+    }
+
+    @Override
+    public ArchiveInputStream createInput(InputStream input) {
+      return new ZipArchiveInputStream(input);
+    }
+  },
+  /**
+   * GZIP compressed TAR archive.
+   */
+  TGZ(".tar.gz", ".tgz") {
+    @Override
+    public OutputStream compress(OutputStream output) throws IOException {
+      return new GzipCompressorOutputStream(output);
+    }
+
+    @Override
+    public ArchiveOutputStream createOutput(OutputStream output) {
+      // tar blocking reduced to a single record so offsets counted on the 
+      // underlying stream never lag behind the entries
+      TarArchiveOutputStream tar = new TarArchiveOutputStream(output, TarConstants.DEFAULT_RCDSIZE, "UTF-8");
+      tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+      tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+      return tar;
+    }
+
+    @Override
+    public ArchiveEntry createEntry(String name, long size, Date modified) {
+      TarArchiveEntry entry = new TarArchiveEntry(name);
+      entry.setSize(size);
+      if (modified!=null) {
+        entry.setModTime(modified);
+      }
+      return entry;
+    }
+
+    @Override
+    public ArchiveInputStream createInput(InputStream input) throws IOException {
+      return new TarArchiveInputStream(new BufferedInputStream(new GzipCompressorInputStream(input)), "UTF-8");
+    }
+  };
+  
+  private final String [] extensions;
+
+  ArchiveFormat(String...extensions) {
+    this.extensions = extensions;
+  }
+  
+  /**
+   * Gets default file extension.
+   * @return file extension
+   */
+  public String getExtension() {
+    return extensions[0];
+  }
+  
+  /**
+   * Wraps file output with the compressor applied to the whole archive.
+   * @param output file output stream
+   * @return compressing stream or the same stream if format compresses entries
+   * @throws IOException if creating stream fails
+   */
+  public abstract OutputStream compress(OutputStream output) throws IOException;
+  
+  /**
+   * Creates archive output stream.
+   * @param output output stream as returned by {@link #compress(java.io.OutputStream)}
+   * @return archive output stream
+   */
+  public abstract ArchiveOutputStream createOutput(OutputStream output);
+  
+  /**
+   * Creates archive entry.
+   * @param name entry name
+   * @param size entry size
+   * @param modified last modified date or <code>null</code> if unknown
+   * @return archive entry
+   */
+  public abstract ArchiveEntry createEntry(String name, long size, Date modified);
+  
+  /**
+   * Creates archive input stream.
+   * @param input raw file input stream
+   * @return archive input stream
+   * @throws IOException if creating stream fails
+   */
+  public abstract ArchiveInputStream createInput(InputStream input) throws IOException;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+  
+  /**
+   * Parses format.
+   * @param format format name
+   * @param def default format
+   * @return format
+   */
+  public static ArchiveFormat parse(String format, ArchiveFormat def) {
+    return Arrays.stream(ArchiveFormat.values()).filter(f -> f.name().equalsIgnoreCase(format)).findFirst().orElse(def);
+  }
+  
+  /**
+   * Detects format of the archive file.
+   * @param file archive file
+   * @return format or <code>null</code> if not an archive
+   */
+  public static ArchiveFormat detect(Path file) {
+    String name = file.getFileName().toString().toLowerCase();
+    return Arrays.stream(ArchiveFormat.values())
+            .filter(f -> Arrays.stream(f.extensions).anyMatch(ext -> name.endsWith(ext)))
+            .findFirst().orElse(null);
+  }
+}
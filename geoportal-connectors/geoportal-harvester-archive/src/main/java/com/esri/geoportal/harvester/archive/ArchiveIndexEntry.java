@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Archive index entry. Describes a single record stored in the archive; index
+ * is kept next to the archive as a file of JSON lines.
+ */
+/*package*/ class ArchiveIndexEntry {
+  private String id;
+  private String sourceUri;
+  private Date modified;
+  private long offset;
+  private List<String> entries = new ArrayList<>();
+
+  /**
+   * Gets record id.
+   * @return record id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Sets record id.
+   * @param id record id
+   */
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  /**
+   * Gets source URI.
+   * @return source URI
+   */
+  public String getSourceUri() {
+    return sourceUri;
+  }
+
+  /**
+   * Sets source URI.
+   * @param sourceUri source URI
+   */
+  public void setSourceUri(String sourceUri) {
+    this.sourceUri = sourceUri;
+  }
+
+  /**
+   * Gets last modified date.
+   * @return last modified date or <code>null</code> if unknown
+   */
+  public Date getModified() {
+    return modified;
+  }
+
+  /**
+   * Sets last modified date.
+   * @param modified last modified date
+   */
+  public void setModified(Date modified) {
+    this.modified = modified;
+  }
+
+  /**
+   * Gets offset of the first record entry. For ZIP archives it is offset of 
+   * the local header within the file, for TAR.GZ archives it is offset of the
+   * entry header within the uncompressed tar stream.
+   * @return offset
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * Sets offset of the first record entry.
+   * @param offset offset
+   */
+  public void setOffset(long offset) {
+    this.offset = offset;
+  }
+
+  /**
+   * Gets names of the archive entries holding record content.
+   * @return list of entry names
+   */
+  public List<String> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Sets names of the archive entries holding record content.
+   * @param entries list of entry names
+   */
+  public void setEntries(List<String> entries) {
+    this.entries = entries;
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("id: %s, source URI: %s, offset: %d, entries: %s", id, sourceUri, offset, entries);
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import static com.esri.geoportal.commons.utils.CrlfUtils.formatForLog;
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.commons.constants.MimeTypeUtils;
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataContent;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.TaskDefinition;
+import com.esri.geoportal.harvester.api.ex.DataInputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.specs.InputConnector;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Archive input broker. Replays records stored by {@link ArchiveOutputBroker}.
+ */
+/*package*/ class ArchiveInputBroker implements InputBroker {
+  private static final Logger LOG = LoggerFactory.getLogger(ArchiveInputBroker.class);
+  
+  private final ArchiveInputConnector connector;
+  private final ArchiveInputBrokerDefinitionAdaptor definition;
+  
+  private TaskDefinition td;
+
+  /**
+   * Creates instance of the broker.
+   * @param connector connector
+   * @param definition definition
+   */
+  public ArchiveInputBroker(ArchiveInputConnector connector, ArchiveInputBrokerDefinitionAdaptor definition) {
+    this.connector = connector;
+    this.definition = definition;
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    definition.override(context.getParams());
+    td = context.getTask().getTaskDefinition();
+  }
+
+  @Override
+  public void terminate() {
+    // nothing to terminate
+  }
+
+  @Override
+  public EntityDefinition getEntityDefinition() {
+    return definition.getEntityDefinition();
+  }
+
+  @Override
+  public InputConnector getConnector() {
+    return connector;
+  }
+
+  @Override
+  public URI getBrokerUri() throws URISyntaxException {
+    String path = definition.getRootFolder().toURI().getPath().replaceAll("/[a-zA-Z]:/|/$", "");
+    return new URI("ARCHIVE", path, null);
+  }
+
+  @Override
+  public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
+    return new ArchiveIterator(iteratorContext);
+  }
+
+  @Override
+  public boolean hasAccess(SimpleCredentials creds) {
+    return true;
+  }
+
+  @Override
+  public DataContent readContent(String id) throws DataInputException {
+    try {
+      for (Path archiveFile: listArchives()) {
+        boolean indexed = ArchiveReader.readIndex(archiveFile).values().stream().anyMatch(e -> id.equals(e.getId()));
+        if (indexed) {
+          try (ArchiveReader reader = new ArchiveReader(archiveFile, ArchiveFormat.detect(archiveFile))) {
+            ArchiveRecord record;
+            while ((record = reader.next())!=null) {
+              if (id.equals(record.getId())) {
+                return createReference(record);
+              }
+            }
+          }
+        }
+      }
+      return null;
+    } catch (IOException|URISyntaxException ex) {
+      throw new DataInputException(this, String.format("Error reading content: %s", id), ex);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ARCHIVE [%s]", definition.getRootFolder());
+  }
+  
+  /**
+   * Lists archive files in the root folder.
+   * @return sorted list of archive files
+   * @throws IOException if listing fails
+   */
+  private LinkedList<Path> listArchives() throws IOException {
+    try (Stream<Path> paths = Files.walk(definition.getRootFolder().toPath())) {
+      return paths
+              .filter(p -> Files.isRegularFile(p) && ArchiveFormat.detect(p)!=null)
+              .sorted()
+              .collect(Collectors.toCollection(LinkedList::new));
+    }
+  }
+  
+  /**
+   * Creates data reference from the archive record.
+   * @param record archive record
+   * @return data reference
+   * @throws URISyntaxException if invalid broker URI
+   */
+  private DataReference createReference(ArchiveRecord record) throws URISyntaxException {
+    SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), getEntityDefinition().getLabel(), record.getId(), record.getModified(), record.getSourceUri(), td.getSource().getRef(), td.getRef());
+    for (Map.Entry<String,byte[]> e: record.getContent().entrySet()) {
+      String entryName = e.getKey();
+      int lastDotIndex = entryName.lastIndexOf(".");
+      MimeType contentType = MimeTypeUtils.mapExtension(lastDotIndex>=0? entryName.substring(lastDotIndex+1): "");
+      if (contentType!=null) {
+        ref.addContext(contentType, e.getValue());
+      }
+    }
+    return ref;
+  }
+
+  /**
+   * Archive iterator.
+   */
+  private class ArchiveIterator implements InputBroker.Iterator {
+    private final IteratorContext iteratorContext;
+    private LinkedList<Path> archives;
+    private ArchiveReader reader;
+    private ArchiveRecord nextRecord;
+
+    /**
+     * Creates instance of the iterator.
+     * @param iteratorContext iterator context
+     */
+    public ArchiveIterator(IteratorContext iteratorContext) {
+      this.iteratorContext = iteratorContext;
+    }
+
+    @Override
+    public boolean hasNext() throws DataInputException {
+      try {
+        if (archives==null) {
+          archives = listArchives();
+        }
+        
+        Date since = iteratorContext.getLastHarvestDate();
+        while (nextRecord==null) {
+          if (Thread.currentThread().isInterrupted()) {
+            closeReader();
+            return false;
+          }
+          if (reader==null) {
+            Path archiveFile = archives.poll();
+            if (archiveFile==null) {
+              return false;
+            }
+            LOG.debug(formatForLog("Reading archive: %s", archiveFile));
+            reader = new ArchiveReader(archiveFile, ArchiveFormat.detect(archiveFile));
+          }
+          ArchiveRecord record = reader.next();
+          if (record==null) {
+            closeReader();
+          } else if (since==null || record.getModified()==null || !record.getModified().before(since)) {
+            nextRecord = record;
+          }
+        }
+        
+        return true;
+      } catch (IOException|URISyntaxException ex) {
+        closeReader();
+        throw new DataInputException(ArchiveInputBroker.this, "Error reading data.", ex);
+      }
+    }
+
+    @Override
+    public DataReference next() throws DataInputException {
+      try {
+        ArchiveRecord record = nextRecord;
+        nextRecord = null;
+        return createReference(record);
+      } catch (URISyntaxException ex) {
+        throw new DataInputException(ArchiveInputBroker.this, "Error reading data.", ex);
+      }
+    }
+    
+    private void closeReader() {
+      if (reader!=null) {
+        try {
+          reader.close();
+        } catch (IOException ex) {
+          LOG.warn(formatForLog("Error closing archive: %s", reader), ex);
+        }
+        reader = null;
+      }
+    }
+  }
+}
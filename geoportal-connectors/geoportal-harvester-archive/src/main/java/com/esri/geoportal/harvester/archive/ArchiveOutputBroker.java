@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Archive output broker.
+ */
+/*package*/ class ArchiveOutputBroker implements OutputBroker {
+  private static final Logger LOG = LoggerFactory.getLogger(ArchiveOutputBroker.class);
+  private static final long MEGABYTE = 1024L * 1024L;
+  
+  private final ArchiveOutputConnector connector;
+  private final ArchiveOutputBrokerDefinitionAdaptor definition;
+  private ArchiveWriter writer;
+
+  /**
+   * Creates instance of the broker.
+   * @param connector connector
+   * @param definition broker definition
+   */
+  public ArchiveOutputBroker(ArchiveOutputConnector connector, ArchiveOutputBrokerDefinitionAdaptor definition) {
+    this.connector = connector;
+    this.definition = definition;
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    definition.override(context.getParams());
+    try {
+      URI ssp = URI.create(context.getTask().getDataSource().getBrokerUri().getSchemeSpecificPart());
+      String sspRoot = StringUtils.defaultIfEmpty(ssp.getHost(), ssp.getPath());
+      Path folder = definition.getRootFolder().toPath().toRealPath().resolve(sanitizeFileName(StringUtils.defaultString(sspRoot)));
+      Files.createDirectories(folder);
+      String baseName = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+      writer = new ArchiveWriter(folder, baseName, definition.getFormat(), definition.getMaxSize() * MEGABYTE, definition.getMaxRecords());
+    } catch (IOException|URISyntaxException ex) {
+      throw new DataProcessorException(String.format("Error initializing broker."), ex);
+    }
+  }
+
+  @Override
+  public void terminate() {
+    if (writer!=null) {
+      try {
+        writer.close();
+        LOG.info(String.format("%d records has been archived.", writer.getTotalRecords()));
+      } catch (IOException ex) {
+        LOG.warn(String.format("Error closing archive in: %s", definition.getRootFolder()), ex);
+      }
+    }
+  }
+
+  @Override
+  public PublishingStatus publish(DataReference ref) throws DataOutputException {
+    try {
+      return writer.write(ref)? PublishingStatus.CREATED: PublishingStatus.SKIPPED;
+    } catch (IOException ex) {
+      throw new DataOutputException(this, ref.getId(), String.format("Error publishing data: %s", ref), ex);
+    }
+  }
+
+  @Override
+  public OutputConnector getConnector() {
+    return connector;
+  }
+
+  @Override
+  public boolean hasAccess(SimpleCredentials creds) {
+    return true;
+  }
+
+  @Override
+  public EntityDefinition getEntityDefinition() {
+    return definition.getEntityDefinition();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ARCHIVE [%s]", definition.getRootFolder());
+  }
+  
+  private static String sanitizeFileName(String fileName) {
+    return fileName.replaceAll("[/\\\\?%*:|\"<>]", "_");
+  }
+}
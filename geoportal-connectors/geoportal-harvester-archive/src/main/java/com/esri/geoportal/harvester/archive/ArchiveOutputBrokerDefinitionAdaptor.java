@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import com.esri.geoportal.harvester.api.base.BrokerDefinitionAdaptor;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import static com.esri.geoportal.harvester.archive.ArchiveConstants.*;
+import java.io.File;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * Archive output broker definition adaptor.
+ */
+/*package*/ class ArchiveOutputBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
+  private static final int DEFAULT_MAX_SIZE = 100;
+  private static final int DEFAULT_MAX_RECORDS = 0;
+  
+  private File rootFolder;
+  private ArchiveFormat format = ArchiveFormat.ZIP;
+  private int maxSize = DEFAULT_MAX_SIZE;
+  private int maxRecords = DEFAULT_MAX_RECORDS;
+
+  /**
+   * Creates instance of the adaptor.
+   * @param entityDefinition broker definition
+   * @throws InvalidDefinitionException if invalid definition
+   */
+  public ArchiveOutputBrokerDefinitionAdaptor(EntityDefinition entityDefinition) throws InvalidDefinitionException {
+    super(entityDefinition);
+    if (StringUtils.trimToEmpty(entityDefinition.getType()).isEmpty()) {
+      entityDefinition.setType(ArchiveOutputConnector.TYPE);
+    } else if (!ArchiveOutputConnector.TYPE.equals(entityDefinition.getType())) {
+      throw new InvalidDefinitionException("Broker definition doesn't match");
+    } else {
+      try {
+        rootFolder = new File(get(P_ROOT_FOLDER));
+      } catch (NullPointerException ex) {
+        throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_ROOT_FOLDER, get(P_ROOT_FOLDER)), ex);
+      }
+      format = ArchiveFormat.parse(get(P_FORMAT), ArchiveFormat.ZIP);
+      maxSize = Math.max(0, NumberUtils.toInt(get(P_MAX_SIZE), DEFAULT_MAX_SIZE));
+      maxRecords = Math.max(0, NumberUtils.toInt(get(P_MAX_RECORDS), DEFAULT_MAX_RECORDS));
+    }
+  }
+
+  @Override
+  public void override(Map<String, String> params) {
+    consume(params,P_ROOT_FOLDER);
+    consume(params,P_FORMAT);
+    consume(params,P_MAX_SIZE);
+    consume(params,P_MAX_RECORDS);
+  }
+
+  /**
+   * Gets root folder.
+   * @return root folder
+   */
+  public File getRootFolder() {
+    return rootFolder;
+  }
+
+  /**
+   * Sets root folder.
+   * @param rootFolder root folder
+   */
+  public void setRootFolder(File rootFolder) {
+    this.rootFolder = rootFolder;
+    set(P_ROOT_FOLDER, rootFolder.toString());
+  }
+
+  /**
+   * Gets archive format.
+   * @return archive format
+   */
+  public ArchiveFormat getFormat() {
+    return format;
+  }
+
+  /**
+   * Sets archive format.
+   * @param format archive format
+   */
+  public void setFormat(ArchiveFormat format) {
+    this.format = format;
+    set(P_FORMAT, (format != null ? format : ArchiveFormat.ZIP).toString());
+  }
+
+  /**
+   * Gets maximum archive size.
+   * @return maximum archive size in megabytes (0 - unlimited)
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Sets maximum archive size.
+   * @param maxSize maximum archive size in megabytes (0 - unlimited)
+   */
+  public void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+    set(P_MAX_SIZE, Integer.toString(maxSize));
+  }
+
+  /**
+   * Gets maximum number of records per archive.
+   * @return maximum number of records (0 - unlimited)
+   */
+  public int getMaxRecords() {
+    return maxRecords;
+  }
+
+  /**
+   * Sets maximum number of records per archive.
+   * @param maxRecords maximum number of records (0 - unlimited)
+   */
+  public void setMaxRecords(int maxRecords) {
+    this.maxRecords = maxRecords;
+    set(P_MAX_RECORDS, Integer.toString(maxRecords));
+  }
+}
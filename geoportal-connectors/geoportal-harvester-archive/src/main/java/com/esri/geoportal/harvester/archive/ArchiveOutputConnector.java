@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.defs.UITemplate.Choice;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import static com.esri.geoportal.harvester.archive.ArchiveConstants.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Archive output connector.
+ */
+public class ArchiveOutputConnector implements OutputConnector<OutputBroker> {
+  public static final String TYPE = "ARCHIVE-OUT";
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public UITemplate getTemplate(Locale locale) {
+    ResourceBundle bundle = ResourceBundle.getBundle("ArchiveResource", locale);
+    List<UITemplate.Argument> arguments = new ArrayList<>();
+    arguments.add(new UITemplate.StringArgument(P_ROOT_FOLDER, bundle.getString("archive.rootFolder"), true){
+      @Override
+      public String getHint() {
+        return bundle.getString("archive.hint");
+      }
+    });
+    Choice[] choices = Arrays.stream(ArchiveFormat.values()).map(f -> new Choice<String>(f.name(), bundle.getString(String.format("archive.format.%s", f.name().toLowerCase())))).toArray(Choice[]::new);
+    arguments.add(new UITemplate.ChoiceArgument(P_FORMAT, bundle.getString("archive.format"), Arrays.asList(choices)){
+      public String getDefault() {
+        return ArchiveFormat.ZIP.name();
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(P_MAX_SIZE, bundle.getString("archive.maxSize"), false, 100));
+    arguments.add(new UITemplate.IntegerArgument(P_MAX_RECORDS, bundle.getString("archive.maxRecords"), false, 0));
+    return new UITemplate(getType(), bundle.getString("archive.out"), arguments);
+  }
+
+  @Override
+  public void validateDefinition(EntityDefinition definition) throws InvalidDefinitionException {
+    new ArchiveOutputBrokerDefinitionAdaptor(definition);
+  }
+
+  @Override
+  public OutputBroker createBroker(EntityDefinition definition) throws InvalidDefinitionException {
+    return new ArchiveOutputBroker(this, new ArchiveOutputBrokerDefinitionAdaptor(definition));
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import static com.esri.geoportal.commons.utils.CrlfUtils.formatForLog;
+import static com.esri.geoportal.harvester.archive.ArchiveConstants.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Archive reader. Streams records out of a single archive sequentially. If the
+ * archive has an index, record identity is restored from the index; otherwise
+ * entries sharing the same base name form a record.
+ */
+/*package*/ class ArchiveReader implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ArchiveReader.class);
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  
+  private final Path archiveFile;
+  private final Map<String,ArchiveIndexEntry> index;
+  private final ArchiveInputStream archive;
+  
+  private ArchiveEntry pendingEntry;
+  private byte[] pendingContent;
+  private boolean exhausted;
+
+  /**
+   * Creates instance of the reader.
+   * @param archiveFile archive file
+   * @param format archive format
+   * @throws IOException if opening archive fails
+   */
+  public ArchiveReader(Path archiveFile, ArchiveFormat format) throws IOException {
+    this.archiveFile = archiveFile;
+    this.index = readIndex(archiveFile);
+    this.archive = format.createInput(new BufferedInputStream(Files.newInputStream(archiveFile), BUFFER_SIZE));
+  }
+  
+  /**
+   * Reads next record.
+   * @return record or <code>null</code> if no more records
+   * @throws IOException if reading archive fails
+   * @throws URISyntaxException if invalid source URI
+   */
+  public ArchiveRecord next() throws IOException, URISyntaxException {
+    if (pendingEntry==null && !readEntry()) {
+      return null;
+    }
+    
+    ArchiveIndexEntry info = index.get(pendingEntry.getName());
+    Object key = recordKey(pendingEntry.getName(), info);
+    ArchiveRecord record = info!=null
+            ? new ArchiveRecord(info.getId(), StringUtils.isNotBlank(info.getSourceUri())? new URI(info.getSourceUri()): entryUri(pendingEntry.getName()), info.getModified())
+            : new ArchiveRecord(baseName(pendingEntry.getName()), entryUri(pendingEntry.getName()), pendingEntry.getLastModifiedDate());
+    
+    do {
+      record.getContent().put(pendingEntry.getName(), pendingContent);
+      pendingEntry = null;
+      pendingContent = null;
+    } while (readEntry() && key.equals(recordKey(pendingEntry.getName(), index.get(pendingEntry.getName()))));
+    
+    return record;
+  }
+  
+  @Override
+  public void close() throws IOException {
+    archive.close();
+  }
+  
+  /**
+   * Reads index of the archive.
+   * @param archiveFile archive file
+   * @return index by entry name
+   */
+  public static Map<String,ArchiveIndexEntry> readIndex(Path archiveFile) {
+    Map<String,ArchiveIndexEntry> index = new HashMap<>();
+    Path indexFile = archiveFile.resolveSibling(archiveFile.getFileName() + INDEX_EXTENSION);
+    if (Files.isRegularFile(indexFile)) {
+      try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine())!=null) {
+          if (!line.trim().isEmpty()) {
+            ArchiveIndexEntry entry = MAPPER.readValue(line, ArchiveIndexEntry.class);
+            entry.getEntries().forEach(name -> index.put(name, entry));
+          }
+        }
+      } catch (IOException ex) {
+        LOG.warn(formatForLog("Error reading archive index: %s", indexFile), ex);
+        index.clear();
+      }
+    }
+    return index;
+  }
+  
+  private boolean readEntry() throws IOException {
+    if (exhausted) {
+      return false;
+    }
+    ArchiveEntry entry;
+    while ((entry = archive.getNextEntry())!=null) {
+      if (!entry.isDirectory() && archive.canReadEntryData(entry)) {
+        pendingEntry = entry;
+        pendingContent = IOUtils.toByteArray(archive);
+        return true;
+      }
+    }
+    exhausted = true;
+    return false;
+  }
+  
+  private Object recordKey(String entryName, ArchiveIndexEntry info) {
+    return info!=null? info: baseName(entryName);
+  }
+  
+  private URI entryUri(String entryName) throws URISyntaxException {
+    URI archiveUri = archiveFile.toUri();
+    return new URI(archiveUri.getScheme(), archiveUri.getSchemeSpecificPart(), entryName);
+  }
+  
+  private static String baseName(String entryName) {
+    int lastDotIndex = entryName.lastIndexOf(".");
+    return lastDotIndex>0? entryName.substring(0, lastDotIndex): entryName;
+  }
+  
+  @Override
+  public String toString() {
+    return archiveFile.toString();
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Archive record. Groups consecutive archive entries belonging to the same record.
+ */
+/*package*/ class ArchiveRecord {
+  private final String id;
+  private final URI sourceUri;
+  private final Date modified;
+  private final Map<String,byte[]> content = new LinkedHashMap<>();
+
+  /**
+   * Creates instance of the record.
+   * @param id record id
+   * @param sourceUri source URI
+   * @param modified last modified date or <code>null</code> if unknown
+   */
+  public ArchiveRecord(String id, URI sourceUri, Date modified) {
+    this.id = id;
+    this.sourceUri = sourceUri;
+    this.modified = modified;
+  }
+
+  /**
+   * Gets record id.
+   * @return record id
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets source URI.
+   * @return source URI
+   */
+  public URI getSourceUri() {
+    return sourceUri;
+  }
+
+  /**
+   * Gets last modified date.
+   * @return last modified date or <code>null</code> if unknown
+   */
+  public Date getModified() {
+    return modified;
+  }
+
+  /**
+   * Gets content by entry name.
+   * @return content map
+   */
+  public Map<String, byte[]> getContent() {
+    return content;
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("id: %s, source URI: %s, entries: %s", id, sourceUri, content.keySet());
+  }
+}
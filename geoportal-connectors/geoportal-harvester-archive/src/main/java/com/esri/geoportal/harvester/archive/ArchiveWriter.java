@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.commons.constants.MimeTypeUtils;
+import com.esri.geoportal.harvester.api.DataReference;
+import static com.esri.geoportal.harvester.archive.ArchiveConstants.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rolling archive writer. Writes records sequentially into the archive and 
+ * starts a new archive once the size or record count limit is reached. Each 
+ * archive gets an index file with one entry per record. Archive and index are
+ * written under temporary names and renamed once the archive is complete.
+ */
+/*package*/ class ArchiveWriter implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ArchiveWriter.class);
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  
+  private final Path folder;
+  private final String baseName;
+  private final ArchiveFormat format;
+  private final long maxSize;
+  private final long maxRecords;
+  
+  private int sequence;
+  private Path archiveFile;
+  private Path indexFile;
+  private CountingOutputStream fileCounter;
+  private CountingOutputStream offsetCounter;
+  private ArchiveOutputStream archive;
+  private Writer index;
+  private final Set<String> names = new HashSet<>();
+  private long records;
+  private long totalRecords;
+
+  /**
+   * Creates instance of the writer.
+   * @param folder folder to store archives
+   * @param baseName base name of the archive files
+   * @param format archive format
+   * @param maxSize maximum size of the archive in bytes (0 - unlimited)
+   * @param maxRecords maximum number of records in the archive (0 - unlimited)
+   */
+  public ArchiveWriter(Path folder, String baseName, ArchiveFormat format, long maxSize, long maxRecords) {
+    this.folder = folder;
+    this.baseName = baseName;
+    this.format = format;
+    this.maxSize = maxSize;
+    this.maxRecords = maxRecords;
+  }
+  
+  /**
+   * Writes data reference into the archive.
+   * @param ref data reference
+   * @return <code>true</code> if anything has been written
+   * @throws IOException if writing fails
+   */
+  public synchronized boolean write(DataReference ref) throws IOException {
+    ArchiveIndexEntry indexEntry = null;
+    String name = null;
+    
+    for (MimeType ct: ref.getContentType()) {
+      String extension = MimeTypeUtils.findExtensions(ct).stream().findFirst().orElse(null);
+      byte[] content = ref.getContent(ct);
+      if (extension==null || content==null) {
+        continue;
+      }
+      if (archive==null) {
+        open();
+      }
+      if (name==null) {
+        name = uniqueName(sanitizeFileName(ref.getId()));
+      }
+      
+      String entryName = name + "." + extension;
+      if (indexEntry==null) {
+        indexEntry = new ArchiveIndexEntry();
+        indexEntry.setId(ref.getId());
+        indexEntry.setSourceUri(ref.getSourceUri()!=null? ref.getSourceUri().toString(): null);
+        indexEntry.setModified(ref.getLastModifiedDate());
+        indexEntry.setOffset(offsetCounter.getByteCount());
+      }
+      
+      archive.putArchiveEntry(format.createEntry(entryName, content.length, ref.getLastModifiedDate()));
+      archive.write(content);
+      archive.closeArchiveEntry();
+      indexEntry.getEntries().add(entryName);
+    }
+    
+    if (indexEntry==null) {
+      return false;
+    }
+    
+    index.write(MAPPER.writeValueAsString(indexEntry));
+    index.write('\n');
+    records++;
+    totalRecords++;
+    
+    if ((maxRecords>0 && records>=maxRecords) || (maxSize>0 && fileCounter.getByteCount()>=maxSize)) {
+      finish();
+    }
+    
+    return true;
+  }
+  
+  /**
+   * Gets total number of records written.
+   * @return number of records
+   */
+  public synchronized long getTotalRecords() {
+    return totalRecords;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    finish();
+  }
+  
+  private void open() throws IOException {
+    sequence++;
+    String fileName = String.format("%s-%05d%s", baseName, sequence, format.getExtension());
+    archiveFile = folder.resolve(fileName + PART_EXTENSION);
+    indexFile = folder.resolve(fileName + INDEX_EXTENSION + PART_EXTENSION);
+    
+    fileCounter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(archiveFile), BUFFER_SIZE));
+    offsetCounter = new CountingOutputStream(format.compress(fileCounter));
+    archive = format.createOutput(offsetCounter);
+    index = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(indexFile), StandardCharsets.UTF_8), BUFFER_SIZE);
+    records = 0;
+    names.clear();
+    
+    LOG.debug(String.format("Opened archive: %s", archiveFile));
+  }
+  
+  private void finish() throws IOException {
+    if (archive==null) {
+      return;
+    }
+    try {
+      archive.finish();
+      archive.close();
+      index.close();
+      
+      Path indexTarget = removePartExtension(indexFile);
+      Path archiveTarget = removePartExtension(archiveFile);
+      Files.move(indexFile, indexTarget, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(archiveFile, archiveTarget, StandardCopyOption.REPLACE_EXISTING);
+      LOG.info(String.format("Completed archive: %s with %d records", archiveTarget, records));
+    } finally {
+      archive = null;
+      index = null;
+    }
+  }
+  
+  /**
+   * Makes entry base name unique within the current archive. Distinct ids may
+   * sanitize to the same name (i.e. <code>a/b</code> and <code>a_b</code>) and 
+   * the index is keyed by entry name.
+   * @param name sanitized name
+   * @return unique name
+   */
+  private String uniqueName(String name) {
+    String unique = name;
+    for (int i=1; !names.add(unique); i++) {
+      unique = String.format("%s-%d", name, i);
+    }
+    return unique;
+  }
+  
+  private static Path removePartExtension(Path path) {
+    String fileName = path.getFileName().toString();
+    return path.resolveSibling(fileName.substring(0, fileName.length() - PART_EXTENSION.length()));
+  }
+  
+  private static String sanitizeFileName(String fileName) {
+    return fileName.replaceAll("[/\\\\?%*:|\"<>]", "_");
+  }
+}
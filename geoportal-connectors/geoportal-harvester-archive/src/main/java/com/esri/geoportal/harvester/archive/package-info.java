@@ -0,0 +1,29 @@
+/**
+ * Archive output and input brokers.
+ * <p>
+ * Output broker streams published records into rolling ZIP or TAR.GZ archives
+ * stored in the root folder. A new archive is started once either maximum 
+ * archive size (in megabytes) or maximum number of records is reached. Next to
+ * each archive there is an index file (<code>.idx</code>) with one JSON line per
+ * record holding record id, source URI, modification date, offset of the 
+ * record within the archive and names of the entries.
+ * <p>
+ * Input broker reads such archives back sequentially, restoring record id and
+ * source URI from the index, so the harvest can be replayed into another 
+ * destination without contacting the origin.
+ * <p>
+ * Example of the JSON ARCHIVE-OUT definition is below:
+ * <pre><code>
+ 
+   {
+     "type": "ARCHIVE-OUT",
+     "properties" : {
+       "archive-root-folder": "c:\\data",
+       "archive-format": "tgz",
+       "archive-max-size": "100",
+       "archive-max-records": "0"
+     }
+   }
+ * </code></pre>
+ */
+package com.esri.geoportal.harvester.archive;
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.archive;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Archive write/read round trip test.
+ */
+public class ArchiveRoundTripTest {
+  private static final List<String> IDS = Arrays.asList("a/b", "a_b", "r1", "r2", "r3", "r4", "r5");
+  private Path folder;
+  
+  @Before
+  public void setUp() throws Exception {
+    folder = Files.createTempDirectory("archive");
+  }
+  
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(folder.toFile());
+  }
+  
+  @Test
+  public void testZipRoundTrip() throws Exception {
+    testRoundTrip(ArchiveFormat.ZIP);
+  }
+  
+  @Test
+  public void testTgzRoundTrip() throws Exception {
+    testRoundTrip(ArchiveFormat.TGZ);
+  }
+  
+  private void testRoundTrip(ArchiveFormat format) throws Exception {
+    try (ArchiveWriter writer = new ArchiveWriter(folder, "test", format, 0, 3)) {
+      for (String id: IDS) {
+        SimpleDataReference ref = new SimpleDataReference(new URI("archive:test"), "test", id, new Date(), new URI("http://host/" + id.replace("/", "-")), null, null);
+        ref.addContext(MimeType.APPLICATION_XML, ("<record>" + id + "</record>").getBytes(StandardCharsets.UTF_8));
+        ref.addContext(MimeType.APPLICATION_JSON, ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+        assertTrue("Record not written", writer.write(ref));
+      }
+      assertEquals("Invalid number of records written", IDS.size(), writer.getTotalRecords());
+    }
+    
+    List<Path> archives;
+    try (Stream<Path> files = Files.list(folder)) {
+      archives = files.filter(f -> f.getFileName().toString().endsWith(format.getExtension())).sorted().collect(Collectors.toList());
+    }
+    assertEquals("Invalid number of archives", 3, archives.size());
+    
+    Map<String, ArchiveRecord> records = new HashMap<>();
+    for (Path archive: archives) {
+      try (ArchiveReader reader = new ArchiveReader(archive, format)) {
+        for (ArchiveRecord record = reader.next(); record!=null; record = reader.next()) {
+          assertNull("Duplicated record: " + record.getId(), records.put(record.getId(), record));
+        }
+      }
+    }
+    
+    assertEquals("Invalid ids read", IDS.stream().sorted().collect(Collectors.toList()), records.keySet().stream().sorted().collect(Collectors.toList()));
+    for (String id: IDS) {
+      ArchiveRecord record = records.get(id);
+      assertEquals("Invalid source uri", "http://host/" + id.replace("/", "-"), record.getSourceUri().toString());
+      assertEquals("Invalid number of entries", 2, record.getContent().size());
+      List<String> content = record.getContent().values().stream().map(c -> new String(c, StandardCharsets.UTF_8)).sorted().collect(Collectors.toList());
+      assertEquals("Invalid content", Arrays.asList("<record>" + id + "</record>", "{\"id\":\"" + id + "\"}"), content);
+    }
+  }
+}
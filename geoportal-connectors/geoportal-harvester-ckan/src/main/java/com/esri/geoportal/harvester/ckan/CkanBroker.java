@@ -40,6 +40,7 @@ import com.esri.geoportal.commons.ckan.client.ListResponse;
 import com.esri.geoportal.commons.ckan.client.Pkg;
 import com.esri.geoportal.commons.ckan.client.Response;
 import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.commons.utils.TaskUtils;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
@@ -58,12 +59,19 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import javax.xml.transform.TransformerException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -74,7 +82,6 @@ import org.w3c.dom.Document;
 import com.esri.geoportal.commons.utils.XmlUtils;
 import com.esri.geoportal.harvester.api.DataContent;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
-import java.util.stream.Collectors;
 import static com.esri.geoportal.commons.utils.UriUtils.*;
 
 /**
@@ -83,6 +90,7 @@ import static com.esri.geoportal.commons.utils.UriUtils.*;
 public class CkanBroker implements InputBroker {
 
   private static final Logger LOG = LoggerFactory.getLogger(CkanBroker.class);
+  private static final int MIN_CONNECTIONS = 5;
 
   private final CkanConnector connector;
   private final CkanBrokerDefinitionAdaptor definition;
@@ -91,6 +99,7 @@ public class CkanBroker implements InputBroker {
   protected CloseableHttpClient httpClient;
   private Client client;
   protected TaskDefinition td;
+  private ExecutorService executor;
 
   private static final ObjectMapper mapper = new ObjectMapper();
 
@@ -117,18 +126,32 @@ public class CkanBroker implements InputBroker {
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    CloseableHttpClient http = HttpClientBuilder.create().useSystemProperties().build();
+    HttpClientBuilder builder = HttpClientBuilder.create().useSystemProperties();
+    int threads = Math.max(definition.getPrefetch(), definition.getShowThreads());
+    if (threads>1) {
+      builder.setMaxConnPerRoute(Math.max(MIN_CONNECTIONS, threads));
+      builder.setMaxConnTotal(2 * Math.max(MIN_CONNECTIONS, threads));
+      executor = Executors.newFixedThreadPool(threads, r -> {
+        Thread thread = new Thread(r, String.format("ckan-prefetch-%s", definition.getHostUrl().getHost()));
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    CloseableHttpClient http = builder.build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      httpClient = http;
+      httpClient = new BotsHttpClient(http, null, definition.getBotsConfig());
     } else {
       Bots bots = BotsUtils.readBots(definition.getBotsConfig(), http, definition.getHostUrl());
-      httpClient = new BotsHttpClient(http, bots);
+      httpClient = new BotsHttpClient(http, bots, definition.getBotsConfig());
     }
     client = new Client(httpClient, definition.getHostUrl(), definition.getApiKey());
   }
 
   @Override
   public void terminate() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
     if (httpClient != null) {
       try {
         httpClient.close();
@@ -308,89 +331,128 @@ public class CkanBroker implements InputBroker {
     return ref;
   }
 
-  private interface DatasetProvider {
-    public List<Dataset> get() throws IOException, URISyntaxException;
-  }
-  
   /**
    * CKAN iterator.
+   * <p>
+   * Pages of <i>package_search</i> are requested ahead of time, up to the 
+   * configured prefetch; if the server doesn't support search, packages
+   * listed by <i>package_list</i> are read with bounded concurrency.
    */
   private class CkanIterator implements InputBroker.Iterator {
 
     private final IteratorContext iteratorContext;
+    private final Date since;
 
-    private java.util.Iterator<DatasetProvider> providerIter;
+    private final ArrayDeque<FutureTask<List<Dataset>>> window = new ArrayDeque<>();
     private java.util.Iterator<Dataset> dataIter;
+    private java.util.Iterator<String> idIter;
 
-    private final int limit = 10;
-    private int offset = 0;
-    private boolean lastPage;
+    private boolean started;
+    private boolean searchMode;
+    private Long count;
+    private int step;
+    private long offset;
+    private volatile boolean lastPage;
 
     public CkanIterator(IteratorContext iteratorContext) {
       this.iteratorContext = iteratorContext;
+      this.since = iteratorContext.getLastHarvestDate();
     }
 
     private void listPackages() throws IOException, URISyntaxException {
+      started = true;
       try {
-        Response response = client.listPackages(limit, offset);
-
-        if (response != null && response.result != null && response.result.results != null && !response.result.results.isEmpty()) {
-          List<DatasetProvider> providers = response.result.results.stream().map((Dataset ds) -> new DatasetProvider() {
-            public List<Dataset> get() { 
-              return Arrays.asList(new Dataset[]{ds}); 
-            }
-          }).collect(Collectors.toList());
-          providerIter = providers.iterator();
-          offset += limit;
-        } else {
-          lastPage = true;
-        }
+        Response response = client.listPackages(definition.getPageSize(), 0, since);
+        List<Dataset> results = response != null && response.result != null && response.result.results != null
+                ? response.result.results
+                : Collections.emptyList();
+        searchMode = true;
+        count = response != null && response.result != null? response.result.count: null;
+        // servers might cap number of rows below the requested page size
+        step = count != null && results.size() < definition.getPageSize() && results.size() < count
+                ? results.size()
+                : definition.getPageSize();
+        offset = results.size();
+        lastPage = results.isEmpty();
+        dataIter = results.iterator();
         
       } catch (IOException ex) {
+        LOG.debug(String.format("Package search not available at %s; listing all packages.", definition.getHostUrl()), ex);
         lastPage = true;
         ListResponse response = client.listPackages();
         
         if (response != null && response.result!=null) {
-          ArrayList<DatasetProvider> list = new ArrayList<>();
-          for (String id: response.result) {
-            list.add(new DatasetProvider() {
-              @Override
-              public List<Dataset> get() throws IOException, URISyntaxException {
-                List<Dataset> datasets = new ArrayList<>();
-                Pkg pkg = client.showPackage(id);
-                if (pkg!=null && pkg.result!=null) {
-                  for (Dataset ds: pkg.result) {
-                    datasets.add(ds);
-                  }
-                }
-                return datasets;
-              }
-            });
+          idIter = Arrays.asList(response.result).iterator();
+        }
+      }
+    }
+    
+    /**
+     * Schedules requests until the window is full.
+     */
+    private void fillWindow() {
+      if (searchMode) {
+        while (window.size() < definition.getPrefetch() && !lastPage && (count == null || offset < count)) {
+          final long start = offset;
+          window.add(schedule(() -> searchPage(start)));
+          offset += step;
+        }
+      } else if (idIter != null) {
+        while (window.size() < definition.getShowThreads() && idIter.hasNext()) {
+          final String id = idIter.next();
+          window.add(schedule(() -> showPackage(id)));
+        }
+      }
+    }
+    
+    private List<Dataset> searchPage(long start) throws IOException, URISyntaxException {
+      Response response = client.listPackages(definition.getPageSize(), start, since);
+      if (response == null || response.result == null || response.result.results == null || response.result.results.isEmpty()) {
+        lastPage = true;
+        return Collections.emptyList();
+      }
+      return response.result.results;
+    }
+    
+    private List<Dataset> showPackage(String id) throws IOException, URISyntaxException {
+      List<Dataset> datasets = new ArrayList<>();
+      Pkg pkg = client.showPackage(id);
+      if (pkg!=null && pkg.result!=null) {
+        for (Dataset ds: pkg.result) {
+          // package_list can not be filtered on the server
+          Date modified = parseIsoDate(ds.metadata_modified);
+          if (since == null || modified == null || !modified.before(since)) {
+            datasets.add(ds);
           }
-          providerIter = list.iterator();
         }
       }
+      return datasets;
+    }
+    
+    private FutureTask<List<Dataset>> schedule(Callable<List<Dataset>> callable) {
+      return TaskUtils.schedule(callable, executor);
     }
     
     @Override
     public boolean hasNext() throws DataInputException {
       try {
-        if (dataIter != null && dataIter.hasNext()) {
-          return true;
-        }
-        
-        if (providerIter != null && providerIter.hasNext()) {
-          dataIter = providerIter.next().get().iterator();
-          return hasNext();
+        if (!started) {
+          listPackages();
         }
-        
-        if (lastPage) {
-          return false;
+        while (dataIter == null || !dataIter.hasNext()) {
+          fillWindow();
+          FutureTask<List<Dataset>> task = window.poll();
+          if (task == null) {
+            return false;
+          }
+          dataIter = TaskUtils.runAndGet(task).iterator();
         }
-
-        listPackages();
-
-        return hasNext();
+        return true;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new DataInputException(CkanBroker.this, String.format("Reading data from: %s interrupted.", this), ex);
+      } catch (ExecutionException ex) {
+        throw new DataInputException(CkanBroker.this, String.format("Error reading data from: %s", this), ex.getCause());
       } catch (IOException | URISyntaxException ex) {
         throw new DataInputException(CkanBroker.this, String.format("Error reading data from: %s", this), ex);
       }
@@ -26,6 +26,7 @@ import java.net.URL;
 import java.util.Map;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * CKAN broker definition adaptor.
@@ -37,6 +38,9 @@ public class CkanBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
   private String apiKey;
   private boolean emitXml = true;
   private boolean emitJson = false;
+  private int pageSize = DEFAULT_PAGE_SIZE;
+  private int prefetch = DEFAULT_PREFETCH;
+  private int showThreads = DEFAULT_SHOW_THREADS;
 
 
   /**
@@ -70,6 +74,9 @@ public class CkanBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     apiKey = get(P_API_KEY);
     emitXml = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_XML)), true);
     emitJson = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_JSON)), false);
+    pageSize = Math.min(MAX_PAGE_SIZE, Math.max(1, NumberUtils.toInt(get(P_PAGE_SIZE), DEFAULT_PAGE_SIZE)));
+    prefetch = Math.max(1, NumberUtils.toInt(get(P_PREFETCH), DEFAULT_PREFETCH));
+    showThreads = Math.max(1, NumberUtils.toInt(get(P_SHOW_THREADS), DEFAULT_SHOW_THREADS));
     
     try {
       hostUrl = new URL(get(P_HOST_URL));
@@ -84,6 +91,9 @@ public class CkanBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     consume(params,P_API_KEY);
     consume(params,P_EMIT_XML);
     consume(params,P_EMIT_JSON);
+    consume(params,P_PAGE_SIZE);
+    consume(params,P_PREFETCH);
+    consume(params,P_SHOW_THREADS);
     botsAdaptor.override(params);
   }
   
@@ -138,5 +148,56 @@ public class CkanBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     this.emitJson = emitJson;
     set(P_EMIT_JSON, BooleanUtils.toStringTrueFalse(emitJson));
   }
+
+  /**
+   * Gets page size.
+   * @return number of packages requested with a single search
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Sets page size.
+   * @param pageSize number of packages requested with a single search
+   */
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+    set(P_PAGE_SIZE, Integer.toString(pageSize));
+  }
+
+  /**
+   * Gets prefetch.
+   * @return number of pages requested concurrently
+   */
+  public int getPrefetch() {
+    return prefetch;
+  }
+
+  /**
+   * Sets prefetch.
+   * @param prefetch number of pages requested concurrently
+   */
+  public void setPrefetch(int prefetch) {
+    this.prefetch = prefetch;
+    set(P_PREFETCH, Integer.toString(prefetch));
+  }
+
+  /**
+   * Gets show threads.
+   * @return number of packages read concurrently if search is not available
+   */
+  public int getShowThreads() {
+    return showThreads;
+  }
+
+  /**
+   * Sets show threads.
+   * @param showThreads number of packages read concurrently if search is not available
+   */
+  public void setShowThreads(int showThreads) {
+    this.showThreads = showThreads;
+    set(P_SHOW_THREADS, Integer.toString(showThreads));
+  }
   
 }
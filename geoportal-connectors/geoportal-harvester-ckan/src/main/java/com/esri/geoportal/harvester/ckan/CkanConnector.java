@@ -62,6 +62,19 @@ public class CkanConnector implements InputConnector<InputBroker> {
     args.add(new UITemplate.StringArgument(P_API_KEY, bundle.getString("ckan.apiKey")));
     args.add(new UITemplate.BooleanArgument(P_EMIT_XML, bundle.getString("ckan.emit.xml"),false, Boolean.TRUE));
     args.add(new UITemplate.BooleanArgument(P_EMIT_JSON, bundle.getString("ckan.emit.json"),false, Boolean.TRUE));
+    args.add(new UITemplate.IntegerArgument(P_PAGE_SIZE, bundle.getString("ckan.page.size"), false, DEFAULT_PAGE_SIZE){
+      @Override
+      public String getHint() {
+        return bundle.getString("ckan.page.size.hint");
+      }
+    });
+    args.add(new UITemplate.IntegerArgument(P_PREFETCH, bundle.getString("ckan.prefetch"), false, DEFAULT_PREFETCH));
+    args.add(new UITemplate.IntegerArgument(P_SHOW_THREADS, bundle.getString("ckan.show.threads"), false, DEFAULT_SHOW_THREADS){
+      @Override
+      public String getHint() {
+        return bundle.getString("ckan.show.threads.hint");
+      }
+    });
     return new UITemplate(getType(), bundle.getString("ckan"), args);
   }
 
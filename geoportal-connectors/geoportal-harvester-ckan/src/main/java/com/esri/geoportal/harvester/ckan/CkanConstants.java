@@ -23,4 +23,13 @@ package com.esri.geoportal.harvester.ckan;
   public static final String P_API_KEY   = "ckan-apikey";
   public static final String P_EMIT_XML  = "ckan-emit-xml";
   public static final String P_EMIT_JSON = "ckan-emit-json";
+  public static final String P_PAGE_SIZE = "ckan-page-size";
+  public static final String P_PREFETCH  = "ckan-prefetch";
+  public static final String P_SHOW_THREADS = "ckan-show-threads";
+  
+  public static final int DEFAULT_PAGE_SIZE = 100;
+  /** default maximum number of rows returned by CKAN package_search ('ckan.search.rows_max') */
+  public static final int MAX_PAGE_SIZE = 1000;
+  public static final int DEFAULT_PREFETCH = 2;
+  public static final int DEFAULT_SHOW_THREADS = 4;
 }
@@ -22,6 +22,7 @@ import com.esri.geoportal.commons.csw.client.impl.Client;
 import com.esri.geoportal.commons.http.BotsHttpClient;
 import com.esri.geoportal.commons.robots.Bots;
 import com.esri.geoportal.commons.robots.BotsUtils;
+import com.esri.geoportal.commons.utils.TaskUtils;
 import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
@@ -34,9 +35,15 @@ import com.esri.geoportal.harvester.api.DataContent;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.slf4j.Logger;
@@ -47,16 +54,13 @@ import org.slf4j.LoggerFactory;
  */
 /*package*/ class CswBroker implements InputBroker {
   private static final Logger LOG = LoggerFactory.getLogger(CswBroker.class);
-  private static final int PAGE_SIZE = 10;
+  private static final int MIN_CONNECTIONS = 5;
 
   private final CswConnector connector;
   private final CswBrokerDefinitionAdaptor definition;
   private CloseableHttpClient httpclient;
   private IClient client;
-  private java.util.Iterator<IRecord> recs;
-  private IRecord nextRecord;
-  private int start = 1;
-  private boolean noMore;
+  private ExecutorService prefetchExecutor;
   private TaskDefinition td;
 
   /**
@@ -73,17 +77,31 @@ import org.slf4j.LoggerFactory;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    httpclient = HttpClientBuilder.create().useSystemProperties().build();
+    HttpClientBuilder builder = HttpClientBuilder.create().useSystemProperties();
+    if (definition.getPrefetchCount()>1) {
+      builder.setMaxConnPerRoute(Math.max(MIN_CONNECTIONS, definition.getPrefetchCount()));
+      builder.setMaxConnTotal(2 * Math.max(MIN_CONNECTIONS, definition.getPrefetchCount()));
+      prefetchExecutor = Executors.newFixedThreadPool(definition.getPrefetchCount(), r -> {
+        Thread thread = new Thread(r, String.format("csw-prefetch-%s", definition.getHostUrl().getHost()));
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    CloseableHttpClient http = builder.build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      client = new Client(httpclient, definition.getHostUrl(), definition.getProfile(), definition.getCredentials());
+      httpclient = new BotsHttpClient(http, null, definition.getBotsConfig());
     } else {
-      Bots bots = BotsUtils.readBots(definition.getBotsConfig(), httpclient, definition.getHostUrl());
-      client = new Client(new BotsHttpClient(httpclient,bots), definition.getHostUrl(), definition.getProfile(), definition.getCredentials());
+      Bots bots = BotsUtils.readBots(definition.getBotsConfig(), http, definition.getHostUrl());
+      httpclient = new BotsHttpClient(http, bots, definition.getBotsConfig());
     }
+    client = new Client(httpclient, definition.getHostUrl(), definition.getProfile(), definition.getCredentials());
   }
 
   @Override
   public void terminate() {
+    if (prefetchExecutor!=null) {
+      prefetchExecutor.shutdownNow();
+    }
     if (httpclient!=null) {
       try {
         httpclient.close();
@@ -131,19 +149,31 @@ import org.slf4j.LoggerFactory;
   private DataReference readContent(String id, Date lastModified) throws DataInputException {
     try {
       String metadata = client.readMetadata(id);
-      SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), getEntityDefinition().getLabel(), id, lastModified, new URI("uuid", id, null), td.getSource().getRef(), td.getRef());
-      ref.addContext(MimeType.APPLICATION_XML, metadata.getBytes("UTF-8"));
-      return ref;
+      return createReference(id, lastModified, metadata);
     } catch (Exception ex) {
       throw new DataInputException(this, String.format("Error reading data %s", id), ex);
     }
   }
   
+  private DataReference createReference(String id, Date lastModified, String metadata) throws URISyntaxException, UnsupportedEncodingException {
+    SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), getEntityDefinition().getLabel(), id, lastModified, new URI("uuid", id, null), td.getSource().getRef(), td.getRef());
+    ref.addContext(MimeType.APPLICATION_XML, metadata.getBytes("UTF-8"));
+    return ref;
+  }
+  
   /**
    * CSW iterator.
+   * <p>
+   * Records are read page by page. Records delivered in full become references
+   * immediately; remaining records of the current page are read by id, up 
+   * to prefetch count records at a time.
    */
   private class CswIterator implements InputBroker.Iterator {
     private final IteratorContext iteratorContext;
+    private final ArrayDeque<IRecord> page = new ArrayDeque<>();
+    private final ArrayDeque<FutureTask<DataReference>> window = new ArrayDeque<>();
+    private int start = 1;
+    private boolean noMore;
 
     /**
      * Creates instance of the iterator.
@@ -157,34 +187,17 @@ import org.slf4j.LoggerFactory;
     @Override
     public boolean hasNext() throws DataInputException {
       try {
-        if (noMore) {
-          return false;
-        }
-
-        if (recs==null) {
-          IRecords r = client.findRecords(start, PAGE_SIZE, iteratorContext.getLastHarvestDate(), null, definition.getSearchText());
-          if (r.isEmpty()) {
-            noMore = true;
-          } else {
-            recs = r.iterator();
+        while (window.size() < definition.getPrefetchCount()) {
+          if (page.isEmpty()) {
+            if (!window.isEmpty() || noMore) {
+              break;
+            }
+            readPage();
+            continue;
           }
-          return hasNext();
-        }
-
-        if (!recs.hasNext()) {
-          recs = null;
-          start += PAGE_SIZE;
-          return hasNext();
-        }
-        
-        IRecord rec = recs.next();
-        
-        if (rec.getLastModifiedDate()!=null && iteratorContext.getLastHarvestDate()!=null && !(rec.getLastModifiedDate().getTime()>=iteratorContext.getLastHarvestDate().getTime())) {
-          return hasNext();
+          window.add(schedule(page.poll()));
         }
-
-        nextRecord = rec;
-        return true;
+        return !window.isEmpty();
       } catch (Exception ex) {
         throw new DataInputException(CswBroker.this, "Error reading data.", ex);
       }
@@ -192,12 +205,43 @@ import org.slf4j.LoggerFactory;
 
     @Override
     public DataReference next() throws DataInputException {
-      if (nextRecord==null) {
+      FutureTask<DataReference> task = window.poll();
+      if (task==null) {
         throw new DataInputException(CswBroker.this, String.format("No more records."));
       }
-      IRecord rec = nextRecord;
-      nextRecord=null;
-      return readContent(rec.getId(), rec.getLastModifiedDate());
+      try {
+        return TaskUtils.runAndGet(task);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new DataInputException(CswBroker.this, "Reading data interrupted.", ex);
+      } catch (ExecutionException ex) {
+        if (ex.getCause() instanceof DataInputException) {
+          throw (DataInputException)ex.getCause();
+        }
+        throw new DataInputException(CswBroker.this, "Error reading data.", ex.getCause());
+      }
+    }
+    
+    private void readPage() throws Exception {
+      Date lastHarvestDate = iteratorContext.getLastHarvestDate();
+      IRecords r = definition.isFullRecords()
+              ? client.findFullRecords(start, definition.getPageSize(), lastHarvestDate, null, definition.getSearchText())
+              : client.findRecords(start, definition.getPageSize(), lastHarvestDate, null, definition.getSearchText());
+      if (r.isEmpty()) {
+        noMore = true;
+        return;
+      }
+      // servers might return less records than requested
+      start += r.size();
+      r.stream()
+              .filter(rec -> rec.getLastModifiedDate()==null || lastHarvestDate==null || rec.getLastModifiedDate().getTime()>=lastHarvestDate.getTime())
+              .forEach(page::add);
+    }
+    
+    private FutureTask<DataReference> schedule(IRecord rec) {
+      return rec.getMetadata()!=null
+              ? TaskUtils.schedule(() -> createReference(rec.getId(), rec.getLastModifiedDate(), rec.getMetadata()), null)
+              : TaskUtils.schedule(() -> readContent(rec.getId(), rec.getLastModifiedDate()), prefetchExecutor);
     }
   }
   
@@ -29,7 +29,9 @@ import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Map;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * CSW definition.
@@ -41,6 +43,9 @@ public class CswBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
   private URL hostUrl;
   private IProfile profile;
   private String searchText;
+  private int pageSize = DEFAULT_PAGE_SIZE;
+  private boolean fullRecords;
+  private int prefetchCount = DEFAULT_PREFETCH_COUNT;
 
   /**
    * Creates instance of the adaptor.
@@ -69,6 +74,9 @@ public class CswBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
         throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_PROFILE_ID, get(P_PROFILE_ID)));
       }
       searchText = get(P_SEARCH_TEXT);
+      pageSize = Math.max(1, NumberUtils.toInt(get(P_PAGE_SIZE), DEFAULT_PAGE_SIZE));
+      fullRecords = BooleanUtils.toBoolean(get(P_FULL_RECORDS));
+      prefetchCount = Math.max(1, NumberUtils.toInt(get(P_PREFETCH_COUNT), DEFAULT_PREFETCH_COUNT));
     }
   }
 
@@ -77,6 +85,9 @@ public class CswBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     consume(params,P_HOST_URL);
     consume(params,P_PROFILE_ID);
     consume(params,P_SEARCH_TEXT);
+    consume(params,P_PAGE_SIZE);
+    consume(params,P_FULL_RECORDS);
+    consume(params,P_PREFETCH_COUNT);
     credAdaptor.override(params);
     botsAdaptor.override(params);
   }
@@ -136,6 +147,57 @@ public class CswBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     set(P_SEARCH_TEXT, searchText);
   }
 
+  /**
+   * Gets page size.
+   * @return number of records requested at once
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Sets page size.
+   * @param pageSize number of records requested at once
+   */
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+    set(P_PAGE_SIZE, Integer.toString(pageSize));
+  }
+
+  /**
+   * Checks if full records are requested within GetRecords.
+   * @return <code>true</code> to request full records
+   */
+  public boolean isFullRecords() {
+    return fullRecords;
+  }
+
+  /**
+   * Sets to request full records within GetRecords.
+   * @param fullRecords <code>true</code> to request full records
+   */
+  public void setFullRecords(boolean fullRecords) {
+    this.fullRecords = fullRecords;
+    set(P_FULL_RECORDS, BooleanUtils.toStringTrueFalse(fullRecords));
+  }
+
+  /**
+   * Gets prefetch count.
+   * @return maximum number of records read concurrently by id
+   */
+  public int getPrefetchCount() {
+    return prefetchCount;
+  }
+
+  /**
+   * Sets prefetch count.
+   * @param prefetchCount maximum number of records read concurrently by id
+   */
+  public void setPrefetchCount(int prefetchCount) {
+    this.prefetchCount = prefetchCount;
+    set(P_PREFETCH_COUNT, Integer.toString(prefetchCount));
+  }
+
   /**
    * Gets bots config.
    * @return bots config
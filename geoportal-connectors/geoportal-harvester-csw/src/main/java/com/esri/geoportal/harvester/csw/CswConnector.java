@@ -70,6 +70,14 @@ public class CswConnector implements InputConnector<InputBroker> {
       }
     });
     arguments.add(new UITemplate.StringArgument(P_SEARCH_TEXT, bundle.getString("csw.search.text"), false));
+    arguments.add(new UITemplate.IntegerArgument(P_PAGE_SIZE, bundle.getString("csw.page.size"), false, DEFAULT_PAGE_SIZE));
+    arguments.add(new UITemplate.BooleanArgument(P_FULL_RECORDS, bundle.getString("csw.full.records"), false, false) {
+      @Override
+      public String getHint() {
+        return bundle.getString("csw.full.records.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(P_PREFETCH_COUNT, bundle.getString("csw.prefetch.count"), false, DEFAULT_PREFETCH_COUNT));
     return new UITemplate(getType(), bundle.getString("csw"), arguments);
   }
 
@@ -22,4 +22,10 @@ package com.esri.geoportal.harvester.csw;
   public static final String P_HOST_URL = "csw-host-url";
   public static final String P_PROFILE_ID = "csw-profile-id";
   public static final String P_SEARCH_TEXT = "csw-search-text";
+  public static final String P_PAGE_SIZE = "csw-page-size";
+  public static final String P_FULL_RECORDS = "csw-full-records";
+  public static final String P_PREFETCH_COUNT = "csw-prefetch-count";
+  
+  public static final int DEFAULT_PAGE_SIZE = 10;
+  public static final int DEFAULT_PREFETCH_COUNT = 4;
 }
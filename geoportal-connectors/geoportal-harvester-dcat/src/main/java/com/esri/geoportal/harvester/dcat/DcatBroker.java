@@ -59,6 +59,7 @@ import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -66,15 +67,24 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 import javax.xml.transform.TransformerException;
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
 import org.w3c.dom.Document;
 
 /**
@@ -91,8 +101,11 @@ import org.w3c.dom.Document;
 
   protected CloseableHttpClient httpClient;
   protected TaskDefinition td;
+  private ExecutorService renderExecutor;
+  private final ThreadLocal<MetaBuilder> workerBuilder;
 
   private static final ObjectMapper mapper = new ObjectMapper();
+  private static final int BUFFER_SIZE = 64 * 1024;
 
   static {
     mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -111,6 +124,7 @@ import org.w3c.dom.Document;
     this.connector = connector;
     this.definition = definition;
     this.metaBuilder = metaBuilder;
+    this.workerBuilder = ThreadLocal.withInitial(metaBuilder::newInstance);
   }
 
   @Override
@@ -119,16 +133,26 @@ import org.w3c.dom.Document;
     td = context.getTask().getTaskDefinition();
     CloseableHttpClient http = HttpClientBuilder.create().useSystemProperties().build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      httpClient = http;
+      httpClient = new BotsHttpClient(http, null, definition.getBotsConfig());
     } else {
       Bots bots = BotsUtils.readBots(definition.getBotsConfig(), http, definition.getHostUrl());
-      httpClient = new BotsHttpClient(http, bots);
+      httpClient = new BotsHttpClient(http, bots, definition.getBotsConfig());
+    }
+    if (definition.getRenderThreads() > 1) {
+      renderExecutor = Executors.newFixedThreadPool(definition.getRenderThreads(), r -> {
+        Thread thread = new Thread(r, String.format("dcat-render-%s", definition.getHostUrl().getHost()));
+        thread.setDaemon(true);
+        return thread;
+      });
     }
   }
 
   @Override
   public void terminate() {
     new ArrayList<>(iterators).forEach(DcatIter::close);
+    if (renderExecutor != null) {
+      renderExecutor.shutdownNow();
+    }
 
     if (httpClient != null) {
       try {
@@ -146,10 +170,29 @@ import org.w3c.dom.Document;
 
   @Override
   public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
+    if (definition.getDownloadMode() == DownloadMode.SPOOL) {
+      return spoolIterator();
+    }
+    try {
+      DcatIter iter = new DcatIter(openContent(openStream())) {
+        @Override
+        protected void onClose() {
+          iterators.remove(this);
+        }
+      };
+
+      iterators.add(iter);
+      return iter;
+    } catch (IOException | URISyntaxException ex) {
+      throw new DataInputException(this, String.format("Error reading content of %s", definition.getHostUrl().toExternalForm()), ex);
+    }
+  }
+
+  private Iterator spoolIterator() throws DataInputException {
     final File file = downloadFile(definition.getHostUrl());
     try {
 
-      DcatIter iter = new DcatIter(new FileInputStream(file)) {
+      DcatIter iter = new DcatIter(openContent(new FileInputStream(file))) {
         @Override
         protected void onClose() {
           safeDeleteFile(file);
@@ -165,19 +208,49 @@ import org.w3c.dom.Document;
     }
   }
 
+  private ResumableInputStream openStream() throws IOException, URISyntaxException {
+    return new ResumableInputStream(httpClient, definition.getHostUrl().toURI(), definition.getResumeAttempts());
+  }
+
+  /**
+   * Opens content for parsing, decompressing it if gzipped.
+   * <p>
+   * Compression is detected from the content itself, so both 'Content-Encoding: gzip'
+   * responses and .gz files are handled.
+   * @param input raw input
+   * @return content stream
+   * @throws IOException if error opening content
+   */
+  /*package*/ static InputStream openContent(InputStream input) throws IOException {
+    BufferedInputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+    try {
+      buffered.mark(2);
+      int b1 = buffered.read();
+      int b2 = buffered.read();
+      buffered.reset();
+      if (b1 == (GZIPInputStream.GZIP_MAGIC & 0xFF) && b2 == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+        return new GZIPInputStream(buffered, BUFFER_SIZE);
+      }
+      return buffered;
+    } catch (IOException ex) {
+      buffered.close();
+      throw ex;
+    }
+  }
+
   private File downloadFile(URL fileToDownload) throws DataInputException {
+    File tempFile = null;
     try {
-      File tempFile = File.createTempFile("dcat-", "json");
-      HttpGet request = new HttpGet(fileToDownload.toExternalForm());
+      tempFile = File.createTempFile("dcat-", "json");
       try (
               OutputStream outputStream = new FileOutputStream(tempFile);
-              CloseableHttpResponse response = httpClient.execute(request);
-              InputStream inputStream = response.getEntity().getContent();) {
-        IOUtils.copy(inputStream, outputStream);
+              InputStream inputStream = openStream();) {
+        IOUtils.copy(inputStream, outputStream, BUFFER_SIZE);
       }
       return tempFile;
-    } catch (IOException ex) {
-      throw new DataInputException(this, String.format("Error downloading DCAT file: %s", definition.getHostUrl().toExternalForm()), ex);
+    } catch (IOException | URISyntaxException ex) {
+      safeDeleteFile(tempFile);
+      throw new DataInputException(this, String.format("Error downloading DCAT file: %s", fileToDownload.toExternalForm()), ex);
     }
   }
 
@@ -191,6 +264,90 @@ import org.w3c.dom.Document;
     }
   }
 
+  /**
+   * Renders record into data reference.
+   *
+   * @param r DCAT record
+   * @param builder meta builder
+   * @return data reference
+   * @throws DataInputException if rendering fails
+   */
+  private DataReference render(DcatRecord r, MetaBuilder builder) throws DataInputException {
+    try {
+      SimpleDataReference ref = new SimpleDataReference(
+              DcatBroker.this.getBrokerUri(),
+              definition.getEntityDefinition().getLabel(),
+              r.getIdentifier(),
+              null,
+              URI.create(UriUtils.escapeUri(r.getIdentifier())),
+              td.getSource().getRef(),
+              td.getRef());
+
+      if (definition.getEmitJson()) {
+        try {
+          String json = mapper.writeValueAsString(r);
+          byte[] bytes = json.getBytes("UTF-8");
+          ref.addContext(MimeType.APPLICATION_JSON, bytes);
+        } catch (JsonProcessingException | UnsupportedEncodingException ex) {
+          throw new DataInputException(DcatBroker.this, String.format("Error generating JSON"), ex);
+        }
+      }
+
+      if (definition.getEmitXml()) {
+        try {
+          HashMap<String, Attribute> attributes = new HashMap<>();
+          attributes.put(WKAConstants.WKA_IDENTIFIER, new StringAttribute(r.getIdentifier()));
+          attributes.put(WKAConstants.WKA_TITLE, new StringAttribute(r.getTitle()));
+          attributes.put(WKAConstants.WKA_DESCRIPTION, new StringAttribute(r.getDescription()));
+          attributes.put(WKAConstants.WKA_MODIFIED, new StringAttribute(r.getModified()));
+
+          // collect URL's and types from all available distributions
+          final List<Attribute> references = new ArrayList<>();
+          for (DcatDistribution dist : r.getDistribution()) {
+            String url = StringUtils.trimToNull(StringUtils.defaultIfEmpty(dist.getAccessURL(), dist.getDownloadURL()));
+            if (url != null) {
+              HashMap<String, Attribute> reference = new HashMap<>();
+              MimeType mimeType = MimeType.parse(dist.getFormat());
+              if (mimeType != null) {
+                reference.put(WKAConstants.WKA_RESOURCE_URL, new StringAttribute(url));
+                reference.put(WKAConstants.WKA_RESOURCE_URL_SCHEME, new StringAttribute(generateSchemeName(mimeType)));
+              } else {
+                String schemeName = generateSchemeName(url);
+                if (schemeName != null) {
+                  reference.put(WKAConstants.WKA_RESOURCE_URL, new StringAttribute(url));
+                  reference.put(WKAConstants.WKA_RESOURCE_URL_SCHEME, new StringAttribute(schemeName));
+                }
+              }
+            }
+          }
+
+          // produce attribute(s) depending if there is one or more than one references
+          if (references.size() == 1) {
+            Map<String, Attribute> namedAttributes = references.get(0).getNamedAttributes();
+            attributes.put(WKA_RESOURCE_URL, namedAttributes.get(WKA_RESOURCE_URL));
+            if (namedAttributes.containsKey(WKA_RESOURCE_URL_SCHEME)) {
+              attributes.put(WKA_RESOURCE_URL_SCHEME, namedAttributes.get(WKA_RESOURCE_URL_SCHEME));
+            }
+          } else if (!references.isEmpty()) {
+            attributes.put(WKA_REFERENCES, new ArrayAttribute(references));
+          }
+
+          MapAttribute attrs = new MapAttribute(attributes);
+          Document document = builder.create(attrs);
+          byte[] bytes = XmlUtils.toString(document).getBytes("UTF-8");
+          ref.addContext(MimeType.APPLICATION_XML, bytes);
+
+        } catch (MetaException | TransformerException | UnsupportedEncodingException ex) {
+          throw new DataInputException(DcatBroker.this, String.format("Error generating XML"), ex);
+        }
+      }
+
+      return ref;
+    } catch (URISyntaxException ex) {
+      throw new DataInputException(DcatBroker.this, String.format("Error creating data for %s", r.getIdentifier()), ex);
+    }
+  }
+
   private class DcatIter implements InputBroker.Iterator {
 
     private final InputStream input;
@@ -198,6 +355,11 @@ import org.w3c.dom.Document;
     private DcatParser parser;
     private DcatParserAdaptor adaptor;
     private java.util.Iterator<DcatRecord> iterator;
+    private Exception error;
+    private final ArrayDeque<Future<DataReference>> window = new ArrayDeque<>();
+    private final CompletionService<DataReference> completion = renderExecutor != null? new ExecutorCompletionService<>(renderExecutor): null;
+    private final Set<Future<DataReference>> submitted = new HashSet<>();
+    private int inFlight;
 
     public DcatIter(InputStream input) {
       this.input = input;
@@ -215,16 +377,33 @@ import org.w3c.dom.Document;
       }
 
       if (adaptor == null) {
-        adaptor = new DcatParserAdaptor(parser);
+        adaptor = new DcatParserAdaptor(parser) {
+          @Override
+          protected void onException(Exception ex) {
+            error = ex;
+          }
+        };
       }
 
       if (iterator == null) {
         iterator = adaptor.iterator();
       }
 
-      boolean hasMore = iterator.hasNext();
+      boolean hasMore;
+      if (renderExecutor == null) {
+        hasMore = iterator.hasNext();
+      } else {
+        fillWindow();
+        hasMore = pending() > 0;
+      }
       if (!hasMore) {
         close();
+        if (error != null) {
+          // a broken stream must not look like the end of the catalog
+          Exception ex = error;
+          error = null;
+          throw new DataInputException(DcatBroker.this, String.format("Error parsing DCAT file"), ex);
+        }
       }
 
       return hasMore;
@@ -232,87 +411,72 @@ import org.w3c.dom.Document;
 
     @Override
     public DataReference next() throws DataInputException {
-      DcatRecord r = iterator.next();
+      if (renderExecutor == null) {
+        return render(iterator.next(), metaBuilder);
+      }
+      Future<DataReference> future;
+      if (definition.isRenderOrdered()) {
+        future = window.poll();
+      } else if (inFlight > 0) {
+        try {
+          future = completion.take();
+          submitted.remove(future);
+          inFlight--;
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new DataInputException(DcatBroker.this, "Rendering data interrupted.", ex);
+        }
+      } else {
+        future = null;
+      }
+      if (future == null) {
+        throw new DataInputException(DcatBroker.this, String.format("No more records."));
+      }
       try {
-        SimpleDataReference ref = new SimpleDataReference(
-                DcatBroker.this.getBrokerUri(),
-                definition.getEntityDefinition().getLabel(),
-                r.getIdentifier(),
-                null,
-                URI.create(UriUtils.escapeUri(r.getIdentifier())),
-                td.getSource().getRef(),
-                td.getRef());
-
-        if (definition.getEmitJson()) {
-          try {
-            String json = mapper.writeValueAsString(r);
-            byte[] bytes = json.getBytes("UTF-8");
-            ref.addContext(MimeType.APPLICATION_JSON, bytes);
-          } catch (JsonProcessingException | UnsupportedEncodingException ex) {
-            throw new DataInputException(DcatBroker.this, String.format("Error generating JSON"), ex);
-          }
+        return future.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new DataInputException(DcatBroker.this, "Rendering data interrupted.", ex);
+      } catch (ExecutionException ex) {
+        if (ex.getCause() instanceof DataInputException) {
+          throw (DataInputException)ex.getCause();
         }
+        throw new DataInputException(DcatBroker.this, "Error rendering data.", ex.getCause());
+      }
+    }
 
-        if (definition.getEmitXml()) {
-          try {
-            HashMap<String, Attribute> attributes = new HashMap<>();
-            attributes.put(WKAConstants.WKA_IDENTIFIER, new StringAttribute(r.getIdentifier()));
-            attributes.put(WKAConstants.WKA_TITLE, new StringAttribute(r.getTitle()));
-            attributes.put(WKAConstants.WKA_DESCRIPTION, new StringAttribute(r.getDescription()));
-            attributes.put(WKAConstants.WKA_MODIFIED, new StringAttribute(r.getModified()));
-
-            // collect URL's and types from all available distributions
-            final List<Attribute> references = new ArrayList<>();
-            for (DcatDistribution dist : r.getDistribution()) {
-              String url = StringUtils.trimToNull(StringUtils.defaultIfEmpty(dist.getAccessURL(), dist.getDownloadURL()));
-              if (url != null) {
-                HashMap<String, Attribute> reference = new HashMap<>();
-                MimeType mimeType = MimeType.parse(dist.getFormat());
-                if (mimeType != null) {
-                  reference.put(WKAConstants.WKA_RESOURCE_URL, new StringAttribute(url));
-                  reference.put(WKAConstants.WKA_RESOURCE_URL_SCHEME, new StringAttribute(generateSchemeName(mimeType)));
-                } else {
-                  String schemeName = generateSchemeName(url);
-                  if (schemeName != null) {
-                    reference.put(WKAConstants.WKA_RESOURCE_URL, new StringAttribute(url));
-                    reference.put(WKAConstants.WKA_RESOURCE_URL_SCHEME, new StringAttribute(schemeName));
-                  }
-                }
-              }
-            }
-
-            // produce attribute(s) depending if there is one or more than one references
-            if (references.size() == 1) {
-              Map<String, Attribute> namedAttributes = references.get(0).getNamedAttributes();
-              attributes.put(WKA_RESOURCE_URL, namedAttributes.get(WKA_RESOURCE_URL));
-              if (namedAttributes.containsKey(WKA_RESOURCE_URL_SCHEME)) {
-                attributes.put(WKA_RESOURCE_URL_SCHEME, namedAttributes.get(WKA_RESOURCE_URL_SCHEME));
-              }
-            } else if (!references.isEmpty()) {
-              attributes.put(WKA_REFERENCES, new ArrayAttribute(references));
-            }
-
-            MapAttribute attrs = new MapAttribute(attributes);
-            Document document = metaBuilder.create(attrs);
-            byte[] bytes = XmlUtils.toString(document).getBytes("UTF-8");
-            ref.addContext(MimeType.APPLICATION_XML, bytes);
-
-          } catch (MetaException | TransformerException | UnsupportedEncodingException ex) {
-            throw new DataInputException(DcatBroker.this, String.format("Error generating XML"), ex);
-          }
+    /**
+     * Submits parsed records for rendering until the window is full; parsing
+     * itself stays on the harvesting thread.
+     */
+    private void fillWindow() {
+      int windowSize = 2 * definition.getRenderThreads();
+      while (pending() < windowSize && iterator.hasNext()) {
+        DcatRecord r = iterator.next();
+        Callable<DataReference> task = () -> render(r, workerBuilder.get());
+        if (definition.isRenderOrdered()) {
+          window.add(renderExecutor.submit(task));
+        } else {
+          submitted.add(completion.submit(task));
+          inFlight++;
         }
-
-        return ref;
-      } catch (URISyntaxException ex) {
-        throw new DataInputException(DcatBroker.this, String.format("Error creating data for %s", r.getIdentifier()), ex);
       }
     }
 
+    private int pending() {
+      return definition.isRenderOrdered()? window.size(): inFlight;
+    }
+
     protected void onClose() {
       // called upon closing iterator
     }
 
     private void close() {
+      window.forEach(future -> future.cancel(true));
+      window.clear();
+      submitted.forEach(future -> future.cancel(true));
+      submitted.clear();
+      inFlight = 0;
       adaptor = null;
       parser = null;
       if (input != null) {
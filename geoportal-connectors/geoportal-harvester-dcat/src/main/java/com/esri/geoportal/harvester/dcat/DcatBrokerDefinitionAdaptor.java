@@ -26,6 +26,7 @@ import java.net.URL;
 import java.util.Map;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * DCAT broker definition adaptor.
@@ -36,6 +37,10 @@ public class DcatBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
   private URL hostUrl;
   private boolean emitXml = true;
   private boolean emitJson = false;
+  private DownloadMode downloadMode = DownloadMode.STREAM;
+  private int resumeAttempts = DEFAULT_RESUME_ATTEMPTS;
+  private int renderThreads = DEFAULT_RENDER_THREADS;
+  private boolean renderOrdered = true;
 
 
   /**
@@ -68,6 +73,10 @@ public class DcatBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
   protected void initialize(EntityDefinition def) throws InvalidDefinitionException {
     emitXml = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_XML)), true);
     emitJson = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_JSON)), false);
+    downloadMode = DownloadMode.parse(get(P_DOWNLOAD_MODE), DownloadMode.STREAM);
+    resumeAttempts = Math.max(0, NumberUtils.toInt(get(P_RESUME_ATTEMPTS), DEFAULT_RESUME_ATTEMPTS));
+    renderThreads = Math.max(1, NumberUtils.toInt(get(P_RENDER_THREADS), DEFAULT_RENDER_THREADS));
+    renderOrdered = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_RENDER_ORDERED)), true);
     
     try {
       hostUrl = new URL(get(P_HOST_URL));
@@ -81,6 +90,10 @@ public class DcatBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     consume(params,P_HOST_URL);
     consume(params,P_EMIT_XML);
     consume(params,P_EMIT_JSON);
+    consume(params,P_DOWNLOAD_MODE);
+    consume(params,P_RESUME_ATTEMPTS);
+    consume(params,P_RENDER_THREADS);
+    consume(params,P_RENDER_ORDERED);
     botsAdaptor.override(params);
   }
   
@@ -126,5 +139,73 @@ public class DcatBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     this.emitJson = emitJson;
     set(P_EMIT_JSON, BooleanUtils.toStringTrueFalse(emitJson));
   }
+
+  /**
+   * Gets download mode.
+   * @return download mode
+   */
+  public DownloadMode getDownloadMode() {
+    return downloadMode;
+  }
+
+  /**
+   * Sets download mode.
+   * @param downloadMode download mode
+   */
+  public void setDownloadMode(DownloadMode downloadMode) {
+    this.downloadMode = downloadMode;
+    set(P_DOWNLOAD_MODE, downloadMode.name());
+  }
+
+  /**
+   * Gets resume attempts.
+   * @return maximum number of attempts to resume interrupted transfer
+   */
+  public int getResumeAttempts() {
+    return resumeAttempts;
+  }
+
+  /**
+   * Sets resume attempts.
+   * @param resumeAttempts maximum number of attempts to resume interrupted transfer
+   */
+  public void setResumeAttempts(int resumeAttempts) {
+    this.resumeAttempts = resumeAttempts;
+    set(P_RESUME_ATTEMPTS, Integer.toString(resumeAttempts));
+  }
+
+  /**
+   * Gets render threads.
+   * @return number of threads rendering records
+   */
+  public int getRenderThreads() {
+    return renderThreads;
+  }
+
+  /**
+   * Sets render threads.
+   * @param renderThreads number of threads rendering records
+   */
+  public void setRenderThreads(int renderThreads) {
+    this.renderThreads = renderThreads;
+    set(P_RENDER_THREADS, Integer.toString(renderThreads));
+  }
+
+  /**
+   * Checks if rendered records are emitted in the catalog order.
+   * @return <code>true</code> if rendered records are emitted in the catalog order
+   */
+  public boolean isRenderOrdered() {
+    return renderOrdered;
+  }
+
+  /**
+   * Sets if rendered records are emitted in the catalog order.
+   * @param renderOrdered <code>true</code> to emit rendered records in the catalog order
+   */
+  public void setRenderOrdered(boolean renderOrdered) {
+    this.renderOrdered = renderOrdered;
+    set(P_RENDER_ORDERED, BooleanUtils.toStringTrueFalse(renderOrdered));
+  }
   
 }
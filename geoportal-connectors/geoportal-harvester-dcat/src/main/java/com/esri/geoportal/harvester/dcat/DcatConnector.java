@@ -19,10 +19,12 @@ import static com.esri.geoportal.harvester.dcat.DcatConstants.*;
 import com.esri.geoportal.commons.meta.MetaBuilder;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.defs.UITemplate.Choice;
 import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -61,6 +63,25 @@ public class DcatConnector implements InputConnector<InputBroker> {
     });
     args.add(new UITemplate.BooleanArgument(P_EMIT_XML, bundle.getString("dcat.emit.xml"),false, Boolean.TRUE));
     args.add(new UITemplate.BooleanArgument(P_EMIT_JSON, bundle.getString("dcat.emit.json"),false, Boolean.TRUE));
+    Choice[] modes = Arrays.stream(DownloadMode.values()).map(m -> new Choice<String>(m.name(), bundle.getString(String.format("dcat.download.mode.%s", m)))).toArray(Choice[]::new);
+    args.add(new UITemplate.ChoiceArgument(P_DOWNLOAD_MODE, bundle.getString("dcat.download.mode"), Arrays.asList(modes)){
+      public String getDefault() {
+        return DownloadMode.STREAM.name();
+      }
+    });
+    args.add(new UITemplate.IntegerArgument(P_RESUME_ATTEMPTS, bundle.getString("dcat.resume.attempts"), false, DEFAULT_RESUME_ATTEMPTS){
+      @Override
+      public String getHint() {
+        return bundle.getString("dcat.resume.attempts.hint");
+      }
+    });
+    args.add(new UITemplate.IntegerArgument(P_RENDER_THREADS, bundle.getString("dcat.render.threads"), false, DEFAULT_RENDER_THREADS){
+      @Override
+      public String getHint() {
+        return bundle.getString("dcat.render.threads.hint");
+      }
+    });
+    args.add(new UITemplate.BooleanArgument(P_RENDER_ORDERED, bundle.getString("dcat.render.ordered"), false, Boolean.TRUE));
     return new UITemplate(getType(), bundle.getString("dcat"), args);
   }
 
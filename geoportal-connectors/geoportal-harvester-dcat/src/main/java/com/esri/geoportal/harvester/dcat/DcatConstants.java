@@ -22,4 +22,11 @@ package com.esri.geoportal.harvester.dcat;
   public static final String P_HOST_URL  = "dcat-host-url";
   public static final String P_EMIT_XML  = "dcat-emit-xml";
   public static final String P_EMIT_JSON = "dcat-emit-json";
+  public static final String P_DOWNLOAD_MODE = "dcat-download-mode";
+  public static final String P_RESUME_ATTEMPTS = "dcat-resume-attempts";
+  public static final String P_RENDER_THREADS = "dcat-render-threads";
+  public static final String P_RENDER_ORDERED = "dcat-render-ordered";
+  
+  public static final int DEFAULT_RESUME_ATTEMPTS = 3;
+  public static final int DEFAULT_RENDER_THREADS = 1;
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.dcat;
+
+import java.util.Arrays;
+
+/**
+ * Download mode.
+ */
+/*package*/ enum DownloadMode {
+  /**
+   * DCAT file parsed directly from the HTTP response as it arrives.
+   */
+  STREAM,
+  /**
+   * DCAT file downloaded into a temporary file first, then parsed; meant for
+   * servers dropping long-lived connections.
+   */
+  SPOOL;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+
+  /**
+   * Parses download mode.
+   * @param mode mode name
+   * @param def default mode
+   * @return mode
+   */
+  public static DownloadMode parse(String mode, DownloadMode def) {
+    return Arrays.stream(DownloadMode.values()).filter(m -> m.name().equalsIgnoreCase(mode)).findFirst().orElse(def);
+  }
+}
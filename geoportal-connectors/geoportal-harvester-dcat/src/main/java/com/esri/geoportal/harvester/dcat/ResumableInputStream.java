@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.dcat;
+
+import static com.esri.geoportal.commons.utils.Constants.DEFAULT_REQUEST_CONFIG;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resumable HTTP input stream.
+ * <p>
+ * Reads content of the HTTP resource; if the connection fails in the middle of
+ * the transfer, the request is repeated with the <i>Range</i> header asking 
+ * for the remaining bytes only. Resuming is attempted only if the server 
+ * honors range requests for the very same representation (checked with 
+ * <i>If-Range</i> and <i>Content-Range</i>); otherwise the original error is
+ * thrown.
+ * <p>
+ * Content is read as sent over the wire (no transparent decompression) so
+ * byte offsets of the subsequent range requests are valid.
+ */
+/*package*/ class ResumableInputStream extends InputStream {
+  private static final Logger LOG = LoggerFactory.getLogger(ResumableInputStream.class);
+  private static final RequestConfig REQUEST_CONFIG = RequestConfig.copy(DEFAULT_REQUEST_CONFIG).setContentCompressionEnabled(false).build();
+  
+  private final CloseableHttpClient httpClient;
+  private final URI uri;
+  private final int maxAttempts;
+  
+  private HttpGet request;
+  private CloseableHttpResponse response;
+  private InputStream content;
+  
+  private long position;
+  private int attempts;
+  private String validator;
+  private String contentEncoding;
+  private boolean resumable;
+  private volatile boolean closed;
+
+  /**
+   * Creates instance of the stream.
+   * @param httpClient HTTP client
+   * @param uri resource URI
+   * @param maxAttempts maximum number of resume attempts
+   * @throws IOException if error opening stream
+   */
+  public ResumableInputStream(CloseableHttpClient httpClient, URI uri, int maxAttempts) throws IOException {
+    this.httpClient = httpClient;
+    this.uri = uri;
+    this.maxAttempts = maxAttempts;
+    open();
+  }
+  
+  @Override
+  public int read() throws IOException {
+    byte [] b = new byte[1];
+    int n = read(b, 0, 1);
+    return n>0? b[0] & 0xFF: -1;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    while (true) {
+      if (closed) {
+        throw new IOException(String.format("Stream closed: %s", uri));
+      }
+      try {
+        int n = content.read(b, off, len);
+        if (n > 0) {
+          position += n;
+        }
+        return n;
+      } catch (IOException ex) {
+        if (closed || Thread.currentThread().isInterrupted() || !resumable || attempts >= maxAttempts) {
+          throw ex;
+        }
+        attempts++;
+        LOG.warn(String.format("Error reading %s at byte %d; resuming (attempt %d of %d).", uri, position, attempts, maxAttempts), ex);
+        release();
+        try {
+          open();
+        } catch (IOException rex) {
+          ex.addSuppressed(rex);
+          throw ex;
+        }
+      }
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    return content != null? content.available(): 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    release();
+  }
+  
+  /**
+   * Opens connection starting at the current position.
+   * @throws IOException if error opening connection or the server can not
+   * resume the transfer
+   */
+  private void open() throws IOException {
+    request = new HttpGet(uri);
+    request.setConfig(REQUEST_CONFIG);
+    request.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    if (position > 0) {
+      request.setHeader(HttpHeaders.RANGE, String.format("bytes=%d-", position));
+      request.setHeader(HttpHeaders.IF_RANGE, validator);
+    }
+    
+    response = httpClient.execute(request);
+    int statusCode = response.getStatusLine().getStatusCode();
+    if (statusCode >= 400) {
+      String reasonPhrase = response.getStatusLine().getReasonPhrase();
+      release();
+      throw new HttpResponseException(statusCode, reasonPhrase);
+    }
+    
+    String encoding = headerValue(HttpHeaders.CONTENT_ENCODING);
+    if (position > 0) {
+      String contentRange = headerValue(HttpHeaders.CONTENT_RANGE);
+      boolean match = statusCode == HttpStatus.SC_PARTIAL_CONTENT
+              && contentRange != null && contentRange.startsWith(String.format("bytes %d-", position))
+              && (encoding != null? encoding.equalsIgnoreCase(contentEncoding): contentEncoding == null);
+      if (!match) {
+        release();
+        throw new IOException(String.format("Server refused to resume transfer of %s at byte %d.", uri, position));
+      }
+    } else {
+      contentEncoding = encoding;
+      validator = headerValue(HttpHeaders.ETAG);
+      if (validator == null || validator.startsWith("W/")) {
+        validator = headerValue(HttpHeaders.LAST_MODIFIED);
+      }
+      resumable = validator != null && !"none".equalsIgnoreCase(headerValue(HttpHeaders.ACCEPT_RANGES));
+    }
+    
+    content = response.getEntity() != null? response.getEntity().getContent(): null;
+    if (content == null) {
+      release();
+      throw new IOException(String.format("No content received from %s", uri));
+    }
+  }
+  
+  private String headerValue(String name) {
+    Header header = response.getFirstHeader(name);
+    return header != null? header.getValue(): null;
+  }
+  
+  /**
+   * Releases current connection without consuming the remaining content.
+   */
+  private void release() {
+    if (request != null) {
+      request.abort();
+    }
+    if (response != null) {
+      try {
+        response.close();
+      } catch (IOException ex) {
+        LOG.debug(String.format("Error closing response from %s", uri), ex);
+      }
+    }
+    request = null;
+    response = null;
+    content = null;
+  }
+}
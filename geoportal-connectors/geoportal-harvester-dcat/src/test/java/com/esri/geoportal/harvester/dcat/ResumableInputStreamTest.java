@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.dcat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Resumable input stream test.
+ */
+public class ResumableInputStreamTest {
+  private static final String ETAG = "\"v1\"";
+  
+  private HttpServer server;
+  private CloseableHttpClient httpClient;
+  private URI uri;
+  
+  private byte[] body;
+  private String contentEncoding;
+  private String etag;
+  private boolean honorRange;
+  private int failAt;
+  private final List<String> ranges = new ArrayList<>();
+  private final List<String> ifRanges = new ArrayList<>();
+  
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/data.json", this::handle);
+    server.start();
+    uri = URI.create(String.format("http://localhost:%d/data.json", server.getAddress().getPort()));
+    httpClient = HttpClients.createDefault();
+    
+    body = createJson().getBytes(StandardCharsets.UTF_8);
+    etag = ETAG;
+    honorRange = true;
+    failAt = body.length / 2;
+  }
+  
+  @After
+  public void tearDown() throws Exception {
+    httpClient.close();
+    server.stop(0);
+  }
+  
+  @Test
+  public void testResume() throws Exception {
+    try (InputStream input = new ResumableInputStream(httpClient, uri, 3)) {
+      assertArrayEquals("Invalid content", body, IOUtils.toByteArray(input));
+    }
+    assertEquals("Invalid number of requests", 2, ranges.size());
+    assertNull("Range requested by the first request", ranges.get(0));
+    assertEquals("Invalid range", String.format("bytes=%d-", failAt), ranges.get(1));
+    assertEquals("Invalid If-Range", ETAG, ifRanges.get(1));
+  }
+  
+  @Test
+  public void testNoResumeWithoutValidator() throws Exception {
+    etag = null;
+    try (InputStream input = new ResumableInputStream(httpClient, uri, 3)) {
+      IOUtils.toByteArray(input);
+      fail("Transfer resumed without validator");
+    } catch (IOException ex) {
+      assertEquals("Invalid number of requests", 1, ranges.size());
+    }
+  }
+  
+  @Test
+  public void testResumeRefused() throws Exception {
+    honorRange = false;
+    try (InputStream input = new ResumableInputStream(httpClient, uri, 3)) {
+      IOUtils.toByteArray(input);
+      fail("Full representation accepted as the remaining content");
+    } catch (IOException ex) {
+      assertEquals("Invalid number of requests", 2, ranges.size());
+    }
+  }
+  
+  @Test
+  public void testGzip() throws Exception {
+    byte[] json = body;
+    body = gzip(json);
+    contentEncoding = "gzip";
+    failAt = body.length / 2;
+    try (InputStream input = DcatBroker.openContent(new ResumableInputStream(httpClient, uri, 3))) {
+      assertArrayEquals("Invalid decompressed content", json, IOUtils.toByteArray(input));
+    }
+    assertEquals("Invalid number of requests", 2, ranges.size());
+  }
+  
+  @Test
+  public void testPlainContent() throws Exception {
+    failAt = -1;
+    try (InputStream input = DcatBroker.openContent(new ResumableInputStream(httpClient, uri, 3))) {
+      assertArrayEquals("Invalid content", body, IOUtils.toByteArray(input));
+    }
+  }
+  
+  /**
+   * Serves the body; the first response breaks after {@link #failAt} bytes.
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    ranges.add(range);
+    ifRanges.add(exchange.getRequestHeaders().getFirst("If-Range"));
+    
+    if (etag != null) {
+      exchange.getResponseHeaders().add("ETag", etag);
+    }
+    if (contentEncoding != null) {
+      exchange.getResponseHeaders().add("Content-Encoding", contentEncoding);
+    }
+    exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+    
+    int start = 0;
+    if (range != null && honorRange && etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+      start = Integer.parseInt(range.replaceAll("^bytes=(\\d+)-$", "$1"));
+      exchange.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", start, body.length - 1, body.length));
+      exchange.sendResponseHeaders(206, body.length - start);
+    } else {
+      exchange.sendResponseHeaders(200, body.length);
+    }
+    
+    OutputStream out = exchange.getResponseBody();
+    if (ranges.size() == 1 && failAt >= 0) {
+      // breaks the connection in the middle of the transfer
+      out.write(body, 0, failAt);
+      out.flush();
+      exchange.close();
+      return;
+    }
+    out.write(body, start, body.length - start);
+    out.close();
+  }
+  
+  private static String createJson() {
+    StringBuilder sb = new StringBuilder("{\"dataset\": [");
+    for (int i=0; i<1000; i++) {
+      sb.append(i > 0? ",": "").append(String.format("{\"identifier\": \"id-%d\", \"title\": \"Dataset %d\"}", i, i));
+    }
+    return sb.append("]}").toString();
+  }
+  
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+      out.write(data);
+    }
+    return buffer.toByteArray();
+  }
+}
@@ -38,9 +38,9 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static com.esri.geoportal.harvester.folderbig.PathUtil.splitPath;
@@ -53,7 +53,7 @@ import static com.esri.geoportal.harvester.folderbig.PathUtil.splitPath;
   private final static Logger LOG = LoggerFactory.getLogger(FolderBroker.class);
   private final FolderConnector connector;
   private final FolderBrokerDefinitionAdaptor definition;
-  private final Set<String> existing = new HashSet<>();
+  private final Set<String> existing = ConcurrentHashMap.newKeySet();
   private volatile boolean preventCleanup;
   private volatile boolean splitFolders = true;
   private volatile Integer splitSize = 1000;
@@ -189,12 +189,7 @@ import static com.esri.geoportal.harvester.folderbig.PathUtil.splitPath;
         folderName = Paths.get(folderName.toString(), sf);
       }
       if (definition.getSplitFolders()) {
-
-        LargeDataSetDirectoryAssigner assigner =
-                LargeDataSetDirectoryAssigner.getInstance(folderName.toAbsolutePath().toString(), definition.getSplitSize(), resetCount );
-        folderName = assigner.getNextDirPath().toPath();
-        resetCount = false;
-
+        folderName = assignDirectory(folderName, id);
       }
       folderName =Paths.get(folderName.toString(), subFolder.get(subFolder.size() - 1));
       if (!folderName.getFileName().toString().contains(".")) {
@@ -202,17 +197,34 @@ import static com.esri.geoportal.harvester.folderbig.PathUtil.splitPath;
       }
     } else {
       if (definition.getSplitFolders()) {
-
-        LargeDataSetDirectoryAssigner assigner =
-                LargeDataSetDirectoryAssigner.getInstance(folderName.toAbsolutePath().toString(), definition.getSplitSize(), resetCount);
-        folderName = assigner.getNextDirPath().toPath();
-        resetCount = false;
+        folderName = assignDirectory(folderName, id);
       }
       folderName = Paths.get(folderName.toString(), id + "." + extension);
     }
 
     return folderName;
   }
+  
+  /**
+   * Assigns split directory according to the folder layout.
+   * @param folderName parent folder
+   * @param id sanitized record id
+   * @return split directory
+   */
+  private Path assignDirectory(Path folderName, String id) {
+    if (definition.getLayout() == FolderLayout.SHARDED) {
+      return ShardedDirectoryAssigner.assign(folderName, id);
+    }
+    LargeDataSetDirectoryAssigner assigner;
+    synchronized (this) {
+      assigner = LargeDataSetDirectoryAssigner.getInstance(folderName.toAbsolutePath().toString(), definition.getSplitSize(), resetCount);
+      resetCount = false;
+    }
+    // the assigner is shared by every broker writing to the same root folder
+    synchronized (assigner) {
+      return assigner.getNextDirPath().toPath();
+    }
+  }
 
   @Override
   public EntityDefinition getEntityDefinition() {
@@ -34,6 +34,7 @@ import static com.esri.geoportal.harvester.folderbig.FolderConstants.*;
   private boolean cleanup;
   private boolean splitFolders;
   private Integer splitSize = 200;
+  private FolderLayout layout = FolderLayout.SEQUENTIAL;
 
   /**
    * Creates instance of the adaptor.
@@ -59,6 +60,7 @@ import static com.esri.geoportal.harvester.folderbig.FolderConstants.*;
       }
       cleanup  = Boolean.parseBoolean(get(P_FOLDER_CLEANUP));
       splitFolders = Boolean.parseBoolean(get(P_FOLDER_SPLIT_FOLDERS));
+      layout = FolderLayout.parse(get(P_FOLDER_LAYOUT), FolderLayout.SEQUENTIAL);
     }
   }
 
@@ -68,6 +70,7 @@ import static com.esri.geoportal.harvester.folderbig.FolderConstants.*;
     consume(params,P_FOLDER_CLEANUP);
     consume(params,P_FOLDER_SPLIT_SIZE);
     consume(params,P_FOLDER_SPLIT_FOLDERS);
+    consume(params,P_FOLDER_LAYOUT);
   }
 
   /**
@@ -133,4 +136,21 @@ import static com.esri.geoportal.harvester.folderbig.FolderConstants.*;
   public void setSplitFolders(boolean splitFolders) {
     this.splitFolders = splitFolders;
   }
+
+  /**
+   * Gets folder layout used when splitting into folders.
+   * @return folder layout
+   */
+  public FolderLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Sets folder layout used when splitting into folders.
+   * @param layout folder layout
+   */
+  public void setLayout(FolderLayout layout) {
+    this.layout = layout;
+    set(P_FOLDER_LAYOUT, (layout != null ? layout : FolderLayout.SEQUENTIAL).toString());
+  }
 }
@@ -17,11 +17,13 @@ package com.esri.geoportal.harvester.folderbig;
 
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.defs.UITemplate.Choice;
 import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.specs.OutputBroker;
 import com.esri.geoportal.harvester.api.specs.OutputConnector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -51,6 +53,12 @@ public class FolderConnector implements OutputConnector<OutputBroker> {
     });
     arguments.add(new UITemplate.BooleanArgument(P_FOLDER_SPLIT_FOLDERS, bundle.getString("folder.splitFolders")));
     arguments.add(new UITemplate.StringArgument(P_FOLDER_SPLIT_SIZE, bundle.getString("folder.splitSize")));
+    Choice[] choices = Arrays.stream(FolderLayout.values()).map(l -> new Choice<String>(l.name(), bundle.getString(String.format("folder.layout.%s", l.name().toLowerCase())))).toArray(Choice[]::new);
+    arguments.add(new UITemplate.ChoiceArgument(P_FOLDER_LAYOUT, bundle.getString("folder.layout"), Arrays.asList(choices)){
+      public String getDefault() {
+        return FolderLayout.SEQUENTIAL.name();
+      }
+    });
     arguments.add(new UITemplate.BooleanArgument(P_FOLDER_CLEANUP, bundle.getString("folder.cleanup")));
     return new UITemplate(getType(), bundle.getString("folder"), arguments);
   }
@@ -23,4 +23,5 @@ package com.esri.geoportal.harvester.folderbig;
   public static final String P_FOLDER_CLEANUP = "folder-cleanup";
   public static final String P_FOLDER_SPLIT_SIZE = "folder-split-size";
   public static final String P_FOLDER_SPLIT_FOLDERS = "folder-split-folders";
+  public static final String P_FOLDER_LAYOUT = "folder-layout";
 }
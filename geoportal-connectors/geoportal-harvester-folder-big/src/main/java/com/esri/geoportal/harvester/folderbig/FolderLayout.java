@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.folderbig;
+
+import java.util.Arrays;
+
+/**
+ * Folder layout.
+ */
+/*package*/ enum FolderLayout {
+  /**
+   * Sequentially numbered sub folders of a limited size.
+   */
+  SEQUENTIAL,
+  /**
+   * Two-level sub folders selected by the hash of the record id.
+   */
+  SHARDED;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+
+  /**
+   * Parses layout.
+   * @param layout layout name
+   * @param def default layout
+   * @return layout
+   */
+  public static FolderLayout parse(String layout, FolderLayout def) {
+    return Arrays.stream(FolderLayout.values()).filter(l -> l.name().equalsIgnoreCase(layout)).findFirst().orElse(def);
+  }
+}
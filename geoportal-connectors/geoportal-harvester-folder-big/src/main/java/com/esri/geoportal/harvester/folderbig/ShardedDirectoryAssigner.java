@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.folderbig;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Sharded directory assigner.
+ * <p>
+ * Selects a two-level sub folder (i.e. <code>3f/a2</code>) from the MD5 hash
+ * of the record id. The assignment is stateless, thus it is safe for concurrent
+ * publishing, and it is stable across the runs, thus updated record always lands
+ * in the same folder. Hash distribution keeps folders balanced without counting
+ * files.
+ */
+/*package*/ final class ShardedDirectoryAssigner {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("MD5 algorithm not available.", ex);
+    }
+  });
+
+  private ShardedDirectoryAssigner() {
+  }
+
+  /**
+   * Assigns directory for the record.
+   * @param rootDir root directory
+   * @param id record id
+   * @return directory path
+   */
+  public static Path assign(Path rootDir, String id) {
+    byte[] hash = DIGEST.get().digest(id.getBytes(StandardCharsets.UTF_8));
+    return rootDir.resolve(toHex(hash[0])).resolve(toHex(hash[1]));
+  }
+
+  private static String toHex(byte b) {
+    return new String(new char[]{HEX[(b >> 4) & 0x0F], HEX[b & 0x0F]});
+  }
+}
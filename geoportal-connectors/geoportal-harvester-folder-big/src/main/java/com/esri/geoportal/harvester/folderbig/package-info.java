@@ -22,6 +22,12 @@
  * create sub folder structure based on the information about source host and
  * source URI.
  * <p>
+ * When splitting into folders, <code>folder-layout</code> selects how sub
+ * folders are assigned: <code>sequential</code> (default) fills numbered folders
+ * up to the split size, while <code>sharded</code> derives a two-level folder
+ * from the hash of the record id, which is safe for concurrent publishing and
+ * stable across harvests.
+ * <p>
  * Example of the JSON FOLDER definition is below:
  * <pre><code>
  
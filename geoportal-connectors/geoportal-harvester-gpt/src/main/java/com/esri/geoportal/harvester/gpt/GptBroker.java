@@ -23,18 +23,23 @@ import java.net.URISyntaxException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.esri.geoportal.commons.constants.MimeType;
 import com.esri.geoportal.commons.doc.DocUtils;
 import com.esri.geoportal.commons.gpt.client.Client;
+import com.esri.geoportal.commons.gpt.client.PublishItem;
 import com.esri.geoportal.commons.gpt.client.PublishRequest;
 import com.esri.geoportal.commons.gpt.client.PublishResponse;
 import com.esri.geoportal.commons.pdf.PdfUtils;
@@ -49,6 +54,7 @@ import com.esri.geoportal.harvester.api.specs.OutputBroker;
 import com.esri.geoportal.harvester.api.specs.OutputConnector;
 import java.util.Arrays;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * GPT broker.
@@ -58,9 +64,14 @@ import java.util.stream.Collectors;
   private final static Logger LOG = LoggerFactory.getLogger(GptBroker.class);
   private final static DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
   private final static String SBOM = generateSBOM();
+  private final static int CLEANUP_PROGRESS_INTERVAL = 1000;
+  private final static int MIN_CONNECTIONS = 5;
   private final GptConnector connector;
   private final GptBrokerDefinitionAdaptor definition;
   private final Set<String> existing = new HashSet<>();
+  private final List<PublishItem> pending = new ArrayList<>();
+  private final List<String> pendingIds = new ArrayList<>();
+  private InitContext context;
   private Client client;
   private volatile boolean preventCleanup;
   private final String geometryServiceUrl;
@@ -90,8 +101,14 @@ import java.util.stream.Collectors;
   @Override
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
+    this.context = context;
     try {
-      client = new Client(definition.getHostUrl(), definition.getCredentials(), definition.getIndex());
+      int maxConnections = Math.max(MIN_CONNECTIONS, definition.getCleanupThreads());
+      CloseableHttpClient httpClient = HttpClientBuilder.create().useSystemProperties()
+              .setMaxConnPerRoute(maxConnections)
+              .setMaxConnTotal(2 * maxConnections)
+              .build();
+      client = new Client(httpClient, definition.getHostUrl(), definition.getCredentials(), definition.getIndex());
 
       if (!context.canCleanup()) {
         preventCleanup = true;
@@ -116,13 +133,30 @@ import java.util.stream.Collectors;
   @Override
   public void terminate() {
     try {
-      if (client != null && definition.getCleanup() && !preventCleanup) {
-        for (String id : existing) {
-          client.delete(id);
+      if (client != null && !pending.isEmpty()) {
+        try {
+          flush();
+        } catch (DataOutputException ex) {
+          preventCleanup = true;
+          LOG.error(String.format("Error publishing remaining records."), ex);
+          context.reportError(ex);
         }
-        LOG.info(String.format("%d records has been removed during cleanup.", existing.size()));
       }
-    } catch (URISyntaxException | IOException ex) {
+      if (client != null && definition.getCleanup() && !preventCleanup) {
+        int total = existing.size();
+        AtomicLong processed = new AtomicLong();
+        long deleted = client.delete(existing, definition.getCleanupThreads(), response -> {
+          long count = processed.incrementAndGet();
+          if (response.getError() != null) {
+            LOG.warn(String.format("Error removing record: %s, %s", response.getId(), response.getError().getMessage()));
+          }
+          if (count % CLEANUP_PROGRESS_INTERVAL == 0) {
+            LOG.info(String.format("Cleanup progress: %d of %d records processed.", count, total));
+          }
+        });
+        LOG.info(String.format("%d records has been removed during cleanup.", deleted));
+      }
+    } catch (IOException ex) {
       LOG.error(String.format("Error terminating broker."), ex);
     } finally {
       try {
@@ -138,66 +172,15 @@ import java.util.stream.Collectors;
   @Override
   public PublishingStatus publish(DataReference ref) throws DataOutputException {
     try {
-      Object ownerObj = ref.getAttributesMap().get("owner");
-      String owner = ownerObj instanceof String ? (String) ownerObj : null;
-
-      Object uuidObj = ref.getAttributesMap().get("uuid");
-      String uuid = uuidObj instanceof UUID ? ((UUID) uuidObj).toString().replaceAll("[\\{\\}-]", "") : null;
-
-      PublishRequest data = new PublishRequest();
-      data.src_source_type_s = ref.getBrokerUri().getScheme();
-      data.src_source_uri_s = ref.getBrokerUri().toASCIIString();
-      data.src_source_name_s = ref.getBrokerName();
-      data.src_uri_s = ref.getSourceUri().toASCIIString();
-      data.src_lastupdate_dt = ref.getLastModifiedDate() != null ? fromatDate(ref.getLastModifiedDate()) : null;
-      data.sys_owner_s = owner;
-      data.sys_owner_txt = owner;
-      data.src_source_ref_s = ref.getInputBrokerRef()!=null? ref.getInputBrokerRef().replaceAll("-", ""): null;
-      data.src_task_ref_s = ref.getTaskRef()!=null? ref.getTaskRef().replaceAll("-", ""): null;
-      data.app_editor_s = definition.isEditable()? "gxe": null;
-
-      String xml = null;
-      if (definition.getAcceptXml()) {
-    	  
-        byte[] content    = null;
-        
-        if (ref.getContent(MimeType.APPLICATION_PDF) != null && definition.isTranslatePdf()) {
-        	content = PdfUtils.generateMetadataXML(ref.getContent(MimeType.APPLICATION_PDF), ref.getSourceUri().getPath(), ref.getSourceUri().toASCIIString(), geometryServiceUrl); 
-        
-        } else if (ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML) != null) {        	
-        	content = ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML);
-          
-        } else {       
-            final MimeType [] toBeSkipped = new MimeType[]{MimeType.APPLICATION_PDF, MimeType.APPLICATION_XML, MimeType.TEXT_XML, MimeType.APPLICATION_JSON};
-            Set <MimeType> types      = ref.getContentType().stream()
-                    .filter(t->!Arrays.stream(toBeSkipped).anyMatch(s->s==t))
-                    .collect(Collectors.toSet());
-            if (!types.isEmpty()) {
-              byte[]         rawContent = ref.getContent(types.toArray(new MimeType[types.size()]));
-              content = rawContent!=null ? DocUtils.generateMetadataXML(rawContent, new File(ref.getId()).getName()) : null;
-            }
-        }
-
-        if (content != null) {
-          xml = new String(content, "UTF-8");
-          if (xml.startsWith(SBOM)) {
-            xml = xml.substring(1);
-          }
-        }
-      }
+      PublishItem item = createItem(ref);
 
-      String json = null;
-      if (definition.getAcceptJson()) {
-        byte[] content = ref.getContent(MimeType.APPLICATION_JSON);
-        if (content != null) {
-          json = new String(content, "UTF-8");
-          if (json.startsWith(SBOM)) {
-            json = json.substring(1);
-          }
-        }
+      if (definition.getBulkSize() > 1) {
+        pending.add(item);
+        pendingIds.add(ref.getId());
+        return pending.size() >= definition.getBulkSize() ? flush() : PublishingStatus.EMPTY;
       }
 
-      PublishResponse response = client.publish(data, ref.getAttributesMap(), uuid, xml, json, definition.getForceAdd());
+      PublishResponse response = client.publish(item.getData(), item.getAttributes(), item.getId(), item.getXml(), item.getJson(), definition.getForceAdd());
       if (response == null) {
         throw new DataOutputException(this, ref.getId(), "No response received");
       }
@@ -216,6 +199,110 @@ import java.util.stream.Collectors;
     }
   }
 
+  /**
+   * Publishes all pending items in a single bulk request.
+   * <p>
+   * Items rejected individually are reported to the process as errors, one
+   * per item, since they have been accepted by earlier calls to publish; an
+   * exception is thrown only if the whole bulk request fails.
+   * @return cumulative publishing status of all accepted items
+   * @throws DataOutputException if publishing fails
+   */
+  private PublishingStatus flush() throws DataOutputException {
+    List<PublishItem> items = new ArrayList<>(pending);
+    List<String> ids = new ArrayList<>(pendingIds);
+    pending.clear();
+    pendingIds.clear();
+    try {
+      List<PublishResponse> responses = client.publish(items, definition.getForceAdd());
+      long created = 0, updated = 0;
+      for (int i = 0; i < responses.size(); i++) {
+        PublishResponse response = responses.get(i);
+        if (response.getId() != null) {
+          existing.remove(response.getId());
+        }
+        if (response.getError() != null) {
+          context.reportError(new DataOutputException(this, ids.get(i), String.format("Error publishing data: %s, %s", items.get(i), response.getError().getMessage())) {
+            @Override
+            public boolean isNegligible() {
+              return true;
+            }
+          });
+        } else if (StringUtils.equalsIgnoreCase(response.getStatus(), "created")) {
+          created++;
+        } else {
+          updated++;
+        }
+      }
+      return new PublishingStatus(0, created, updated);
+    } catch (IOException | URISyntaxException ex) {
+      throw new DataOutputException(this, null, String.format("Error publishing %d records: %s", items.size(), ids), ex);
+    }
+  }
+
+  private PublishItem createItem(DataReference ref) throws IOException {
+    Object ownerObj = ref.getAttributesMap().get("owner");
+    String owner = ownerObj instanceof String ? (String) ownerObj : null;
+
+    Object uuidObj = ref.getAttributesMap().get("uuid");
+    String uuid = uuidObj instanceof UUID ? ((UUID) uuidObj).toString().replaceAll("[\\{\\}-]", "") : null;
+
+    PublishRequest data = new PublishRequest();
+    data.src_source_type_s = ref.getBrokerUri().getScheme();
+    data.src_source_uri_s = ref.getBrokerUri().toASCIIString();
+    data.src_source_name_s = ref.getBrokerName();
+    data.src_uri_s = ref.getSourceUri().toASCIIString();
+    data.src_lastupdate_dt = ref.getLastModifiedDate() != null ? fromatDate(ref.getLastModifiedDate()) : null;
+    data.sys_owner_s = owner;
+    data.sys_owner_txt = owner;
+    data.src_source_ref_s = ref.getInputBrokerRef()!=null? ref.getInputBrokerRef().replaceAll("-", ""): null;
+    data.src_task_ref_s = ref.getTaskRef()!=null? ref.getTaskRef().replaceAll("-", ""): null;
+    data.app_editor_s = definition.isEditable()? "gxe": null;
+
+    String xml = null;
+    if (definition.getAcceptXml()) {
+  	  
+      byte[] content    = null;
+      
+      if (ref.getContent(MimeType.APPLICATION_PDF) != null && definition.isTranslatePdf()) {
+      	content = PdfUtils.generateMetadataXML(ref.getContent(MimeType.APPLICATION_PDF), ref.getSourceUri().getPath(), ref.getSourceUri().toASCIIString(), geometryServiceUrl); 
+      
+      } else if (ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML) != null) {        	
+      	content = ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML);
+        
+      } else {       
+          final MimeType [] toBeSkipped = new MimeType[]{MimeType.APPLICATION_PDF, MimeType.APPLICATION_XML, MimeType.TEXT_XML, MimeType.APPLICATION_JSON};
+          Set <MimeType> types      = ref.getContentType().stream()
+                  .filter(t->!Arrays.stream(toBeSkipped).anyMatch(s->s==t))
+                  .collect(Collectors.toSet());
+          if (!types.isEmpty()) {
+            byte[]         rawContent = ref.getContent(types.toArray(new MimeType[types.size()]));
+            content = rawContent!=null ? DocUtils.generateMetadataXML(rawContent, new File(ref.getId()).getName()) : null;
+          }
+      }
+
+      if (content != null) {
+        xml = new String(content, "UTF-8");
+        if (xml.startsWith(SBOM)) {
+          xml = xml.substring(1);
+        }
+      }
+    }
+
+    String json = null;
+    if (definition.getAcceptJson()) {
+      byte[] content = ref.getContent(MimeType.APPLICATION_JSON);
+      if (content != null) {
+        json = new String(content, "UTF-8");
+        if (json.startsWith(SBOM)) {
+          json = json.substring(1);
+        }
+      }
+    }
+
+    return new PublishItem(data, ref.getAttributesMap(), uuid, xml, json);
+  }
+
   @Override
   public OutputConnector getConnector() {
     return connector;
@@ -26,6 +26,7 @@ import java.net.URL;
 import java.util.Map;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * GPT broker definition adaptor.
@@ -41,6 +42,8 @@ import org.apache.commons.lang3.StringUtils;
   private boolean emitJson = false;
   private boolean translatePdf = true;
   private boolean editable = false;
+  private int bulkSize = DEFAULT_BULK_SIZE;
+  private int cleanupThreads = DEFAULT_CLEANUP_THREADS;
 
   /**
    * Creates instance of the adaptor.
@@ -73,6 +76,8 @@ import org.apache.commons.lang3.StringUtils;
       emitJson = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_ACCEPT_JSON)), false);
       translatePdf = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_TRANSLATE_PDF)), true);
       editable = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EDITABLE)), false);
+      bulkSize = Math.max(1, NumberUtils.toInt(get(P_BULK_SIZE), DEFAULT_BULK_SIZE));
+      cleanupThreads = Math.max(1, NumberUtils.toInt(get(P_CLEANUP_THREADS), DEFAULT_CLEANUP_THREADS));
     }
   }
 
@@ -86,6 +91,8 @@ import org.apache.commons.lang3.StringUtils;
     consume(params,P_ACCEPT_JSON);
     consume(params,P_TRANSLATE_PDF);
     consume(params,P_EDITABLE);
+    consume(params,P_BULK_SIZE);
+    consume(params,P_CLEANUP_THREADS);
     credAdaptor.override(params);
   }
 
@@ -220,4 +227,38 @@ import org.apache.commons.lang3.StringUtils;
     this.editable = editable;
     set(P_EDITABLE, BooleanUtils.toStringTrueFalse(editable));
   }
+
+  /**
+   * Gets bulk size.
+   * @return number of records published in a single bulk request
+   */
+  public int getBulkSize() {
+    return bulkSize;
+  }
+
+  /**
+   * Sets bulk size.
+   * @param bulkSize number of records published in a single bulk request
+   */
+  public void setBulkSize(int bulkSize) {
+    this.bulkSize = bulkSize;
+    set(P_BULK_SIZE, Integer.toString(bulkSize));
+  }
+
+  /**
+   * Gets number of cleanup threads.
+   * @return maximum number of records deleted concurrently during cleanup
+   */
+  public int getCleanupThreads() {
+    return cleanupThreads;
+  }
+
+  /**
+   * Sets number of cleanup threads.
+   * @param cleanupThreads maximum number of records deleted concurrently during cleanup
+   */
+  public void setCleanupThreads(int cleanupThreads) {
+    this.cleanupThreads = cleanupThreads;
+    set(P_CLEANUP_THREADS, Integer.toString(cleanupThreads));
+  }
 }
@@ -73,6 +73,18 @@ public class GptConnector implements OutputConnector<OutputBroker> {
     arguments.add(new UITemplate.BooleanArgument(P_ACCEPT_JSON, bundle.getString("gpt.accept.json"),false, Boolean.FALSE));
     arguments.add(new UITemplate.BooleanArgument(P_TRANSLATE_PDF, bundle.getString("gpt.translate.pdf"),false, Boolean.TRUE));
     arguments.add(new UITemplate.BooleanArgument(P_EDITABLE, bundle.getString("gpt.editable"),false, Boolean.FALSE));
+    arguments.add(new UITemplate.IntegerArgument(P_BULK_SIZE, bundle.getString("gpt.bulk.size"), false, DEFAULT_BULK_SIZE) {
+      @Override
+      public String getHint() {
+        return bundle.getString("gpt.bulk.size.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(P_CLEANUP_THREADS, bundle.getString("gpt.cleanup.threads"), false, DEFAULT_CLEANUP_THREADS) {
+      @Override
+      public String getHint() {
+        return bundle.getString("gpt.cleanup.threads.hint");
+      }
+    });
     return new UITemplate(getType(), bundle.getString("gpt"), arguments);
   }
 
@@ -27,4 +27,9 @@ package com.esri.geoportal.harvester.gpt;
   public static final String P_ACCEPT_JSON     = "gpt-accept-json";
   public static final String P_TRANSLATE_PDF   = "gpt-translate-pdf";
   public static final String P_EDITABLE        = "gpt-editable";
+  public static final String P_BULK_SIZE       = "gpt-bulk-size";
+  public static final String P_CLEANUP_THREADS = "gpt-cleanup-threads";
+  
+  public static final int DEFAULT_BULK_SIZE    = 1;
+  public static final int DEFAULT_CLEANUP_THREADS = 4;
 }
@@ -17,6 +17,7 @@ package com.esri.geoportal.harvester.gptsrc;
 
 import com.esri.geoportal.commons.constants.MimeType;
 import com.esri.geoportal.commons.gpt.client.Client;
+import com.esri.geoportal.commons.gpt.client.EntryContent;
 import com.esri.geoportal.commons.gpt.client.EntryRef;
 import com.esri.geoportal.commons.http.BotsHttpClient;
 import com.esri.geoportal.commons.robots.Bots;
@@ -35,8 +36,11 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
 import java.util.List;
+import org.apache.http.client.HttpResponseException;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.slf4j.Logger;
@@ -66,10 +70,10 @@ class GptBroker implements InputBroker {
     td = context.getTask().getTaskDefinition();
     CloseableHttpClient httpClient = HttpClientBuilder.create().useSystemProperties().build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      client = new Client(httpClient, definition.getHostUrl(), definition.getCredentials(), definition.getIndex());
+      client = new Client(new BotsHttpClient(httpClient, null, definition.getBotsConfig()), definition.getHostUrl(), definition.getCredentials(), definition.getIndex());
     } else {
       Bots bots = BotsUtils.readBots(definition.getBotsConfig(), httpClient, definition.getHostUrl());
-      client = new Client(new BotsHttpClient(httpClient, bots), definition.getHostUrl(), definition.getCredentials(), definition.getIndex());
+      client = new Client(new BotsHttpClient(httpClient, bots, definition.getBotsConfig()), definition.getHostUrl(), definition.getCredentials(), definition.getIndex());
     }
   }
 
@@ -111,7 +115,7 @@ class GptBroker implements InputBroker {
 
   @Override
   public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
-    return new GptIterator();
+    return definition.getBulkRead() ? new GptBulkIterator() : new GptIterator();
   }
 
   @Override
@@ -146,6 +150,27 @@ class GptBroker implements InputBroker {
     }
   }
 
+  private DataReference readContent(EntryContent content) throws DataInputException {
+    try {
+      EntryRef entryRef = content.getRef();
+      String xml;
+
+      SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), getEntityDefinition().getLabel(), entryRef.getId(), entryRef.getLastModified(), entryRef.getSourceUri(), td.getSource().getRef(), td.getRef());
+
+      if (definition.getEmitXml() && (xml = content.getXml() != null ? content.getXml() : readXml(entryRef.getId())) != null) {
+        ref.addContext(MimeType.APPLICATION_XML, xml.getBytes("UTF-8"));
+      }
+
+      if (definition.getEmitJson() && content.getJson() != null) {
+        ref.addContext(MimeType.APPLICATION_JSON, content.getJson().getBytes("UTF-8"));
+      }
+
+      return ref;
+    } catch (URISyntaxException | IOException ex) {
+      throw new DataInputException(GptBroker.this, String.format("Error iterating through Geoportal Server 2.0 records."), ex);
+    }
+  }
+
   private String readXml(String id) {
     try {
       return client.readXml(id);
@@ -198,4 +223,59 @@ class GptBroker implements InputBroker {
     }
 
   }
+
+  /**
+   * Iterator reading pages of items with content directly from the index.
+   * <p>
+   * Falls back to reading items one by one if the server rejects reading
+   * the first page.
+   */
+  private class GptBulkIterator implements InputBroker.Iterator {
+
+    private final Deque<EntryContent> page = new ArrayDeque<>();
+    private final Client.SearchContext searchContext = new Client.SearchContext();
+    private boolean started;
+    private boolean done;
+    private GptIterator fallback;
+
+    @Override
+    public boolean hasNext() throws DataInputException {
+      if (fallback != null) {
+        return fallback.hasNext();
+      }
+      try {
+        if (page.isEmpty() && !done && !Thread.currentThread().isInterrupted()) {
+          List<EntryContent> entries = client.readContent(searchContext, definition.getPageSize());
+          started = true;
+          if (entries.isEmpty()) {
+            done = true;
+          } else {
+            page.addAll(entries);
+          }
+        }
+        return !page.isEmpty();
+      } catch (HttpResponseException ex) {
+        if (ex.getStatusCode() == 400 && !started) {
+          LOG.warn(String.format("Bulk read not supported by %s; reading records one by one.", definition.getHostUrl()));
+          fallback = new GptIterator();
+          return fallback.hasNext();
+        }
+        throw new DataInputException(GptBroker.this, String.format("Error iterating through Geoportal Server 2.0 records."), ex);
+      } catch (IOException | URISyntaxException ex) {
+        throw new DataInputException(GptBroker.this, String.format("Error iterating through Geoportal Server 2.0 records."), ex);
+      }
+    }
+
+    @Override
+    public DataReference next() throws DataInputException {
+      if (fallback != null) {
+        return fallback.next();
+      }
+      if (page.isEmpty()) {
+        throw new DataInputException(GptBroker.this, String.format("Error iterating through Geoportal Server 2.0 records."));
+      }
+      return readContent(page.poll());
+    }
+
+  }
 }
@@ -28,6 +28,7 @@ import java.net.URL;
 import java.util.Map;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * GPT broker definition adaptor.
@@ -40,6 +41,8 @@ import org.apache.commons.lang3.StringUtils;
   private String index;
   private boolean emitXml = true;
   private boolean emitJson = false;
+  private boolean bulkRead = false;
+  private int pageSize = DEFAULT_PAGE_SIZE;
 
   /**
    * Creates instance of the adaptor.
@@ -66,6 +69,8 @@ import org.apache.commons.lang3.StringUtils;
       index  = get(P_INDEX);
       emitXml = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_XML)), true);
       emitJson = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EMIT_JSON)), false);
+      bulkRead = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_BULK_READ)), false);
+      pageSize = Math.max(1, NumberUtils.toInt(get(P_PAGE_SIZE), DEFAULT_PAGE_SIZE));
     }
   }
 
@@ -75,6 +80,8 @@ import org.apache.commons.lang3.StringUtils;
     consume(params,P_INDEX);
     consume(params,P_EMIT_XML);
     consume(params,P_EMIT_JSON);
+    consume(params,P_BULK_READ);
+    consume(params,P_PAGE_SIZE);
     credAdaptor.override(params);
     botsAdaptor.override(params);
   }
@@ -162,4 +169,38 @@ import org.apache.commons.lang3.StringUtils;
     this.emitJson = emitJson;
     set(P_EMIT_JSON, BooleanUtils.toStringTrueFalse(emitJson));
   }
+
+  /**
+   * Gets bulk read flag.
+   * @return <code>true</code> to read pages of items directly from the index
+   */
+  public boolean getBulkRead() {
+    return bulkRead;
+  }
+
+  /**
+   * Sets bulk read flag.
+   * @param bulkRead <code>true</code> to read pages of items directly from the index
+   */
+  public void setBulkRead(boolean bulkRead) {
+    this.bulkRead = bulkRead;
+    set(P_BULK_READ, BooleanUtils.toStringTrueFalse(bulkRead));
+  }
+
+  /**
+   * Gets page size.
+   * @return page size
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Sets page size.
+   * @param pageSize page size
+   */
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+    set(P_PAGE_SIZE, Integer.toString(pageSize));
+  }
 }
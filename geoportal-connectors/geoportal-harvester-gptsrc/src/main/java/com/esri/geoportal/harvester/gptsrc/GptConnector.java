@@ -57,6 +57,13 @@ public class GptConnector implements InputConnector<InputBroker> {
     arguments.add(new UITemplate.StringArgument(P_INDEX, bundle.getString("gptsrc.index")));
     arguments.add(new UITemplate.BooleanArgument(P_EMIT_XML, bundle.getString("gptsrc.emit.xml"),false, Boolean.TRUE));
     arguments.add(new UITemplate.BooleanArgument(P_EMIT_JSON, bundle.getString("gptsrc.emit.json"),false, Boolean.FALSE));
+    arguments.add(new UITemplate.BooleanArgument(P_BULK_READ, bundle.getString("gptsrc.bulk.read"),false, Boolean.FALSE) {
+      @Override
+      public String getHint() {
+        return bundle.getString("gptsrc.bulk.read.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(P_PAGE_SIZE, bundle.getString("gptsrc.page.size"), false, DEFAULT_PAGE_SIZE));
     return new UITemplate(getType(), bundle.getString("gptsrc"), arguments);
   }
 
@@ -23,4 +23,8 @@ package com.esri.geoportal.harvester.gptsrc;
   public static final String P_INDEX           = "gpt-index";
   public static final String P_EMIT_XML        = "gpt-emit-xml";
   public static final String P_EMIT_JSON       = "gpt-emit-json";
+  public static final String P_BULK_READ       = "gpt-bulk-read";
+  public static final String P_PAGE_SIZE       = "gpt-page-size";
+  
+  public static final int DEFAULT_PAGE_SIZE    = 100;
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of idle JDBC connections shared by all the JDBC publishers, so 
+ * consecutive harvests writing into the same database don't have to open new 
+ * connections. Idle connections are validated before being handed out.
+ */
+/*package*/ final class JdbcConnectionPool {
+  private static final Logger LOG = LoggerFactory.getLogger(JdbcConnectionPool.class);
+  private static final int MAX_IDLE = 4;
+  private static final int VALIDATION_TIMEOUT = 5;
+  private static final Map<String,Deque<Connection>> IDLE = new HashMap<>();
+
+  private JdbcConnectionPool() {}
+  
+  /**
+   * Obtains connection; either reused idle connection or a new one.
+   * @param driverClass driver class name
+   * @param url connection string
+   * @param userName user name
+   * @param password password
+   * @return pooled connection
+   * @throws ClassNotFoundException if driver class not found
+   * @throws SQLException if opening connection fails
+   */
+  public static PooledConnection getConnection(String driverClass, String url, String userName, String password) throws ClassNotFoundException, SQLException {
+    String key = String.format("%s|%s", url, userName);
+    
+    while (true) {
+      Connection conn;
+      synchronized (IDLE) {
+        Deque<Connection> idle = IDLE.get(key);
+        conn = idle != null? idle.pollFirst(): null;
+      }
+      if (conn == null) {
+        break;
+      }
+      if (isValid(conn)) {
+        return new PooledConnection(key, conn);
+      }
+      close(conn);
+    }
+    
+    Class.forName(driverClass);
+    return new PooledConnection(key, DriverManager.getConnection(url, userName, password));
+  }
+  
+  private static void release(String key, Connection conn) {
+    try {
+      if (!conn.isClosed() && !conn.getAutoCommit()) {
+        conn.rollback();
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException ex) {
+      close(conn);
+      return;
+    }
+    
+    synchronized (IDLE) {
+      Deque<Connection> idle = IDLE.computeIfAbsent(key, k -> new ArrayDeque<>());
+      if (idle.size() < MAX_IDLE) {
+        idle.offerFirst(conn);
+        return;
+      }
+    }
+    close(conn);
+  }
+  
+  private static boolean isValid(Connection conn) {
+    try {
+      return conn.isValid(VALIDATION_TIMEOUT);
+    } catch (SQLException ex) {
+      return false;
+    }
+  }
+  
+  private static void close(Connection conn) {
+    try {
+      conn.close();
+    } catch (SQLException ex) {
+      LOG.debug(String.format("Error closing connection."), ex);
+    }
+  }
+  
+  /**
+   * Pooled connection. Closing it returns connection into the pool.
+   */
+  public static final class PooledConnection implements AutoCloseable {
+    private final String key;
+    private final Connection connection;
+
+    private PooledConnection(String key, Connection connection) {
+      this.key = key;
+      this.connection = connection;
+    }
+
+    /**
+     * Gets underlying connection.
+     * @return connection
+     */
+    public Connection getConnection() {
+      return connection;
+    }
+
+    @Override
+    public void close() {
+      release(key, connection);
+    }
+  }
+}
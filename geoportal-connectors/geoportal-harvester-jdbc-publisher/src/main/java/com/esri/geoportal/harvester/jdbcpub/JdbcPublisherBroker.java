@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.BaseProcessInstanceListener;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataException;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import com.esri.geoportal.harvester.jdbcpub.JdbcConnectionPool.PooledConnection;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.sql.SQLException;
+import java.util.Date;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JDBC publisher broker.
+ */
+/*package*/ class JdbcPublisherBroker implements OutputBroker {
+  private static final Logger LOG = LoggerFactory.getLogger(JdbcPublisherBroker.class);
+  
+  private final JdbcPublisherConnector connector;
+  private final JdbcPublisherBrokerDefinitionAdaptor definition;
+  private PooledConnection connection;
+  private JdbcRecordWriter writer;
+  private String brokerUri;
+  private Date startDate;
+  private volatile boolean preventCleanup;
+
+  /**
+   * Creates instance of the broker.
+   * @param connector connector
+   * @param definition broker definition
+   */
+  public JdbcPublisherBroker(JdbcPublisherConnector connector, JdbcPublisherBrokerDefinitionAdaptor definition) {
+    this.connector = connector;
+    this.definition = definition;
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    definition.override(context.getParams());
+    try {
+      startDate = new Date();
+      brokerUri = context.getTask().getDataSource().getBrokerUri().toString();
+      connection = JdbcConnectionPool.getConnection(definition.getDriverClass(), definition.getConnection(), definition.getCredentials().getUserName(), definition.getCredentials().getPassword());
+      writer = new JdbcRecordWriter(connection.getConnection(), definition.getTable(), definition.getUpsertMode(), definition.getBatchSize(), definition.getFlushInterval() * 1000L);
+      
+      if (!context.canCleanup()) {
+        preventCleanup = true;
+      }
+      if (definition.getCleanup() && !preventCleanup) {
+        context.addListener(new BaseProcessInstanceListener() {
+          @Override
+          public void onError(DataException ex) {
+            preventCleanup = true;
+          }
+        });
+      }
+    } catch (ClassNotFoundException ex) {
+      throw new DataProcessorException(String.format("Error loading JDBC driver class: %s", definition.getDriverClass()), ex);
+    } catch (SQLException|URISyntaxException ex) {
+      throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
+    }
+  }
+
+  @Override
+  public void terminate() {
+    try {
+      if (writer != null) {
+        try {
+          writer.close();
+          LOG.info(String.format("%d records has been written into: %s", writer.getTotal(), definition.getTable()));
+        } catch (IOException ex) {
+          preventCleanup = true;
+          LOG.warn(String.format("Error writing records into: %s", definition.getTable()), ex);
+        }
+        
+        if (definition.getCleanup() && !preventCleanup) {
+          try {
+            int count = writer.cleanup(brokerUri, startDate);
+            LOG.info(String.format("%d records has been removed during cleanup.", count));
+          } catch (SQLException ex) {
+            LOG.warn(String.format("Error cleaning up records in: %s", definition.getTable()), ex);
+          }
+        }
+      }
+    } finally {
+      writer = null;
+      if (connection != null) {
+        connection.close();
+        connection = null;
+      }
+    }
+  }
+
+  @Override
+  public PublishingStatus publish(DataReference ref) throws DataOutputException {
+    try {
+      writer.write(ref);
+      return PublishingStatus.CREATED;
+    } catch (IOException|SQLException ex) {
+      preventCleanup = true;
+      throw new DataOutputException(this, ref.getId(), String.format("Error publishing data: %s", ref), ex);
+    }
+  }
+
+  @Override
+  public OutputConnector getConnector() {
+    return connector;
+  }
+
+  @Override
+  public boolean hasAccess(SimpleCredentials creds) {
+    return true;
+  }
+
+  @Override
+  public EntityDefinition getEntityDefinition() {
+    return definition.getEntityDefinition();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("JDBC-OUT [%s/%s]", definition.getConnection(), definition.getTable());
+  }
+}
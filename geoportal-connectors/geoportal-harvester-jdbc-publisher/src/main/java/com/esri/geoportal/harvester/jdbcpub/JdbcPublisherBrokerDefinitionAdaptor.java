@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.base.BrokerDefinitionAdaptor;
+import com.esri.geoportal.harvester.api.base.CredentialsDefinitionAdaptor;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import static com.esri.geoportal.harvester.jdbcpub.JdbcPublisherConstants.*;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * JDBC publisher broker definition adaptor.
+ */
+/*package*/ class JdbcPublisherBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
+  private final CredentialsDefinitionAdaptor credAdaptor;
+  private String driverClass;
+  private String connection;
+  private String table = DEFAULT_TABLE;
+  private UpsertMode upsertMode = UpsertMode.GENERIC;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+  private boolean cleanup;
+
+  /**
+   * Creates instance of the adaptor.
+   * @param def broker definition
+   * @throws InvalidDefinitionException if invalid definition
+   */
+  public JdbcPublisherBrokerDefinitionAdaptor(EntityDefinition def) throws InvalidDefinitionException {
+    super(def);
+    this.credAdaptor = new CredentialsDefinitionAdaptor(def);
+    if (StringUtils.trimToEmpty(def.getType()).isEmpty()) {
+      def.setType(JdbcPublisherConnector.TYPE);
+    } else if (!JdbcPublisherConnector.TYPE.equals(def.getType())) {
+      throw new InvalidDefinitionException("Broker definition doesn't match");
+    } else {
+      driverClass = get(P_DRIVER_CLASS);
+      connection = get(P_CONNECTION);
+      table = StringUtils.defaultIfBlank(get(P_TABLE), DEFAULT_TABLE);
+      if (!table.matches("[\\p{Alnum}_.\"]+")) {
+        throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_TABLE, table));
+      }
+      upsertMode = UpsertMode.parse(get(P_UPSERT), UpsertMode.GENERIC);
+      batchSize = Math.max(1, NumberUtils.toInt(get(P_BATCH_SIZE), DEFAULT_BATCH_SIZE));
+      flushInterval = Math.max(0, NumberUtils.toInt(get(P_FLUSH_INTERVAL), DEFAULT_FLUSH_INTERVAL));
+      cleanup = Boolean.parseBoolean(get(P_CLEANUP));
+    }
+  }
+
+  @Override
+  public void override(Map<String, String> params) {
+    consume(params,P_DRIVER_CLASS);
+    consume(params,P_CONNECTION);
+    consume(params,P_TABLE);
+    consume(params,P_UPSERT);
+    consume(params,P_BATCH_SIZE);
+    consume(params,P_FLUSH_INTERVAL);
+    consume(params,P_CLEANUP);
+    credAdaptor.override(params);
+  }
+
+  public String getDriverClass() {
+    return driverClass;
+  }
+
+  public void setDriverClass(String driverClass) {
+    this.driverClass = driverClass;
+    set(P_DRIVER_CLASS, driverClass);
+  }
+
+  public String getConnection() {
+    return connection;
+  }
+
+  public void setConnection(String connection) {
+    this.connection = connection;
+    set(P_CONNECTION, connection);
+  }
+
+  /**
+   * Gets credentials.
+   * @return credentials
+   */
+  public SimpleCredentials getCredentials() {
+    return credAdaptor.getCredentials();
+  }
+
+  /**
+   * Sets credentials.
+   * @param cred credentials
+   */
+  public void setCredentials(SimpleCredentials cred) {
+    credAdaptor.setCredentials(cred);
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  public void setTable(String table) {
+    this.table = table;
+    set(P_TABLE, table);
+  }
+
+  public UpsertMode getUpsertMode() {
+    return upsertMode;
+  }
+
+  public void setUpsertMode(UpsertMode upsertMode) {
+    this.upsertMode = upsertMode;
+    set(P_UPSERT, upsertMode.name());
+  }
+
+  /**
+   * Gets batch size.
+   * @return number of records written in a single batch
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Sets batch size.
+   * @param batchSize number of records written in a single batch
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+    set(P_BATCH_SIZE, Integer.toString(batchSize));
+  }
+
+  /**
+   * Gets flush interval.
+   * @return flush interval in seconds (0 - flush on batch size only)
+   */
+  public int getFlushInterval() {
+    return flushInterval;
+  }
+
+  /**
+   * Sets flush interval.
+   * @param flushInterval flush interval in seconds (0 - flush on batch size only)
+   */
+  public void setFlushInterval(int flushInterval) {
+    this.flushInterval = flushInterval;
+    set(P_FLUSH_INTERVAL, Integer.toString(flushInterval));
+  }
+
+  /**
+   * Gets permission to cleanup.
+   * @return <code>true</code> if cleanup permitted
+   */
+  public boolean getCleanup() {
+    return cleanup;
+  }
+
+  /**
+   * Sets permission to cleanup.
+   * @param cleanup <code>true</code> to permit cleanup
+   */
+  public void setCleanup(boolean cleanup) {
+    this.cleanup = cleanup;
+    set(P_CLEANUP, Boolean.toString(cleanup));
+  }
+}
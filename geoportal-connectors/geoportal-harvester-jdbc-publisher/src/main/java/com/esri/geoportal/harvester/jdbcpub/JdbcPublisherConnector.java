@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+import static com.esri.geoportal.commons.constants.CredentialsConstants.P_CRED_PASSWORD;
+import static com.esri.geoportal.commons.constants.CredentialsConstants.P_CRED_USERNAME;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.defs.UITemplate.Choice;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import static com.esri.geoportal.harvester.jdbcpub.JdbcPublisherConstants.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * JDBC publisher connector.
+ */
+public class JdbcPublisherConnector implements OutputConnector<OutputBroker> {
+  public static final String TYPE = "JDBC-OUT";
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public UITemplate getTemplate(Locale locale) {
+    ResourceBundle bundle = ResourceBundle.getBundle("JdbcPublisherResource", locale);
+    List<UITemplate.Argument> arguments = new ArrayList<>();
+    arguments.add(new UITemplate.StringArgument(P_DRIVER_CLASS, bundle.getString("jdbcpub.driver"), true));
+    arguments.add(new UITemplate.StringArgument(P_CONNECTION, bundle.getString("jdbcpub.connection"), true));
+    arguments.add(new UITemplate.StringArgument(P_CRED_USERNAME, bundle.getString("jdbcpub.username")));
+    arguments.add(new UITemplate.StringArgument(P_CRED_PASSWORD, bundle.getString("jdbcpub.password")) {
+      public boolean isPassword() {
+        return true;
+      }
+    });
+    arguments.add(new UITemplate.StringArgument(P_TABLE, bundle.getString("jdbcpub.table"), true, DEFAULT_TABLE));
+    Choice[] choices = Arrays.stream(UpsertMode.values()).map(m -> new Choice<String>(m.name(), bundle.getString(String.format("jdbcpub.upsert.%s", m)))).toArray(Choice[]::new);
+    arguments.add(new UITemplate.ChoiceArgument(P_UPSERT, bundle.getString("jdbcpub.upsert"), Arrays.asList(choices)){
+      public String getDefault() {
+        return UpsertMode.GENERIC.name();
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(P_BATCH_SIZE, bundle.getString("jdbcpub.batch.size"), false, DEFAULT_BATCH_SIZE));
+    arguments.add(new UITemplate.IntegerArgument(P_FLUSH_INTERVAL, bundle.getString("jdbcpub.flush.interval"), false, DEFAULT_FLUSH_INTERVAL));
+    arguments.add(new UITemplate.BooleanArgument(P_CLEANUP, bundle.getString("jdbcpub.cleanup")));
+    return new UITemplate(getType(), bundle.getString("jdbcpub"), arguments);
+  }
+
+  @Override
+  public void validateDefinition(EntityDefinition definition) throws InvalidDefinitionException {
+    new JdbcPublisherBrokerDefinitionAdaptor(definition);
+  }
+
+  @Override
+  public OutputBroker createBroker(EntityDefinition definition) throws InvalidDefinitionException {
+    return new JdbcPublisherBroker(this, new JdbcPublisherBrokerDefinitionAdaptor(definition));
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+/**
+ * JDBC publisher constants.
+ */
+/*package*/ final class JdbcPublisherConstants {
+  public static final String P_DRIVER_CLASS     = "jdbcpub-driver";
+  public static final String P_CONNECTION       = "jdbcpub-connection";
+  public static final String P_TABLE            = "jdbcpub-table";
+  public static final String P_UPSERT           = "jdbcpub-upsert";
+  public static final String P_BATCH_SIZE       = "jdbcpub-batch-size";
+  public static final String P_FLUSH_INTERVAL   = "jdbcpub-flush-interval";
+  public static final String P_CLEANUP          = "jdbcpub-cleanup";
+  
+  public static final String DEFAULT_TABLE      = "harvested_records";
+  public static final int DEFAULT_BATCH_SIZE    = 500;
+  public static final int DEFAULT_FLUSH_INTERVAL = 10;
+}
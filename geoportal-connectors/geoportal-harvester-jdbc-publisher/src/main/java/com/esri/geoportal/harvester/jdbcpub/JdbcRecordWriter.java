@@ -0,0 +1,322 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.jdbcpub.UpsertMode.Binding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JDBC record writer. Collects records and writes them as a single JDBC batch
+ * once either batch size is reached or flush interval has elapsed since the 
+ * last write. Records stay collected until the batch is committed, so a failed
+ * batch is written again with the next one.
+ */
+/*package*/ class JdbcRecordWriter implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(JdbcRecordWriter.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  
+  /** key column */
+  public static final String KEY = "id";
+  /** all columns; key first */
+  public static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList(
+          KEY, "broker_uri", "source_uri", "modified", "harvested", "xml_content", "json_content", "attributes"
+  ));
+  
+  private final Connection connection;
+  private final String table;
+  private final UpsertMode mode;
+  private final int batchSize;
+  private final long flushInterval;
+  private final Map<String,Row> buffer = new LinkedHashMap<>();
+  private final PreparedStatement upsert;
+  private final PreparedStatement update;
+  private final PreparedStatement insert;
+  private final ScheduledExecutorService timer;
+  private long lastFlush = System.currentTimeMillis();
+  private volatile SQLException flushError;
+  private long total;
+
+  /**
+   * Creates instance of the writer.
+   * @param connection connection
+   * @param table table name
+   * @param mode upsert mode
+   * @param batchSize batch size
+   * @param flushInterval flush interval in milliseconds (0 - flush on batch size only)
+   * @throws SQLException if preparing statements fails
+   */
+  public JdbcRecordWriter(Connection connection, String table, UpsertMode mode, int batchSize, long flushInterval) throws SQLException {
+    this.connection = connection;
+    this.table = table;
+    this.mode = mode;
+    this.batchSize = Math.max(1, batchSize);
+    this.flushInterval = flushInterval;
+    
+    connection.setAutoCommit(false);
+    String upsertSql = mode.createUpsert(table);
+    this.upsert = upsertSql != null? connection.prepareStatement(upsertSql): null;
+    this.update = upsertSql == null? connection.prepareStatement(UpsertMode.createUpdate(table)): null;
+    this.insert = upsertSql == null? connection.prepareStatement(UpsertMode.createInsert(table)): null;
+    
+    if (flushInterval > 0) {
+      timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, String.format("JDBC publisher flush timer for %s", table));
+        thread.setDaemon(true);
+        return thread;
+      });
+      timer.scheduleWithFixedDelay(this::flushIfStale, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    } else {
+      timer = null;
+    }
+  }
+  
+  /**
+   * Writes record. Record gets into the database with the next batch.
+   * @param ref data reference
+   * @throws IOException if reading record content fails
+   * @throws SQLException if writing batch fails
+   */
+  public synchronized void write(DataReference ref) throws IOException, SQLException {
+    if (flushError != null) {
+      SQLException ex = flushError;
+      flushError = null;
+      throw ex;
+    }
+    
+    Row row = new Row(ref);
+    // later version of the same record in one batch replaces the earlier one
+    buffer.remove(row.id);
+    buffer.put(row.id, row);
+    
+    if (buffer.size() >= batchSize) {
+      flush();
+    }
+  }
+  
+  /**
+   * Writes all the pending records.
+   * @throws SQLException if writing batch fails; none of the pending records
+   * has been written then
+   */
+  public synchronized void flush() throws SQLException {
+    if (buffer.isEmpty()) {
+      return;
+    }
+    
+    List<Row> rows = new ArrayList<>(buffer.values());
+    lastFlush = System.currentTimeMillis();
+    
+    try {
+      if (upsert != null) {
+        executeBatch(upsert, rows, mode.getBindings());
+      } else {
+        int[] counts = executeBatch(update, rows, UpsertMode.UPDATE_BINDINGS);
+        List<Row> missing = new ArrayList<>();
+        for (int i=0; i<rows.size(); i++) {
+          int count = i < counts.length? counts[i]: Statement.SUCCESS_NO_INFO;
+          if (count == Statement.SUCCESS_NO_INFO) {
+            // driver didn't report row count; fall back to a single update
+            bind(update, rows.get(i), UpsertMode.UPDATE_BINDINGS);
+            count = update.executeUpdate();
+          }
+          if (count == 0) {
+            missing.add(rows.get(i));
+          }
+        }
+        if (!missing.isEmpty()) {
+          executeBatch(insert, missing, UpsertMode.INSERT_BINDINGS);
+        }
+      }
+      connection.commit();
+      buffer.clear();
+      total += rows.size();
+    } catch (SQLException ex) {
+      try {
+        connection.rollback();
+      } catch (SQLException rex) {
+        LOG.debug(String.format("Error rolling back transaction."), rex);
+      }
+      throw new SQLException(String.format("Error writing batch of %d records: %s", rows.size(), buffer.keySet()), ex.getSQLState(), ex.getErrorCode(), ex);
+    }
+  }
+  
+  /**
+   * Deletes records of the broker not written since the given date.
+   * @param brokerUri broker URI
+   * @param before date of the beginning of the harvest
+   * @return number of deleted records
+   * @throws SQLException if deleting fails
+   */
+  public synchronized int cleanup(String brokerUri, Date before) throws SQLException {
+    try (PreparedStatement st = connection.prepareStatement(String.format("DELETE FROM %s WHERE broker_uri = ? AND harvested < ?", table))) {
+      st.setString(1, brokerUri);
+      st.setTimestamp(2, new Timestamp(before.getTime()));
+      int count = st.executeUpdate();
+      connection.commit();
+      return count;
+    }
+  }
+  
+  /**
+   * Gets total number of records written.
+   * @return total number of records
+   */
+  public synchronized long getTotal() {
+    return total;
+  }
+
+  /**
+   * Closes writer writing all the pending records.
+   * @throws IOException if writing records fails or any batch written in the
+   * background has failed
+   */
+  @Override
+  public void close() throws IOException {
+    if (timer != null) {
+      timer.shutdownNow();
+    }
+    try {
+      flush();
+      SQLException pending = flushError;
+      if (pending != null) {
+        flushError = null;
+        throw pending;
+      }
+    } catch (SQLException ex) {
+      throw new IOException(String.format("Error writing records into: %s", table), ex);
+    } finally {
+      closeStatement(upsert);
+      closeStatement(update);
+      closeStatement(insert);
+    }
+  }
+  
+  private synchronized void flushIfStale() {
+    if (!buffer.isEmpty() && System.currentTimeMillis() - lastFlush >= flushInterval) {
+      try {
+        flush();
+      } catch (SQLException ex) {
+        LOG.warn(String.format("Error writing records into: %s", table), ex);
+        flushError = ex;
+      }
+    }
+  }
+  
+  private int[] executeBatch(PreparedStatement st, List<Row> rows, List<Binding> bindings) throws SQLException {
+    for (Row row: rows) {
+      bind(st, row, bindings);
+      st.addBatch();
+    }
+    return st.executeBatch();
+  }
+  
+  private void bind(PreparedStatement st, Row row, List<Binding> bindings) throws SQLException {
+    int i = 1;
+    for (Binding binding: bindings) {
+      if (binding == Binding.KEY) {
+        st.setString(i++, row.id);
+      } else {
+        i = bindValues(st, i, row);
+      }
+    }
+  }
+  
+  private int bindValues(PreparedStatement st, int i, Row row) throws SQLException {
+    st.setString(i++, row.brokerUri);
+    st.setString(i++, row.sourceUri);
+    if (row.modified != null) {
+      st.setTimestamp(i++, row.modified);
+    } else {
+      st.setNull(i++, Types.TIMESTAMP);
+    }
+    st.setTimestamp(i++, row.harvested);
+    setClob(st, i++, row.xml);
+    setClob(st, i++, row.json);
+    setClob(st, i++, row.attributes);
+    return i;
+  }
+  
+  private void setClob(PreparedStatement st, int index, String value) throws SQLException {
+    if (value != null) {
+      st.setCharacterStream(index, new StringReader(value), value.length());
+    } else {
+      st.setNull(index, Types.CLOB);
+    }
+  }
+  
+  private void closeStatement(PreparedStatement st) {
+    if (st != null) {
+      try {
+        st.close();
+      } catch (SQLException ex) {
+        LOG.debug(String.format("Error closing statement."), ex);
+      }
+    }
+  }
+  
+  /**
+   * Table row.
+   */
+  private static final class Row {
+    final String id;
+    final String brokerUri;
+    final String sourceUri;
+    final Timestamp modified;
+    final Timestamp harvested;
+    final String xml;
+    final String json;
+    final String attributes;
+
+    Row(DataReference ref) throws IOException {
+      this.id = ref.getId();
+      this.brokerUri = ref.getBrokerUri() != null? ref.getBrokerUri().toString(): null;
+      this.sourceUri = ref.getSourceUri() != null? ref.getSourceUri().toString(): null;
+      this.modified = ref.getLastModifiedDate() != null? new Timestamp(ref.getLastModifiedDate().getTime()): null;
+      this.harvested = new Timestamp(System.currentTimeMillis());
+      this.xml = toString(ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML));
+      this.json = toString(ref.getContent(MimeType.APPLICATION_JSON));
+      this.attributes = !ref.getAttributesMap().isEmpty()? MAPPER.writeValueAsString(ref.getAttributesMap()): null;
+    }
+    
+    private static String toString(byte[] content) {
+      return content != null? new String(content, StandardCharsets.UTF_8): null;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+import static com.esri.geoportal.harvester.jdbcpub.JdbcRecordWriter.COLUMNS;
+import static com.esri.geoportal.harvester.jdbcpub.JdbcRecordWriter.KEY;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Upsert mode. Defines SQL used to insert or update records.
+ */
+/*package*/ enum UpsertMode {
+  /**
+   * Batch of updates followed by a batch of inserts for records not updated; 
+   * works with any database.
+   */
+  GENERIC {
+    @Override
+    public String createUpsert(String table) {
+      return null;
+    }
+
+    @Override
+    public List<Binding> getBindings() {
+      return Collections.emptyList();
+    }
+  },
+  /**
+   * MERGE statement against DUAL table (Oracle, H2).
+   */
+  MERGE {
+    @Override
+    public String createUpsert(String table) {
+      return String.format("MERGE INTO %s t USING DUAL ON (t.%s = ?) WHEN MATCHED THEN UPDATE SET %s WHEN NOT MATCHED THEN INSERT (%s) VALUES (%s)", 
+              table, KEY,
+              valueColumns().stream().map(c -> String.format("t.%s = ?", c)).collect(Collectors.joining(", ")),
+              String.join(", ", COLUMNS),
+              String.join(", ", Collections.nCopies(COLUMNS.size(), "?")));
+    }
+
+    @Override
+    public List<Binding> getBindings() {
+      return Arrays.asList(Binding.KEY, Binding.VALUES, Binding.KEY, Binding.VALUES);
+    }
+  },
+  /**
+   * PostgreSQL INSERT ... ON CONFLICT statement.
+   */
+  POSTGRESQL {
+    @Override
+    public String createUpsert(String table) {
+      return String.format("%s ON CONFLICT (%s) DO UPDATE SET %s", 
+              createInsert(table), KEY,
+              valueColumns().stream().map(c -> String.format("%s = EXCLUDED.%s", c, c)).collect(Collectors.joining(", ")));
+    }
+  },
+  /**
+   * MySQL INSERT ... ON DUPLICATE KEY UPDATE statement.
+   */
+  MYSQL {
+    @Override
+    public String createUpsert(String table) {
+      return String.format("%s ON DUPLICATE KEY UPDATE %s", 
+              createInsert(table),
+              valueColumns().stream().map(c -> String.format("%s = VALUES(%s)", c, c)).collect(Collectors.joining(", ")));
+    }
+  };
+  
+  /**
+   * Creates upsert statement.
+   * @param table table name
+   * @return upsert statement or <code>null</code> if mode requires separate update and insert
+   * @see #getBindings() 
+   */
+  public abstract String createUpsert(String table);
+  
+  /**
+   * Gets order in which parameters of the upsert statement are bound.
+   * @return list of bindings
+   */
+  public List<Binding> getBindings() {
+    return INSERT_BINDINGS;
+  }
+  
+  /** bindings of the insert statement */
+  public static final List<Binding> INSERT_BINDINGS = Collections.unmodifiableList(Arrays.asList(Binding.KEY, Binding.VALUES));
+  /** bindings of the update statement */
+  public static final List<Binding> UPDATE_BINDINGS = Collections.unmodifiableList(Arrays.asList(Binding.VALUES, Binding.KEY));
+  
+  /**
+   * Creates insert statement binding all the columns in order.
+   * @param table table name
+   * @return insert statement
+   */
+  public static String createInsert(String table) {
+    return String.format("INSERT INTO %s (%s) VALUES (%s)", 
+            table, String.join(", ", COLUMNS), String.join(", ", Collections.nCopies(COLUMNS.size(), "?")));
+  }
+  
+  /**
+   * Creates update statement binding all the value columns followed by the key.
+   * @param table table name
+   * @return update statement
+   */
+  public static String createUpdate(String table) {
+    return String.format("UPDATE %s SET %s WHERE %s = ?", 
+            table, valueColumns().stream().map(c -> String.format("%s = ?", c)).collect(Collectors.joining(", ")), KEY);
+  }
+  
+  /**
+   * Gets value columns, i.e. all columns but the key.
+   * @return list of value columns
+   */
+  public static List<String> valueColumns() {
+    return COLUMNS.subList(1, COLUMNS.size());
+  }
+
+  /**
+   * Statement parameters binding.
+   */
+  public static enum Binding {
+    /** key column */
+    KEY,
+    /** all value columns in order */
+    VALUES
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+
+  /**
+   * Parses upsert mode.
+   * @param mode mode name
+   * @param def default mode
+   * @return upsert mode
+   */
+  public static UpsertMode parse(String mode, UpsertMode def) {
+    return Arrays.stream(UpsertMode.values()).filter(m -> m.name().equalsIgnoreCase(mode)).findFirst().orElse(def);
+  }
+}
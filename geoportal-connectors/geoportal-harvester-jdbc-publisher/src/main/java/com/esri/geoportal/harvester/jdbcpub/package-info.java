@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * JDBC database output broker.
+ * <p>
+ * Records are written into a single table in batches. A batch is flushed 
+ * once it reaches batch size or once flush interval has elapsed since the last 
+ * flush, and is committed as one transaction. Records are inserted or updated 
+ * either with a pair of UPDATE and INSERT batches, which works with any 
+ * database, or with a single database specific upsert statement (MERGE, 
+ * INSERT ... ON CONFLICT, INSERT ... ON DUPLICATE KEY). Connections are kept in 
+ * a small pool shared by all the JDBC publishers.
+ * <p>
+ * With cleanup enabled, rows written earlier by the same input broker but not 
+ * written during the current harvest are deleted after the harvest completes 
+ * without errors.
+ * <p>
+ * The table has to exist; example definition:
+ * <pre><code>
+ 
+   CREATE TABLE harvested_records (
+     id            VARCHAR(1024) PRIMARY KEY,
+     broker_uri    VARCHAR(1024),
+     source_uri    VARCHAR(2048),
+     modified      TIMESTAMP,
+     harvested     TIMESTAMP,
+     xml_content   CLOB,
+     json_content  CLOB,
+     attributes    CLOB
+   );
+   CREATE INDEX harvested_records_broker ON harvested_records (broker_uri, harvested);
+ * </code></pre>
+ * <p>
+ * Example of the JSON JDBC-OUT definition is below:
+ * <pre><code>
+ 
+   {
+     "type": "JDBC-OUT",
+     "properties" : {
+       "jdbcpub-driver": "org.postgresql.Driver",
+       "jdbcpub-connection": "jdbc:postgresql://localhost:5432/metadata",
+       "cred-username": "harvester",
+       "cred-password": "password",
+       "jdbcpub-table": "harvested_records",
+       "jdbcpub-upsert": "postgresql",
+       "jdbcpub-batch-size": "500",
+       "jdbcpub-flush-interval": "10",
+       "jdbcpub-cleanup": "true"
+     }
+   }
+ * </code></pre>
+ */
+package com.esri.geoportal.harvester.jdbcpub;
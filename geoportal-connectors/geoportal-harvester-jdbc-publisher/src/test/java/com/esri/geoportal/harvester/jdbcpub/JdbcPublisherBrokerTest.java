@@ -0,0 +1,263 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbcpub;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataContent;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import com.esri.geoportal.harvester.api.base.SimpleInitContext;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.specs.InputConnector;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * JDBC publisher broker test.
+ */
+public class JdbcPublisherBrokerTest {
+  private static final String URL = "jdbc:h2:mem:jdbcpub;DB_CLOSE_DELAY=-1";
+  private static final String TABLE = "harvested_records";
+  private static final URI BROKER_URI = URI.create("TEST:source");
+  
+  private Connection connection;
+  
+  @Before
+  public void setUp() throws Exception {
+    connection = DriverManager.getConnection(URL, "sa", "");
+    try (Statement st = connection.createStatement()) {
+      st.execute(String.format("CREATE TABLE %s (id VARCHAR(255) PRIMARY KEY, broker_uri VARCHAR(1024), source_uri VARCHAR(1024), "
+              + "modified TIMESTAMP, harvested TIMESTAMP, xml_content CLOB, json_content CLOB, attributes CLOB)", TABLE));
+    }
+  }
+  
+  @After
+  public void tearDown() throws Exception {
+    try (Statement st = connection.createStatement()) {
+      st.execute(String.format("DROP TABLE %s", TABLE));
+    }
+    connection.close();
+  }
+  
+  @Test
+  public void testGenericUpsert() throws Exception {
+    testUpsert(UpsertMode.GENERIC);
+  }
+  
+  @Test
+  public void testMergeUpsert() throws Exception {
+    testUpsert(UpsertMode.MERGE);
+  }
+  
+  @Test
+  public void testFlushOnTerminate() throws Exception {
+    JdbcPublisherBroker broker = createBroker(UpsertMode.GENERIC, 100, false);
+    broker.publish(createRef("a", "<a/>"));
+    broker.publish(createRef("b", "<b/>"));
+    broker.publish(createRef("c", "<c/>"));
+    
+    assertEquals("Records written before batch is full", 0, readContent().size());
+    
+    broker.terminate();
+    
+    assertEquals("Records not written on terminate", 3, readContent().size());
+  }
+  
+  @Test
+  public void testCleanup() throws Exception {
+    JdbcPublisherBroker broker = createBroker(UpsertMode.GENERIC, 100, false);
+    broker.publish(createRef("a", "<a/>"));
+    broker.publish(createRef("b", "<b/>"));
+    broker.publish(createRef("c", "<c/>"));
+    broker.terminate();
+    
+    Thread.sleep(10);
+    
+    broker = createBroker(UpsertMode.GENERIC, 100, true);
+    broker.publish(createRef("a", "<a2/>"));
+    broker.terminate();
+    
+    Map<String,String> content = readContent();
+    assertEquals("Invalid number of records after cleanup", 1, content.size());
+    assertEquals("Invalid content after cleanup", "<a2/>", content.get("a"));
+  }
+  
+  @Test
+  public void testFailedBatchIsKept() throws Exception {
+    JdbcPublisherBroker broker = createBroker(UpsertMode.GENERIC, 2, 0, false);
+    execute(String.format("ALTER TABLE %s ADD CONSTRAINT reject_b CHECK (id <> 'b')", TABLE));
+    broker.publish(createRef("a", "<a/>"));
+    try {
+      broker.publish(createRef("b", "<b/>"));
+      fail("Batch failure not reported");
+    } catch (DataOutputException ex) {
+      assertTrue("Failure not reported for the whole batch", ex.getCause().getMessage().contains("[a, b]"));
+    }
+    assertEquals("Records written from failed batch", 0, readContent().size());
+    
+    execute(String.format("ALTER TABLE %s DROP CONSTRAINT reject_b", TABLE));
+    broker.terminate();
+    
+    assertEquals("Records of failed batch lost", 2, readContent().size());
+  }
+  
+  @Test
+  public void testBackgroundFailurePreventsCleanup() throws Exception {
+    JdbcPublisherBroker broker = createBroker(UpsertMode.GENERIC, 100, 0, false);
+    broker.publish(createRef("a", "<a/>"));
+    broker.publish(createRef("b", "<b/>"));
+    broker.terminate();
+    
+    Thread.sleep(10);
+    
+    broker = createBroker(UpsertMode.GENERIC, 100, 1, true);
+    execute(String.format("ALTER TABLE %s ADD CONSTRAINT reject_c CHECK (id <> 'c')", TABLE));
+    broker.publish(createRef("a", "<a2/>"));
+    broker.publish(createRef("c", "<c/>"));
+    // let the flush timer fail
+    Thread.sleep(1500);
+    
+    execute(String.format("ALTER TABLE %s DROP CONSTRAINT reject_c", TABLE));
+    broker.terminate();
+    
+    Map<String,String> content = readContent();
+    assertEquals("Records removed despite failure", 3, content.size());
+    assertEquals("Records of failed batch lost", "<a2/>", content.get("a"));
+  }
+  
+  private void testUpsert(UpsertMode mode) throws Exception {
+    JdbcPublisherBroker broker = createBroker(mode, 2, false);
+    broker.publish(createRef("a", "<a/>"));
+    broker.publish(createRef("b", "<b/>"));
+    
+    assertEquals(String.format("Invalid number of records after first %s batch", mode), 2, readContent().size());
+    
+    broker.publish(createRef("a", "<a2/>"));
+    broker.publish(createRef("c", "<c/>"));
+    broker.terminate();
+    
+    Map<String,String> content = readContent();
+    assertEquals(String.format("Invalid number of records after %s upsert", mode), 3, content.size());
+    assertEquals(String.format("Record not updated by %s upsert", mode), "<a2/>", content.get("a"));
+    assertEquals(String.format("Record changed by %s upsert", mode), "<b/>", content.get("b"));
+  }
+  
+  private JdbcPublisherBroker createBroker(UpsertMode mode, int batchSize, boolean cleanup) throws Exception {
+    return createBroker(mode, batchSize, 0, cleanup);
+  }
+  
+  private JdbcPublisherBroker createBroker(UpsertMode mode, int batchSize, int flushInterval, boolean cleanup) throws Exception {
+    JdbcPublisherBrokerDefinitionAdaptor adaptor = new JdbcPublisherBrokerDefinitionAdaptor(new EntityDefinition());
+    adaptor.setDriverClass("org.h2.Driver");
+    adaptor.setConnection(URL);
+    adaptor.setCredentials(new SimpleCredentials("sa", ""));
+    adaptor.setTable(TABLE);
+    adaptor.setUpsertMode(mode);
+    adaptor.setBatchSize(batchSize);
+    adaptor.setFlushInterval(flushInterval);
+    adaptor.setCleanup(cleanup);
+    
+    JdbcPublisherBroker broker = new JdbcPublisherBroker(new JdbcPublisherConnector(), adaptor);
+    Task task = new Task("jdbcpub", "jdbcpub", null, new SourceBroker(), Collections.emptyList());
+    broker.initialize(new SimpleInitContext(task, new ArrayList<>()));
+    return broker;
+  }
+  
+  private SimpleDataReference createRef(String id, String xml) {
+    SimpleDataReference ref = new SimpleDataReference(BROKER_URI, "source", id, new Date(), URI.create("uuid:" + id), null, null);
+    ref.addContext(MimeType.APPLICATION_XML, xml.getBytes(StandardCharsets.UTF_8));
+    return ref;
+  }
+  
+  private void execute(String sql) throws Exception {
+    try (Statement st = connection.createStatement()) {
+      st.execute(sql);
+    }
+  }
+  
+  private Map<String,String> readContent() throws Exception {
+    Map<String,String> content = new TreeMap<>();
+    try (
+            Statement st = connection.createStatement();
+            ResultSet rs = st.executeQuery(String.format("SELECT id, xml_content FROM %s", TABLE));
+        ) {
+      while (rs.next()) {
+        content.put(rs.getString(1), rs.getString(2));
+      }
+    }
+    return content;
+  }
+  
+  /**
+   * Source broker providing broker URI only.
+   */
+  private static class SourceBroker implements InputBroker {
+
+    @Override
+    public URI getBrokerUri() {
+      return BROKER_URI;
+    }
+
+    @Override
+    public Iterator iterator(IteratorContext iteratorContext) {
+      return null;
+    }
+
+    @Override
+    public DataContent readContent(String id) {
+      return null;
+    }
+
+    @Override
+    public EntityDefinition getEntityDefinition() {
+      return new EntityDefinition();
+    }
+
+    @Override
+    public InputConnector getConnector() {
+      return null;
+    }
+
+    @Override
+    public boolean hasAccess(SimpleCredentials creds) {
+      return true;
+    }
+
+    @Override
+    public void initialize(InitContext context) {
+    }
+
+    @Override
+    public void terminate() {
+    }
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Field mapper.
+ * <p>
+ * Pure Java alternative to the script for simple field renames. Mapping is a 
+ * list of rules separated by new line or semicolon (outside quotes), each in a form:
+ * <pre>
+ * target = source
+ * </pre>
+ * where <i>target</i> is either <code>json.&lt;name&gt;</code> or <code>attr.&lt;name&gt;</code>, 
+ * and <i>source</i> is either <code>json.&lt;name&gt;</code>, <code>attr.&lt;name&gt;</code>, 
+ * a quoted literal or nothing. Empty source removes target. Prefixing source 
+ * with <code>~</code> moves the value instead of copying it. Example:
+ * <pre>
+ * json.title = attr.src_name_txt
+ * attr.src_extra_s = "extra attribute"
+ * attr.src_owner_txt = ~attr.src_internal_owner_txt
+ * attr.src_password_s =
+ * </pre>
+ * Rules are applied in the order of declaration. Values keep their JSON types
+ * (numbers, booleans, objects); literals are strings. Mapper is immutable and 
+ * thread safe.
+ */
+/*package*/ class FieldMapper {
+  private static final Pattern RULE = Pattern.compile("^(json|attr)\\.([^\\s=]+)\\s*=\\s*(.*)$");
+  private static final Pattern FIELD = Pattern.compile("^(~)?(json|attr)\\.(\\S+)$");
+  private static final Pattern LITERAL = Pattern.compile("^\"(.*)\"$|^'(.*)'$");
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  
+  private final List<Rule> rules;
+
+  private FieldMapper(List<Rule> rules) {
+    this.rules = Collections.unmodifiableList(rules);
+  }
+  
+  /**
+   * Parses mapping definition.
+   * @param mapping mapping definition
+   * @return field mapper or <code>null</code> if no mapping defined
+   * @throws InvalidDefinitionException if invalid mapping definition
+   */
+  public static FieldMapper parse(String mapping) throws InvalidDefinitionException {
+    if (StringUtils.isBlank(mapping)) {
+      return null;
+    }
+    
+    List<Rule> rules = new ArrayList<>();
+    for (String line: split(mapping)) {
+      line = StringUtils.trimToEmpty(line);
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      Matcher rm = RULE.matcher(line);
+      if (!rm.matches()) {
+        throw new InvalidDefinitionException(String.format("Invalid field mapping rule: %s", line));
+      }
+      
+      Field target = new Field(Scope.parse(rm.group(1)), rm.group(2));
+      String src = StringUtils.trimToEmpty(rm.group(3));
+      
+      if (src.isEmpty()) {
+        rules.add(new Rule(target, null, null, false));
+        continue;
+      }
+      
+      Matcher lm = LITERAL.matcher(src);
+      if (lm.matches()) {
+        rules.add(new Rule(target, null, lm.group(1)!=null? lm.group(1): lm.group(2), false));
+        continue;
+      }
+      
+      Matcher fm = FIELD.matcher(src);
+      if (!fm.matches()) {
+        throw new InvalidDefinitionException(String.format("Invalid field mapping source: %s", line));
+      }
+      rules.add(new Rule(target, new Field(Scope.parse(fm.group(2)), fm.group(3)), null, fm.group(1)!=null));
+    }
+    
+    return !rules.isEmpty()? new FieldMapper(rules): null;
+  }
+  
+  private static List<String> split(String mapping) {
+    List<String> lines = new ArrayList<>();
+    StringBuilder sb = new StringBuilder();
+    char quote = 0;
+    for (char ch: mapping.toCharArray()) {
+      if (quote != 0) {
+        if (ch == quote) {
+          quote = 0;
+        }
+      } else if (ch == '"' || ch == '\'') {
+        quote = ch;
+      } else if (ch == ';' || ch == '\n' || ch == '\r') {
+        lines.add(sb.toString());
+        sb.setLength(0);
+        continue;
+      }
+      sb.append(ch);
+    }
+    lines.add(sb.toString());
+    return lines;
+  }
+  
+  /**
+   * Applies mapping.
+   * @param json JSON node
+   * @param attr attributes
+   */
+  public void apply(ObjectNode json, Map<String,Object> attr) {
+    for (Rule rule: rules) {
+      rule.apply(json, attr);
+    }
+  }
+  
+  @Override
+  public String toString() {
+    return rules.toString();
+  }
+  
+  /**
+   * Field scope.
+   */
+  private static enum Scope {
+    JSON, ATTR;
+    
+    static Scope parse(String name) {
+      return "json".equals(name)? JSON: ATTR;
+    }
+    
+    @Override
+    public String toString() {
+      return name().toLowerCase();
+    }
+  }
+  
+  /**
+   * Field.
+   */
+  private static final class Field {
+    final Scope scope;
+    final String name;
+
+    Field(Scope scope, String name) {
+      this.scope = scope;
+      this.name = name;
+    }
+    
+    Object get(ObjectNode json, Map<String,Object> attr) {
+      if (scope == Scope.JSON) {
+        JsonNode node = json.get(name);
+        return node!=null && !node.isNull()? node: null;
+      }
+      return attr.get(name);
+    }
+    
+    void set(ObjectNode json, Map<String,Object> attr, Object value) {
+      if (value == null) {
+        remove(json, attr);
+      } else if (scope == Scope.JSON) {
+        json.set(name, toNode(value));
+      } else {
+        attr.put(name, toValue(value));
+      }
+    }
+    
+    private static JsonNode toNode(Object value) {
+      if (value instanceof JsonNode) {
+        return ((JsonNode)value).deepCopy();
+      }
+      if (value instanceof Number || value instanceof Boolean || value instanceof String) {
+        return MAPPER.valueToTree(value);
+      }
+      return JsonNodeFactory.instance.textNode(value.toString());
+    }
+    
+    private static Object toValue(Object value) {
+      if (!(value instanceof JsonNode)) {
+        return value;
+      }
+      JsonNode node = (JsonNode)value;
+      if (node.isNumber()) {
+        return node.numberValue();
+      }
+      if (node.isBoolean()) {
+        return node.booleanValue();
+      }
+      if (node.isContainerNode()) {
+        return MAPPER.convertValue(node, Object.class);
+      }
+      return node.asText();
+    }
+    
+    void remove(ObjectNode json, Map<String,Object> attr) {
+      if (scope == Scope.JSON) {
+        json.remove(name);
+      } else {
+        attr.remove(name);
+      }
+    }
+    
+    @Override
+    public String toString() {
+      return String.format("%s.%s", scope, name);
+    }
+  }
+  
+  /**
+   * Mapping rule.
+   */
+  private static final class Rule {
+    final Field target;
+    final Field source;
+    final String literal;
+    final boolean move;
+
+    Rule(Field target, Field source, String literal, boolean move) {
+      this.target = target;
+      this.source = source;
+      this.literal = literal;
+      this.move = move;
+    }
+    
+    void apply(ObjectNode json, Map<String,Object> attr) {
+      if (source != null) {
+        Object value = source.get(json, attr);
+        if (move) {
+          source.remove(json, attr);
+        }
+        target.set(json, attr, value);
+      } else {
+        target.set(json, attr, literal);
+      }
+    }
+    
+    @Override
+    public String toString() {
+      return String.format("%s = %s", target, source!=null? (move? "~": "") + source: literal!=null? "\""+literal+"\"": "");
+    }
+  }
+}
@@ -24,6 +24,7 @@ import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
 import com.esri.geoportal.harvester.jdbc.ScriptProcessor.Data;
@@ -35,6 +36,7 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.Blob;
@@ -45,6 +47,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.DateTimeException;
 import java.time.ZoneId;
@@ -70,6 +73,7 @@ import org.slf4j.LoggerFactory;
  */
 /*package*/class JdbcBroker implements InputBroker {
   private static final Logger LOG = LoggerFactory.getLogger(JdbcBroker.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
   
   private final JdbcConnector connector;
   private final JdbcBrokerDefinitionAdaptor definition;
@@ -77,12 +81,17 @@ import org.slf4j.LoggerFactory;
   private PreparedStatement statement;
   private PreparedStatement idStatement;
   private ResultSet resultSet;
+  private int keyColumnIndex;
+  private int modifiedColumnIndex;
+  private String partitionExpression;
+  private final List<Partitions> openPartitions = new ArrayList<>();
   private final List<JsonPropertyInjector> jsonPropertyInjectors = new ArrayList<>();
   private final List<AttributeInjector> attributeInjectors = new ArrayList<>();
   private final Map<String,String> columnMappings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
   private RecordIdSetter idSetter;
   private TaskDefinition td;
   private ScriptProcessor scriptProcessor;
+  private FieldMapper fieldMapper;
 
   public JdbcBroker(JdbcConnector connector, JdbcBrokerDefinitionAdaptor definition) {
     this.connector = connector;
@@ -112,17 +121,22 @@ import org.slf4j.LoggerFactory;
   public void initialize(InitContext context) throws DataProcessorException {
     td = context.getTask().getTaskDefinition();
     parseColumnNames();
-    createConnection();
+    connection = createConnection();
     createStatement();
-    createResultSet();
-    createJsonPropertyInjectors();
-    createAttributeInjectors();
-    createRecordIdSetter();
+    createInjectors();
+    createFieldMapper();
     createScriptEngine();
   }
 
   @Override
   public void terminate() {
+    List<Partitions> toClose;
+    synchronized (openPartitions) {
+      toClose = new ArrayList<>(openPartitions);
+      openPartitions.clear();
+    }
+    toClose.forEach(Partitions::close);
+    
     try {
       if (resultSet != null) {
         resultSet.close();
@@ -161,7 +175,40 @@ import org.slf4j.LoggerFactory;
 
   @Override
   public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
-    return new JdbcIterator(iteratorContext);
+    List<String> conditions = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+    Date lastHarvest = iteratorContext.getLastHarvestDate();
+    if (lastHarvest != null && !StringUtils.isBlank(definition.getModifiedColumn())) {
+      conditions.add(String.format("%s > ?", definition.getModifiedColumn()));
+      values.add(new Timestamp(lastHarvest.getTime()));
+    }
+    
+    try {
+      if (definition.isPartitioned()) {
+        Partitions partitions = new Partitions();
+        synchronized (openPartitions) {
+          openPartitions.add(partitions);
+        }
+        try {
+          createPartitionStatements(partitions, conditions, values);
+          partitions.start();
+        } catch (SQLException|DataProcessorException ex) {
+          closePartitions(partitions);
+          throw ex;
+        }
+        return new PartitionedIterator(iteratorContext, partitions);
+      }
+      
+      if (definition.getPageSize() > 0 && keyColumnIndex > 0) {
+        return new KeysetIterator(iteratorContext, conditions, values);
+      }
+      
+      statement = createCursor(connection, createSelect(conditions), values);
+      resultSet = statement.executeQuery();
+      return new JdbcIterator(iteratorContext);
+    } catch (SQLException|DataProcessorException ex) {
+      throw new DataInputException(this, String.format("Error executing query for: %s", definition.getConnection()), ex);
+    }
   }
 
   @Override
@@ -192,10 +239,15 @@ import org.slf4j.LoggerFactory;
     }
   }
   
-  private void createConnection() throws DataProcessorException {
+  private Connection createConnection() throws DataProcessorException {
     try {
       Class.forName(definition.getDriverClass());
-      connection = DriverManager.getConnection(definition.getConnection(), definition.getCredentials().getUserName(), definition.getCredentials().getPassword());
+      Connection conn = DriverManager.getConnection(definition.getConnection(), definition.getCredentials().getUserName(), definition.getCredentials().getPassword());
+      if (definition.getFetchSize() > 0) {
+        // some drivers (PostgreSQL) honor fetch size only outside of auto-commit mode
+        conn.setAutoCommit(false);
+      }
+      return conn;
     } catch (ClassNotFoundException ex) {
       throw new DataProcessorException(String.format("Error loading JDBC driver class: %s", definition.getDriverClass()), ex);
     } catch (SQLException ex) {
@@ -203,12 +255,39 @@ import org.slf4j.LoggerFactory;
     }
   }
   
+  private String createSelect() {
+    return definition.getSqlStatement().split("\\p{Space}").length == 1 
+            ? String.format("SELECT * FROM %s", definition.getSqlStatement())
+            : definition.getSqlStatement();
+  }
+  
+  /**
+   * Creates select statement narrowed by the conditions. Alias is given without 
+   * 'AS' keyword since Oracle doesn't accept it for a table alias.
+   * @param conditions conditions
+   * @return select statement
+   */
+  private String createSelect(List<String> conditions) {
+    if (conditions.isEmpty()) {
+      return createSelect();
+    }
+    return String.format("SELECT * FROM (%s) data WHERE %s", createSelect(), 
+            conditions.stream().map(c -> String.format("(%s)", c)).collect(Collectors.joining(" AND ")));
+  }
+  
+  private PreparedStatement createCursor(Connection conn, String sql, List<Object> values) throws SQLException {
+    PreparedStatement st = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    if (definition.getFetchSize() > 0) {
+      st.setFetchSize(definition.getFetchSize());
+    }
+    for (int i=0; i<values.size(); i++) {
+      st.setObject(i + 1, values.get(i));
+    }
+    return st;
+  }
+  
   private void createStatement() throws DataProcessorException {
     try {
-      statement = definition.getSqlStatement().split("\\p{Space}").length == 1 
-              ? connection.prepareStatement(String.format("SELECT * FROM %s", definition.getSqlStatement())) 
-              : connection.prepareStatement(definition.getSqlStatement());
-      
       idStatement = definition.getSqlStatement().split("\\p{Space}").length == 1 
               ? connection.prepareStatement(String.format("SELECT * FROM %s WHERE %s = ?", definition.getSqlStatement(), definition.getFileIdColumn())) 
               : connection.prepareStatement(String.format("SELECT * FROM (%s) AS data WHERE %s = ?", definition.getSqlStatement(), definition.getFileIdColumn()));
@@ -217,32 +296,168 @@ import org.slf4j.LoggerFactory;
     }
   }
   
-  private void createResultSet() throws DataProcessorException {
-    try {
-      resultSet = statement.executeQuery();
+  /**
+   * Creates one statement per partition, each on its own connection. Rows with 
+   * no value in the partition column are read by the first partition.
+   * @param partitions partitions to populate
+   * @param conditions common conditions
+   * @param values common condition values
+   */
+  private void createPartitionStatements(Partitions partitions, List<String> conditions, List<Object> values) throws SQLException, DataProcessorException {
+    String column = definition.getPartitionColumn();
+    int count = definition.getPartitionCount();
+    
+    if (definition.getPartitionMode() == PartitionMode.RANGE) {
+      BigDecimal min = null, max = null;
+      try (
+              PreparedStatement st = createCursor(connection, String.format("SELECT MIN(%s), MAX(%s) FROM (%s) data", column, column, createSelect(conditions)), values);
+              ResultSet rs = st.executeQuery();
+          ) {
+        if (rs.next()) {
+          min = rs.getBigDecimal(1);
+          max = rs.getBigDecimal(2);
+        }
+      }
+      
+      if (min == null || max == null || min.compareTo(max) == 0) {
+        addPartitionStatement(partitions, conditions, values, null);
+        return;
+      }
+      
+      BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(count), 10, RoundingMode.HALF_UP);
+      for (int i=0; i<count; i++) {
+        BigDecimal lo = min.add(step.multiply(BigDecimal.valueOf(i)));
+        BigDecimal hi = min.add(step.multiply(BigDecimal.valueOf(i + 1)));
+        if (i == 0) {
+          addPartitionStatement(partitions, conditions, values, String.format("%s < ? OR %s IS NULL", column, column), hi);
+        } else if (i < count - 1) {
+          addPartitionStatement(partitions, conditions, values, String.format("%s >= ? AND %s < ?", column, column), lo, hi);
+        } else {
+          addPartitionStatement(partitions, conditions, values, String.format("%s >= ?", column), lo);
+        }
+      }
+    } else {
+      for (int i=0; i<count; i++) {
+        String where = String.format("MOD(ABS(%s), %d) = %d", partitionExpression, count, i);
+        addPartitionStatement(partitions, conditions, values, i == 0? String.format("%s OR %s IS NULL", where, column): where);
+      }
+    }
+  }
+  
+  private void addPartitionStatement(Partitions partitions, List<String> conditions, List<Object> values, String condition, Object...conditionValues) throws SQLException, DataProcessorException {
+    List<String> allConditions = new ArrayList<>(conditions);
+    List<Object> allValues = new ArrayList<>(values);
+    if (condition != null) {
+      allConditions.add(condition);
+      allValues.addAll(Arrays.asList(conditionValues));
+    }
+    
+    Connection conn = createConnection();
+    partitions.connections.add(conn);
+    partitions.statements.add(createCursor(conn, createSelect(allConditions), allValues));
+  }
+  
+  private void closePartitions(Partitions partitions) {
+    synchronized (openPartitions) {
+      openPartitions.remove(partitions);
+    }
+    partitions.close();
+  }
+  
+  /**
+   * Creates injectors. Query narrowed to no rows is executed only to obtain 
+   * metadata of the result set.
+   */
+  private void createInjectors() throws DataProcessorException {
+    try (
+            PreparedStatement st = connection.prepareStatement(createSelect(Arrays.asList("1 = 0")));
+            ResultSet rs = st.executeQuery();
+        ) {
+      ResultSetMetaData metaData = rs.getMetaData();
+      createJsonPropertyInjectors(metaData);
+      createAttributeInjectors(metaData);
+      createRecordIdSetter(metaData);
+      resolveKeyColumns(metaData);
+      validatePartitionColumn(metaData);
     } catch (SQLException ex) {
       throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
     }
   }
   
-  private <T> T readValue(ResultSet r, String columnName, Class<T> clazz) throws SQLException {
+  private void resolveKeyColumns(ResultSetMetaData metaData) throws SQLException {
+    for (int i=1; i<= metaData.getColumnCount(); i++) {
+      final String columnName = metaData.getColumnName(i);
+      if (columnName.equalsIgnoreCase(definition.getFileIdColumn())) {
+        keyColumnIndex = i;
+      }
+      if (columnName.equalsIgnoreCase(definition.getModifiedColumn())) {
+        modifiedColumnIndex = i;
+      }
+    }
+  }
+  
+  /**
+   * Validates partition column. Both range and modulus partitioning compute on 
+   * the column value, thus only numeric columns can be used.
+   * <p>
+   * Modulus partitioning relies on <code>MOD</code> function which is not 
+   * available on every database (SQL Server uses <code>%</code> operator); use
+   * range partitioning there. Columns with fractional values are partitioned
+   * on <code>FLOOR</code> of the value, otherwise rows with a fraction would
+   * match no partition.
+   * @param metaData result set meta data
+   * @throws DataProcessorException if partition column missing or not numeric
+   */
+  private void validatePartitionColumn(ResultSetMetaData metaData) throws SQLException, DataProcessorException {
+    if (!definition.isPartitioned()) {
+      return;
+    }
+    String column = definition.getPartitionColumn();
+    for (int i=1; i<= metaData.getColumnCount(); i++) {
+      if (metaData.getColumnName(i).equalsIgnoreCase(column)) {
+        switch (metaData.getColumnType(i)) {
+          case Types.TINYINT:
+          case Types.SMALLINT:
+          case Types.INTEGER:
+          case Types.BIGINT:
+            partitionExpression = column;
+            return;
+          case Types.DECIMAL:
+          case Types.NUMERIC:
+            partitionExpression = metaData.getScale(i) == 0? column: String.format("FLOOR(%s)", column);
+            return;
+          case Types.FLOAT:
+          case Types.REAL:
+          case Types.DOUBLE:
+            partitionExpression = String.format("FLOOR(%s)", column);
+            return;
+          default:
+            throw new DataProcessorException(String.format("Partition column %s is of type %s; %s partitioning requires a numeric column. Choose a numeric column or disable partitioning.", 
+                    column, metaData.getColumnTypeName(i), definition.getPartitionMode()));
+        }
+      }
+    }
+    throw new DataProcessorException(String.format("Partition column %s not found in the query result.", column));
+  }
+  
+  private <T> T readValue(ResultSet r, int columnIndex, Class<T> clazz) throws SQLException {
     switch (clazz.getSimpleName()) {
       case "String":
-        return (T)(r.getString(columnName));
+        return (T)(r.getString(columnIndex));
       case "Double":
-        return (T)(new Double(r.getDouble(columnName)));
+        return (T)(new Double(r.getDouble(columnIndex)));
       case "Float":
-        return (T)(new Float(r.getFloat(columnName)));
+        return (T)(new Float(r.getFloat(columnIndex)));
       case "Long":
-        return (T)(new Long(r.getLong(columnName)));
+        return (T)(new Long(r.getLong(columnIndex)));
       case "Integer":
-        return (T)(new Integer(r.getInt(columnName)));
+        return (T)(new Integer(r.getInt(columnIndex)));
       case "Short":
-        return (T)(new Integer(r.getShort(columnName)));
+        return (T)(new Integer(r.getShort(columnIndex)));
       case "BigDecimal":
-        return (T)(r.getBigDecimal(columnName));
+        return (T)(r.getBigDecimal(columnIndex));
       case "Boolean":
-        return (T)(new Boolean(r.getBoolean(columnName)));
+        return (T)(new Boolean(r.getBoolean(columnIndex)));
     }
     return null;
   }
@@ -251,7 +466,7 @@ import org.slf4j.LoggerFactory;
     return obj!=null? obj.toString(): "";
   }
   
-  private JsonPropertyInjector createJsonPropertyInjectors(final String fieldName, final String columnName, final int columnType) {
+  private JsonPropertyInjector createJsonPropertyInjectors(final String fieldName, final int columnIndex, final int columnType) {
     JsonPropertyInjector jsonPropertyInjector = null;
     
     switch (columnType) {
@@ -261,83 +476,78 @@ import org.slf4j.LoggerFactory;
       case Types.LONGNVARCHAR:
       case Types.NVARCHAR:
       case Types.NCHAR:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, readValue(r, columnName, String.class));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, readValue(r, columnIndex, String.class));
         break;
 
       case Types.DOUBLE:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnName, Double.class)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnIndex, Double.class)));
         break;
 
       case Types.FLOAT:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnName, Float.class)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnIndex, Float.class)));
         break;
 
       case Types.INTEGER:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnName, Integer.class)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnIndex, Integer.class)));
         break;
 
       case Types.SMALLINT:
       case Types.TINYINT:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnName, Short.class)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnIndex, Short.class)));
         break;
 
       case Types.BIGINT:
       case Types.DECIMAL:
       case Types.NUMERIC:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnName, BigDecimal.class)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnIndex, BigDecimal.class)));
         break;
     
       case Types.BOOLEAN:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnName, Boolean.class)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, safeToString(readValue(r, columnIndex, Boolean.class)));
         break;
 
       case Types.DATE:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, formatIsoDate(r.getDate(columnName)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, formatIsoDate(r.getDate(columnIndex)));
         break;
       case Types.TIME:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, formatIsoDate(r.getTime(columnName)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, formatIsoDate(r.getTime(columnIndex)));
         break;
       case Types.TIMESTAMP:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, formatIsoDate(r.getTimestamp(columnName)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, formatIsoDate(r.getTimestamp(columnIndex)));
         break;
         
       case Types.CLOB:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, formatClob(r.getClob(columnName)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, formatClob(r.getClob(columnIndex)));
         break;
         
       case Types.BLOB:
       case Types.BINARY:
       case Types.VARBINARY:
       case Types.LONGVARBINARY:
-        jsonPropertyInjector = (n, r)->n.put(fieldName, formatBlob(r.getBlob(columnName)));
+        jsonPropertyInjector = (n, r)->n.put(fieldName, formatBlob(r.getBlob(columnIndex)));
         break;
     }
     
     return jsonPropertyInjector;
   }
   
-  private void createJsonPropertyInjectors()  throws DataProcessorException {
-    try {
-      ResultSetMetaData metaData = resultSet.getMetaData();
-      for (int i=1; i<= metaData.getColumnCount(); i++) {
-        final String columnName = metaData.getColumnName(i);
-        final int columnType = metaData.getColumnType(i);
-
-        JsonPropertyInjector jsonPropertyInjector = null;
-        if (columnName.equalsIgnoreCase(definition.getFileIdColumn())) {
-          jsonPropertyInjector = createJsonPropertyInjectors("fileid", columnName, columnType);
-        } else if (columnName.equalsIgnoreCase(definition.getTitleColumn())) {
-          jsonPropertyInjector = createJsonPropertyInjectors("title", columnName, columnType);
-        } else if (columnName.equalsIgnoreCase(definition.getDescriptionColumn())) {
-          jsonPropertyInjector = createJsonPropertyInjectors("description", columnName, columnType);
-        }
-        
-        if (jsonPropertyInjector!=null) {
-          jsonPropertyInjectors.add(jsonPropertyInjector);
-        }
+  private void createJsonPropertyInjectors(ResultSetMetaData metaData) throws SQLException {
+    for (int i=1; i<= metaData.getColumnCount(); i++) {
+      final String columnName = metaData.getColumnName(i);
+      final int columnType = metaData.getColumnType(i);
+
+      JsonPropertyInjector jsonPropertyInjector = null;
+      if (columnName.equalsIgnoreCase(definition.getFileIdColumn())) {
+        jsonPropertyInjector = createJsonPropertyInjectors("fileid", i, columnType);
+      } else if (columnName.equalsIgnoreCase(definition.getTitleColumn())) {
+        jsonPropertyInjector = createJsonPropertyInjectors("title", i, columnType);
+      } else if (columnName.equalsIgnoreCase(definition.getDescriptionColumn())) {
+        jsonPropertyInjector = createJsonPropertyInjectors("description", i, columnType);
+      }
+      
+      if (jsonPropertyInjector!=null) {
+        jsonPropertyInjectors.add(jsonPropertyInjector);
       }
-    } catch (SQLException ex) {
-      throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
     }
   }
   
@@ -367,7 +577,7 @@ import org.slf4j.LoggerFactory;
     return attributeNames;
   }
   
-  private List<AttributeInjector> createAttributeInjectors(final String columnName, final int columnType) {
+  private List<AttributeInjector> createAttributeInjectors(final String columnName, final int columnIndex, final int columnType) {
     List<AttributeInjector> attributeInjectors = new ArrayList<>();
     
     switch (columnType) {
@@ -381,67 +591,67 @@ import org.slf4j.LoggerFactory;
         createAttributeNames("src_%s_txt", norm(columnName)).forEach(
                 name -> attributeInjectors.add((a,x,r)->{
                   if (!name.endsWith("_xml")) {
-                    a.put(name, readValue(r, columnName, String.class));
+                    a.put(name, readValue(r, columnIndex, String.class));
                   } else {
-                    x.xml = readValue(r, columnName, String.class);
+                    x.xml = readValue(r, columnIndex, String.class);
                   }
                 }));
         break;
 
       case Types.DOUBLE:
         createAttributeNames("src_%s_d", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnName, Double.class))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnIndex, Double.class))));
         break;
 
       case Types.FLOAT:
         createAttributeNames("src_%s_f", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnName, Float.class))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnIndex, Float.class))));
         break;
 
       case Types.INTEGER:
         createAttributeNames("src_%s_i", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnName, Integer.class))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnIndex, Integer.class))));
         break;
         
       case Types.SMALLINT:
       case Types.TINYINT:
         createAttributeNames("src_%s_i", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnName, Short.class))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnIndex, Short.class))));
         break;
 
       case Types.BIGINT:
       case Types.DECIMAL:
       case Types.NUMERIC:
         createAttributeNames("src_%s_d", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnName, BigDecimal.class))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnIndex, BigDecimal.class))));
         break;
 
       case Types.BOOLEAN:
         createAttributeNames("src_%s_b", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnName, Boolean.class))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, readValue(r, columnIndex, Boolean.class))));
         break;
 
 
       case Types.DATE:
         createAttributeNames("src_%s_dt", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, formatIsoDate(r.getDate(columnName)))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, formatIsoDate(r.getDate(columnIndex)))));
         break;
       case Types.TIME:
         createAttributeNames("src_%s_dt", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, formatIsoDate(r.getTime(columnName)))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, formatIsoDate(r.getTime(columnIndex)))));
         break;
       case Types.TIMESTAMP:
         createAttributeNames("src_%s_dt", norm(columnName)).forEach(
-                name -> attributeInjectors.add((a,x,r)->a.put(name, formatIsoDate(r.getTimestamp(columnName)))));
+                name -> attributeInjectors.add((a,x,r)->a.put(name, formatIsoDate(r.getTimestamp(columnIndex)))));
         break;
         
       case Types.CLOB:
         createAttributeNames("src_%s_txt", norm(columnName)).forEach(
                 name -> attributeInjectors.add((a,x,r)->{ 
                   if (!name.endsWith("_xml")) {
-                    a.put(name, formatClob(r.getClob(columnName))); 
+                    a.put(name, formatClob(r.getClob(columnIndex))); 
                   } else {
-                    x.xml = formatClob(r.getClob(columnName));
+                    x.xml = formatClob(r.getClob(columnIndex));
                   }
                 }));
         break;
@@ -452,7 +662,7 @@ import org.slf4j.LoggerFactory;
       case Types.LONGVARBINARY:
         if (columnMappings.containsKey(norm(columnName)) && columnMappings.get(norm(columnName)).endsWith("_txt")) {
           createAttributeNames("src_%s_txt", norm(columnName)).forEach(
-              name -> attributeInjectors.add((a,x,r)->a.put(name, formatBlob(r.getBlob(columnName)))));
+              name -> attributeInjectors.add((a,x,r)->a.put(name, formatBlob(r.getBlob(columnIndex)))));
         }
         break;
     }
@@ -460,68 +670,70 @@ import org.slf4j.LoggerFactory;
     return attributeInjectors;
   }
   
-  private void createAttributeInjectors() throws DataProcessorException {
-    try {
-      ResultSetMetaData metaData = resultSet.getMetaData();
-      for (int i=1; i<= metaData.getColumnCount(); i++) {
-        final String columnName = metaData.getColumnName(i);
-        final int columnType = metaData.getColumnType(i);
-        
-        attributeInjectors.addAll(createAttributeInjectors(columnName, columnType));
-      }
-    } catch (SQLException ex) {
-      throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
+  private void createAttributeInjectors(ResultSetMetaData metaData) throws SQLException {
+    for (int i=1; i<= metaData.getColumnCount(); i++) {
+      final String columnName = metaData.getColumnName(i);
+      final int columnType = metaData.getColumnType(i);
+      
+      attributeInjectors.addAll(createAttributeInjectors(columnName, i, columnType));
     }
   }
   
   
-  private void createRecordIdSetter()  throws DataProcessorException {
-    try {
-      ResultSetMetaData metaData = resultSet.getMetaData();
-      for (int i=1; i<= metaData.getColumnCount(); i++) {
-        final String columnName = metaData.getColumnName(i);
-        final int columnType = metaData.getColumnType(i);
-
-        if (columnName.equalsIgnoreCase(definition.getFileIdColumn())) {
-          switch (columnType) {
-            case Types.VARCHAR:
-            case Types.CHAR:
-            case Types.LONGVARCHAR:
-            case Types.LONGNVARCHAR:
-            case Types.NVARCHAR:
-            case Types.NCHAR:
-            case Types.SQLXML:
-              idSetter = (st, id)-> st.setString(1, id);
-              break;
-
-            case Types.DOUBLE:
-              idSetter = (st, id)-> st.setDouble(1, NumberUtils.toDouble(id));
-              break;
-
-            case Types.FLOAT:
-              idSetter = (st, id)-> st.setFloat(1, NumberUtils.toFloat(id));
-              break;
-
-            case Types.INTEGER:
-            case Types.SMALLINT:
-            case Types.TINYINT:
-            case Types.BIGINT:
-            case Types.DECIMAL:
-            case Types.NUMERIC:
-              idSetter = (st, id)-> st.setInt(1, NumberUtils.toInt(id));
-              break;
-          }
-          break;
+  private void createRecordIdSetter(ResultSetMetaData metaData) throws SQLException {
+    for (int i=1; i<= metaData.getColumnCount(); i++) {
+      final String columnName = metaData.getColumnName(i);
+      final int columnType = metaData.getColumnType(i);
+
+      if (columnName.equalsIgnoreCase(definition.getFileIdColumn())) {
+        switch (columnType) {
+          case Types.VARCHAR:
+          case Types.CHAR:
+          case Types.LONGVARCHAR:
+          case Types.LONGNVARCHAR:
+          case Types.NVARCHAR:
+          case Types.NCHAR:
+          case Types.SQLXML:
+            idSetter = (st, id)-> st.setString(1, id);
+            break;
+
+          case Types.DOUBLE:
+            idSetter = (st, id)-> st.setDouble(1, NumberUtils.toDouble(id));
+            break;
+
+          case Types.FLOAT:
+            idSetter = (st, id)-> st.setFloat(1, NumberUtils.toFloat(id));
+            break;
+
+          case Types.INTEGER:
+          case Types.SMALLINT:
+          case Types.TINYINT:
+          case Types.BIGINT:
+          case Types.DECIMAL:
+          case Types.NUMERIC:
+            idSetter = (st, id)-> st.setInt(1, NumberUtils.toInt(id));
+            break;
         }
+        break;
       }
-    } catch (SQLException ex) {
-      throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
+    }
+  }
+  
+  private void createFieldMapper() throws DataProcessorException {
+    try {
+      fieldMapper = FieldMapper.parse(definition.getFieldMapping());
+    } catch (InvalidDefinitionException ex) {
+      throw new DataProcessorException(String.format("Error parsing field mapping: %s", definition.getFieldMapping()), ex);
     }
   }
   
   private void createScriptEngine() throws DataProcessorException {
     if (!StringUtils.isBlank(definition.getScript())) {
-      scriptProcessor = new ScriptProcessor(definition.getScript());
+      try {
+        scriptProcessor = new ScriptProcessor(definition.getScript());
+      } catch (ScriptException ex) {
+        throw new DataProcessorException(String.format("Error compiling script."), ex);
+      }
     }
   }
   
@@ -573,8 +785,7 @@ import org.slf4j.LoggerFactory;
   }
   
   private DataReference createReference(ResultSet resultSet) throws SQLException, JsonProcessingException, URISyntaxException, UnsupportedEncodingException, ScriptException  {
-    ObjectMapper mapper = new ObjectMapper();
-    ObjectNode node = mapper.createObjectNode();
+    ObjectNode node = MAPPER.createObjectNode();
     Map<String,Object> attr = new HashMap<>();
     XmlHolder xmlHolder = new XmlHolder();
     
@@ -585,13 +796,18 @@ import org.slf4j.LoggerFactory;
     for (AttributeInjector attributeInjector: attributeInjectors) {
       attributeInjector.inject(attr, xmlHolder, resultSet);
     }
+    
+    if (fieldMapper != null) {
+      fieldMapper.apply(node, attr);
+    }
 
     String nodeAsJson;
-    String id = node.get("fileid").textValue();
+    String id = node.get("fileid").asText();
     URI sourceUri = new URI("uuid", id, null);
     String sourceRef = td.getSource().getRef();
     String taskRef = td.getRef();
-    SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), getEntityDefinition().getLabel(), id, null, sourceUri, sourceRef, taskRef);
+    Date lastModifiedDate = modifiedColumnIndex > 0? resultSet.getTimestamp(modifiedColumnIndex): null;
+    SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), getEntityDefinition().getLabel(), id, lastModifiedDate, sourceUri, sourceRef, taskRef);
     
     if (scriptProcessor != null) {
       Data data = new Data();
@@ -603,14 +819,14 @@ import org.slf4j.LoggerFactory;
       data.put("sourceRef", sourceRef);
       data.put("taskRef", taskRef);
       
-      data.json = mapper.convertValue(node, Map.class);
+      data.json = MAPPER.convertValue(node, Map.class);
       data.attr = attr;
       
       data = scriptProcessor.process(data);
-      nodeAsJson = mapper.writeValueAsString(data.json);
+      nodeAsJson = MAPPER.writeValueAsString(data.json);
       attr = data.attr;
     } else {
-      nodeAsJson = mapper.writeValueAsString(node);
+      nodeAsJson = MAPPER.writeValueAsString(node);
     }
     
     if (xmlHolder.xml!=null) {
@@ -671,4 +887,189 @@ import org.slf4j.LoggerFactory;
       }
     }
   }
+
+  /**
+   * Keyset paginated iterator. Reads data in pages ordered by the record id, 
+   * each page being a separate query starting after the last id of the previous 
+   * page, so no cursor stays open for the whole harvest. Rows with no id are 
+   * skipped.
+   */
+  private class KeysetIterator implements InputBroker.Iterator {
+    private final IteratorContext iteratorContext;
+    private final List<String> conditions;
+    private final List<Object> values;
+    private Object lastKey;
+    private int rows;
+    private boolean exhausted;
+
+    /**
+     * Creates instance of the iterator.
+     * @param iteratorContext iterator context
+     * @param conditions common conditions
+     * @param values common condition values
+     */
+    public KeysetIterator(IteratorContext iteratorContext, List<String> conditions, List<Object> values) {
+      this.iteratorContext = iteratorContext;
+      this.conditions = conditions;
+      this.values = values;
+    }
+
+    @Override
+    public boolean hasNext() throws DataInputException {
+      try {
+        while (true) {
+          if (resultSet == null) {
+            if (exhausted) {
+              return false;
+            }
+            openPage();
+          }
+          if (resultSet.next()) {
+            rows++;
+            lastKey = resultSet.getObject(keyColumnIndex);
+            return true;
+          }
+          closePage();
+          exhausted = rows < definition.getPageSize();
+        }
+      } catch (SQLException ex) {
+        throw new DataInputException(JdbcBroker.this, String.format("Error iterating data."), ex);
+      }
+    }
+
+    @Override
+    public DataReference next() throws DataInputException {
+      try {
+        return createReference(resultSet);
+      } catch (SQLException|URISyntaxException|UnsupportedEncodingException|JsonProcessingException|ScriptException ex) {
+        throw new DataInputException(JdbcBroker.this, String.format("Error reading data"), ex);
+      }
+    }
+    
+    private void openPage() throws SQLException {
+      List<String> pageConditions = new ArrayList<>(conditions);
+      List<Object> pageValues = new ArrayList<>(values);
+      if (lastKey != null) {
+        pageConditions.add(String.format("%s > ?", definition.getFileIdColumn()));
+        pageValues.add(lastKey);
+      } else {
+        pageConditions.add(String.format("%s IS NOT NULL", definition.getFileIdColumn()));
+      }
+      String sql = String.format("%s ORDER BY %s", createSelect(pageConditions), definition.getFileIdColumn());
+      
+      statement = createCursor(connection, sql, pageValues);
+      statement.setMaxRows(definition.getPageSize());
+      resultSet = statement.executeQuery();
+      rows = 0;
+    }
+    
+    private void closePage() throws SQLException {
+      try {
+        resultSet.close();
+        statement.close();
+        if (!connection.getAutoCommit()) {
+          // ends transaction so no snapshot is held between pages
+          connection.commit();
+        }
+      } finally {
+        resultSet = null;
+        statement = null;
+      }
+    }
+  }
+
+  /**
+   * Connections, statements and result sets of a single partitioned read.
+   */
+  private class Partitions {
+    private final List<Connection> connections = new ArrayList<>();
+    private final List<PreparedStatement> statements = new ArrayList<>();
+    private final List<ResultSet> resultSets = new ArrayList<>();
+    private PartitionedReader reader;
+    
+    void start() throws SQLException {
+      for (PreparedStatement st: statements) {
+        resultSets.add(st.executeQuery());
+      }
+      reader = new PartitionedReader(resultSets, JdbcBroker.this::createReference, Math.max(definition.getFetchSize(), JdbcConstants.DEFAULT_FETCH_SIZE));
+      reader.start();
+    }
+    
+    synchronized void close() {
+      if (reader != null) {
+        reader.close();
+        reader = null;
+      }
+
+      for (ResultSet rs: resultSets) {
+        try {
+          rs.close();
+        } catch(SQLException ex) {
+          LOG.warn(String.format("Unexpected error closing result set."), ex);
+        }
+      }
+      resultSets.clear();
+
+      for (PreparedStatement st: statements) {
+        try {
+          st.close();
+        } catch (SQLException ex) {
+          LOG.warn(String.format("Unexpected error closing statement."), ex);
+        }
+      }
+      statements.clear();
+
+      for (Connection conn: connections) {
+        try {
+          conn.close();
+        } catch (SQLException ex) {
+          LOG.warn(String.format("Unexpected error closing connection to: %s", definition.getConnection()), ex);
+        }
+      }
+      connections.clear();
+    }
+  }
+
+  private class PartitionedIterator implements InputBroker.Iterator {
+    private final IteratorContext iteratorContext;
+    private final Partitions partitions;
+    private final PartitionedReader reader;
+    private DataReference nextRef;
+
+    /**
+     * Creates instance of the iterator.
+     * @param iteratorContext iterator context
+     * @param partitions partitions being read
+     */
+    public PartitionedIterator(IteratorContext iteratorContext, Partitions partitions) {
+      this.iteratorContext = iteratorContext;
+      this.partitions = partitions;
+      this.reader = partitions.reader;
+    }
+
+    @Override
+    public boolean hasNext() throws DataInputException {
+      try {
+        if (nextRef == null) {
+          nextRef = reader.take();
+          if (nextRef == null) {
+            closePartitions(partitions);
+          }
+        }
+        return nextRef != null;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new DataInputException(JdbcBroker.this, String.format("Iterating data interrupted."), ex);
+      } catch (Exception ex) {
+        throw new DataInputException(JdbcBroker.this, String.format("Error iterating data."), ex);
+      }
+    }
+
+    @Override
+    public DataReference next() throws DataInputException {
+      DataReference ref = nextRef;
+      nextRef = null;
+      return ref;
+    }
+  }
 }
@@ -23,6 +23,7 @@ import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import java.util.Arrays;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * JDBC broker definition adaptor.
@@ -37,6 +38,13 @@ import org.apache.commons.lang3.StringUtils;
   private String descriptionColumn;
   private String types;
   private String script;
+  private String fieldMapping;
+  private int fetchSize = JdbcConstants.DEFAULT_FETCH_SIZE;
+  private String partitionColumn;
+  private PartitionMode partitionMode = PartitionMode.MODULUS;
+  private int partitionCount = 1;
+  private String modifiedColumn;
+  private int pageSize;
 
   /**
    * Creates instance of the adaptor.
@@ -60,6 +68,13 @@ import org.apache.commons.lang3.StringUtils;
       descriptionColumn = get(JdbcConstants.P_JDBC_DESCRIPTION_COLUMN);
       types = get(JdbcConstants.P_JDBC_TYPES);
       script = get(JdbcConstants.P_JDBC_SCRIPT);
+      fieldMapping = get(JdbcConstants.P_JDBC_FIELD_MAPPING);
+      fetchSize = Math.max(0, NumberUtils.toInt(get(JdbcConstants.P_JDBC_FETCH_SIZE), JdbcConstants.DEFAULT_FETCH_SIZE));
+      partitionColumn = get(JdbcConstants.P_JDBC_PARTITION_COLUMN);
+      partitionMode = PartitionMode.parse(get(JdbcConstants.P_JDBC_PARTITION_MODE), PartitionMode.MODULUS);
+      partitionCount = Math.max(1, NumberUtils.toInt(get(JdbcConstants.P_JDBC_PARTITION_COUNT), 1));
+      modifiedColumn = get(JdbcConstants.P_JDBC_MODIFIED_COLUMN);
+      pageSize = Math.max(0, NumberUtils.toInt(get(JdbcConstants.P_JDBC_PAGE_SIZE), 0));
       
       validate();
     }
@@ -75,6 +90,13 @@ import org.apache.commons.lang3.StringUtils;
     consume(params,JdbcConstants.P_JDBC_DESCRIPTION_COLUMN);
     consume(params,JdbcConstants.P_JDBC_TYPES);
     consume(params,JdbcConstants.P_JDBC_SCRIPT);
+    consume(params,JdbcConstants.P_JDBC_FIELD_MAPPING);
+    consume(params,JdbcConstants.P_JDBC_FETCH_SIZE);
+    consume(params,JdbcConstants.P_JDBC_PARTITION_COLUMN);
+    consume(params,JdbcConstants.P_JDBC_PARTITION_MODE);
+    consume(params,JdbcConstants.P_JDBC_PARTITION_COUNT);
+    consume(params,JdbcConstants.P_JDBC_MODIFIED_COLUMN);
+    consume(params,JdbcConstants.P_JDBC_PAGE_SIZE);
     credAdaptor.override(params);
   }
 
@@ -166,8 +188,113 @@ import org.apache.commons.lang3.StringUtils;
     set(JdbcConstants.P_JDBC_SCRIPT, script);
   }
   
+  public String getFieldMapping() {
+    return fieldMapping;
+  }
+
+  public void setFieldMapping(String fieldMapping) {
+    this.fieldMapping = fieldMapping;
+    set(JdbcConstants.P_JDBC_FIELD_MAPPING, fieldMapping);
+  }
+  
+  /**
+   * Gets fetch size.
+   * @return fetch size or 0 to use driver default
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Sets fetch size.
+   * @param fetchSize fetch size or 0 to use driver default
+   */
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+    set(JdbcConstants.P_JDBC_FETCH_SIZE, Integer.toString(fetchSize));
+  }
+
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  public void setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+    set(JdbcConstants.P_JDBC_PARTITION_COLUMN, partitionColumn);
+  }
+
+  public PartitionMode getPartitionMode() {
+    return partitionMode;
+  }
+
+  public void setPartitionMode(PartitionMode partitionMode) {
+    this.partitionMode = partitionMode;
+    set(JdbcConstants.P_JDBC_PARTITION_MODE, partitionMode.name());
+  }
+
+  /**
+   * Gets number of partitions read in parallel.
+   * @return number of partitions
+   */
+  public int getPartitionCount() {
+    return partitionCount;
+  }
+
+  /**
+   * Sets number of partitions read in parallel.
+   * @param partitionCount number of partitions
+   */
+  public void setPartitionCount(int partitionCount) {
+    this.partitionCount = partitionCount;
+    set(JdbcConstants.P_JDBC_PARTITION_COUNT, Integer.toString(partitionCount));
+  }
+  
+  /**
+   * Gets modified column. When set, incremental harvest reads only rows 
+   * modified after the last harvest.
+   * @return modified column or <code>null</code>
+   */
+  public String getModifiedColumn() {
+    return modifiedColumn;
+  }
+
+  /**
+   * Sets modified column.
+   * @param modifiedColumn modified column or <code>null</code>
+   */
+  public void setModifiedColumn(String modifiedColumn) {
+    this.modifiedColumn = modifiedColumn;
+    set(JdbcConstants.P_JDBC_MODIFIED_COLUMN, modifiedColumn);
+  }
+
+  /**
+   * Gets page size of keyset pagination.
+   * @return page size or 0 to read through a single cursor
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Sets page size of keyset pagination.
+   * @param pageSize page size or 0 to read through a single cursor
+   */
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+    set(JdbcConstants.P_JDBC_PAGE_SIZE, Integer.toString(pageSize));
+  }
+  
+  /**
+   * Checks if partitioned reading is enabled.
+   * @return <code>true</code> if partitioned
+   */
+  public boolean isPartitioned() {
+    return partitionCount > 1 && !StringUtils.isBlank(partitionColumn);
+  }
+  
   private void validate() throws InvalidDefinitionException {
     JdbcValidator.validateStatement(getSqlStatement());
+    FieldMapper.parse(getFieldMapping());
   }
   
 }
@@ -19,10 +19,12 @@ import static com.esri.geoportal.commons.constants.CredentialsConstants.P_CRED_P
 import static com.esri.geoportal.commons.constants.CredentialsConstants.P_CRED_USERNAME;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.defs.UITemplate.Choice;
 import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -80,6 +82,38 @@ public class JdbcConnector  implements InputConnector<InputBroker> {
         return bundle.getString("jdbc.mapping.hint");
       }
     });
+    arguments.add(new UITemplate.TextArgument(JdbcConstants.P_JDBC_FIELD_MAPPING, bundle.getString("jdbc.field.mapping")){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.field.mapping.hint");
+      }
+    });
+    arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_MODIFIED_COLUMN, bundle.getString("jdbc.modified")){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.modified.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(JdbcConstants.P_JDBC_PAGE_SIZE, bundle.getString("jdbc.page.size"), false, 0){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.page.size.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(JdbcConstants.P_JDBC_FETCH_SIZE, bundle.getString("jdbc.fetch.size"), false, JdbcConstants.DEFAULT_FETCH_SIZE));
+    arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_PARTITION_COLUMN, bundle.getString("jdbc.partition.column")){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.partition.column.hint");
+      }
+    });
+    Choice[] modes = Arrays.stream(PartitionMode.values()).map(m -> new Choice<String>(m.name(), bundle.getString(String.format("jdbc.partition.mode.%s", m)))).toArray(Choice[]::new);
+    arguments.add(new UITemplate.ChoiceArgument(JdbcConstants.P_JDBC_PARTITION_MODE, bundle.getString("jdbc.partition.mode"), Arrays.asList(modes)){
+      public String getDefault() {
+        return PartitionMode.MODULUS.name();
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(JdbcConstants.P_JDBC_PARTITION_COUNT, bundle.getString("jdbc.partition.count"), false, 1));
     if (scriptEnabled) {
       arguments.add(new UITemplate.TextArgument(JdbcConstants.P_JDBC_SCRIPT, bundle.getString("jdbc.script")){
         @Override
@@ -27,4 +27,13 @@ package com.esri.geoportal.harvester.jdbc;
   public static String P_JDBC_DESCRIPTION_COLUMN = "jdbc-description-column";
   public static String P_JDBC_TYPES              = "jdbc-types";
   public static String P_JDBC_SCRIPT             = "jdbc-script";
+  public static String P_JDBC_FIELD_MAPPING      = "jdbc-field-mapping";
+  public static String P_JDBC_FETCH_SIZE         = "jdbc-fetch-size";
+  public static String P_JDBC_PARTITION_COLUMN   = "jdbc-partition-column";
+  public static String P_JDBC_PARTITION_MODE     = "jdbc-partition-mode";
+  public static String P_JDBC_PARTITION_COUNT    = "jdbc-partition-count";
+  public static String P_JDBC_MODIFIED_COLUMN    = "jdbc-modified-column";
+  public static String P_JDBC_PAGE_SIZE          = "jdbc-page-size";
+  
+  public static final int DEFAULT_FETCH_SIZE     = 500;
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import java.util.Arrays;
+
+/**
+ * Partition mode.
+ */
+/*package*/ enum PartitionMode {
+  /**
+   * Key range of the partition column split into equal intervals.
+   */
+  RANGE,
+  /**
+   * Modulus of the partition column. Uses <code>MOD</code> function, which is
+   * not available on SQL Server; use {@link #RANGE} there.
+   */
+  MODULUS;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+
+  /**
+   * Parses partition mode.
+   * @param mode mode name
+   * @param def default mode
+   * @return mode
+   */
+  public static PartitionMode parse(String mode, PartitionMode def) {
+    return Arrays.stream(PartitionMode.values()).filter(m -> m.name().equalsIgnoreCase(mode)).findFirst().orElse(def);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import com.esri.geoportal.harvester.api.DataReference;
+import java.io.Closeable;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Partitioned reader. Reads several result sets at once, each on its own 
+ * thread, and hands over records through a bounded queue.
+ */
+/*package*/ class PartitionedReader implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionedReader.class);
+  private static final long OFFER_TIMEOUT = 500;
+  
+  private final List<ResultSet> resultSets;
+  private final RowReader rowReader;
+  private final BlockingQueue<Item> queue;
+  private final List<Thread> threads = new ArrayList<>();
+  private volatile boolean closed;
+  private int active;
+
+  /**
+   * Creates instance of the reader.
+   * @param resultSets result sets, one per partition
+   * @param rowReader row reader
+   * @param capacity capacity of the queue
+   */
+  public PartitionedReader(List<ResultSet> resultSets, RowReader rowReader, int capacity) {
+    this.resultSets = resultSets;
+    this.rowReader = rowReader;
+    this.queue = new ArrayBlockingQueue<>(Math.max(capacity, resultSets.size()));
+  }
+  
+  /**
+   * Starts reading threads.
+   */
+  public void start() {
+    active = resultSets.size();
+    for (int i=0; i<resultSets.size(); i++) {
+      final ResultSet resultSet = resultSets.get(i);
+      Thread thread = new Thread(() -> read(resultSet), String.format("JDBC partition reader %d of %d", i + 1, resultSets.size()));
+      thread.setDaemon(true);
+      threads.add(thread);
+      thread.start();
+    }
+  }
+  
+  /**
+   * Takes next record; waits until any partition produces one.
+   * @return record or <code>null</code> if all partitions are exhausted
+   * @throws Exception if reading any partition failed or waiting has been interrupted
+   */
+  public DataReference take() throws Exception {
+    while (active > 0) {
+      Item item = queue.take();
+      if (item.error != null) {
+        throw item.error;
+      }
+      if (item.ref != null) {
+        return item.ref;
+      }
+      active--;
+    }
+    return null;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    threads.forEach(Thread::interrupt);
+    queue.clear();
+  }
+  
+  private void read(ResultSet resultSet) {
+    try {
+      while (!closed && resultSet.next()) {
+        put(new Item(rowReader.read(resultSet), null));
+      }
+      put(new Item(null, null));
+    } catch (InterruptedException ex) {
+      LOG.debug(String.format("Partition reading interrupted."));
+    } catch (Exception ex) {
+      try {
+        put(new Item(null, ex));
+      } catch (InterruptedException iex) {
+        LOG.debug(String.format("Partition reading interrupted."));
+      }
+    }
+  }
+  
+  private void put(Item item) throws InterruptedException {
+    while (!closed) {
+      if (queue.offer(item, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    }
+  }
+  
+  /**
+   * Row reader.
+   */
+  @FunctionalInterface
+  public interface RowReader {
+    /**
+     * Reads current row of the result set.
+     * @param resultSet result set
+     * @return data reference
+     * @throws Exception if reading fails
+     */
+    DataReference read(ResultSet resultSet) throws Exception;
+  }
+  
+  /**
+   * Queue item; both fields empty marks end of a partition.
+   */
+  private static final class Item {
+    final DataReference ref;
+    final Exception error;
+
+    Item(DataReference ref, Exception error) {
+      this.ref = ref;
+      this.error = error;
+    }
+  }
+}
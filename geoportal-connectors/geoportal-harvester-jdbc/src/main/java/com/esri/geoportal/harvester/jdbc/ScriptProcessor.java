@@ -15,48 +15,81 @@
  */
 package com.esri.geoportal.harvester.jdbc;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.esri.geoportal.commons.meta.js.ScriptEngines;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
 
 /**
  * Script processor.
+ * <p>
+ * Script is compiled once upon creation of the processor and evaluated for 
+ * each record within a context private to the calling thread, thus the same 
+ * processor can be used by several threads at once. Only <code>globals</code> 
+ * is shared between evaluations.
  */
 /*package*/ class ScriptProcessor {
-  private final ObjectMapper mapper = new ObjectMapper();
-  private final ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
+  private final ScriptEngine engine;
+  private final CompiledScript compiled;
   private final String script;
-  private Map globals = new HashMap<>();
+  private final ThreadLocal<ScriptContext> contexts = ThreadLocal.withInitial(this::createContext);
+  private volatile Map globals = new ConcurrentHashMap<>();
 
   /**
    * Creates instance of the script processor.
    * @param script script
+   * @throws ScriptException if script engine is not available or script can not be compiled
    */
-  public ScriptProcessor(String script) {
+  public ScriptProcessor(String script) throws ScriptException {
     this.script = script;
+    this.engine = new ScriptEngines().createEngine();
+    if (engine == null) {
+      throw new ScriptException("JavaScript engine is not available.");
+    }
+    this.compiled = engine instanceof Compilable? ((Compilable)engine).compile(script): null;
   }
   
   /**
    * Process data through the script.
    * @param data data to process
-   * @return processed data as JSON string
+   * @return processed data
    * @throws ScriptException if error executing script
-   * @throws JsonProcessingException if error transforming JSON data
    */
-  public Data process(Data data) throws ScriptException, JsonProcessingException {
-    engine.put("globals", globals);
-    engine.put("data", data);
+  public Data process(Data data) throws ScriptException {
+    ScriptContext context = contexts.get();
+    Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+    bindings.put("globals", globals);
+    bindings.put("data", data);
     
-    engine.eval(script);
-    
-    globals = (Map)engine.get("globals");
-    data = (Data)engine.get("data");
-    
-    return data;
+    try {
+      if (compiled != null) {
+        compiled.eval(context);
+      } else {
+        engine.eval(script, context);
+      }
+      
+      Object g = bindings.get("globals");
+      if (g instanceof Map && g != globals) {
+        globals = (Map)g;
+      }
+      
+      return (Data)bindings.get("data");
+    } finally {
+      bindings.remove("data");
+    }
+  }
+  
+  private ScriptContext createContext() {
+    ScriptContext context = new SimpleScriptContext();
+    context.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+    return context;
   }
   
   /**
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Field mapper test.
+ */
+public class FieldMapperTest {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  
+  @Test
+  public void testJsonTypesPreserved() throws Exception {
+    ObjectNode json = (ObjectNode)MAPPER.readTree("{\"count\": 5, \"ratio\": 0.5, \"active\": true, \"tags\": [\"a\", \"b\"]}");
+    Map<String,Object> attr = new HashMap<>();
+    
+    FieldMapper mapper = FieldMapper.parse("json.total = json.count; json.enabled = json.active; json.keywords = json.tags; json.share = ~json.ratio");
+    mapper.apply(json, attr);
+    
+    assertTrue("Number type lost", json.get("total").isInt());
+    assertEquals("Invalid number value", 5, json.get("total").intValue());
+    assertTrue("Boolean type lost", json.get("enabled").isBoolean());
+    assertTrue("Array type lost", json.get("keywords").isArray());
+    assertEquals("Invalid array size", 2, json.get("keywords").size());
+    assertTrue("Number type lost on move", json.get("share").isDouble());
+    assertFalse("Moved field not removed", json.has("ratio"));
+  }
+  
+  @Test
+  public void testJsonToAttr() throws Exception {
+    ObjectNode json = (ObjectNode)MAPPER.readTree("{\"count\": 5, \"active\": false, \"title\": \"Title\", \"tags\": [\"a\"]}");
+    Map<String,Object> attr = new HashMap<>();
+    
+    FieldMapper mapper = FieldMapper.parse("attr.count = json.count\nattr.active = json.active\nattr.title = json.title\nattr.tags = json.tags");
+    mapper.apply(json, attr);
+    
+    assertEquals("Invalid number attribute", 5, attr.get("count"));
+    assertEquals("Invalid boolean attribute", Boolean.FALSE, attr.get("active"));
+    assertEquals("Invalid text attribute", "Title", attr.get("title"));
+    assertTrue("Invalid array attribute", attr.get("tags") instanceof java.util.List);
+  }
+  
+  @Test
+  public void testAttrToJson() throws Exception {
+    ObjectNode json = MAPPER.createObjectNode();
+    Map<String,Object> attr = new HashMap<>();
+    attr.put("size", 10L);
+    attr.put("flag", true);
+    attr.put("name", "Name");
+    
+    FieldMapper mapper = FieldMapper.parse("json.size = attr.size; json.flag = attr.flag; json.name = attr.name; json.literal = \"a;b\"");
+    mapper.apply(json, attr);
+    
+    assertTrue("Number type lost", json.get("size").isIntegralNumber());
+    assertEquals("Invalid number value", 10L, json.get("size").longValue());
+    assertTrue("Boolean type lost", json.get("flag").isBoolean());
+    assertEquals("Invalid text value", "Name", json.get("name").textValue());
+    assertEquals("Invalid literal value", "a;b", json.get("literal").textValue());
+  }
+  
+  @Test
+  public void testRemove() throws Exception {
+    ObjectNode json = (ObjectNode)MAPPER.readTree("{\"secret\": 1}");
+    Map<String,Object> attr = new HashMap<>();
+    attr.put("password", "pwd");
+    
+    FieldMapper mapper = FieldMapper.parse("json.secret =\nattr.password =");
+    mapper.apply(json, attr);
+    
+    assertFalse("JSON field not removed", json.has("secret"));
+    assertFalse("Attribute not removed", attr.containsKey("password"));
+  }
+  
+  @Test
+  public void testEmptyMapping() throws Exception {
+    assertNull("Mapper created for empty mapping", FieldMapper.parse(" \n# comment"));
+  }
+  
+  @Test(expected = com.esri.geoportal.harvester.api.ex.InvalidDefinitionException.class)
+  public void testInvalidRule() throws Exception {
+    FieldMapper.parse("title = json.title");
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.base.SimpleInitContext;
+import com.esri.geoportal.harvester.api.base.SimpleIteratorContext;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * JDBC broker test.
+ */
+public class JdbcBrokerTest {
+  private static final String URL = "jdbc:h2:mem:jdbcbroker;DB_CLOSE_DELAY=-1";
+  private static final int RECORDS = 50;
+  private static final long MODIFIED = 1500000000000L;
+  
+  private Connection connection;
+  private JdbcBroker broker;
+  
+  @Before
+  public void setUp() throws Exception {
+    connection = DriverManager.getConnection(URL, "sa", "");
+    try (Statement st = connection.createStatement()) {
+      st.execute("CREATE TABLE RECORDS (ID INT, CODE VARCHAR(36), TITLE VARCHAR(255), SCORE DECIMAL(10,2), MODIFIED TIMESTAMP)");
+    }
+    try (PreparedStatement st = connection.prepareStatement("INSERT INTO RECORDS VALUES (?, ?, ?, ?, ?)")) {
+      for (int i=0; i<RECORDS; i++) {
+        st.setInt(1, i);
+        st.setString(2, java.util.UUID.randomUUID().toString());
+        st.setString(3, "Record " + i);
+        st.setBigDecimal(4, java.math.BigDecimal.valueOf(i, 2).multiply(java.math.BigDecimal.valueOf(25)));
+        // every tenth record has no modification date
+        st.setTimestamp(5, i % 10 != 0? modified(i): null);
+        st.addBatch();
+      }
+      st.executeBatch();
+    }
+  }
+  
+  @After
+  public void tearDown() throws Exception {
+    if (broker != null) {
+      broker.terminate();
+    }
+    try (Statement st = connection.createStatement()) {
+      st.execute("DROP TABLE RECORDS");
+    }
+    connection.close();
+  }
+  
+  @Test
+  public void testPartitionedIteratorsAreIndependent() throws Exception {
+    for (PartitionMode mode: PartitionMode.values()) {
+      broker = createBroker("ID", mode);
+      assertEquals(String.format("Invalid number of records in first %s iteration", mode), RECORDS, readIds(broker).size());
+      assertEquals(String.format("Invalid number of records in second %s iteration", mode), RECORDS, readIds(broker).size());
+      broker.terminate();
+      broker = null;
+    }
+  }
+  
+  @Test
+  public void testFractionalPartitionColumn() throws Exception {
+    for (PartitionMode mode: PartitionMode.values()) {
+      broker = createBroker("SCORE", mode);
+      assertEquals(String.format("Invalid number of records in %s iteration", mode), RECORDS, readIds(broker).size());
+      broker.terminate();
+      broker = null;
+    }
+  }
+  
+  @Test
+  public void testNonNumericPartitionColumn() throws Exception {
+    try {
+      broker = createBroker("CODE", PartitionMode.RANGE);
+      fail("Non numeric partition column accepted");
+    } catch (DataProcessorException ex) {
+      assertTrue("Error doesn't name partition column", ex.getMessage().contains("CODE"));
+    }
+  }
+  
+  @Test
+  public void testIncrementalHarvest() throws Exception {
+    SimpleIteratorContext iteratorContext = new SimpleIteratorContext();
+    iteratorContext.setLastHarvest(new Date(modified(RECORDS - 15).getTime()));
+    // records 36..49 are newer than the last harvest except record 40 with no modification date
+    int expected = 13;
+    
+    JdbcBrokerDefinitionAdaptor adaptor = createAdaptor();
+    adaptor.setModifiedColumn("MODIFIED");
+    broker = createBroker(adaptor);
+    assertEquals("Invalid number of modified records", expected, readIds(broker, iteratorContext).size());
+    assertEquals("Invalid number of records in full harvest", RECORDS, readIds(broker, new SimpleIteratorContext()).size());
+    broker.terminate();
+    
+    adaptor.setPageSize(4);
+    broker = createBroker(adaptor);
+    assertEquals("Invalid number of modified records in paginated harvest", expected, readIds(broker, iteratorContext).size());
+    broker.terminate();
+    
+    for (PartitionMode mode: PartitionMode.values()) {
+      adaptor = createAdaptor();
+      adaptor.setModifiedColumn("MODIFIED");
+      adaptor.setPartitionColumn("ID");
+      adaptor.setPartitionMode(mode);
+      adaptor.setPartitionCount(3);
+      broker = createBroker(adaptor);
+      assertEquals(String.format("Invalid number of modified records in %s harvest", mode), expected, readIds(broker, iteratorContext).size());
+      broker.terminate();
+    }
+    broker = null;
+  }
+  
+  @Test
+  public void testKeysetPagination() throws Exception {
+    for (int pageSize: new int[]{1, 7, 10, RECORDS, RECORDS + 1}) {
+      JdbcBrokerDefinitionAdaptor adaptor = createAdaptor();
+      adaptor.setModifiedColumn("MODIFIED");
+      adaptor.setPageSize(pageSize);
+      broker = createBroker(adaptor);
+      Set<String> ids = readIds(broker, new SimpleIteratorContext());
+      assertEquals(String.format("Invalid number of records with page size %d", pageSize), RECORDS, ids.size());
+      broker.terminate();
+      broker = null;
+    }
+  }
+  
+  @Test
+  public void testKeysetPaginationWithEqualKeys() throws Exception {
+    try (PreparedStatement st = connection.prepareStatement("INSERT INTO RECORDS (ID, TITLE) VALUES (?, ?)")) {
+      // duplicate on the page boundary, a run of equal keys longer than a page and a record with no id
+      Integer[] extra = {9, 9, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, 20, null};
+      for (Integer id: extra) {
+        st.setObject(1, id);
+        st.setString(2, "Extra record");
+        st.addBatch();
+      }
+      st.executeBatch();
+    }
+    
+    JdbcBrokerDefinitionAdaptor adaptor = createAdaptor();
+    adaptor.setPageSize(10);
+    broker = createBroker(adaptor);
+    Set<String> ids = new HashSet<>();
+    InputBroker.Iterator iter = broker.iterator(new SimpleIteratorContext());
+    int count = 0;
+    while (iter.hasNext() && count++ < 2 * RECORDS) {
+      ids.add(iter.next().getId());
+    }
+    assertTrue("Pagination doesn't terminate", count <= 2 * RECORDS);
+    assertEquals("Invalid number of distinct records", RECORDS, ids.size());
+  }
+  
+  private JdbcBroker createBroker(String partitionColumn, PartitionMode partitionMode) throws Exception {
+    JdbcBrokerDefinitionAdaptor adaptor = createAdaptor();
+    adaptor.setPartitionColumn(partitionColumn);
+    adaptor.setPartitionMode(partitionMode);
+    adaptor.setPartitionCount(3);
+    return createBroker(adaptor);
+  }
+  
+  private JdbcBrokerDefinitionAdaptor createAdaptor() throws Exception {
+    JdbcBrokerDefinitionAdaptor adaptor = new JdbcBrokerDefinitionAdaptor(new EntityDefinition());
+    adaptor.setDriverClass("org.h2.Driver");
+    adaptor.setConnection(URL);
+    adaptor.setCredentials(new SimpleCredentials("sa", ""));
+    adaptor.setSqlStatement("RECORDS");
+    adaptor.setFileIdColumn("ID");
+    adaptor.setTitleColumn("TITLE");
+    return adaptor;
+  }
+  
+  private JdbcBroker createBroker(JdbcBrokerDefinitionAdaptor adaptor) throws Exception {
+    JdbcBroker jdbcBroker = new JdbcBroker(new JdbcConnector(false), adaptor);
+    Task task = new Task("jdbc", "jdbc", null, jdbcBroker, Collections.emptyList());
+    jdbcBroker.initialize(new SimpleInitContext(task, new ArrayList<>()));
+    return jdbcBroker;
+  }
+  
+  private Set<String> readIds(JdbcBroker jdbcBroker) throws Exception {
+    return readIds(jdbcBroker, new SimpleIteratorContext());
+  }
+  
+  private Set<String> readIds(JdbcBroker jdbcBroker, SimpleIteratorContext iteratorContext) throws Exception {
+    Set<String> ids = new HashSet<>();
+    InputBroker.Iterator iter = jdbcBroker.iterator(iteratorContext);
+    while (iter.hasNext()) {
+      assertTrue("Duplicated record", ids.add(iter.next().getId()));
+    }
+    return ids;
+  }
+  
+  private static Timestamp modified(int record) {
+    return new Timestamp(MODIFIED + TimeUnit.DAYS.toMillis(record));
+  }
+}
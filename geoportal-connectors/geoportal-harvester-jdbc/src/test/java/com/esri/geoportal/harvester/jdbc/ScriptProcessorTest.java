@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Script processor test.
+ */
+public class ScriptProcessorTest {
+  
+  @Test
+  public void testProcess() throws Exception {
+    ScriptProcessor processor = new ScriptProcessor("data.json.title = data.attr.name.toUpperCase(); data.attr.remove('name');");
+    
+    ScriptProcessor.Data data = new ScriptProcessor.Data();
+    data.json = new HashMap<>();
+    data.attr = new HashMap<>();
+    data.attr.put("name", "record");
+    
+    ScriptProcessor.Data result = processor.process(data);
+    
+    assertEquals("Invalid title", "RECORD", result.json.get("title"));
+    assertFalse("Attribute not removed", result.attr.containsKey("name"));
+  }
+  
+  @Test
+  public void testGlobalsShared() throws Exception {
+    ScriptProcessor processor = new ScriptProcessor("globals.count = (globals.count || 0) + 1; data.attr.count = globals.count;");
+    
+    for (int i=1; i<=3; i++) {
+      ScriptProcessor.Data data = new ScriptProcessor.Data();
+      data.json = new HashMap<>();
+      data.attr = new HashMap<>();
+      ScriptProcessor.Data result = processor.process(data);
+      assertEquals("Invalid counter", i, ((Number)result.attr.get("count")).intValue());
+    }
+  }
+  
+  @Test
+  public void testConcurrentContexts() throws Exception {
+    ScriptProcessor processor = new ScriptProcessor("var id = data.attr.id; data.attr.copy = id;");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<ScriptProcessor.Data>> futures = new ArrayList<>();
+      for (int i=0; i<100; i++) {
+        ScriptProcessor.Data data = new ScriptProcessor.Data();
+        data.json = new HashMap<>();
+        data.attr = new HashMap<>();
+        data.attr.put("id", "id-" + i);
+        futures.add(executor.submit(() -> processor.process(data)));
+      }
+      for (int i=0; i<futures.size(); i++) {
+        assertEquals("Invalid copy", "id-" + i, futures.get(i).get().attr.get("copy"));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  @Test(expected = javax.script.ScriptException.class)
+  public void testInvalidScript() throws Exception {
+    new ScriptProcessor("data.json.title = ;");
+  }
+}
@@ -24,15 +24,26 @@ import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
 import com.esri.geoportal.harvester.engine.services.Engine;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
@@ -46,6 +57,10 @@ import org.slf4j.LoggerFactory;
  */
 /*package*/ class MigrationBroker implements InputBroker {
   private static final Logger LOG = LoggerFactory.getLogger(MigrationBroker.class);
+  private static final String RESOURCE_FILTER = "r.APPROVALSTATUS IN ('APPROVED','REVIEWED','approved','reviewed') AND r.PROTOCOL IS NULL";
+  private static final MigrationData END = new MigrationData();
+  private static final int FETCH_SIZE = 100;
+  private static final int QUEUE_CAPACITY = 100;
 
   private final MigrationConnector connector;
   private final MigrationBrokerDefinitionAdaptor definition;
@@ -181,10 +196,11 @@ import org.slf4j.LoggerFactory;
   private class MigrationIterator implements InputBroker.Iterator {
     private final IteratorContext iteratorContext;
     private final MigrationDataBuilder dataBuilder;
+    private final BlockingQueue<MigrationData> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
     
-    private Connection conn;
-    private PreparedStatement adminSt;
-    private ResultSet adminRs;
+    private ExecutorService executor;
+    private int running;
+    private volatile Exception failure;
     
     private MigrationData data;
 
@@ -196,28 +212,26 @@ import org.slf4j.LoggerFactory;
     @Override
     public boolean hasNext() throws DataInputException {
       try {
-        initResultSet();
+        start();
         if (data!=null) return true;
-        if (!adminRs.next()) {
-          return false;
+        while (running > 0) {
+          MigrationData dt = queue.take();
+          if (dt == END) {
+            running--;
+            if (failure != null) {
+              throw new DataInputException(MigrationBroker.this, String.format("Error fetching data."), failure);
+            }
+            continue;
+          }
+          data = dt;
+          return true;
         }
-        
-        MigrationData dt = new MigrationData();
-        
-        dt.docuuid = StringUtils.trimToEmpty(adminRs.getString("DOCUUID"));
-        dt.title = StringUtils.trimToEmpty(adminRs.getString("TITLE"));
-        dt.owner = adminRs.getInt("OWNER");
-        dt.updateDate = adminRs.getTimestamp("UPDATEDATE");
-        dt.fileidentifier = StringUtils.trimToEmpty(adminRs.getString("FILEIDENTIFIER"));
-        dt.pubmethod = StringUtils.trimToEmpty(adminRs.getString("PUBMETHOD"));
-        dt.sourceuri = StringUtils.trimToEmpty(adminRs.getString("SOURCEURI"));
-        dt.siteuuid = StringUtils.trimToEmpty(adminRs.getString("SITEUUID"));
-        
-        data = dt;
-        
-        return true;
+        return false;
       } catch (SQLException ex) {
         throw new DataInputException(MigrationBroker.this, String.format("Error fetching data."), ex);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new DataInputException(MigrationBroker.this, String.format("Interrupted while fetching data."), ex);
       }
     }
 
@@ -229,60 +243,165 @@ import org.slf4j.LoggerFactory;
       MigrationData dt = data;
       data = null;
       
-      try (PreparedStatement st = createDataStatement(dt.docuuid); ResultSet rs = st.executeQuery();) {
-        if (rs.next()) {
-          String xml = rs.getString("XML");
-          DataReference ref = dataBuilder.buildReference(dt, xml);
-          return ref;
-        } else {
-          throw new DataInputException(MigrationBroker.this, String.format("No more data available"));
-        }
-      } catch (DataInputException ex) {
-        throw ex;
+      try {
+        return dataBuilder.buildReference(dt, dt.xml);
       } catch (Exception ex) {
         throw new DataInputException(MigrationBroker.this, String.format("Error reading data."), ex);
       }
     }
     
-    private PreparedStatement createDataStatement(String id) throws SQLException {
-      PreparedStatement st = conn.prepareStatement("SELECT * FROM GPT_RESOURCE_DATA WHERE DOCUUID = ?");
-      st.setString(1, id);
-      return st;
+    public void close() {
+      if (executor!=null) {
+        executor.shutdownNow();
+      }
     }
     
-    public void close() {
-      if (adminRs!=null) {
-        try {
-          adminRs.close();
-        } catch(SQLException ex) {
-          LOG.warn(String.format("Error closing iterator."), ex);
+    /**
+     * Starts reading partitions of the records in the background.
+     * @throws SQLException if determining partitions fails
+     */
+    private void start() throws SQLException {
+      if (executor==null) {
+        List<String> bounds = readBounds(definition.getPartitions());
+        executor = Executors.newFixedThreadPool(bounds.size() + 1, r -> {
+          Thread thread = new Thread(r, String.format("migration-%s", definition.getJndi()));
+          thread.setDaemon(true);
+          return thread;
+        });
+        running = bounds.size() + 1;
+        for (int i = 0; i <= bounds.size(); i++) {
+          String from = i > 0 ? bounds.get(i - 1) : null;
+          String to = i < bounds.size() ? bounds.get(i) : null;
+          executor.execute(() -> readPartition(from, to));
         }
       }
-      if (adminSt!=null) {
-        try {
-          adminSt.close();
-        } catch(SQLException ex) {
-          LOG.warn(String.format("Error closing iterator."), ex);
+    }
+    
+    /**
+     * Reads keys splitting records into partitions of similar size.
+     * @param partitions number of partitions
+     * @return list of keys each starting a partition except the first one
+     * @throws SQLException if reading keys fails
+     */
+    private List<String> readBounds(int partitions) throws SQLException {
+      List<String> bounds = new ArrayList<>();
+      if (partitions > 1) {
+        try (Connection conn = dataSource.getConnection()) {
+          int count = 0;
+          try (
+                  PreparedStatement st = conn.prepareStatement("SELECT COUNT(*) FROM GPT_RESOURCE r WHERE " + RESOURCE_FILTER);
+                  ResultSet rs = st.executeQuery();
+              ) {
+            if (rs.next()) {
+              count = rs.getInt(1);
+            }
+          }
+          int step = count / partitions;
+          if (step > 0) {
+            try (PreparedStatement st = conn.prepareStatement("SELECT r.DOCUUID FROM GPT_RESOURCE r WHERE " + RESOURCE_FILTER + " ORDER BY r.DOCUUID")) {
+              st.setFetchSize(FETCH_SIZE);
+              try (ResultSet rs = st.executeQuery()) {
+                for (int i = 0; rs.next() && bounds.size() < partitions - 1; i++) {
+                  if (i > 0 && i % step == 0) {
+                    bounds.add(rs.getString(1));
+                  }
+                }
+              }
+            }
+          }
         }
       }
-      if (conn!=null) {
+      return bounds;
+    }
+    
+    /**
+     * Reads records together with their data within a range of keys.
+     * @param from the lowest key (inclusive) or <code>null</code>
+     * @param to the highest key (exclusive) or <code>null</code>
+     */
+    private void readPartition(String from, String to) {
+      try (Connection conn = dataSource.getConnection()) {
+        // some drivers stream result set only within transaction
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement st = createDataStatement(conn, from, to); ResultSet rs = st.executeQuery();) {
+          while (rs.next() && !Thread.currentThread().isInterrupted()) {
+            MigrationData dt = new MigrationData();
+            
+            dt.docuuid = StringUtils.trimToEmpty(rs.getString("DOCUUID"));
+            dt.title = StringUtils.trimToEmpty(rs.getString("TITLE"));
+            dt.owner = rs.getInt("OWNER");
+            dt.updateDate = rs.getTimestamp("UPDATEDATE");
+            dt.fileidentifier = StringUtils.trimToEmpty(rs.getString("FILEIDENTIFIER"));
+            dt.pubmethod = StringUtils.trimToEmpty(rs.getString("PUBMETHOD"));
+            dt.sourceuri = StringUtils.trimToEmpty(rs.getString("SOURCEURI"));
+            dt.siteuuid = StringUtils.trimToEmpty(rs.getString("SITEUUID"));
+            dt.xml = readXml(rs);
+            
+            if (dt.xml != null) {
+              queue.put(dt);
+            } else {
+              LOG.warn(String.format("No data for: %s; record skipped.", dt.docuuid));
+            }
+          }
+        } finally {
+          conn.rollback();
+          conn.setAutoCommit(autoCommit);
+        }
+      } catch (SQLException | IOException ex) {
+        failure = ex;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } finally {
         try {
-          conn.close();
-        } catch(SQLException ex) {
-          LOG.warn(String.format("Error closing iterator."), ex);
+          queue.put(END);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
         }
       }
     }
     
-    private void initResultSet() throws SQLException {
-      if (conn==null) {
-        conn = dataSource.getConnection();
+    private PreparedStatement createDataStatement(Connection conn, String from, String to) throws SQLException {
+      StringBuilder sql = new StringBuilder("SELECT r.DOCUUID, r.TITLE, r.OWNER, r.UPDATEDATE, r.FILEIDENTIFIER, r.PUBMETHOD, r.SOURCEURI, r.SITEUUID, d.XML")
+              .append(" FROM GPT_RESOURCE r LEFT JOIN GPT_RESOURCE_DATA d ON d.DOCUUID = r.DOCUUID")
+              .append(" WHERE ").append(RESOURCE_FILTER);
+      if (from != null) {
+        sql.append(" AND r.DOCUUID >= ?");
+      }
+      if (to != null) {
+        sql.append(" AND r.DOCUUID < ?");
       }
-      if (adminSt==null) {
-        adminSt = conn.prepareStatement("SELECT * FROM GPT_RESOURCE WHERE APPROVALSTATUS IN ('APPROVED','REVIEWED','approved','reviewed') AND PROTOCOL IS NULL");
+      PreparedStatement st = conn.prepareStatement(sql.toString());
+      int index = 1;
+      if (from != null) {
+        st.setString(index++, from);
       }
-      if (adminRs==null) {
-        adminRs = adminSt.executeQuery();
+      if (to != null) {
+        st.setString(index++, to);
+      }
+      st.setFetchSize(FETCH_SIZE);
+      return st;
+    }
+    
+    /**
+     * Reads XML encoded in UTF-8 streaming it directly from the character
+     * large object.
+     * @param rs result set
+     * @return XML or <code>null</code> if no XML
+     */
+    private byte[] readXml(ResultSet rs) throws SQLException, IOException {
+      try (Reader reader = rs.getCharacterStream("XML")) {
+        if (reader == null) {
+          return null;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        char[] buffer = new char[8192];
+        for (int length; (length = reader.read(buffer)) >= 0; ) {
+          writer.write(buffer, 0, length);
+        }
+        writer.flush();
+        return output.toByteArray();
       }
     }
     
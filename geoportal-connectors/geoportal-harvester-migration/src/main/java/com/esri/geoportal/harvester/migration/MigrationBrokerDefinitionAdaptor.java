@@ -18,11 +18,14 @@ package com.esri.geoportal.harvester.migration;
 import com.esri.geoportal.harvester.api.base.BrokerDefinitionAdaptor;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import static com.esri.geoportal.harvester.migration.MigrationConstants.DEFAULT_PARTITIONS;
 import static com.esri.geoportal.harvester.migration.MigrationConstants.P_JNDI_NAME;
+import static com.esri.geoportal.harvester.migration.MigrationConstants.P_PARTITIONS;
 import static com.esri.geoportal.harvester.migration.MigrationConstants.P_PRESERVE_UUIDS;
 import java.util.Map;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * Migration broker definition adaptor.
@@ -30,6 +33,7 @@ import org.apache.commons.lang3.StringUtils;
 /*package*/ class MigrationBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
   private String jndi;
   private boolean preserveUuids;
+  private int partitions = DEFAULT_PARTITIONS;
 
   /**
    * Creates instance of the adaptor.
@@ -46,12 +50,14 @@ import org.apache.commons.lang3.StringUtils;
     } else {
       jndi = get(P_JNDI_NAME);
       preserveUuids = BooleanUtils.toBoolean(get(P_PRESERVE_UUIDS));
+      partitions = Math.max(1, NumberUtils.toInt(get(P_PARTITIONS), DEFAULT_PARTITIONS));
     }
   }
 
   @Override
   public void override(Map<String, String> params) {
     consume(params,P_JNDI_NAME);
+    consume(params,P_PARTITIONS);
   }
 
   public String getJndi() {
@@ -71,4 +77,13 @@ import org.apache.commons.lang3.StringUtils;
     this.preserveUuids = preserveUuids;
     set(P_PRESERVE_UUIDS,Boolean.toString(preserveUuids));
   }
+
+  public int getPartitions() {
+    return partitions;
+  }
+
+  public void setPartitions(int partitions) {
+    this.partitions = partitions;
+    set(P_PARTITIONS,Integer.toString(partitions));
+  }
 }
@@ -20,7 +20,9 @@ import com.esri.geoportal.harvester.api.defs.UITemplate;
 import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
+import static com.esri.geoportal.harvester.migration.MigrationConstants.DEFAULT_PARTITIONS;
 import static com.esri.geoportal.harvester.migration.MigrationConstants.P_JNDI_NAME;
+import static com.esri.geoportal.harvester.migration.MigrationConstants.P_PARTITIONS;
 import static com.esri.geoportal.harvester.migration.MigrationConstants.P_PRESERVE_UUIDS;
 import java.util.ArrayList;
 import java.util.List;
@@ -54,6 +56,12 @@ public class MigrationConnector implements InputConnector<InputBroker>{
     List<UITemplate.Argument> arguments = new ArrayList<>();
     arguments.add(new UITemplate.StringArgument(P_JNDI_NAME, bundle.getString("migration.jndi"), true));
     arguments.add(new UITemplate.BooleanArgument(P_PRESERVE_UUIDS, bundle.getString("migration.preserveuuids"), true));
+    arguments.add(new UITemplate.IntegerArgument(P_PARTITIONS, bundle.getString("migration.partitions"), false, DEFAULT_PARTITIONS) {
+      @Override
+      public String getHint() {
+        return bundle.getString("migration.partitions.hint");
+      }
+    });
     return new UITemplate(getType(), bundle.getString("migration"), arguments);
   }
 }
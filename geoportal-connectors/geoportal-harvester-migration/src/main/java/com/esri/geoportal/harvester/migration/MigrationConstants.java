@@ -21,4 +21,7 @@ package com.esri.geoportal.harvester.migration;
 /*package*/ class MigrationConstants {
   public static String P_JNDI_NAME = "migration-jndi-name";
   public static String P_PRESERVE_UUIDS = "migration-preserve-uuids";
+  public static String P_PARTITIONS = "migration-partitions";
+  
+  public static final int DEFAULT_PARTITIONS = 1;
 }
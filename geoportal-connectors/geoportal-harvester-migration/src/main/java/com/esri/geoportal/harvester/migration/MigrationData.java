@@ -29,4 +29,5 @@ import java.util.Date;
   public String siteuuid;
   public String sourceuri;
   public String fileidentifier;
+  public byte[] xml;
 }
@@ -63,7 +63,7 @@ import org.xml.sax.SAXException;
     this.sites = sites;
   }
 
-  public DataReference buildReference(MigrationData data, String xml) throws URISyntaxException, UnsupportedEncodingException {
+  public DataReference buildReference(MigrationData data, byte[] xml) throws URISyntaxException, UnsupportedEncodingException {
     SimpleDataReference ref = new SimpleDataReference(
             createBrokerUri(data),
             definition.getEntityDefinition().getLabel(),
@@ -72,7 +72,7 @@ import org.xml.sax.SAXException;
             createSourceUri(data),
             null, null
     );
-    ref.addContext(MimeType.APPLICATION_XML, xml.getBytes("UTF-8"));
+    ref.addContext(MimeType.APPLICATION_XML, xml);
     String owner = userMap.get(data.owner);
     if (owner != null) {
       ref.getAttributesMap().put("owner", owner);
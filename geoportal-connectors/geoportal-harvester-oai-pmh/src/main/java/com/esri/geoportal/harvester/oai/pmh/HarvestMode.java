@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.oai.pmh;
+
+import java.util.Arrays;
+
+/**
+ * Harvest mode.
+ */
+/*package*/ enum HarvestMode {
+  /**
+   * Full records read with <i>ListRecords</i> verb.
+   */
+  RECORDS,
+  /**
+   * Identifiers read with <i>ListIdentifiers</i> verb, then each record read
+   * with <i>GetRecord</i> verb.
+   */
+  IDENTIFIERS;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+
+  /**
+   * Parses harvest mode.
+   * @param mode mode name
+   * @param def default mode
+   * @return mode
+   */
+  public static HarvestMode parse(String mode, HarvestMode def) {
+    return Arrays.stream(HarvestMode.values()).filter(m -> m.name().equalsIgnoreCase(mode)).findFirst().orElse(def);
+  }
+}
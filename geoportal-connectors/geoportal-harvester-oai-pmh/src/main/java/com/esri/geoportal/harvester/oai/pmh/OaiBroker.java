@@ -19,7 +19,9 @@ import com.esri.geoportal.commons.constants.MimeType;
 import com.esri.geoportal.commons.http.BotsHttpClient;
 import com.esri.geoportal.commons.oai.client.Client;
 import com.esri.geoportal.commons.oai.client.Header;
-import com.esri.geoportal.commons.oai.client.ListIdsResponse;
+import com.esri.geoportal.commons.oai.client.ListResponse;
+import com.esri.geoportal.commons.oai.client.PagePrefetcher;
+import com.esri.geoportal.commons.oai.client.Record;
 import com.esri.geoportal.commons.robots.Bots;
 import com.esri.geoportal.commons.robots.BotsUtils;
 import com.esri.geoportal.commons.utils.SimpleCredentials;
@@ -37,18 +39,17 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.xpath.XPathExpressionException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 /**
  * OAI broker.
@@ -63,6 +64,7 @@ import java.util.Date;
   protected CloseableHttpClient httpClient;
   private Client client;
   private TaskDefinition td;
+  private final List<PagePrefetcher<ListResponse>> prefetchers = Collections.synchronizedList(new ArrayList<>());
 
   /**
    * Creates instance of the broker.
@@ -81,16 +83,20 @@ import java.util.Date;
     td = context.getTask().getTaskDefinition();
     CloseableHttpClient http = HttpClientBuilder.create().useSystemProperties().build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      httpClient = http;
+      httpClient = new BotsHttpClient(http, null, definition.getBotsConfig());
     } else {
       Bots bots = BotsUtils.readBots(definition.getBotsConfig(), http, definition.getHostUrl());
-      httpClient = new BotsHttpClient(http, bots);
+      httpClient = new BotsHttpClient(http, bots, definition.getBotsConfig());
     }
     client = new Client(httpClient, definition.getHostUrl(), definition.getPrefix(), definition.getSet());
   }
 
   @Override
   public void terminate() {
+    synchronized (prefetchers) {
+      prefetchers.forEach(PagePrefetcher::close);
+      prefetchers.clear();
+    }
     if (httpClient != null) {
       try {
         httpClient.close();
@@ -138,16 +144,18 @@ import java.util.Date;
   private DataReference readContent(String id, Date lastModified) throws DataInputException {
     try {
       String record = client.readRecord(id);
-
-      SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), definition.getEntityDefinition().getLabel(), id, lastModified, URI.create(id), td.getSource().getRef(), td.getRef());
-      ref.addContext(MimeType.APPLICATION_XML, record.getBytes("UTF-8"));
-
-      return ref;
-    } catch (URISyntaxException | IOException | ParserConfigurationException | SAXException | TransformerException | XPathExpressionException ex) {
+      return createReference(id, lastModified, record);
+    } catch (URISyntaxException | IOException ex) {
       throw new DataInputException(OaiBroker.this, String.format("Error reading data from: %s", this), ex);
     }
   }
 
+  private DataReference createReference(String id, Date lastModified, String record) throws URISyntaxException, IOException {
+    SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), definition.getEntityDefinition().getLabel(), id, lastModified, URI.create(id), td.getSource().getRef(), td.getRef());
+    ref.addContext(MimeType.APPLICATION_XML, record.getBytes("UTF-8"));
+    return ref;
+  }
+
   /**
    * OAI-PMH iterator.
    */
@@ -158,6 +166,7 @@ import java.util.Date;
     private java.util.Iterator<Header> idIter;
     private String resumptionToken;
     private boolean lastCall = false; // no resumption token
+    private PagePrefetcher<ListResponse> prefetcher;
 
     public OaiIterator(InputBroker.IteratorContext iteratorContext) {
       this.iteratorContext = iteratorContext;
@@ -165,36 +174,61 @@ import java.util.Date;
 
     @Override
     public boolean hasNext() throws DataInputException {
-      try {
-        if (idIter != null && idIter.hasNext()) {
-          return true;
-        }
-        if (lastCall){
+      while (idIter == null || !idIter.hasNext()) {
+        ListResponse page = nextPage();
+        if (page == null) {
           return false;
         }
-
-        ListIdsResponse listIds = client.listIds(resumptionToken, iteratorContext.getLastHarvestDate());
-        resumptionToken = listIds.resumptionToken;
-        if (listIds.resumptionToken == null || listIds.resumptionToken.isEmpty()) {
-          lastCall = true;
-        } else  {
-          lastCall = false;
-        }
-
-
-        if (listIds.headers.length > 0) {
-          idIter = Arrays.asList(listIds.headers).iterator();
-          return true;
-        } else if (listIds.resumptionToken != null) {
-
-          return hasNext();
+        idIter = Arrays.asList(page.getHeaders()).iterator();
+      }
+      return true;
+    }
+    
+    /**
+     * Gets next page either from the prefetcher or directly from the server.
+     * @return next page or <code>null</code> if no more pages
+     * @throws DataInputException if error reading page
+     */
+    private ListResponse nextPage() throws DataInputException {
+      if (lastCall) {
+        return null;
+      }
+      try {
+        if (definition.getPrefetch() > 0) {
+          if (prefetcher == null) {
+            prefetcher = new PagePrefetcher<>(this::fetch, definition.getPrefetch());
+            prefetchers.add(prefetcher);
+          }
+          ListResponse page = prefetcher.next();
+          if (page == null) {
+            lastCall = true;
+            prefetchers.remove(prefetcher);
+          }
+          return page;
         }
-
-        return false;
-      } catch (IOException | URISyntaxException | ParserConfigurationException | SAXException | XPathExpressionException ex) {
+        
+        ListResponse page = fetch(resumptionToken);
+        resumptionToken = page.resumptionToken;
+        lastCall = resumptionToken == null || resumptionToken.isEmpty();
+        return page;
+      } catch (Exception ex) {
+        lastCall = true;
         throw new DataInputException(OaiBroker.this, String.format("Error reading data from: %s", this), ex);
       }
     }
+    
+    /**
+     * Fetches single page.
+     * @param resumptionToken resumption token or <code>null</code> for the first page
+     * @return page
+     */
+    private ListResponse fetch(String resumptionToken) throws IOException, URISyntaxException {
+      if (definition.getMode() == HarvestMode.RECORDS) {
+        return client.listRecords(resumptionToken, iteratorContext.getLastHarvestDate());
+      } else {
+        return client.listIds(resumptionToken, iteratorContext.getLastHarvestDate());
+      }
+    }
 
     @Override
     public DataReference next() throws DataInputException {
@@ -203,6 +237,13 @@ import java.util.Date;
       }
 
       Header header = idIter.next();
+      if (header instanceof Record) {
+        try {
+          return createReference(header.identifier, parseIsoDate(header.datestamp), ((Record) header).metadata);
+        } catch (URISyntaxException | IOException ex) {
+          throw new DataInputException(OaiBroker.this, String.format("Error reading data from: %s", this), ex);
+        }
+      }
       return readContent(header.identifier, parseIsoDate(header.datestamp));
     }
 
@@ -25,6 +25,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * OAI-PMH broker definition adaptor.
@@ -35,6 +36,8 @@ import org.apache.commons.lang3.StringUtils;
   private URL hostUrl;
   private String prefix;
   private String set;
+  private HarvestMode mode = HarvestMode.IDENTIFIERS;
+  private int prefetch = DEFAULT_PREFETCH;
 
 
   /**
@@ -76,6 +79,8 @@ import org.apache.commons.lang3.StringUtils;
       throw new InvalidDefinitionException(String.format("Undefined %s", P_PREFIX ));
     }
     set = get(P_SET);
+    mode = HarvestMode.parse(get(P_MODE), HarvestMode.IDENTIFIERS);
+    prefetch = Math.max(0, NumberUtils.toInt(get(P_PREFETCH), DEFAULT_PREFETCH));
   }
 
   @Override
@@ -83,6 +88,8 @@ import org.apache.commons.lang3.StringUtils;
     consume(params,P_HOST_URL);
     consume(params,P_PREFIX);
     consume(params,P_SET);
+    consume(params,P_MODE);
+    consume(params,P_PREFETCH);
     botsAdaptor.override(params);
   }
   
@@ -113,6 +120,40 @@ import org.apache.commons.lang3.StringUtils;
     set(P_SET,set);
   }
 
+  /**
+   * Gets harvest mode.
+   * @return harvest mode
+   */
+  public HarvestMode getMode() {
+    return mode;
+  }
+
+  /**
+   * Sets harvest mode.
+   * @param mode harvest mode
+   */
+  public void setMode(HarvestMode mode) {
+    this.mode = mode;
+    set(P_MODE, mode.name());
+  }
+
+  /**
+   * Gets prefetch.
+   * @return number of pages fetched ahead or 0 if prefetching disabled
+   */
+  public int getPrefetch() {
+    return prefetch;
+  }
+
+  /**
+   * Sets prefetch.
+   * @param prefetch number of pages fetched ahead or 0 if prefetching disabled
+   */
+  public void setPrefetch(int prefetch) {
+    this.prefetch = prefetch;
+    set(P_PREFETCH, Integer.toString(prefetch));
+  }
+
   /**
    * Gets bots config.
    * @return bots config
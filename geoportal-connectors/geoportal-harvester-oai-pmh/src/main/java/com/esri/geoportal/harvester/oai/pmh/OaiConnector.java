@@ -18,10 +18,12 @@ package com.esri.geoportal.harvester.oai.pmh;
 import static com.esri.geoportal.harvester.oai.pmh.OaiConstants.*;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.defs.UITemplate.Choice;
 import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -50,6 +52,18 @@ public class OaiConnector implements InputConnector<InputBroker> {
       }
     });
     args.add(new UITemplate.StringArgument(P_SET, bundle.getString("oai.set"), false));
+    Choice[] modes = Arrays.stream(HarvestMode.values()).map(m -> new Choice<String>(m.name(), bundle.getString(String.format("oai.mode.%s", m)))).toArray(Choice[]::new);
+    args.add(new UITemplate.ChoiceArgument(P_MODE, bundle.getString("oai.mode"), Arrays.asList(modes)){
+      public String getDefault() {
+        return HarvestMode.IDENTIFIERS.name();
+      }
+    });
+    args.add(new UITemplate.IntegerArgument(P_PREFETCH, bundle.getString("oai.prefetch"), false, DEFAULT_PREFETCH){
+      @Override
+      public String getHint() {
+        return bundle.getString("oai.prefetch.hint");
+      }
+    });
     return new UITemplate(getType(), bundle.getString("oai"), args);
   }
 
@@ -22,4 +22,8 @@ package com.esri.geoportal.harvester.oai.pmh;
   public static final String P_HOST_URL  = "oai-host-url";
   public static final String P_PREFIX    = "oai-prefix";
   public static final String P_SET       = "oai-set";
+  public static final String P_MODE      = "oai-mode";
+  public static final String P_PREFETCH  = "oai-prefetch";
+  
+  public static final int DEFAULT_PREFETCH = 2;
 }
@@ -27,17 +27,11 @@ import com.esri.geoportal.harvester.api.specs.InputConnector;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,13 +43,10 @@ import org.slf4j.LoggerFactory;
   private final SinkConnector connector;
   private final SinkBrokerDefinitionAdaptor definition;
 
-  private final LinkedList<SinkFile> files = new LinkedList<>();
-  
   TaskDefinition td;
   private Path dropPath;
-  private WatchService watchService;
-  private Thread watchThread;
-  private final Object lock = new Object();
+  private Path processedPath;
+  private SinkWatcher watcher;
   
   /**
    * Creates instance of the broker.
@@ -74,26 +65,12 @@ import org.slf4j.LoggerFactory;
     td = context.getTask().getTaskDefinition();
     dropPath = Paths.get(definition.getRootFolder().getAbsolutePath());
     try {
-      watchService = FileSystems.getDefault().newWatchService();
-      dropPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
-      watchThread = new Thread(() -> {
-        WatchKey watchKey;
-        try {
-          do {
-            watchKey = watchService.take();
-            watchKey.pollEvents();
-            
-            synchronized(lock) {
-              lock.notifyAll();
-            }
-
-            watchKey.reset();
-          } while (!Thread.interrupted());
-        } catch (InterruptedException|IllegalMonitorStateException ex) {
-          // ignore
-        }
-      }, String.format("Folder watching thread on %s", dropPath.toString()));
-      watchThread.start();
+      if (definition.getProcessedFolder()!=null) {
+        processedPath = Paths.get(definition.getProcessedFolder().getAbsolutePath());
+        Files.createDirectories(processedPath);
+      }
+      watcher = new SinkWatcher(dropPath, definition.getQuietPeriod());
+      watcher.start();
     } catch (IOException ex) {
       throw new DataProcessorException(String.format("Error creating folder watch service."), ex);
     }
@@ -101,17 +78,21 @@ import org.slf4j.LoggerFactory;
 
   @Override
   public void terminate() {
-    if (watchService != null) {
+    if (watcher != null) {
       try {
-        watchService.close();
+        watcher.close();
       } catch (IOException ex) {
         LOG.warn(String.format("Error terminating broker: %s", definition.toString()), ex);
       }
     }
-    
-    if (watchThread != null) {
-      watchThread.interrupt();
-    }
+  }
+  
+  /**
+   * Gets processed folder.
+   * @return processed folder or <code>null</code> if processed files are deleted
+   */
+  Path getProcessedFolder() {
+    return processedPath;
   }
 
   @Override
@@ -155,6 +136,8 @@ import org.slf4j.LoggerFactory;
    */
   private class SinkIterator implements InputBroker.Iterator {
     private final IteratorContext iteratorContext;
+    private final Map<Path,Integer> failures = new HashMap<>();
+    private Path nextPath;
 
     /**
      * Creates instance of the iterator.
@@ -164,44 +147,46 @@ import org.slf4j.LoggerFactory;
       this.iteratorContext = iteratorContext;
     }
     
-    
-    private List<SinkFile> listFiles() throws IOException {
-      Pattern pattern = Pattern.compile(".*\\.xml$", Pattern.CASE_INSENSITIVE);
-      return Files.list(dropPath).filter(path -> pattern.matcher(path.toString()).matches()).map(path -> new SinkFile(connector.getCtx(), SinkBroker.this, path)).collect(Collectors.toList());
-    }
-    
     @Override
     public boolean hasNext() throws DataInputException {
       try {
-        if (files!=null && !files.isEmpty()) {
-          return true;
-        }
-        
-        files.addAll(listFiles());
-        
-        if (!files.isEmpty()) {
-          return true;
+        if (nextPath==null) {
+          nextPath = watcher.take();
         }
-        
-        synchronized(lock) {
-          lock.wait();
-        }
-        
-        return hasNext();
+        return true;
       } catch (InterruptedException ex) {
         return false;
-      } catch (IOException ex) {
-        throw new DataInputException(SinkBroker.this, "Error reading data.", ex);
       }
     }
 
     @Override
     public DataReference next() throws DataInputException {
+      Path path = nextPath;
+      nextPath = null;
       try {
-        SinkFile file = files.poll();
-        return file.readContent();
+        DataReference ref = new SinkFile(connector.getCtx(), SinkBroker.this, path).readContent();
+        failures.remove(path);
+        watcher.done(path);
+        return ref;
       } catch (IOException|URISyntaxException ex) {
-        throw new DataInputException(SinkBroker.this, "Error reading data.", ex);
+        retry(path);
+        throw new DataInputException(SinkBroker.this, String.format("Error reading data: %s", path), ex);
+      }
+    }
+    
+    /**
+     * Queues file which failed to read for another attempt. File is left in
+     * the drop folder once attempts are exhausted and taken again if dropped
+     * again.
+     * @param path path of the file
+     */
+    private void retry(Path path) {
+      int count = failures.merge(path, 1, Integer::sum);
+      if (Files.isRegularFile(path) && count < Math.max(1, connector.getCtx().attemptCount)) {
+        watcher.retry(path);
+      } else {
+        failures.remove(path);
+        watcher.done(path);
       }
     }
   }
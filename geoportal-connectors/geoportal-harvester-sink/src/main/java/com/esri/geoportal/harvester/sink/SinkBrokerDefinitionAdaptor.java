@@ -21,14 +21,18 @@ import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import java.io.File;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
-import static com.esri.geoportal.harvester.sink.SinkConstants.P_DROP_FOLDER;
+import org.apache.commons.lang3.math.NumberUtils;
+import static com.esri.geoportal.harvester.sink.SinkConstants.*;
 
 /**
  * Sink broker definition adaptor.
  */
 public class SinkBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
+  private static final long DEFAULT_QUIET_PERIOD = 1000L;
   
   private File dropFolder;
+  private File processedFolder;
+  private long quietPeriod = DEFAULT_QUIET_PERIOD;
 
   /**
    * Creates instance of the adaptor.
@@ -47,12 +51,17 @@ public class SinkBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
       } catch (Exception ex) {
         throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_DROP_FOLDER, get(P_DROP_FOLDER)), ex);
       }
+      String processed = StringUtils.trimToNull(get(P_PROCESSED_FOLDER));
+      processedFolder = processed!=null? new File(processed): null;
+      quietPeriod = Math.max(0, NumberUtils.toLong(get(P_QUIET_PERIOD), DEFAULT_QUIET_PERIOD));
     }
   }
 
   @Override
   public void override(Map<String, String> params) {
     consume(params,P_DROP_FOLDER);
+    consume(params,P_PROCESSED_FOLDER);
+    consume(params,P_QUIET_PERIOD);
   }
   
   /**
@@ -71,5 +80,39 @@ public class SinkBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
     this.dropFolder = rootFolder;
     set(P_DROP_FOLDER, rootFolder.getAbsolutePath());
   }
+
+  /**
+   * Gets processed folder.
+   * @return processed folder or <code>null</code> if processed files are deleted
+   */
+  public File getProcessedFolder() {
+    return processedFolder;
+  }
+
+  /**
+   * Sets processed folder.
+   * @param processedFolder processed folder or <code>null</code> to delete processed files
+   */
+  public void setProcessedFolder(File processedFolder) {
+    this.processedFolder = processedFolder;
+    set(P_PROCESSED_FOLDER, processedFolder!=null? processedFolder.getAbsolutePath(): null);
+  }
+
+  /**
+   * Gets quiet period.
+   * @return time in milliseconds a file has to remain unchanged before processing
+   */
+  public long getQuietPeriod() {
+    return quietPeriod;
+  }
+
+  /**
+   * Sets quiet period.
+   * @param quietPeriod time in milliseconds a file has to remain unchanged before processing
+   */
+  public void setQuietPeriod(long quietPeriod) {
+    this.quietPeriod = quietPeriod;
+    set(P_QUIET_PERIOD, Long.toString(quietPeriod));
+  }
   
 }
@@ -24,7 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
-import static com.esri.geoportal.harvester.sink.SinkConstants.P_DROP_FOLDER;
+import static com.esri.geoportal.harvester.sink.SinkConstants.*;
 
 /**
  * Sink connector.
@@ -65,6 +65,13 @@ public class SinkConnector implements InputConnector<InputBroker> {
         return bundle.getString("sink.hint");
       }
     });
+    args.add(new UITemplate.StringArgument(P_PROCESSED_FOLDER, bundle.getString("sink.processedFolder"), false){
+      @Override
+      public String getHint() {
+        return bundle.getString("sink.processedFolder.hint");
+      }
+    });
+    args.add(new UITemplate.IntegerArgument(P_QUIET_PERIOD, bundle.getString("sink.quietPeriod"), false, 1000));
     return new UITemplate(getType(), bundle.getString("sink"), args);
   }
 
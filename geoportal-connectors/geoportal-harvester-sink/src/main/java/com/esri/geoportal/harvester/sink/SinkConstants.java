@@ -20,4 +20,6 @@ package com.esri.geoportal.harvester.sink;
  */
 /*package*/ final class SinkConstants {
   public static final String P_DROP_FOLDER    = "sink-drop-folder";
+  public static final String P_PROCESSED_FOLDER = "sink-processed-folder";
+  public static final String P_QUIET_PERIOD   = "sink-quiet-period";
 }
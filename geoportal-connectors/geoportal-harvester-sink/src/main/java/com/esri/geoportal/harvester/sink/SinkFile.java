@@ -26,13 +26,18 @@ import java.net.URISyntaxException;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Date;
 import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Sink file.
  */
 /*package*/ class SinkFile {
+  private static final Logger LOG = LoggerFactory.getLogger(SinkFile.class);
+  
   private final SinkContext ctx;
   private final SinkBroker broker;
   private final Path file;
@@ -51,20 +56,26 @@ import org.apache.commons.io.IOUtils;
   /**
    * Reads content.
    * @return content reference
-   * @throws IOException if reading content fails
+   * @throws IOException if reading content fails; failure to dispose of the 
+   * file once read is only logged
    * @throws URISyntaxException if file url is an invalid URI
    */
   public SimpleDataReference readContent() throws IOException, URISyntaxException {
     Date lastModifiedDate = readLastModifiedDate();
     MimeType contentType = readContentType();
+    SimpleDataReference ref;
     try (InputStream input = attemptToOpenStream(ctx.attemptCount, ctx.attemptDelay);) {
-      SimpleDataReference ref = new SimpleDataReference(broker.getBrokerUri(), broker.getEntityDefinition().getLabel(), file.toAbsolutePath().toString(), lastModifiedDate, file.toUri(), broker.td.getSource().getRef(), broker.td.getRef());
+      ref = new SimpleDataReference(broker.getBrokerUri(), broker.getEntityDefinition().getLabel(), file.toAbsolutePath().toString(), lastModifiedDate, file.toUri(), broker.td.getSource().getRef(), broker.td.getRef());
       ref.addContext(contentType, IOUtils.toByteArray(input));
-      return ref;
-    } finally {
-      // once file is read, delete it
-      attemptToDeleteFile(ctx.attemptCount, ctx.attemptDelay);
     }
+    // once file is read, delete it or move it away; unreadable file stays in place
+    try {
+      attemptToDisposeFile(ctx.attemptCount, ctx.attemptDelay);
+    } catch (IOException ex) {
+      // content has been read already; failing here would get the file queued and published again
+      LOG.warn(String.format("Error disposing file: %s", file), ex);
+    }
+    return ref;
   }
   
   /**
@@ -97,16 +108,21 @@ import org.apache.commons.io.IOUtils;
   }
   
   /**
-   * Attempts to delete file
+   * Attempts to delete file or move it to the processed folder
    * @param attempts number of attempts
    * @param mills delay between consecutive attempts
    * @throws IOException if all attempts fail
    */
-  private void attemptToDeleteFile(int attempts, long mills) throws IOException {
+  private void attemptToDisposeFile(int attempts, long mills) throws IOException {
+    Path processedFolder = broker.getProcessedFolder();
     while (true) {
       attempts--;
       try {
-        Files.delete(file);
+        if (processedFolder!=null) {
+          Files.move(file, processedFolder.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+          Files.delete(file);
+        }
         return;
       } catch (FileSystemException ex) {
         // if not check if maximum number of attempts has been exhausted...
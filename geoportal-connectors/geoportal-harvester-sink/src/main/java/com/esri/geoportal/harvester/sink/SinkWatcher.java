@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.sink;
+
+import static com.esri.geoportal.commons.utils.CrlfUtils.formatForLog;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sink watcher. Observes drop folder and queues files ready to be processed.
+ * <p>
+ * Paths are taken directly from the watch events; a file becomes ready once 
+ * no event has been reported for it during the quiet period, which prevents
+ * picking up files still being written. The folder is listed only at start
+ * and whenever the watch service reports an overflow.
+ */
+/*package*/ class SinkWatcher implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(SinkWatcher.class);
+  private static final Pattern PATTERN = Pattern.compile(".*\\.xml$", Pattern.CASE_INSENSITIVE);
+  
+  private final Path dropPath;
+  private final long quietPeriod;
+  private final Map<Path,Long> pending = new HashMap<>();
+  private final BlockingQueue<Path> ready = new LinkedBlockingQueue<>();
+  private final Set<Path> queued = ConcurrentHashMap.newKeySet();
+  
+  private WatchService watchService;
+  private Thread watchThread;
+
+  /**
+   * Creates instance of the watcher.
+   * @param dropPath drop folder
+   * @param quietPeriod quiet period in milliseconds
+   */
+  public SinkWatcher(Path dropPath, long quietPeriod) {
+    this.dropPath = dropPath;
+    this.quietPeriod = Math.max(quietPeriod, 0);
+  }
+  
+  /**
+   * Starts watching the folder.
+   * @throws IOException if starting watch service fails
+   */
+  public void start() throws IOException {
+    watchService = FileSystems.getDefault().newWatchService();
+    dropPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    // files dropped before the watch service has been registered are ready at once
+    rescan(0L);
+    watchThread = new Thread(this::watch, String.format("Folder watching thread on %s", dropPath.toString()));
+    watchThread.start();
+  }
+  
+  /**
+   * Takes next file ready to be processed; waits if none is available.
+   * @return path of the file
+   * @throws InterruptedException if waiting has been interrupted
+   */
+  public Path take() throws InterruptedException {
+    return ready.take();
+  }
+  
+  /**
+   * Puts file back at the end of the queue to be processed again.
+   * @param path path of the file
+   */
+  public void retry(Path path) {
+    ready.offer(path);
+  }
+  
+  /**
+   * Marks file as processed; file will be accepted again if dropped again.
+   * @param path path of the file
+   */
+  public void done(Path path) {
+    queued.remove(path);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (watchThread != null) {
+      watchThread.interrupt();
+    }
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+  
+  private void watch() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey watchKey = pending.isEmpty()? watchService.take(): watchService.poll(quietPeriod, TimeUnit.MILLISECONDS);
+        long now = System.currentTimeMillis();
+        
+        if (watchKey != null) {
+          for (WatchEvent<?> event: watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+              LOG.debug(formatForLog("Events overflow on %s; rescanning folder.", dropPath));
+              rescan(now);
+            } else {
+              accept(dropPath.resolve((Path)event.context()), now);
+            }
+          }
+          if (!watchKey.reset()) {
+            LOG.warn(formatForLog("Drop folder no longer accessible: %s", dropPath));
+            break;
+          }
+        }
+        
+        promote(System.currentTimeMillis());
+      }
+    } catch (InterruptedException|ClosedWatchServiceException ex) {
+      // ignore
+    } catch (IOException ex) {
+      LOG.warn(formatForLog("Error watching drop folder: %s", dropPath), ex);
+    }
+  }
+  
+  private void rescan(long timestamp) throws IOException {
+    try (Stream<Path> paths = Files.list(dropPath)) {
+      paths.forEach(path -> accept(path, timestamp));
+    }
+    promote(System.currentTimeMillis());
+  }
+  
+  private void accept(Path path, long timestamp) {
+    if (PATTERN.matcher(path.toString()).matches() && !queued.contains(path)) {
+      pending.put(path, timestamp);
+    }
+  }
+  
+  private void promote(long now) {
+    for (Iterator<Map.Entry<Path,Long>> i = pending.entrySet().iterator(); i.hasNext();) {
+      Map.Entry<Path,Long> e = i.next();
+      if (now - e.getValue() >= quietPeriod) {
+        i.remove();
+        Path path = e.getKey();
+        if (Files.isRegularFile(path) && queued.add(path)) {
+          ready.offer(path);
+        }
+      }
+    }
+  }
+  
+  @Override
+  public String toString() {
+    return dropPath.toString();
+  }
+}
@@ -73,10 +73,10 @@ import org.slf4j.LoggerFactory;
     td = context.getTask().getTaskDefinition();
     CloseableHttpClient client = HttpClientBuilder.create().useSystemProperties().build();
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
-      httpClient = client;
+      httpClient = new BotsHttpClient(client, null, definition.getBotsConfig());
     } else {
       Bots bots = BotsUtils.readBots(definition.getBotsConfig(), client, definition.getHostUrl());
-      httpClient = new BotsHttpClient(client,bots);
+      httpClient = new BotsHttpClient(client, bots, definition.getBotsConfig());
     }
   }
 